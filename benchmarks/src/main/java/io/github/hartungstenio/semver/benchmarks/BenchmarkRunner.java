@@ -0,0 +1,50 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled.
+ * <p>
+ * Accepts the same arguments as the JMH command line. The allocation rate is
+ * reported for every benchmark, next to its throughput.
+ * 
+ * @author Christian Hartung
+ */
+public final class BenchmarkRunner {
+    
+    private BenchmarkRunner() {
+    }
+    
+    public static void main(final String[] args) throws Exception {
+        final CommandLineOptions cmd = new CommandLineOptions(args);
+        if(cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        
+        final OptionsBuilder builder = new OptionsBuilder();
+        if(!Arrays.asList(args).contains("-prof")) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        
+        final Options options = builder.parent(cmd).build();
+        new Runner(options).run();
+    }
+}
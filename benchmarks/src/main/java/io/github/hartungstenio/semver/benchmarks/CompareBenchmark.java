@@ -0,0 +1,194 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+
+/**
+ * Measures {@link SemVer#compareTo(SemVer)} and {@link SemVer#isCompatibleWith(SemVer)}.
+ * <p>
+ * Random pairs are usually decided by MAJOR or MINOR, while neighbours in a sorted
+ * corpus often share MAJOR.MINOR.PATCH and exercise the pre-release comparison.
+ * <p>
+ * The {@code release} benchmarks use the corpus without pre-release tags and build
+ * metadata, as most production versions are. {@code legacy} is the original
+ * {@code compareTo}, that subtracted the numbers, walked the tags with iterators, and
+ * parsed numeric tags from their text on every comparison.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompareBenchmark {
+    
+    private static final int SIZE = 1 << 14;
+    
+    private SemVer[] random;
+    
+    private SemVer[] sorted;
+    
+    private SemVer[] releases;
+    
+    private SemVer[] sortedReleases;
+    
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        this.random = Corpus.versions(SIZE);
+        this.sorted = this.random.clone();
+        Arrays.sort(this.sorted);
+        
+        this.releases = new SemVer[SIZE];
+        for(int i = 0; i < SIZE; i++) {
+            this.releases[i] = SemVer.of(this.random[i].getMajor(), this.random[i].getMinor(), this.random[i].getPatch());
+        }
+        this.sortedReleases = this.releases.clone();
+        Arrays.sort(this.sortedReleases);
+    }
+    
+    @Benchmark
+    public int compareRandomPairs() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.random[i].compareTo(this.random[(i + 1) & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public int compareNeighbours() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.sorted[i].compareTo(this.sorted[(i + 1) & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public boolean isCompatibleWithRandomPairs() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.random[i].isCompatibleWith(this.random[(i + 1) & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public boolean isCompatibleWithNeighbours() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.sorted[i].isCompatibleWith(this.sorted[(i + 1) & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public int compareReleaseRandomPairs() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.releases[i].compareTo(this.releases[(i + 1) & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public int compareReleaseNeighbours() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.sortedReleases[i].compareTo(this.sortedReleases[(i + 1) & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public int legacyCompareReleaseNeighbours() {
+        final int i = this.next++ & (SIZE - 1);
+        return legacyCompare(this.sortedReleases[i], this.sortedReleases[(i + 1) & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public int legacyCompareNeighbours() {
+        final int i = this.next++ & (SIZE - 1);
+        return legacyCompare(this.sorted[i], this.sorted[(i + 1) & (SIZE - 1)]);
+    }
+    
+    /**
+     * The original {@code compareTo}.
+     */
+    private static int legacyCompare(final SemVer a, final SemVer b) {
+        int cmp = a.getMajor() - b.getMajor();
+        if(cmp == 0) {
+            cmp = a.getMinor() - b.getMinor();
+            if(cmp == 0) {
+                cmp = a.getPatch() - b.getPatch();
+            }
+            
+            if(cmp == 0) {
+                cmp = Boolean.compare(b.isPreRelease(), a.isPreRelease());
+                
+                if(cmp == 0) {
+                    final Iterator<?> aIterator = a.getPreRelease().iterator();
+                    final Iterator<?> bIterator = b.getPreRelease().iterator();
+                    while(cmp == 0 && aIterator.hasNext() && bIterator.hasNext()) {
+                        final String aTag = aIterator.next().toString();
+                        final String bTag = bIterator.next().toString();
+                        cmp = legacyCompareTags(aTag, bTag);
+                    }
+                    
+                    if(cmp == 0) {
+                        if(aIterator.hasNext()) {
+                            cmp = 1;
+                        } else if(bIterator.hasNext()) {
+                            cmp = -1;
+                        }
+                    }
+                }
+            }
+        }
+        
+        return cmp;
+    }
+    
+    /**
+     * The original {@code compareTags}, that parsed numeric tags again on every comparison.
+     * Kept as it was, so it costs what the original did.
+     */
+    private static int legacyCompareTags(final String aTag, final String bTag) {
+        Integer aNum = null;
+        Integer bNum = null;
+        int cmp = 0;
+        
+        try {
+            aNum = Integer.parseUnsignedInt(aTag);
+        } catch(NumberFormatException e) { }
+        
+        try {
+            bNum = Integer.parseUnsignedInt(bTag);
+        } catch(NumberFormatException e) { }
+        
+        if(aNum != null && bNum != null) {
+            cmp = aNum.intValue() - bNum.intValue();
+        } else {
+            if(aNum != null) {
+                cmp = -aNum.intValue();
+            } else if(bNum != null) {
+                cmp = -bNum.intValue();
+            } else {
+                cmp = aTag.compareTo(bTag);
+            }
+        }
+        
+        return cmp;
+    }
+}
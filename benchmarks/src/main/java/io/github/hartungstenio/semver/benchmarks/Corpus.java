@@ -0,0 +1,149 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.Random;
+
+import io.github.hartungstenio.semver.SemVer;
+
+/**
+ * Generates synthetic version strings with a distribution similar to Maven Central.
+ * <p>
+ * Most artifacts have small MAJOR and MINOR versions, PATCH versions have a longer
+ * tail, about one version in six is a pre-release (alpha, beta, rc, milestones and
+ * snapshots) and a few carry build metadata. The generator is seeded, so every run
+ * measures the same corpus.
+ * 
+ * @author Christian Hartung
+ */
+public final class Corpus {
+    
+    /**
+     * The seed used by default.
+     */
+    public static final long DEFAULT_SEED = 0x5EED5EEDL;
+    
+    /**
+     * Pre-release names, with repetition to weight the more frequent ones.
+     */
+    private static final String[] PRE_RELEASE_NAMES = {
+            "SNAPSHOT", "SNAPSHOT", "SNAPSHOT", "rc", "rc", "beta", "beta", "alpha", "alpha", "M", "RC", "dev", "preview"
+    };
+    
+    /**
+     * Build metadata shapes.
+     */
+    private static final String[] BUILD_PREFIXES = { "build", "sha", "exp.sha", "ci" };
+    
+    private Corpus() {
+    }
+    
+    /**
+     * Generates version strings with the default seed.
+     * 
+     * @param size the number of versions
+     * @return the version strings
+     */
+    public static String[] strings(final int size) {
+        return strings(size, DEFAULT_SEED);
+    }
+    
+    /**
+     * Generates version strings.
+     * 
+     * @param size the number of versions
+     * @param seed the random seed
+     * @return the version strings
+     */
+    public static String[] strings(final int size, final long seed) {
+        final Random random = new Random(seed);
+        final String[] corpus = new String[size];
+        final StringBuilder buf = new StringBuilder();
+        
+        for(int i = 0; i < size; i++) {
+            buf.setLength(0);
+            buf.append(skewed(random, 0.35, 40)).append('.')
+                .append(skewed(random, 0.25, 60)).append('.')
+                .append(skewed(random, 0.15, 250));
+            
+            final int kind = random.nextInt(100);
+            if(kind < 17) {
+                final String name = PRE_RELEASE_NAMES[random.nextInt(PRE_RELEASE_NAMES.length)];
+                buf.append('-').append(name);
+                if(name.equals("M") || name.equals("RC")) {
+                    buf.append(1 + random.nextInt(9));
+                } else if(!name.equals("SNAPSHOT")) {
+                    buf.append('.').append(1 + skewed(random, 0.4, 20));
+                }
+            }
+            
+            if(random.nextInt(100) < 4) {
+                buf.append('+').append(BUILD_PREFIXES[random.nextInt(BUILD_PREFIXES.length)]).append('.')
+                    .append(Long.toHexString(random.nextLong() >>> 36));
+            }
+            
+            corpus[i] = buf.toString();
+        }
+        
+        return corpus;
+    }
+    
+    /**
+     * Generates versions with the default seed.
+     * 
+     * @param size the number of versions
+     * @return the versions
+     */
+    public static SemVer[] versions(final int size) {
+        return versions(size, DEFAULT_SEED);
+    }
+    
+    /**
+     * Generates versions.
+     * 
+     * @param size the number of versions
+     * @param seed the random seed
+     * @return the versions
+     */
+    public static SemVer[] versions(final int size, final long seed) {
+        return parse(strings(size, seed));
+    }
+    
+    /**
+     * Parses version strings.
+     * 
+     * @param strings the version strings
+     * @return the versions
+     */
+    public static SemVer[] parse(final String[] strings) {
+        final SemVer[] versions = new SemVer[strings.length];
+        for(int i = 0; i < strings.length; i++) {
+            versions[i] = SemVer.parse(strings[i]);
+        }
+        
+        return versions;
+    }
+    
+    /**
+     * Draws a number from a geometric-like distribution.
+     * 
+     * @param random the source of randomness
+     * @param p the probability of stopping at each step
+     * @param max the largest value
+     * @return a number between 0 and max
+     */
+    private static int skewed(final Random random, final double p, final int max) {
+        int value = 0;
+        while(value < max && random.nextDouble() > p) value++;
+        return value;
+    }
+}
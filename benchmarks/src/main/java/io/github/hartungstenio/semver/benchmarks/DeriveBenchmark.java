@@ -0,0 +1,85 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+
+/**
+ * Measures deriving new versions from existing ones.
+ * <p>
+ * The {@code of*} benchmarks build the same versions with {@link SemVer#of}, copying
+ * the tags, for comparison with the derivation methods that share them.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeriveBenchmark {
+    
+    private static final int SIZE = 1 << 14;
+    
+    private static final String BUILD = "b42";
+    
+    private SemVer[] versions;
+    
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        this.versions = Corpus.versions(SIZE);
+    }
+    
+    @Benchmark
+    public SemVer nextPatch() {
+        return this.versions[this.next++ & (SIZE - 1)].nextPatch();
+    }
+    
+    @Benchmark
+    public SemVer release() {
+        return this.versions[this.next++ & (SIZE - 1)].release();
+    }
+    
+    @Benchmark
+    public SemVer withBuild() {
+        return this.versions[this.next++ & (SIZE - 1)].withBuild(BUILD);
+    }
+    
+    @Benchmark
+    public SemVer ofWithBuild() {
+        final SemVer version = this.versions[this.next++ & (SIZE - 1)];
+        return SemVer.of(version.getMajor(), version.getMinor(), version.getPatch(),
+                version.getPreRelease(), Collections.singletonList(BUILD));
+    }
+    
+    @Benchmark
+    public SemVer incrementPreRelease() {
+        return this.versions[this.next++ & (SIZE - 1)].incrementPreRelease();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.Identifier;
+import io.github.hartungstenio.semver.SemVer;
+
+/**
+ * Measures formatting versions to text.
+ * <p>
+ * {@code toString} caches its result, so these benchmarks format versions whose
+ * string was never requested. {@code legacy} is the original {@code toString},
+ * that appended every tag and a dot, and deleted the trailing dots. The
+ * {@code formatTo} benchmarks reuse their output, and should not allocate at all:
+ * check {@code gc.alloc.rate.norm}.
+ *
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatBenchmark {
+
+    private static final int SIZE = 1 << 14;
+
+    private SemVer[] versions;
+
+    private StringBuilder builder;
+
+    private ByteBuffer buffer;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        this.versions = Corpus.parse(Corpus.strings(SIZE));
+        this.builder = new StringBuilder(256);
+        this.buffer = ByteBuffer.allocateDirect(256);
+    }
+
+    @Benchmark
+    public String legacy() {
+        final SemVer version = this.versions[this.next++ & (SIZE - 1)];
+        final StringBuilder buf = new StringBuilder();
+
+        buf.append(version.getMajor()).append('.').append(version.getMinor()).append('.').append(version.getPatch());
+
+        if(version.getPreReleaseCount() != 0) {
+            buf.append('-');
+            for(Identifier pr : version.getPreRelease()) {
+                buf.append(pr).append('.');
+            }
+
+            buf.deleteCharAt(buf.length() - 1);
+        }
+
+        if(version.getBuildCount() != 0) {
+            buf.append('+');
+            for(Identifier bm : version.getBuild()) {
+                buf.append(bm).append('.');
+            }
+
+            buf.deleteCharAt(buf.length() - 1);
+        }
+
+        return buf.toString();
+    }
+
+    @Benchmark
+    public int formattedLength() {
+        return this.versions[this.next++ & (SIZE - 1)].formattedLength();
+    }
+
+    @Benchmark
+    public StringBuilder formatToBuilder() {
+        this.builder.setLength(0);
+        return this.versions[this.next++ & (SIZE - 1)].formatTo(this.builder);
+    }
+
+    @Benchmark
+    public ByteBuffer formatToBuffer() {
+        this.buffer.clear();
+        this.versions[this.next++ & (SIZE - 1)].formatTo(this.buffer);
+        return this.buffer;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+
+/**
+ * Measures {@link SemVer#equals(Object)}, {@link SemVer#hashCode()} and {@link SemVer#toString()}.
+ * <p>
+ * Equality is checked between distinct but equal instances, as happens when a parsed
+ * version is looked up in a map.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashBenchmark {
+    
+    private static final int SIZE = 1 << 14;
+    
+    private SemVer[] versions;
+    
+    private SemVer[] copies;
+    
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        final String[] strings = Corpus.strings(SIZE);
+        this.versions = Corpus.parse(strings);
+        this.copies = Corpus.parse(strings);
+    }
+    
+    @Benchmark
+    public int hashCodes() {
+        return this.versions[this.next++ & (SIZE - 1)].hashCode();
+    }
+    
+    @Benchmark
+    public boolean equalsCopy() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.versions[i].equals(this.copies[i]);
+    }
+    
+    @Benchmark
+    public boolean equalsOther() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.versions[i].equals(this.copies[(i + 1) & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public String toStrings() {
+        return this.versions[this.next++ & (SIZE - 1)].toString();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+
+/**
+ * Measures {@link HashMap} lookups and inserts keyed by {@link SemVer}.
+ * <p>
+ * Lookups use distinct but equal instances, so every hit goes through
+ * {@link SemVer#hashCode()} and {@link SemVer#equals(Object)}.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashMapBenchmark {
+    
+    private static final int SIZE = 1 << 14;
+    
+    private SemVer[] versions;
+    
+    private SemVer[] copies;
+    
+    private Map<SemVer, Integer> map;
+    
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        final String[] strings = Corpus.strings(SIZE);
+        this.versions = Corpus.parse(strings);
+        this.copies = Corpus.parse(strings);
+        this.map = new HashMap<>();
+        for(int i = 0; i < SIZE; i++) {
+            this.map.put(this.versions[i], i);
+        }
+    }
+    
+    @Benchmark
+    public Integer get() {
+        return this.map.get(this.copies[this.next++ & (SIZE - 1)]);
+    }
+    
+    @Benchmark
+    public Integer put() {
+        final int i = this.next++ & (SIZE - 1);
+        return this.map.put(this.copies[i], i);
+    }
+    
+    @Benchmark
+    public Map<SemVer, Integer> build() {
+        final Map<SemVer, Integer> result = new HashMap<>();
+        for(int i = 0; i < SIZE; i++) {
+            result.put(this.copies[i], i);
+        }
+        
+        return result;
+    }
+}
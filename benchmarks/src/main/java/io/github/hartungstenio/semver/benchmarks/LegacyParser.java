@@ -0,0 +1,80 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.SemVerException;
+
+/**
+ * The original {@code SemVer.parse} implementation, kept as a baseline for comparisons.
+ * 
+ * @author Christian Hartung
+ */
+final class LegacyParser {
+    
+    private LegacyParser() {
+    }
+    
+    /**
+     * Parses a version copying the text to a {@code char[]} and splitting it in substrings.
+     * 
+     * @param versionStr the text to parse, not null
+     * @return the parsed version, not null
+     */
+    static SemVer parse(final String versionStr) {
+        if(versionStr == null) throw new SemVerException("null");
+        if(versionStr.isEmpty()) throw new SemVerException("empty");
+        
+        final char[] versionChars = versionStr.toCharArray();
+        int begin = 0;
+        int current = 0;
+        int len = versionChars.length;
+        
+        boolean build = false;
+        boolean pr = false;
+        
+        Integer major = null;
+        Integer minor = null;
+        Integer patch = null;
+        List<Object> buildMetadata = new ArrayList<>();
+        List<Object> preReleaseIdentifiers = new ArrayList<>();
+        
+        while(++current <= len) {
+            if(current == len || versionChars[current] == '.' || versionChars[current]== '-' || versionChars[current] == '+') {
+                String buf = String.valueOf(versionChars, begin, current - begin);
+                begin = current + 1;
+                
+                if(pr) {
+                    preReleaseIdentifiers.add(buf);
+                } else if(build) {
+                    buildMetadata.add(buf);
+                } else {
+                    int val = Integer.parseInt(buf);
+                    if(major == null) major = val;
+                    else if(minor == null) minor = val;
+                    else if(patch == null) patch = val;
+                    else throw new SemVerException(versionStr);
+                }
+                
+                if(current < len && versionChars[current] != '.') {
+                    pr = (versionChars[current]== '-');
+                    build = (versionChars[current] == '+');
+                }
+            }
+        }
+
+        return SemVer.of(major, minor, patch, preReleaseIdentifiers, buildMetadata);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.SemVerCodec;
+import io.github.hartungstenio.semver.SemVerList;
+
+/**
+ * Measures decoding a sorted history of 4,096 versions.
+ * <p>
+ * {@code text} parses the history from lines of text, and {@code compact} decodes one
+ * {@link SemVerCodec compact} record after the other. {@code list} iterates a
+ * {@link SemVerList}, and {@code listGet} reads a random version from it. The scores
+ * are per version. The size of each encoding is listed in the README.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListBenchmark {
+    
+    private static final int SIZE = 1 << 12;
+    
+    private byte[] text;
+    
+    private byte[] compact;
+    
+    private byte[] list;
+    
+    private SemVerList decoded;
+    
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        final SemVer[] versions = Corpus.versions(SIZE);
+        Arrays.sort(versions);
+        
+        final StringBuilder lines = new StringBuilder();
+        final ByteBuffer records = ByteBuffer.allocate(SIZE * 64);
+        for(SemVer version : versions) {
+            lines.append(version).append('\n');
+            SemVerCodec.encode(version, records);
+        }
+        
+        this.text = lines.toString().getBytes(StandardCharsets.US_ASCII);
+        this.compact = Arrays.copyOf(records.array(), records.position());
+        this.list = SemVerList.encode(Arrays.asList(versions));
+        this.decoded = SemVerList.decode(this.list);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int text() {
+        int hash = 0;
+        int start = 0;
+        for(int i = 0; i < this.text.length; i++) {
+            if(this.text[i] == '\n') {
+                hash += SemVer.parse(new String(this.text, start, i - start, StandardCharsets.US_ASCII)).getPatch();
+                start = i + 1;
+            }
+        }
+        return hash;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int compact() {
+        final ByteBuffer buffer = ByteBuffer.wrap(this.compact);
+        int hash = 0;
+        while(buffer.hasRemaining()) {
+            hash += SemVerCodec.decode(buffer).getPatch();
+        }
+        return hash;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int list() {
+        int hash = 0;
+        for(SemVer version : SemVerList.decode(this.list)) {
+            hash += version.getPatch();
+        }
+        return hash;
+    }
+    
+    @Benchmark
+    public SemVer listGet() {
+        this.next = this.next * 31 + 7;
+        return this.decoded.get((this.next >>> 1) & (SIZE - 1));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.SemVerParser;
+
+/**
+ * Compares {@link SemVer#parse(String)} with the original parser, and with the
+ * {@link SemVerParser#STRICT strict} and {@link SemVerParser#LENIENT lenient} parsers.
+ * <p>
+ * The {@code parse*} benchmarks use a fixed version string, and the {@code *Corpus}
+ * ones walk a synthetic corpus, one version per operation.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+    
+    @Param({ "1.0.0", "2.13.107", "1.0.0-alpha.1", "1.0.0-beta+exp.sha.5114f85" })
+    public String version;
+    
+    private String[] corpus;
+    
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        this.corpus = Corpus.strings(1 << 14);
+    }
+    
+    @Benchmark
+    public SemVer parse() {
+        return SemVer.parse(this.version);
+    }
+    
+    @Benchmark
+    public SemVer legacyParse() {
+        return LegacyParser.parse(this.version);
+    }
+    
+    @Benchmark
+    public SemVer parseStrict() {
+        return SemVerParser.STRICT.parse(this.version);
+    }
+    
+    @Benchmark
+    public SemVer parseCorpus() {
+        return SemVer.parse(nextString());
+    }
+    
+    @Benchmark
+    public SemVer legacyParseCorpus() {
+        return LegacyParser.parse(nextString());
+    }
+    
+    @Benchmark
+    public SemVer strictParseCorpus() {
+        return SemVerParser.STRICT.parse(nextString());
+    }
+    
+    @Benchmark
+    public SemVer lenientParseCorpus() {
+        return SemVerParser.LENIENT.parse(nextString());
+    }
+    
+    private String nextString() {
+        final String[] strings = this.corpus;
+        return strings[this.next++ & (strings.length - 1)];
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.ConcurrentVersionRegistry;
+import io.github.hartungstenio.semver.SemVer;
+
+/**
+ * Measures latest-version lookups while versions are published concurrently.
+ * <p>
+ * Each group runs seven reader threads and one publisher thread over 64 packages
+ * of 256 versions each. {@code locked*} is the baseline: a {@link TreeSet} per package,
+ * guarded by a single lock. {@code registry*} uses {@link ConcurrentVersionRegistry}.
+ * The publisher alternates between publishing and retracting a version, so the
+ * sizes of the packages stay the same.
+ *
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class RegistryBenchmark {
+
+    private static final int PACKAGES = 64;
+
+    private static final int VERSIONS = 256;
+
+    private static final String[] NAMES = new String[PACKAGES];
+
+    static {
+        for(int i = 0; i < PACKAGES; i++) {
+            NAMES[i] = "package" + i;
+        }
+    }
+
+    private ConcurrentVersionRegistry registry;
+
+    private Map<String, NavigableSet<SemVer>> locked;
+
+    private SemVer published;
+
+    @Setup
+    public void setUp() {
+        final SemVer[] versions = Corpus.versions(VERSIONS);
+        this.registry = new ConcurrentVersionRegistry();
+        this.locked = new HashMap<>();
+        for(String name : NAMES) {
+            final NavigableSet<SemVer> set = new TreeSet<>(SemVer.BUILD_ORDER);
+            for(SemVer version : versions) {
+                this.registry.publish(name, version);
+                set.add(version);
+            }
+            this.locked.put(name, set);
+        }
+
+        this.published = SemVer.of(1, 0, 0, "benchmark");
+    }
+
+    /**
+     * The package each thread reads or writes next.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        String name() {
+            return NAMES[this.next++ & (PACKAGES - 1)];
+        }
+    }
+
+    @Benchmark
+    @Group("registry")
+    @GroupThreads(7)
+    public SemVer registryRead(final Cursor cursor) {
+        return this.registry.latestStable(cursor.name());
+    }
+
+    @Benchmark
+    @Group("registry")
+    @GroupThreads(1)
+    public boolean registryWrite(final Cursor cursor) {
+        final String name = cursor.name();
+        return this.registry.publish(name, this.published) || this.registry.retract(name, this.published);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(7)
+    public SemVer lockedRead(final Cursor cursor) {
+        final String name = cursor.name();
+        synchronized(this.locked) {
+            for(SemVer version : this.locked.get(name).descendingSet()) {
+                if(!version.isPreRelease()) return version;
+            }
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public boolean lockedWrite(final Cursor cursor) {
+        final String name = cursor.name();
+        synchronized(this.locked) {
+            final NavigableSet<SemVer> set = this.locked.get(name);
+            return set.add(this.published) || set.remove(this.published);
+        }
+    }
+}
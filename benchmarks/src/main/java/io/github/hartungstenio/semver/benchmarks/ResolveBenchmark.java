@@ -0,0 +1,103 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.Resolver;
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.VersionRange;
+
+/**
+ * Measures resolving a synthetic dependency graph.
+ * <p>
+ * Each package has versions {@code 1.0.0} to {@code 2.4.0}, and each version depends
+ * on up to four of the hundred packages created before it, with a caret range on its
+ * own MAJOR version. {@code crossMajorPercent} of the dependencies ask for the other
+ * MAJOR version instead, so some of the newest versions are incompatible with each
+ * other and the resolver has to backtrack. The requirements are the last packages
+ * created, and most of the graph is reachable from them.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResolveBenchmark {
+    
+    @Param({ "1000", "10000" })
+    private int packages;
+    
+    @Param({ "0", "5" })
+    private int crossMajorPercent;
+    
+    private Resolver.Builder builder;
+    
+    private Resolver resolver;
+    
+    private Map<String, VersionRange> requirements;
+    
+    @Setup
+    public void setUp() {
+        final Random random = new Random(Corpus.DEFAULT_SEED);
+        this.builder = Resolver.builder();
+        for(int i = 0; i < this.packages; i++) {
+            for(int major = 1; major <= 2; major++) {
+                for(int minor = 0; minor < 5; minor++) {
+                    final Map<String, VersionRange> dependencies = new LinkedHashMap<>();
+                    for(int d = i == 0 ? 0 : random.nextInt(5); d > 0; d--) {
+                        final int target = i - 1 - random.nextInt(Math.min(i, 100));
+                        final int targetMajor = random.nextInt(100) < this.crossMajorPercent ? 3 - major : major;
+                        dependencies.put("p" + target, VersionRange.parse("^" + targetMajor + "." + random.nextInt(5) + ".0"));
+                    }
+                    this.builder.add("p" + i, SemVer.of(major, minor, 0), dependencies);
+                }
+            }
+        }
+        
+        this.requirements = new LinkedHashMap<>();
+        for(int i = this.packages - 1; i >= this.packages - 20; i--) {
+            this.requirements.put("p" + i, VersionRange.all());
+        }
+        
+        this.resolver = this.builder.build();
+        this.resolver.resolve(this.requirements);
+    }
+    
+    @Benchmark
+    public Map<String, SemVer> resolve() {
+        return this.resolver.resolve(this.requirements);
+    }
+    
+    @Benchmark
+    public Map<String, SemVer> buildAndResolve() {
+        return this.builder.build().resolve(this.requirements);
+    }
+}
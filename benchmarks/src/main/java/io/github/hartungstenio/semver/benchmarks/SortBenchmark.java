@@ -0,0 +1,89 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.SemVers;
+
+/**
+ * Measures sorting large lists of versions, and finding the newest one.
+ * <p>
+ * Each sort works on a fresh copy of the shuffled corpus, so the cost of the copy
+ * is included in the results.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+    
+    @Param({ "1000", "100000", "500000" })
+    public int size;
+    
+    private SemVer[] versions;
+    
+    @Setup
+    public void setUp() {
+        this.versions = Corpus.versions(this.size);
+    }
+    
+    @Benchmark
+    public SemVer[] sort() {
+        final SemVer[] copy = this.versions.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+    
+    @Benchmark
+    public SemVer[] arraysParallelSort() {
+        final SemVer[] copy = this.versions.clone();
+        Arrays.parallelSort(copy);
+        return copy;
+    }
+    
+    @Benchmark
+    public SemVer[] parallelSort() {
+        final SemVer[] copy = this.versions.clone();
+        SemVers.parallelSort(copy);
+        return copy;
+    }
+    
+    @Benchmark
+    public SemVer collectionsMax() {
+        return Collections.max(Arrays.asList(this.versions));
+    }
+    
+    @Benchmark
+    public SemVer max() {
+        return SemVers.max(this.versions);
+    }
+}
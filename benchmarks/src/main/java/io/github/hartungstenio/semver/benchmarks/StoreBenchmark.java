@@ -0,0 +1,139 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.SemVerStore;
+import io.github.hartungstenio.semver.VersionIndex;
+
+/**
+ * Measures reading a catalogue of 1,024 packages of 1,024 versions each.
+ * <p>
+ * {@code parse*} is the baseline: the catalogue is a text file with one
+ * {@code name version} per line, parsed into a {@link VersionIndex} per package.
+ * {@code store*} reads the same catalogue from a {@link SemVerStore}. The
+ * {@code open} benchmarks load the whole catalogue, and the {@code floor}
+ * benchmarks look up one version in a catalogue already loaded.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StoreBenchmark {
+    
+    private static final int PACKAGES = 1 << 10;
+    
+    private static final int VERSIONS = 1 << 10;
+    
+    private Path text;
+    
+    private Path file;
+    
+    private String[] names;
+    
+    private SemVer[] probes;
+    
+    private Map<String, VersionIndex> parsed;
+    
+    private SemVerStore store;
+    
+    private int next;
+    
+    @Setup
+    public void setUp() throws IOException {
+        final SemVer[] versions = Corpus.versions(VERSIONS);
+        this.names = new String[PACKAGES];
+        this.text = Files.createTempFile("catalogue", ".txt");
+        this.file = Files.createTempFile("catalogue", ".svs");
+        
+        final SemVerStore.Writer writer = SemVerStore.writer();
+        final StringBuilder lines = new StringBuilder();
+        for(int i = 0; i < PACKAGES; i++) {
+            this.names[i] = "package" + i;
+            for(SemVer version : versions) {
+                writer.add(this.names[i], version);
+                lines.append(this.names[i]).append(' ').append(version).append('\n');
+            }
+        }
+        writer.writeTo(this.file);
+        Files.write(this.text, lines.toString().getBytes("US-ASCII"));
+        
+        this.probes = Corpus.versions(PACKAGES, Corpus.DEFAULT_SEED + 1);
+        this.parsed = parseText();
+        this.store = SemVerStore.open(this.file);
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.text);
+        Files.deleteIfExists(this.file);
+    }
+    
+    private Map<String, VersionIndex> parseText() throws IOException {
+        final Map<String, VersionIndex.Builder> builders = new HashMap<>();
+        for(String line : Files.readAllLines(this.text)) {
+            final int space = line.indexOf(' ');
+            builders.computeIfAbsent(line.substring(0, space), key -> VersionIndex.builder())
+                    .add(SemVer.parse(line.substring(space + 1)));
+        }
+        
+        final Map<String, VersionIndex> result = new HashMap<>();
+        builders.forEach((name, builder) -> result.put(name, builder.build()));
+        return result;
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, VersionIndex> parseOpen() throws IOException {
+        return parseText();
+    }
+    
+    @Benchmark
+    public SemVerStore storeOpen() throws IOException {
+        return SemVerStore.open(this.file);
+    }
+    
+    @Benchmark
+    public SemVer parseFloor() {
+        final int i = this.next++ & (PACKAGES - 1);
+        return this.parsed.get(this.names[i]).floor(this.probes[i]);
+    }
+    
+    @Benchmark
+    public SemVer storeFloor() {
+        final int i = this.next++ & (PACKAGES - 1);
+        return this.store.floor(this.names[i], this.probes[i]);
+    }
+}
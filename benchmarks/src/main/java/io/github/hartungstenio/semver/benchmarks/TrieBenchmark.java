@@ -0,0 +1,104 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.VersionTrie;
+
+/**
+ * Measures looking up a partial version in a catalogue of 1,048,576 versions.
+ * <p>
+ * {@code scanFind} is the baseline: every version is formatted and tested with
+ * {@code startsWith}, and the matches are sorted newest first. {@code trieFind} lists
+ * the same matches from a {@link VersionTrie}, {@code trieTop} only the ten newest,
+ * and {@code trieLatest} only the highest.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrieBenchmark {
+    
+    private static final int SIZE = 1 << 20;
+    
+    @Param({ "1", "1.4", "1.4.2-rc" })
+    public String partial;
+    
+    private SemVer[] versions;
+    
+    private VersionTrie trie;
+    
+    @Setup
+    public void setUp() {
+        this.versions = Corpus.versions(SIZE);
+        this.trie = new VersionTrie();
+        this.trie.addAll(Arrays.asList(this.versions));
+    }
+    
+    private List<SemVer> scan() {
+        // the dot keeps 1.4 from matching 1.40.0, as the trie does
+        final String prefix = this.partial + ".";
+        final List<SemVer> matches = new ArrayList<>();
+        for(SemVer version : this.versions) {
+            final String text = version.toString();
+            if(text.startsWith(prefix) || text.startsWith(this.partial) && text.length() > this.partial.length() && "-+".indexOf(text.charAt(this.partial.length())) >= 0) {
+                matches.add(version);
+            }
+        }
+        
+        matches.sort(Collections.reverseOrder());
+        return matches;
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<SemVer> scanFind() {
+        return scan();
+    }
+    
+    @Benchmark
+    public List<SemVer> trieFind() {
+        return this.trie.find(this.partial);
+    }
+    
+    @Benchmark
+    public List<SemVer> trieTop() {
+        return this.trie.find(this.partial, 10);
+    }
+    
+    @Benchmark
+    public SemVer trieLatest() {
+        return this.trie.latest(this.partial);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.SemVers;
+
+/**
+ * Measures finding the upgrades of 200,000 installed versions of 1,000 packages, with
+ * 256 available versions each.
+ * <p>
+ * {@code pairwise} is the baseline: every installed version is checked against every
+ * available version of its package, with {@code isCompatibleWith} and
+ * {@code compareTo}. {@code upgrades} calls {@link SemVers#upgrades}.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UpgradeBenchmark {
+    
+    private static final int ENTRIES = 200_000;
+    
+    private static final int PACKAGES = 1_000;
+    
+    private static final int VERSIONS = 256;
+    
+    private String[] packages;
+    
+    private SemVer[] installed;
+    
+    private Map<String, List<SemVer>> available;
+    
+    private Map<String, SemVer> thresholds;
+    
+    @Setup
+    public void setUp() {
+        final Random random = new Random(Corpus.DEFAULT_SEED);
+        this.available = new HashMap<>();
+        this.thresholds = new HashMap<>();
+        for(int p = 0; p < PACKAGES; p++) {
+            final SemVer[] versions = Corpus.versions(VERSIONS, Corpus.DEFAULT_SEED + p);
+            this.available.put("package" + p, Arrays.asList(versions));
+            this.thresholds.put("package" + p, versions[random.nextInt(VERSIONS)]);
+        }
+        
+        this.packages = new String[ENTRIES];
+        this.installed = new SemVer[ENTRIES];
+        for(int i = 0; i < ENTRIES; i++) {
+            this.packages[i] = "package" + random.nextInt(PACKAGES);
+            this.installed[i] = this.available.get(this.packages[i]).get(random.nextInt(VERSIONS));
+        }
+    }
+    
+    @Benchmark
+    public SemVer[][] pairwise() {
+        final SemVer[][] result = new SemVer[ENTRIES][];
+        for(int i = 0; i < ENTRIES; i++) {
+            final SemVer version = this.installed[i];
+            final SemVer threshold = this.thresholds.get(this.packages[i]);
+            SemVer latest = null;
+            SemVer compatible = null;
+            SemVer minimal = null;
+            for(SemVer candidate : this.available.get(this.packages[i])) {
+                if(latest == null || candidate.compareTo(latest) >= 0) latest = candidate;
+                if(candidate.isCompatibleWith(version) && (compatible == null || candidate.compareTo(compatible) >= 0)) compatible = candidate;
+                if(candidate.compareTo(version) > 0 && candidate.compareTo(threshold) >= 0 && (minimal == null || candidate.compareTo(minimal) < 0)) {
+                    minimal = candidate;
+                }
+            }
+            result[i] = new SemVer[] { latest, compatible, minimal };
+        }
+        
+        return result;
+    }
+    
+    @Benchmark
+    public SemVers.Upgrade[] upgrades() {
+        return SemVers.upgrades(this.packages, this.installed, this.available, this.thresholds);
+    }
+}
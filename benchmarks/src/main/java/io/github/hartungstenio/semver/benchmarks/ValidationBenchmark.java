@@ -0,0 +1,89 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.hartungstenio.semver.ParseResult;
+import io.github.hartungstenio.semver.SemVer;
+import io.github.hartungstenio.semver.SemVerException;
+
+/**
+ * Measures validating a feed where part of the versions are malformed.
+ * <p>
+ * {@code parse} catches the exception thrown for each malformed version, while
+ * {@code tryParse} reuses a single {@link ParseResult}.
+ * 
+ * @author Christian Hartung
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+    
+    private static final int SIZE = 1 << 14;
+    
+    private static final String[] MALFORMED = { "v1.0.0", "1.x", "1.2", "1.2.3.4", "latest", "1.0.0.RELEASE", "" };
+    
+    /**
+     * The percentage of malformed versions in the feed.
+     */
+    @Param({ "0", "8", "50" })
+    public int malformedPercent;
+    
+    private String[] feed;
+    
+    private final ParseResult result = new ParseResult();
+    
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        final Random random = new Random(Corpus.DEFAULT_SEED);
+        this.feed = Corpus.strings(SIZE);
+        for(int i = 0; i < SIZE; i++) {
+            if(random.nextInt(100) < this.malformedPercent) {
+                this.feed[i] = MALFORMED[random.nextInt(MALFORMED.length)];
+            }
+        }
+    }
+    
+    @Benchmark
+    public SemVer parse() {
+        try {
+            return SemVer.parse(this.feed[this.next++ & (SIZE - 1)]);
+        } catch(SemVerException e) {
+            return null;
+        }
+    }
+    
+    @Benchmark
+    public SemVer tryParse() {
+        return SemVer.tryParse(this.feed[this.next++ & (SIZE - 1)], this.result) ? this.result.getVersion() : null;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable {@code CharSequence} view over a region of ASCII bytes.
+ * <p>
+ * Allows parsing versions straight from a {@code ByteBuffer}, without decoding
+ * the bytes to a {@code String} first. Bytes outside the ASCII range are read
+ * as ISO-8859-1 characters.
+ * 
+ * @implSpec
+ * This class is mutable and intended for use in a single thread.
+ * 
+ * @author Christian Hartung
+ */
+final class AsciiSequence implements CharSequence {
+    
+    /**
+     * The viewed bytes, accessed by absolute position.
+     */
+    private ByteBuffer buffer;
+    
+    /**
+     * Position of the first byte of the view.
+     */
+    private int start;
+    
+    /**
+     * Number of bytes in the view.
+     */
+    private int length;
+    
+    /**
+     * Points this view to a region of a buffer.
+     * 
+     * @param buffer the buffer, not null
+     * @param start the position of the first byte
+     * @param end the position after the last byte
+     * @return this view
+     */
+    AsciiSequence reset(final ByteBuffer buffer, final int start, final int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.length = end - start;
+        return this;
+    }
+    
+    @Override
+    public int length() {
+        return this.length;
+    }
+    
+    @Override
+    public char charAt(final int index) {
+        if(index < 0 || index >= this.length) throw new IndexOutOfBoundsException(Integer.toString(index));
+        return (char)(this.buffer.get(this.start + index) & 0xFF);
+    }
+    
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if(start < 0 || end > this.length || start > end) throw new IndexOutOfBoundsException(start + ", " + end);
+        return text(this.start + start, this.start + end);
+    }
+    
+    @Override
+    public String toString() {
+        return text(this.start, this.start + this.length);
+    }
+    
+    /**
+     * Decodes a region of the buffer.
+     * 
+     * @param from the absolute position of the first byte
+     * @param to the absolute position after the last byte
+     * @return the decoded text, not null
+     */
+    private String text(final int from, final int to) {
+        final byte[] bytes = new byte[to - from];
+        for(int i = 0; i < bytes.length; i++) {
+            bytes[i] = this.buffer.get(from + i);
+        }
+        
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
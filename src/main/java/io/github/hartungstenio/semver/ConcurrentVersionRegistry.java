@@ -0,0 +1,201 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A registry of the versions of many packages, updated and read concurrently.
+ * <p>
+ * Each package has a sorted set of versions, published and retracted from any
+ * thread, and read by many others:
+ * <pre>
+ *   ConcurrentVersionRegistry registry = new ConcurrentVersionRegistry();
+ *   registry.publish("lib", SemVer.parse("1.2.0"));
+ *   registry.publish("lib", SemVer.parse("2.0.0-rc.1"));
+ *   registry.latest("lib");                                      // 2.0.0-rc.1
+ *   registry.latestStable("lib");                                // 1.2.0
+ *   registry.latestCompatibleWith("lib", SemVer.parse("1.0.0")); // 1.2.0
+ * </pre>
+ * <p>
+ * The versions of a package are kept in an immutable {@link VersionIndex}, and an
+ * update publishes a new index, copied from the current one, with a compare-and-set.
+ * A reader takes the index published at that moment, so it never blocks, never
+ * retries, and always sees a consistent set of versions, even when reading more than
+ * once from the {@link #versions(String) snapshot}. The latest and latest stable
+ * versions are kept by the index, and the other lookups are binary searches.
+ * <p>
+ * Copying makes updates O(n) in the number of versions of the package, which suits
+ * registries that are read much more often than they are published to. Updates of
+ * different packages never contend with each other.
+ * 
+ * @implSpec
+ * This class is thread-safe. Reads are lock-free, and wait-free once the package
+ * is known.
+ * 
+ * @author Christian Hartung
+ */
+public final class ConcurrentVersionRegistry {
+    
+    /**
+     * The versions of each package.
+     */
+    private final ConcurrentHashMap<String, AtomicReference<VersionIndex>> packages = new ConcurrentHashMap<>();
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Adds a version to a package, creating the package if needed.
+     * 
+     * @param name the name of the package, not null
+     * @param version the version to add, not null
+     * @return true if the version was added, false if the package already had it
+     */
+    public boolean publish(final String name, final SemVer version) {
+        Objects.requireNonNull(version, "Invalid version");
+        
+        final AtomicReference<VersionIndex> ref = slot(name);
+        for(;;) {
+            final VersionIndex current = ref.get();
+            if(current.contains(version)) return false;
+            if(ref.compareAndSet(current, current.with(version))) return true;
+        }
+    }
+    
+    /**
+     * Adds versions to a package, creating the package if needed.
+     * <p>
+     * All the versions are published at once: readers either see none or all of them.
+     * 
+     * @param name the name of the package, not null
+     * @param versions the versions to add, not null
+     * @return true if any version was added
+     * @throws NullPointerException if any version is null
+     */
+    public boolean publishAll(final String name, final Collection<SemVer> versions) {
+        final Set<SemVer> distinct = new LinkedHashSet<>(versions);
+        if(distinct.contains(null)) throw new NullPointerException("Invalid version");
+        
+        final AtomicReference<VersionIndex> ref = slot(name);
+        for(;;) {
+            final VersionIndex current = ref.get();
+            final VersionIndex.Builder builder = current.toBuilder();
+            boolean changed = false;
+            for(SemVer version : distinct) {
+                if(!current.contains(version)) {
+                    builder.add(version);
+                    changed = true;
+                }
+            }
+            
+            if(!changed) return false;
+            if(ref.compareAndSet(current, builder.build())) return true;
+        }
+    }
+    
+    /**
+     * Removes a version from a package.
+     * <p>
+     * The package is kept, even without versions.
+     * 
+     * @param name the name of the package, not null
+     * @param version the version to remove, not null
+     * @return true if the version was removed, false if the package did not have it
+     */
+    public boolean retract(final String name, final SemVer version) {
+        Objects.requireNonNull(version, "Invalid version");
+        
+        final AtomicReference<VersionIndex> ref = this.packages.get(name);
+        if(ref == null) return false;
+        
+        for(;;) {
+            final VersionIndex current = ref.get();
+            final VersionIndex updated = current.without(version);
+            if(updated == current) return false;
+            if(ref.compareAndSet(current, updated)) return true;
+        }
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the names of the packages in the registry.
+     * 
+     * @return an unmodifiable view of the names, not null
+     */
+    public Set<String> packages() {
+        return Collections.unmodifiableSet(this.packages.keySet());
+    }
+    
+    /**
+     * Gets the versions of a package, as published at the moment of the call.
+     * <p>
+     * Later updates do not change the returned index.
+     * 
+     * @param name the name of the package, not null
+     * @return the versions, empty if the package is not in the registry, not null
+     */
+    public VersionIndex versions(final String name) {
+        final AtomicReference<VersionIndex> ref = this.packages.get(name);
+        return ref == null ? VersionIndex.empty() : ref.get();
+    }
+    
+    /**
+     * Gets the highest version of a package.
+     * 
+     * @param name the name of the package, not null
+     * @return the highest version, null if the package has no versions
+     */
+    public SemVer latest(final String name) {
+        return versions(name).latest();
+    }
+    
+    /**
+     * Gets the highest version of a package that is not a pre-release.
+     * 
+     * @param name the name of the package, not null
+     * @return the highest stable version, null if none
+     */
+    public SemVer latestStable(final String name) {
+        return versions(name).latestStable();
+    }
+    
+    /**
+     * Gets the highest version of a package that is compatible with the given version.
+     * 
+     * @param name the name of the package, not null
+     * @param version the version to be compatible with, not null
+     * @return the highest compatible version, null if none
+     * @see VersionIndex#latestCompatibleWith(SemVer)
+     */
+    public SemVer latestCompatibleWith(final String name, final SemVer version) {
+        return versions(name).latestCompatibleWith(version);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the slot of a package, creating it if needed.
+     * 
+     * @param name the name of the package, not null
+     * @return the slot, not null
+     */
+    private AtomicReference<VersionIndex> slot(final String name) {
+        final AtomicReference<VersionIndex> ref = this.packages.get(name);
+        if(ref != null) return ref;
+        
+        return this.packages.computeIfAbsent(name, key -> new AtomicReference<>(VersionIndex.empty()));
+    }
+}
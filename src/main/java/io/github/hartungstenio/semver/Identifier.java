@@ -0,0 +1,310 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A pre-release or build identifier, such as {@code alpha} or {@code 11} in {@code 1.0.0-alpha.11}.
+ * <p>
+ * An identifier made only of digits is numeric, and keeps its value as a {@code long},
+ * so comparing numeric identifiers does not parse them again. Other identifiers are
+ * alphanumeric, and are compared as ASCII text. Numeric identifiers always have lower
+ * precedence than alphanumeric identifiers:
+ * <pre>
+ *   Identifier.of("2").compareTo(Identifier.of("11"));    // negative
+ *   Identifier.of("11").compareTo(Identifier.of("beta")); // negative
+ * </pre>
+ * <p>
+ * The most common identifiers, such as small numbers, {@code alpha}, {@code beta},
+ * {@code rc} and {@code SNAPSHOT}, are shared by all versions.
+ * <p>
+ * This is a <a href="{@docRoot}/java/lang/doc-files/ValueBased.html">value-based</a>
+ * class
+ * 
+ * @implSpec
+ * This class is immutable and thread-safe.
+ * 
+ * @author Christian Hartung
+ */
+public final class Identifier implements Comparable<Identifier> {
+    
+    /**
+     * Marks an identifier that is not numeric
+     */
+    static final long ALPHANUMERIC = -1L;
+    
+    /**
+     * Marks a numeric identifier too big to fit a {@code long}
+     */
+    static final long OVERSIZED = Long.MAX_VALUE;
+    
+    /**
+     * The shared numeric identifiers, by value.
+     */
+    private static final Identifier[] NUMBERS = new Identifier[32];
+    
+    /**
+     * The shared alphanumeric identifiers, by text.
+     */
+    private static final Map<String, Identifier> COMMON = new HashMap<>();
+    
+    static {
+        for(int i = 0; i < NUMBERS.length; i++) {
+            NUMBERS[i] = new Identifier(Integer.toString(i), i);
+        }
+        
+        for(String text : new String[] { "SNAPSHOT", "alpha", "beta", "rc", "RC", "M1", "M2", "M3", "dev", "pre",
+                "preview", "final", "Final", "GA", "RELEASE", "build", "exp", "sha", "ci" }) {
+            COMMON.put(text, new Identifier(text, ALPHANUMERIC));
+        }
+    }
+    
+    /**
+     * The text of the identifier.
+     */
+    private final String text;
+    
+    /**
+     * The numeric value, {@link #OVERSIZED} or {@link #ALPHANUMERIC}.
+     */
+    private final long number;
+    
+    /**
+     * Constructor, previously validated.
+     * 
+     * @param text the text of the identifier
+     * @param number the numeric value of the text
+     */
+    private Identifier(final String text, final long number) {
+        this.text = text;
+        this.number = number;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains an identifier from its text.
+     * 
+     * @param text the text of the identifier, not null
+     * @return the identifier, not null
+     */
+    public static Identifier of(final String text) {
+        final long number = numericValue(Objects.requireNonNull(text, "Invalid identifier"));
+        if(number >= 0 && number < NUMBERS.length && text.length() == 1 + (number > 9 ? 1 : 0)) {
+            return NUMBERS[(int)number];
+        }
+        
+        if(number == ALPHANUMERIC) {
+            final Identifier common = COMMON.get(text);
+            if(common != null) return common;
+        }
+        
+        return new Identifier(text, number);
+    }
+    
+    /**
+     * Obtains a numeric identifier.
+     * 
+     * @param number the value of the identifier, non-negative
+     * @return the identifier, not null
+     * @throws SemVerException if the number is negative
+     */
+    public static Identifier of(final long number) {
+        if(number < 0) throw new SemVerException("Invalid numeric identifier: " + number);
+        if(number < NUMBERS.length) return NUMBERS[(int)number];
+        
+        final String text = Long.toString(number);
+        return new Identifier(text, numericValue(text));
+    }
+    
+    /**
+     * Obtains an identifier from a tag of any type, using its text.
+     * 
+     * @param tag the tag, not null
+     * @return the identifier, not null
+     */
+    static Identifier from(final Object tag) {
+        if(tag instanceof Identifier) return (Identifier)tag;
+        if(tag instanceof Integer || tag instanceof Long) {
+            final long number = ((Number)tag).longValue();
+            if(number >= 0) return of(number);
+        }
+        
+        return of(tag.toString());
+    }
+    
+    /**
+     * Classifies the text of an identifier.
+     * 
+     * @param text the text, not null
+     * @return the numeric value of the text, {@link #OVERSIZED} if it is a number
+     *      too big for a {@code long}, or {@link #ALPHANUMERIC} if it is not a number
+     */
+    static long numericValue(final String text) {
+        final int len = text.length();
+        if(len == 0) return ALPHANUMERIC;
+        
+        long value = 0;
+        for(int i = 0; i < len; i++) {
+            final char c = text.charAt(i);
+            if(c < '0' || c > '9') return ALPHANUMERIC;
+            
+            if(value != OVERSIZED) {
+                value = value < (OVERSIZED - 9) / 10 ? value * 10 + (c - '0') : OVERSIZED;
+            }
+        }
+        
+        return value;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if this identifier is made only of digits.
+     * 
+     * @return true if numeric
+     */
+    public boolean isNumeric() {
+        return this.number != ALPHANUMERIC;
+    }
+    
+    /**
+     * Gets the value of a numeric identifier.
+     * 
+     * @return the value, non-negative
+     * @throws IllegalStateException if the identifier is not numeric
+     * @throws ArithmeticException if the value is not below {@link Long#MAX_VALUE}
+     */
+    public long getNumber() {
+        if(this.number == ALPHANUMERIC) throw new IllegalStateException("Not a numeric identifier: " + this.text);
+        if(this.number == OVERSIZED) throw new ArithmeticException("Numeric identifier too big: " + this.text);
+        
+        return this.number;
+    }
+    
+    /**
+     * Gets the text of this identifier.
+     * 
+     * @return the text, not null
+     */
+    public String getText() {
+        return this.text;
+    }
+    
+    /**
+     * Gets the numeric value, without checks.
+     * 
+     * @return the value, {@link #OVERSIZED} or {@link #ALPHANUMERIC}
+     */
+    long numericValue() {
+        return this.number;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Compares this identifier to another identifier, by precedence.
+     * <p>
+     * Numeric identifiers are compared numerically, and alphanumeric identifiers are
+     * compared lexically in ASCII sort order. Numeric identifiers always have lower
+     * precedence than alphanumeric identifiers.
+     * <p>
+     * This ordering is not "consistent with equals", as defined by {@link Comparable}:
+     * numbers with leading zeros are equivalent, but not equal, to the same number without.
+     * 
+     * @param other the other identifier to compare to, not null
+     * @return the comparator value, negative if less, positive if greater
+     */
+    @Override
+    public int compareTo(final Identifier other) {
+        if(this == other) return 0;
+        
+        return compare(this.number, this.text, other.number, other.text);
+    }
+    
+    /**
+     * Compares two identifiers, by their numeric value and text.
+     * 
+     * @param thisNumber the numeric value of the first identifier
+     * @param thisText the text of the first identifier
+     * @param otherNumber the numeric value of the second identifier
+     * @param otherText the text of the second identifier
+     * @return the comparator value, negative if less, positive if greater
+     */
+    static int compare(final long thisNumber, final String thisText, final long otherNumber, final String otherText) {
+        if(thisNumber == ALPHANUMERIC) {
+            return otherNumber == ALPHANUMERIC ? thisText.compareTo(otherText) : 1;
+        } else if(otherNumber == ALPHANUMERIC) {
+            return -1;
+        } else if(thisNumber == OVERSIZED && otherNumber == OVERSIZED) {
+            return compareDigits(thisText, otherText);
+        }
+        
+        return Long.compare(thisNumber, otherNumber);
+    }
+    
+    /**
+     * Compares two numbers too big to be parsed, represented by their digits.
+     * 
+     * @param thisDigits the digits from this object
+     * @param otherDigits the digits from the other object
+     * @return the comparator value, negative if less, positive if greater
+     */
+    private static int compareDigits(final String thisDigits, final String otherDigits) {
+        int thisStart = 0;
+        while(thisDigits.charAt(thisStart) == '0') thisStart++;
+        
+        int otherStart = 0;
+        while(otherDigits.charAt(otherStart) == '0') otherStart++;
+        
+        final int cmp = Integer.compare(thisDigits.length() - thisStart, otherDigits.length() - otherStart);
+        if(cmp != 0) return cmp;
+        
+        return thisDigits.substring(thisStart).compareTo(otherDigits.substring(otherStart));
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if this identifier is equal to another identifier.
+     * <p>
+     * Identifiers are equal if they have the same text.
+     * 
+     * @param obj  the object to check, null returns false
+     * @return true if this is equal to the other identifier
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if(this == obj) return true;
+        
+        return obj instanceof Identifier && this.text.equals(((Identifier)obj).text);
+    }
+    
+    /**
+     * A hash code for this identifier, the hash code of its text.
+     * 
+     * @return a suitable hash code
+     */
+    @Override
+    public int hashCode() {
+        return this.text.hashCode();
+    }
+    
+    /**
+     * Outputs this identifier as a {@code String}.
+     * 
+     * @return the text of this identifier, not null
+     */
+    @Override
+    public String toString() {
+        return this.text;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+/**
+ * Holds the state of the {@link SemVerMetrics} hooks.
+ * <p>
+ * Hooks are written as {@code if(Metrics.ENABLED) Metrics.listener.onParse();}.
+ * {@link #ENABLED} is a {@code static final} field, so the JIT compiler treats it
+ * as a constant and removes the whole statement when the metrics are disabled.
+ * 
+ * @author Christian Hartung
+ */
+final class Metrics {
+    
+    /**
+     * Whether the hooks call the listener, fixed when the class is loaded.
+     */
+    static final boolean ENABLED = Boolean.getBoolean(SemVerMetrics.ENABLED_PROPERTY);
+    
+    /**
+     * The installed listener.
+     */
+    static volatile SemVerMetrics listener = SemVerMetrics.NONE;
+    
+    /**
+     * Constructor.
+     */
+    private Metrics() {
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+/**
+ * The reasons a text is not a valid version.
+ * 
+ * @see ParseResult#getError()
+ * 
+ * @author Christian Hartung
+ */
+public enum ParseError {
+    
+    /**
+     * The text is null.
+     */
+    NULL("null"),
+    
+    /**
+     * The text is empty.
+     */
+    EMPTY("empty"),
+    
+    /**
+     * A MAJOR, MINOR or PATCH version is empty or has a character that is not a digit.
+     */
+    INVALID_NUMBER("Invalid number"),
+    
+    /**
+     * A MAJOR, MINOR or PATCH version does not fit in an {@code int}.
+     */
+    NUMBER_TOO_LARGE("Number too large"),
+    
+    /**
+     * The MAJOR version is negative.
+     */
+    NEGATIVE_NUMBER("Invalid MAJOR version"),
+    
+    /**
+     * The text ends before the MINOR version.
+     */
+    MISSING_MINOR("Missing MINOR version"),
+    
+    /**
+     * The text ends before the PATCH version.
+     */
+    MISSING_PATCH("Missing PATCH version"),
+    
+    /**
+     * The text has more than three numeric parts.
+     */
+    TOO_MANY_PARTS("Too many numeric parts"),
+    
+    /**
+     * A number or numeric pre-release identifier has a leading zero.
+     * Only reported by {@link SemVerParser#STRICT}.
+     */
+    LEADING_ZERO("Leading zero"),
+    
+    /**
+     * A pre-release or build identifier is empty.
+     * Not reported by {@link SemVerParser#LOOSE}.
+     */
+    EMPTY_IDENTIFIER("Empty identifier"),
+    
+    /**
+     * The text has a character that is not allowed at that position.
+     * Not reported by {@link SemVerParser#LOOSE}.
+     */
+    INVALID_CHARACTER("Invalid character");
+    
+    /**
+     * The description of the error.
+     */
+    private final String description;
+    
+    /**
+     * Constructor.
+     * 
+     * @param description the description of the error
+     */
+    private ParseError(final String description) {
+        this.description = description;
+    }
+    
+    /**
+     * Gets the description of the error, such as {@code Invalid number}.
+     * 
+     * @return the description, not null
+     */
+    public String getDescription() {
+        return this.description;
+    }
+    
+    /**
+     * Formats a message for this error.
+     * 
+     * @param text the parsed text, may be null
+     * @param begin the position of the first character of the malformed part
+     * @param end the position after the last character of the malformed part
+     * @return the message, not null
+     */
+    String format(final CharSequence text, final int begin, final int end) {
+        if(text == null || text.length() == 0) return this.description;
+        
+        if(begin == end) return this.description + " at position " + begin + ": " + text;
+        
+        return this.description + " \"" + text.subSequence(begin, end) + "\" at position " + begin + ": " + text;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+/**
+ * The outcome of parsing a version without exceptions.
+ * <p>
+ * A result is either valid, with the parsed {@link #getVersion() version}, or invalid,
+ * with the {@link #getError() error} and the {@link #getPosition() position} of the
+ * malformed part of the text. Results are filled by {@link SemVer#tryParse(CharSequence, ParseResult)},
+ * and can be reused for many texts, so validating malformed text allocates nothing:
+ * the message is only built when {@link #getMessage()} is called.
+ * 
+ * @implSpec
+ * This class is mutable and intended for use in a single thread.
+ * 
+ * @author Christian Hartung
+ */
+public final class ParseResult {
+    
+    /**
+     * The parsed text, kept to format the message.
+     */
+    private CharSequence text;
+    
+    /**
+     * The parsed version, null if invalid.
+     */
+    private SemVer version;
+    
+    /**
+     * The error, null if valid.
+     */
+    private ParseError error;
+    
+    /**
+     * The position of the first character of the malformed part.
+     */
+    private int begin;
+    
+    /**
+     * The position after the last character of the malformed part.
+     */
+    private int end;
+    
+    /**
+     * Constructs an empty result, to be filled by {@link SemVer#tryParse(CharSequence, ParseResult)}.
+     */
+    public ParseResult() {
+        this.error = ParseError.NULL;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Clears this result before parsing a text.
+     * 
+     * @param text the text to parse
+     */
+    void clear(final CharSequence text) {
+        this.text = text;
+        this.version = null;
+        this.error = null;
+        this.begin = -1;
+        this.end = -1;
+    }
+    
+    /**
+     * Marks this result as valid.
+     * 
+     * @param version the parsed version
+     */
+    void succeed(final SemVer version) {
+        this.version = version;
+    }
+    
+    /**
+     * Marks this result as invalid.
+     * 
+     * @param error the error found
+     * @param begin the position of the first character of the malformed part
+     * @param end the position after the last character of the malformed part
+     */
+    void fail(final ParseError error, final int begin, final int end) {
+        this.error = error;
+        this.begin = begin;
+        this.end = end;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if the text was a valid version.
+     * 
+     * @return true if valid
+     */
+    public boolean isValid() {
+        return this.version != null;
+    }
+    
+    /**
+     * Gets the parsed version.
+     * 
+     * @return the version, or null if the text was not valid
+     */
+    public SemVer getVersion() {
+        return this.version;
+    }
+    
+    /**
+     * Gets the parsed version, or throws the error.
+     * 
+     * @return the version, not null
+     * @throws SemVerException if the text was not valid
+     */
+    public SemVer orElseThrow() {
+        if(this.version == null) throw new SemVerException(getMessage());
+        
+        return this.version;
+    }
+    
+    /**
+     * Gets the reason the text was not valid.
+     * 
+     * @return the error, or null if the text was valid
+     */
+    public ParseError getError() {
+        return this.error;
+    }
+    
+    /**
+     * Gets the position in the text where the error was found.
+     * <p>
+     * This is the position of the first character of the malformed part, or the
+     * position where a missing MINOR or PATCH version was expected.
+     * 
+     * @return the position of the error, or -1 if the text was valid
+     */
+    public int getPosition() {
+        return this.begin;
+    }
+    
+    /**
+     * Gets a message describing the error.
+     * <p>
+     * The message quotes the text, so it is only accurate if the text was not
+     * changed after parsing.
+     * 
+     * @return the message, or null if the text was valid
+     */
+    public String getMessage() {
+        if(this.error == null) return null;
+        
+        return this.error.format(this.text, this.begin, this.end);
+    }
+    
+    /**
+     * Creates an exception for the error, without a stack trace.
+     * <p>
+     * The exception is cheap to create, and suitable for reporting malformed
+     * input that is expected.
+     * 
+     * @return the exception, or null if the text was valid
+     */
+    public SemVerException toException() {
+        if(this.error == null) return null;
+        
+        return new SemVerException(getMessage(), null, false);
+    }
+    
+    /**
+     * Outputs this result as a {@code String}.
+     * 
+     * @return the version, or the error message, not null
+     */
+    @Override
+    public String toString() {
+        return this.version != null ? this.version.toString() : getMessage();
+    }
+}
@@ -0,0 +1,1242 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Picks a version of each package of a dependency graph, satisfying all the constraints.
+ * <p>
+ * A resolver holds a catalogue of packages, each with its versions, and the
+ * {@link VersionRange ranges} of the packages each version depends on:
+ * <pre>
+ *   Resolver resolver = Resolver.builder()
+ *       .add("app", SemVer.parse("1.0.0"), Collections.singletonMap("lib", VersionRange.parse("^2.0.0")))
+ *       .add("lib", SemVer.parse("2.1.0"))
+ *       .add("lib", SemVer.parse("3.0.0"))
+ *       .build();
+ *   resolver.resolve("app", VersionRange.all()); // {app=1.0.0, lib=2.1.0}
+ * </pre>
+ * <p>
+ * The packages are decided in the order they are first required, each one getting its
+ * highest version that is compatible with the versions decided so far. When the
+ * decisions lead to a conflict, the resolver works out which of them caused it, learns
+ * the incompatibility so it is never explored again, and jumps back directly to the
+ * decision responsible.
+ * 
+ * @implNote
+ * The search follows the PubGrub algorithm: unit propagation over incompatibilities,
+ * and conflict-driven clause learning. The version sets are bit sets of the positions
+ * of the versions in the sorted versions of each package, and the versions matching a
+ * range are computed once per range, so checking a constraint is a bit set operation.
+ * The versions of a package sharing a dependency share a single incompatibility.
+ * 
+ * @implSpec
+ * This class is immutable and thread-safe.
+ * 
+ * @author Christian Hartung
+ */
+public final class Resolver {
+    
+    /**
+     * The packages, by name.
+     */
+    private final Map<String, Package> packages;
+    
+    /**
+     * The packages, by id.
+     */
+    private final Package[] ids;
+    
+    /**
+     * Constructor.
+     * 
+     * @param packages the packages, by name
+     */
+    private Resolver(final Map<String, Package> packages) {
+        this.packages = packages;
+        this.ids = new Package[packages.size()];
+        for(Package pkg : packages.values()) {
+            this.ids[pkg.id] = pkg;
+        }
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Creates a builder of a resolver.
+     * 
+     * @return a new builder, not null
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+    
+    /**
+     * Gets the number of packages in the catalogue.
+     * 
+     * @return the number of packages
+     */
+    public int size() {
+        return this.packages.size();
+    }
+    
+    /**
+     * Gets the versions of a package.
+     * 
+     * @param name the name of the package, not null
+     * @return the versions of the package, empty if unknown, not null
+     */
+    public VersionIndex getVersions(final String name) {
+        final Package pkg = this.packages.get(name);
+        return pkg == null ? VersionIndex.empty() : VersionIndex.of(pkg.versions);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Resolves the dependencies of a package.
+     * 
+     * @param name the name of the package, not null
+     * @param range the versions of the package accepted, not null
+     * @return the version of each package, sorted by name, not null
+     * @throws SemVerException if the constraints cannot be satisfied
+     * @see #resolve(Map)
+     */
+    public Map<String, SemVer> resolve(final String name, final VersionRange range) {
+        return resolve(Collections.singletonMap(name, range));
+    }
+    
+    /**
+     * Resolves a set of requirements.
+     * <p>
+     * Each required package, and each package they depend on, directly or not, gets a
+     * version satisfying all the ranges on it. The packages are decided in the order
+     * they are required, highest version first, so the first required package gets the
+     * highest version that can be part of a solution.
+     * 
+     * @param requirements the ranges of the required packages, by name, not null
+     * @return the version of each package, sorted by name, not null
+     * @throws SemVerException if the constraints cannot be satisfied, with a message
+     *         listing the dependencies that conflict
+     */
+    public Map<String, SemVer> resolve(final Map<String, VersionRange> requirements) {
+        return new Search(requirements).run();
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * A dependency shared by some versions of a package.
+     */
+    private static final class Dependency {
+        
+        /**
+         * The package depended on.
+         */
+        private final Package target;
+        
+        /**
+         * The versions of the package accepted.
+         */
+        private final VersionRange range;
+        
+        /**
+         * The positions of the versions with this dependency.
+         */
+        private final BitSet sources = new BitSet();
+        
+        /**
+         * The position of this dependency in its package.
+         */
+        private final int index;
+        
+        /**
+         * The incompatibility between the versions with this dependency and the versions
+         * of the target not accepted, created on first use.
+         */
+        private volatile Incompatibility incompatibility;
+        
+        /**
+         * Constructor.
+         * 
+         * @param target the package depended on
+         * @param range the versions of the package accepted
+         * @param index the position of this dependency in its package
+         */
+        private Dependency(final Package target, final VersionRange range, final int index) {
+            this.target = target;
+            this.range = range;
+            this.index = index;
+        }
+    }
+    
+    /**
+     * A package, with its versions in ascending order.
+     */
+    private static final class Package {
+        
+        /**
+         * The name of the package.
+         */
+        private final String name;
+        
+        /**
+         * The position of the package in the catalogue.
+         */
+        private final int id;
+        
+        /**
+         * The versions, in ascending order.
+         */
+        private SemVer[] versions = new SemVer[0];
+        
+        /**
+         * The dependencies of all versions.
+         */
+        private Dependency[] dependencies = new Dependency[0];
+        
+        /**
+         * The positions in {@link #dependencies} of the dependencies of each version.
+         */
+        private int[][] dependenciesOf = new int[0][];
+        
+        /**
+         * The versions matching each range of the catalogue on this package, filled when
+         * the resolver is built and only read afterwards.
+         */
+        private final Map<VersionRange, BitSet> matches = new HashMap<>();
+        
+        /**
+         * Constructor.
+         * 
+         * @param name the name of the package
+         * @param id the position of the package in the catalogue
+         */
+        private Package(final String name, final int id) {
+            this.name = name;
+            this.id = id;
+        }
+        
+        /**
+         * Gets the versions matching a range.
+         * <p>
+         * The ranges of the catalogue are computed once, when the resolver is built. Other
+         * ranges, such as the requirements of a resolution, are computed on each call, so
+         * the cache does not grow with the requirements seen.
+         * 
+         * @param range the range
+         * @return the positions of the matching versions, not to be modified
+         */
+        private BitSet matching(final VersionRange range) {
+            final BitSet result = this.matches.get(range);
+            return result != null ? result : test(range);
+        }
+        
+        /**
+         * Caches the versions matching a range of the catalogue.
+         * 
+         * @param range the range
+         */
+        private void cache(final VersionRange range) {
+            if(!this.matches.containsKey(range)) this.matches.put(range, test(range));
+        }
+        
+        /**
+         * Tests each version against a range.
+         * 
+         * @param range the range
+         * @return the positions of the matching versions
+         */
+        private BitSet test(final VersionRange range) {
+            final BitSet result = new BitSet(this.versions.length);
+            for(int i = 0; i < this.versions.length; i++) {
+                if(range.test(this.versions[i])) result.set(i);
+            }
+            
+            return result;
+        }
+        
+        /**
+         * Describes some versions of this package.
+         * 
+         * @param positions the positions of the versions
+         * @return the description, not null
+         */
+        private String describe(final BitSet positions) {
+            final StringBuilder buf = new StringBuilder(this.name);
+            char separator = ' ';
+            for(int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                buf.append(separator).append(this.versions[i]);
+                separator = ',';
+            }
+            
+            return buf.toString();
+        }
+    }
+    
+    /**
+     * A statement about the version of a package: either the package is selected with a
+     * version in a set, or the package is not selected with a version in a set.
+     */
+    private static final class Term {
+        
+        /**
+         * The empty set.
+         */
+        private static final BitSet NONE = new BitSet();
+        
+        /**
+         * The package.
+         */
+        private final Package pkg;
+        
+        /**
+         * Whether the package is selected with a version in the set, or not.
+         */
+        private final boolean positive;
+        
+        /**
+         * The positions of the versions, not to be modified.
+         */
+        private final BitSet versions;
+        
+        /**
+         * The positions of the versions of the package not in {@link #versions}, not to be
+         * modified.
+         * <p>
+         * Terms are shared by concurrent resolutions, through the incompatibilities of the
+         * dependencies, so all their fields are final.
+         */
+        private final BitSet complement;
+        
+        /**
+         * Constructor.
+         * 
+         * @param pkg the package
+         * @param positive whether the package is selected with a version in the set, or not
+         * @param versions the positions of the versions
+         */
+        private Term(final Package pkg, final boolean positive, final BitSet versions) {
+            this(pkg, positive, versions, complement(pkg, versions));
+        }
+        
+        /**
+         * Constructor.
+         * 
+         * @param pkg the package
+         * @param positive whether the package is selected with a version in the set, or not
+         * @param versions the positions of the versions
+         * @param complement the positions of the other versions of the package
+         */
+        private Term(final Package pkg, final boolean positive, final BitSet versions, final BitSet complement) {
+            this.pkg = pkg;
+            this.positive = positive;
+            this.versions = versions;
+            this.complement = complement;
+        }
+        
+        /**
+         * Gets the versions of a package not in a set.
+         * 
+         * @param pkg the package
+         * @param versions the positions of the versions
+         * @return the positions of the other versions
+         */
+        private static BitSet complement(final Package pkg, final BitSet versions) {
+            final BitSet complement = new BitSet(pkg.versions.length);
+            complement.set(0, pkg.versions.length);
+            complement.andNot(versions);
+            return complement;
+        }
+        
+        /**
+         * Gets the term true if this term is false.
+         * 
+         * @return the inverse term, sharing the sets of this term
+         */
+        private Term inverse() {
+            return new Term(this.pkg, !this.positive, this.versions, this.complement);
+        }
+        
+        /**
+         * Gets the term true if both this term and another are.
+         * 
+         * @param other the other term, of the same package
+         * @return the intersection
+         */
+        private Term intersect(final Term other) {
+            final BitSet result;
+            if(this.positive && other.positive) {
+                result = (BitSet)this.versions.clone();
+                result.and(other.versions);
+            } else if(this.positive || other.positive) {
+                result = (BitSet)(this.positive ? this.versions : other.versions).clone();
+                result.andNot(this.positive ? other.versions : this.versions);
+            } else {
+                result = (BitSet)this.versions.clone();
+                result.or(other.versions);
+            }
+            
+            return new Term(this.pkg, this.positive || other.positive, result);
+        }
+        
+        /**
+         * Gets the term true if this term is, but another is not.
+         * 
+         * @param other the other term, of the same package
+         * @return the difference, or null if empty
+         */
+        private Term difference(final Term other) {
+            final Term result = intersect(other.inverse());
+            return result.positive && result.versions.isEmpty() ? null : result;
+        }
+        
+        /**
+         * Checks if this term implies another.
+         * 
+         * @param other the other term, of the same package
+         * @return true if this term implies the other
+         */
+        private boolean satisfies(final Term other) {
+            if(this.positive) {
+                return other.positive ? other.contains(this.versions) : !this.versions.intersects(other.versions);
+            }
+            
+            return !other.positive && contains(other.versions);
+        }
+        
+        /**
+         * Checks if this term and another cannot be both true.
+         * 
+         * @param other the other term, of the same package
+         * @return true if the terms are disjoint
+         */
+        private boolean isDisjoint(final Term other) {
+            if(this.positive) {
+                return other.positive ? !this.versions.intersects(other.versions) : other.contains(this.versions);
+            }
+            
+            return other.positive && contains(other.versions);
+        }
+        
+        /**
+         * Checks if the versions of this term contain some versions.
+         * 
+         * @param subset the versions expected to be contained
+         * @return true if all the versions are in this term
+         */
+        private boolean contains(final BitSet subset) {
+            return !subset.intersects(this.complement);
+        }
+    }
+    
+    /**
+     * A set of terms that cannot be all true.
+     */
+    private static final class Incompatibility {
+        
+        /**
+         * The terms, at most one per package.
+         */
+        private final Term[] terms;
+        
+        /**
+         * The package whose versions have the dependency, or null if learned.
+         */
+        private final Package source;
+        
+        /**
+         * The dependency that caused this incompatibility, or null if learned.
+         */
+        private final Dependency dependency;
+        
+        /**
+         * The incompatibilities this one was learned from, or null.
+         */
+        private final Incompatibility cause, otherCause;
+        
+        /**
+         * Constructor.
+         * 
+         * @param terms the terms
+         * @param source the package whose versions have the dependency
+         * @param dependency the dependency that caused this incompatibility
+         * @param cause the incompatibility this one was learned from
+         * @param otherCause the other incompatibility this one was learned from
+         */
+        private Incompatibility(final Term[] terms, final Package source, final Dependency dependency,
+                final Incompatibility cause, final Incompatibility otherCause) {
+            this.terms = terms;
+            this.source = source;
+            this.dependency = dependency;
+            this.cause = cause;
+            this.otherCause = otherCause;
+        }
+    }
+    
+    /**
+     * A term added to the partial solution, either decided or derived.
+     */
+    private static final class Assignment {
+        
+        /**
+         * The term.
+         */
+        private final Term term;
+        
+        /**
+         * The intersection of this term and the previous terms of the package.
+         */
+        private final Term accumulated;
+        
+        /**
+         * The previous assignment of the package, or null.
+         */
+        private final Assignment previous;
+        
+        /**
+         * The number of decisions when the term was added.
+         */
+        private final int level;
+        
+        /**
+         * The incompatibility the term was derived from, or null if decided.
+         */
+        private final Incompatibility cause;
+        
+        /**
+         * The position of the assignment in the partial solution.
+         */
+        private final int index;
+        
+        /**
+         * Constructor.
+         * 
+         * @param term the term
+         * @param previous the previous assignment of the package
+         * @param level the number of decisions when the term was added
+         * @param cause the incompatibility the term was derived from
+         * @param index the position of the assignment in the partial solution
+         */
+        private Assignment(final Term term, final Assignment previous, final int level, final Incompatibility cause, final int index) {
+            this.term = term;
+            this.accumulated = previous == null ? term : previous.accumulated.intersect(term);
+            this.previous = previous;
+            this.level = level;
+            this.cause = cause;
+            this.index = index;
+        }
+    }
+    
+    /**
+     * The state of a single resolution.
+     */
+    private final class Search {
+        
+        /**
+         * Result of propagating an incompatibility that is not almost satisfied.
+         */
+        private static final int NONE = -1;
+        
+        /**
+         * Result of propagating an incompatibility that is satisfied.
+         */
+        private static final int CONFLICT = -2;
+        
+        /**
+         * The packages, by id, including the root and unknown packages.
+         */
+        private final List<Package> all = new ArrayList<>(Arrays.asList(Resolver.this.ids));
+        
+        /**
+         * The package depending on the requirements.
+         */
+        private final Package root;
+        
+        /**
+         * The incompatibilities of each package.
+         */
+        private final List<List<Incompatibility>> incompatibilities;
+        
+        /**
+         * The term allowing anything of each package, created on first use.
+         */
+        private final Term[] any;
+        
+        /**
+         * The term selecting each version of each package, created on first use.
+         */
+        private final Term[][] exactly;
+        
+        /**
+         * The dependencies of each package already added as incompatibilities.
+         */
+        private final BitSet[] added;
+        
+        /**
+         * The partial solution.
+         */
+        private final List<Assignment> assignments = new ArrayList<>();
+        
+        /**
+         * The last assignment of each package, null if none.
+         */
+        private final Assignment[] last;
+        
+        /**
+         * The version decided for each package, or -1.
+         */
+        private final int[] decided;
+        
+        /**
+         * The number of decisions.
+         */
+        private int level;
+        
+        /**
+         * The packages whose terms changed, to propagate.
+         */
+        private final ArrayDeque<Package> changed = new ArrayDeque<>();
+        
+        /**
+         * Whether each package is in {@link #changed}.
+         */
+        private final boolean[] queued;
+        
+        /**
+         * The order each package was first required, 0 if never.
+         */
+        private final int[] order;
+        
+        /**
+         * The next value of {@link #order}.
+         */
+        private int nextOrder = 1;
+        
+        /**
+         * The packages that may need a decision, by the order they were first required.
+         */
+        private final PriorityQueue<Package> pending;
+        
+        /**
+         * Whether each package is in {@link #pending}.
+         */
+        private final boolean[] waiting;
+        
+        /**
+         * Constructor.
+         * 
+         * @param requirements the ranges of the required packages
+         */
+        private Search(final Map<String, VersionRange> requirements) {
+            final Map<String, Package> unknown = new HashMap<>();
+            this.root = new Package(null, this.all.size() + requirements.size());
+            this.root.versions = new SemVer[1];
+            this.root.dependencies = new Dependency[requirements.size()];
+            this.root.dependenciesOf = new int[][] { new int[requirements.size()] };
+            
+            int i = 0;
+            for(Map.Entry<String, VersionRange> requirement : requirements.entrySet()) {
+                final String name = Objects.requireNonNull(requirement.getKey(), "Invalid package name");
+                Package pkg = Resolver.this.packages.get(name);
+                if(pkg == null) pkg = unknown.computeIfAbsent(name, key -> new Package(key, this.all.size() + unknown.size()));
+                
+                this.root.dependencies[i] = new Dependency(pkg, Objects.requireNonNull(requirement.getValue(), "Invalid version range"), i);
+                this.root.dependencies[i].sources.set(0);
+                this.root.dependenciesOf[0][i] = i;
+                i++;
+            }
+            
+            final Package[] extra = new Package[unknown.size()];
+            for(Package pkg : unknown.values()) {
+                extra[pkg.id - this.all.size()] = pkg;
+            }
+            this.all.addAll(Arrays.asList(extra));
+            while(this.all.size() < this.root.id) this.all.add(null);
+            this.all.add(this.root);
+            
+            final int size = this.all.size();
+            this.incompatibilities = new ArrayList<>(Collections.<List<Incompatibility>>nCopies(size, null));
+            this.any = new Term[size];
+            this.exactly = new Term[size][];
+            this.added = new BitSet[size];
+            this.last = new Assignment[size];
+            this.decided = new int[size];
+            Arrays.fill(this.decided, -1);
+            this.order = new int[size];
+            this.queued = new boolean[size];
+            this.waiting = new boolean[size];
+            this.pending = new PriorityQueue<>(size, (a, b) -> Integer.compare(this.order[a.id], this.order[b.id]));
+            
+            final BitSet rootVersion = new BitSet();
+            rootVersion.set(0);
+            add(new Incompatibility(new Term[] { new Term(this.root, false, rootVersion) }, null, null, null, null));
+        }
+        
+        /**
+         * Runs the search.
+         * 
+         * @return the version of each package, sorted by name
+         */
+        private Map<String, SemVer> run() {
+            Package next = this.root;
+            while(next != null) {
+                propagate(next);
+                next = decide();
+            }
+            
+            final Map<String, SemVer> result = new TreeMap<>();
+            for(Package pkg : this.all) {
+                if(pkg != null && pkg != this.root && this.decided[pkg.id] >= 0) {
+                    result.put(pkg.name, pkg.versions[this.decided[pkg.id]]);
+                }
+            }
+            
+            return Collections.unmodifiableMap(result);
+        }
+        
+        //-----------------------------------------------------------------------
+        /**
+         * Derives the terms implied by the incompatibilities of a package, and of the
+         * packages those terms are about, resolving the conflicts found.
+         * 
+         * @param pkg the package whose terms changed
+         * @throws SemVerException if a conflict cannot be resolved
+         */
+        private void propagate(final Package pkg) {
+            final ArrayDeque<Package> changed = this.changed;
+            changed.add(pkg);
+            this.queued[pkg.id] = true;
+            Package next;
+            while((next = changed.poll()) != null) {
+                this.queued[next.id] = false;
+                
+                final List<Incompatibility> incompatibilities = this.incompatibilities.get(next.id);
+                for(int i = incompatibilities.size() - 1; i >= 0; i--) {
+                    final Incompatibility incompatibility = incompatibilities.get(i);
+                    final int result = propagate(incompatibility);
+                    if(result == CONFLICT) {
+                        final Incompatibility rootCause = resolve(incompatibility);
+                        for(Package dropped : changed) {
+                            this.queued[dropped.id] = false;
+                        }
+                        changed.clear();
+                        enqueue(this.all.get(propagate(rootCause)));
+                        break;
+                    } else if(result != NONE) {
+                        enqueue(this.all.get(result));
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Adds a package to the packages whose terms changed, if not there yet.
+         * 
+         * @param pkg the package
+         */
+        private void enqueue(final Package pkg) {
+            if(!this.queued[pkg.id]) {
+                this.queued[pkg.id] = true;
+                this.changed.add(pkg);
+            }
+        }
+        
+        /**
+         * Derives the inverse of the only term of an incompatibility not yet satisfied,
+         * if the others are.
+         * 
+         * @param incompatibility the incompatibility
+         * @return the id of the package of the derived term, {@link #NONE} if nothing was
+         *         derived, or {@link #CONFLICT} if all terms are satisfied
+         */
+        private int propagate(final Incompatibility incompatibility) {
+            Term unsatisfied = null;
+            for(Term term : incompatibility.terms) {
+                final Term current = current(term.pkg);
+                if(current.satisfies(term)) continue;
+                if(current.isDisjoint(term) || unsatisfied != null) return NONE;
+                unsatisfied = term;
+            }
+            
+            if(unsatisfied == null) return CONFLICT;
+            
+            derive(unsatisfied.inverse(), incompatibility);
+            return unsatisfied.pkg.id;
+        }
+        
+        /**
+         * Learns the root cause of a conflict, and backtracks to the last decision that
+         * does not cause it.
+         * 
+         * @param conflict the incompatibility satisfied by the partial solution
+         * @return the root cause, almost satisfied after backtracking
+         * @throws SemVerException if the root cause is the requirements themselves
+         */
+        private Incompatibility resolve(final Incompatibility conflict) {
+            Incompatibility incompatibility = conflict;
+            while(!isFailure(incompatibility)) {
+                Term latestTerm = null;
+                Assignment latest = null;
+                Term difference = null;
+                int previousLevel = 1;
+                
+                for(Term term : incompatibility.terms) {
+                    final Assignment satisfier = satisfier(term);
+                    if(latest == null || latest.index < satisfier.index) {
+                        if(latest != null) previousLevel = Math.max(previousLevel, latest.level);
+                        latestTerm = term;
+                        latest = satisfier;
+                        difference = latest.term.difference(term);
+                        if(difference != null) previousLevel = Math.max(previousLevel, satisfier(difference.inverse()).level);
+                    } else {
+                        previousLevel = Math.max(previousLevel, satisfier.level);
+                    }
+                }
+                
+                if(latest.cause == null || previousLevel != latest.level) {
+                    if(incompatibility != conflict) add(incompatibility);
+                    backtrack(previousLevel);
+                    return incompatibility;
+                }
+                
+                // resolve with the cause of the satisfier
+                final List<Term> terms = new ArrayList<>();
+                for(Term term : incompatibility.terms) {
+                    if(term != latestTerm) terms.add(term);
+                }
+                for(Term term : latest.cause.terms) {
+                    if(term.pkg != latest.term.pkg) terms.add(term);
+                }
+                if(difference != null) terms.add(difference.inverse());
+                incompatibility = learn(terms, incompatibility, latest.cause);
+            }
+            
+            throw new SemVerException(describe(incompatibility));
+        }
+        
+        /**
+         * Checks if an incompatibility rules out the requirements themselves.
+         * 
+         * @param incompatibility the incompatibility
+         * @return true if there is no solution
+         */
+        private boolean isFailure(final Incompatibility incompatibility) {
+            final Term[] terms = incompatibility.terms;
+            return terms.length == 0 || terms.length == 1 && terms[0].positive && terms[0].pkg == this.root;
+        }
+        
+        /**
+         * Creates an incompatibility learned from two others.
+         * 
+         * @param terms the terms, possibly more than one per package
+         * @param cause the incompatibility the terms were learned from
+         * @param otherCause the other incompatibility the terms were learned from
+         * @return the incompatibility
+         */
+        private Incompatibility learn(final List<Term> terms, final Incompatibility cause, final Incompatibility otherCause) {
+            final Map<Package, Term> merged = new LinkedHashMap<>();
+            for(Term term : terms) {
+                merged.merge(term.pkg, term, Term::intersect);
+            }
+            
+            // the root is always selected, so it is redundant next to other terms
+            if(merged.size() > 1) {
+                final Term root = merged.get(this.root);
+                if(root != null && root.positive) merged.remove(this.root);
+            }
+            
+            final List<Term> result = new ArrayList<>(merged.size());
+            for(Term term : merged.values()) {
+                if(term.positive || !term.versions.isEmpty()) result.add(term);
+            }
+            
+            return new Incompatibility(result.toArray(new Term[result.size()]), null, null, cause, otherCause);
+        }
+        
+        /**
+         * Adds an incompatibility to the packages of its terms.
+         * 
+         * @param incompatibility the incompatibility
+         */
+        private void add(final Incompatibility incompatibility) {
+            for(Term term : incompatibility.terms) {
+                List<Incompatibility> incompatibilities = this.incompatibilities.get(term.pkg.id);
+                if(incompatibilities == null) {
+                    incompatibilities = new ArrayList<>();
+                    this.incompatibilities.set(term.pkg.id, incompatibilities);
+                }
+                incompatibilities.add(incompatibility);
+            }
+        }
+        
+        //-----------------------------------------------------------------------
+        /**
+         * Decides the highest allowed version of the first required package not yet decided.
+         * 
+         * @return the package whose terms changed, or null if all required packages are decided
+         */
+        private Package decide() {
+            Package pkg;
+            while((pkg = this.pending.peek()) != null) {
+                if(this.decided[pkg.id] < 0 && current(pkg).positive) break;
+                this.pending.poll();
+                this.waiting[pkg.id] = false;
+            }
+            
+            if(pkg == null) return null;
+            
+            final int version = current(pkg).versions.length() - 1;
+            boolean conflict = false;
+            for(int index : pkg.dependenciesOf[version]) {
+                final Incompatibility incompatibility = dependency(pkg, pkg.dependencies[index]);
+                if(!conflict) {
+                    conflict = true;
+                    for(Term term : incompatibility.terms) {
+                        if(term.pkg != pkg && !current(term.pkg).satisfies(term)) {
+                            conflict = false;
+                            break;
+                        }
+                    }
+                }
+            }
+            
+            if(!conflict) {
+                this.level++;
+                assign(exactly(pkg, version), null);
+                this.decided[pkg.id] = version;
+            }
+            
+            return pkg;
+        }
+        
+        /**
+         * Gets the incompatibility of a dependency, adding it the first time.
+         * 
+         * @param pkg the package whose versions have the dependency
+         * @param dependency the dependency
+         * @return the incompatibility, not null
+         */
+        private Incompatibility dependency(final Package pkg, final Dependency dependency) {
+            if(this.added[pkg.id] == null) this.added[pkg.id] = new BitSet();
+            
+            Incompatibility incompatibility = dependency.incompatibility;
+            if(incompatibility == null) {
+                final Term source = new Term(pkg, true, dependency.sources);
+                final BitSet matching = dependency.target.matching(dependency.range);
+                final Term[] terms = matching.isEmpty()
+                        ? new Term[] { source }
+                        : new Term[] { source, new Term(dependency.target, false, matching) };
+                incompatibility = new Incompatibility(terms, pkg, dependency, null, null);
+                dependency.incompatibility = incompatibility;
+            }
+            
+            if(!this.added[pkg.id].get(dependency.index)) {
+                this.added[pkg.id].set(dependency.index);
+                add(incompatibility);
+            }
+            
+            return incompatibility;
+        }
+        
+        //-----------------------------------------------------------------------
+        /**
+         * Gets the intersection of the assignments of a package.
+         * 
+         * @param pkg the package
+         * @return the term, not null
+         */
+        private Term current(final Package pkg) {
+            final Assignment last = this.last[pkg.id];
+            if(last != null) return last.accumulated;
+            
+            Term any = this.any[pkg.id];
+            if(any == null) {
+                any = new Term(pkg, false, Term.NONE);
+                this.any[pkg.id] = any;
+            }
+            
+            return any;
+        }
+        
+        /**
+         * Gets the term selecting a version of a package.
+         * 
+         * @param pkg the package
+         * @param version the position of the version
+         * @return the term, not null
+         */
+        private Term exactly(final Package pkg, final int version) {
+            Term[] exactly = this.exactly[pkg.id];
+            if(exactly == null) {
+                exactly = new Term[pkg.versions.length];
+                this.exactly[pkg.id] = exactly;
+            }
+            
+            Term result = exactly[version];
+            if(result == null) {
+                final BitSet versions = new BitSet(version + 1);
+                versions.set(version);
+                result = new Term(pkg, true, versions);
+                exactly[version] = result;
+            }
+            
+            return result;
+        }
+        
+        /**
+         * Adds a term derived from an incompatibility.
+         * 
+         * @param term the term
+         * @param cause the incompatibility
+         */
+        private void derive(final Term term, final Incompatibility cause) {
+            assign(term, cause);
+            
+            final Package pkg = term.pkg;
+            if(current(pkg).positive && this.decided[pkg.id] < 0) {
+                if(this.order[pkg.id] == 0) this.order[pkg.id] = this.nextOrder++;
+                await(pkg);
+            }
+        }
+        
+        /**
+         * Adds a package to the packages that may need a decision, if not there yet.
+         * 
+         * @param pkg the package
+         */
+        private void await(final Package pkg) {
+            if(!this.waiting[pkg.id]) {
+                this.waiting[pkg.id] = true;
+                this.pending.add(pkg);
+            }
+        }
+        
+        /**
+         * Adds a term to the partial solution.
+         * 
+         * @param term the term
+         * @param cause the incompatibility the term was derived from, or null if decided
+         */
+        private void assign(final Term term, final Incompatibility cause) {
+            final int id = term.pkg.id;
+            final Assignment assignment = new Assignment(term, this.last[id], this.level, cause, this.assignments.size());
+            this.assignments.add(assignment);
+            this.last[id] = assignment;
+        }
+        
+        /**
+         * Finds the earliest assignment that, with the ones before it, implies a term.
+         * 
+         * @param term the term, implied by the partial solution
+         * @return the assignment, not null
+         */
+        private Assignment satisfier(final Term term) {
+            // the accumulated terms only narrow, so the satisfiers are a suffix of the assignments
+            Assignment assignment = this.last[term.pkg.id];
+            while(assignment.previous != null && assignment.previous.accumulated.satisfies(term)) {
+                assignment = assignment.previous;
+            }
+            
+            return assignment;
+        }
+        
+        /**
+         * Removes the assignments made after a number of decisions.
+         * 
+         * @param level the number of decisions to keep
+         */
+        private void backtrack(final int level) {
+            while(!this.assignments.isEmpty()) {
+                final Assignment assignment = this.assignments.get(this.assignments.size() - 1);
+                if(assignment.level <= level) break;
+                
+                this.assignments.remove(this.assignments.size() - 1);
+                final Package pkg = assignment.term.pkg;
+                this.last[pkg.id] = assignment.previous;
+                if(assignment.cause == null) {
+                    this.decided[pkg.id] = -1;
+                    if(current(pkg).positive) await(pkg);
+                }
+            }
+            this.level = level;
+        }
+        
+        //-----------------------------------------------------------------------
+        /**
+         * Describes why the requirements cannot be satisfied.
+         * 
+         * @param failure the incompatibility ruling out the requirements
+         * @return the message, not null
+         */
+        private String describe(final Incompatibility failure) {
+            final Set<String> causes = new LinkedHashSet<>();
+            final ArrayDeque<Incompatibility> stack = new ArrayDeque<>();
+            stack.push(failure);
+            while(!stack.isEmpty()) {
+                final Incompatibility incompatibility = stack.pop();
+                if(incompatibility.dependency != null) {
+                    causes.add(describe(incompatibility.source, incompatibility.dependency));
+                } else if(incompatibility.cause != null) {
+                    stack.push(incompatibility.otherCause);
+                    stack.push(incompatibility.cause);
+                }
+            }
+            
+            return "Cannot resolve dependencies: " + String.join("; ", causes);
+        }
+        
+        /**
+         * Describes a dependency.
+         * 
+         * @param pkg the package whose versions have the dependency
+         * @param dependency the dependency
+         * @return the description, not null
+         */
+        private String describe(final Package pkg, final Dependency dependency) {
+            final StringBuilder buf = new StringBuilder();
+            if(pkg == this.root) {
+                buf.append(dependency.target.name).append(' ').append(dependency.range).append(" is required");
+            } else {
+                buf.append(pkg.describe(dependency.sources)).append(" depends on ")
+                        .append(dependency.target.name).append(' ').append(dependency.range);
+            }
+            if(dependency.target.matching(dependency.range).isEmpty()) buf.append(", but no versions match");
+            
+            return buf.toString();
+        }
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * A builder of {@link Resolver}.
+     * 
+     * @implSpec
+     * This class is mutable and intended for use in a single thread.
+     */
+    public static final class Builder {
+        
+        /**
+         * The dependencies of each version of each package.
+         */
+        private final Map<String, Map<SemVer, Map<String, VersionRange>>> catalogue = new LinkedHashMap<>();
+        
+        /**
+         * Constructor.
+         */
+        private Builder() {
+        }
+        
+        /**
+         * Adds a version of a package, without dependencies.
+         * 
+         * @param name the name of the package, not null
+         * @param version the version, not null
+         * @return this builder
+         */
+        public Builder add(final String name, final SemVer version) {
+            return add(name, version, Collections.emptyMap());
+        }
+        
+        /**
+         * Adds a version of a package, with its dependencies.
+         * <p>
+         * Adding the same version twice replaces its dependencies.
+         * 
+         * @param name the name of the package, not null
+         * @param version the version, not null
+         * @param dependencies the ranges of the packages the version depends on, by name, not null
+         * @return this builder
+         */
+        public Builder add(final String name, final SemVer version, final Map<String, VersionRange> dependencies) {
+            Objects.requireNonNull(name, "Invalid package name");
+            Objects.requireNonNull(version, "Invalid version");
+            for(Map.Entry<String, VersionRange> dependency : dependencies.entrySet()) {
+                Objects.requireNonNull(dependency.getKey(), "Invalid package name");
+                Objects.requireNonNull(dependency.getValue(), "Invalid version range");
+            }
+            
+            this.catalogue.computeIfAbsent(name, key -> new HashMap<>())
+                    .put(version, new LinkedHashMap<>(dependencies));
+            return this;
+        }
+        
+        /**
+         * Builds the resolver.
+         * 
+         * @return the resolver, not null
+         */
+        public Resolver build() {
+            final Map<String, Package> packages = new HashMap<>();
+            for(String name : this.catalogue.keySet()) {
+                packages.put(name, new Package(name, packages.size()));
+            }
+            
+            for(Map.Entry<String, Map<SemVer, Map<String, VersionRange>>> entry : this.catalogue.entrySet()) {
+                final Package pkg = packages.get(entry.getKey());
+                final List<Map.Entry<SemVer, Map<String, VersionRange>>> versions = new ArrayList<>(entry.getValue().entrySet());
+                versions.sort(Map.Entry.comparingByKey(SemVer.BUILD_ORDER));
+                
+                // versions with the same dependency share it
+                final Map<String, Map<VersionRange, Dependency>> shared = new HashMap<>();
+                final List<Dependency> dependencies = new ArrayList<>();
+                pkg.versions = new SemVer[versions.size()];
+                pkg.dependenciesOf = new int[versions.size()][];
+                for(int i = 0; i < versions.size(); i++) {
+                    pkg.versions[i] = versions.get(i).getKey();
+                    
+                    final Map<String, VersionRange> ranges = versions.get(i).getValue();
+                    final int[] indexes = new int[ranges.size()];
+                    int j = 0;
+                    for(Map.Entry<String, VersionRange> range : ranges.entrySet()) {
+                        Dependency dependency = shared.computeIfAbsent(range.getKey(), key -> new HashMap<>()).get(range.getValue());
+                        if(dependency == null) {
+                            Package target = packages.get(range.getKey());
+                            if(target == null) {
+                                // dependencies on packages outside the catalogue get empty packages
+                                target = new Package(range.getKey(), packages.size());
+                                packages.put(target.name, target);
+                            }
+                            dependency = new Dependency(target, range.getValue(), dependencies.size());
+                            shared.get(range.getKey()).put(range.getValue(), dependency);
+                            dependencies.add(dependency);
+                        }
+                        dependency.sources.set(i);
+                        indexes[j++] = dependency.index;
+                    }
+                    pkg.dependenciesOf[i] = indexes;
+                }
+                pkg.dependencies = dependencies.toArray(new Dependency[dependencies.size()]);
+            }
+            
+            // the versions of every package are known only now
+            for(Package pkg : packages.values()) {
+                for(Dependency dependency : pkg.dependencies) {
+                    dependency.target.cache(dependency.range);
+                }
+            }
+            
+            return new Resolver(packages);
+        }
+    }
+}
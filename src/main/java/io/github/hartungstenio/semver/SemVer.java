@@ -11,11 +11,16 @@
  */
 package io.github.hartungstenio.semver;
 
-import java.util.ArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -52,6 +57,45 @@ public class SemVer implements Comparable<SemVer> {
      */
     public static SemVer INITIAL = SemVer.of(0, 0, 1, "SNAPSHOT");
     
+    /**
+     * Orders versions by precedence, ignoring build metadata.
+     * <p>
+     * This is the natural order of {@code SemVer}, and is not consistent with
+     * {@link #equals(Object)}: versions that only differ by build metadata are
+     * equivalent in this order.
+     * 
+     * @see #compareTo(SemVer)
+     */
+    public static final Comparator<SemVer> PRECEDENCE_ORDER = new Comparator<SemVer>() {
+        @Override
+        public int compare(final SemVer a, final SemVer b) {
+            return a.compareTo(b);
+        }
+    };
+    
+    /**
+     * Orders versions by precedence, then by the text of the identifiers.
+     * <p>
+     * Versions with the same precedence are ordered by their pre-release tags as text,
+     * which only differ for numbers with leading zeros, and then by their build identifiers,
+     * compared one by one as text, with fewer identifiers first. This order is consistent
+     * with {@link #equals(Object)}, and is suitable for sorted sets and maps.
+     */
+    public static final Comparator<SemVer> BUILD_ORDER = new Comparator<SemVer>() {
+        @Override
+        public int compare(final SemVer a, final SemVer b) {
+            int cmp = a.compareTo(b);
+            if(cmp == 0) {
+                cmp = compareTexts(a.preRelease, b.preRelease);
+                if(cmp == 0) {
+                    cmp = compareTexts(a.build, b.build);
+                }
+            }
+            
+            return cmp;
+        }
+    };
+    
     /**
      * The MAJOR version.
      */
@@ -70,12 +114,49 @@ public class SemVer implements Comparable<SemVer> {
     /**
      * The pre-release tags
      */
-    private final Collection<?> preRelease;
+    private final Identifier[] preRelease;
     
     /**
      * The build metadata
      */
-    private final Collection<?> build;
+    private final Identifier[] build;
+    
+    /**
+     * The MAJOR, MINOR and PATCH versions packed in a single value, or {@link #UNPACKED}
+     */
+    private final long core;
+    
+    /**
+     * The hash code, computed on first use. Zero if not computed yet.
+     */
+    private int hash;
+    
+    /**
+     * The string representation, computed on first use.
+     */
+    private String text;
+    
+    /**
+     * Number of bits used by each of the MAJOR, MINOR and PATCH versions in the packed core
+     */
+    private static final int CORE_BITS = 21;
+    
+    /**
+     * Marks a core that has a number too big to be packed
+     */
+    private static final long UNPACKED = -1L;
+    
+    /**
+     * No tags, shared by all released versions
+     */
+    private static final Identifier[] NO_IDENTIFIERS = new Identifier[0];
+    
+    /**
+     * The powers of ten that fit an {@code int}, used to format the numbers
+     */
+    private static final int[] POWERS_OF_TEN = {
+        1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000
+    };
     
     //-----------------------------------------------------------------------
     /**
@@ -150,79 +231,171 @@ public class SemVer implements Comparable<SemVer> {
      */
     private static SemVer create(final int major, final int minor, final int patch,
             final Collection<?> preRelease, final Collection<?> build) {
-        if(major < 0) throw new SemVerException("Invalid MAJOR version");
-        if(minor < 0) throw new SemVerException("Invalid MINOR version");
-        if(patch < 0) throw new SemVerException("Invalid PATCH version");
+        checkCore(major, minor, patch);
         
         return new SemVer(
                 major,
                 minor,
                 patch,
-                Objects.requireNonNull(preRelease, "Invalid pre-release tags"),
-                Objects.requireNonNull(build, "Invalid build metadata")
+                identifiers(Objects.requireNonNull(preRelease, "Invalid pre-release tags")),
+                identifiers(Objects.requireNonNull(build, "Invalid build metadata"))
                );
     }
     
-    public static SemVer parse(final String versionStr) {
-        if(versionStr == null) throw new SemVerException("null");
-        if(versionStr.isEmpty()) throw new SemVerException("empty");
-        
-        final char[] versionChars = versionStr.toCharArray();
-        int begin = 0;
-        int current = 0;
-        int len = versionChars.length;
-        
-        boolean build = false;
-        boolean pr = false;
-        
-        Integer major = null;
-        Integer minor = null;
-        Integer patch = null;
-        List<Object> buildMetadata = new ArrayList<>();
-        List<Object> preReleaseIdentifiers = new ArrayList<>();
-        
-        while(++current <= len) {
-            if(current == len || versionChars[current] == '.' || versionChars[current]== '-' || versionChars[current] == '+') {
-                String buf = String.valueOf(versionChars, begin, current - begin);
-                begin = current + 1;
-                
-                if(pr) {
-                    preReleaseIdentifiers.add(buf);
-                } else if(build) {
-                    buildMetadata.add(buf);
-                } else {
-                    int val = Integer.parseInt(buf);
-                    if(major == null) major = val;
-                    else if(minor == null) minor = val;
-                    else if(patch == null) patch = val;
-                    else throw new SemVerException(versionStr);
-                }
-                
-                if(current < len && versionChars[current] != '.') {
-                    pr = (versionChars[current]== '-');
-                    build = (versionChars[current] == '+');
-                }
-            }
+    /**
+     * Validates the MAJOR, MINOR and PATCH versions.
+     * 
+     * @param major the MAJOR version
+     * @param minor the MINOR version
+     * @param patch the PATCH version
+     * @throws SemVerException if the value of any field is out of range
+     */
+    private static void checkCore(final int major, final int minor, final int patch) {
+        if(major < 0) throw new SemVerException("Invalid MAJOR version");
+        if(minor < 0) throw new SemVerException("Invalid MINOR version");
+        if(patch < 0) throw new SemVerException("Invalid PATCH version");
+    }
+    
+    /**
+     * Converts tags supplied by the caller to identifiers, so later changes do not affect the version.
+     * 
+     * @param tags the tags to convert, not null
+     * @return the identifiers, not null
+     */
+    private static Identifier[] identifiers(final Collection<?> tags) {
+        if(tags.isEmpty()) return NO_IDENTIFIERS;
+        
+        final Identifier[] identifiers = new Identifier[tags.size()];
+        int i = 0;
+        for(Object tag : tags) {
+            identifiers[i++] = Identifier.from(Objects.requireNonNull(tag, "Invalid tag"));
         }
-
-        return create(major, minor, patch, preReleaseIdentifiers, buildMetadata);
+        
+        return identifiers;
     }
-
+    
+    /**
+     * Obtains an instance of {@code SemVer} from a text string such as {@code 1.0.0-alpha+001}.
+     * 
+     * @param versionStr the text to parse, not null
+     * @return the parsed version, not null
+     * @throws SemVerException if the text cannot be parsed
+     * @see #parse(CharSequence)
+     */
+    public static SemVer parse(final String versionStr) {
+        return parse((CharSequence)versionStr);
+    }
+    
+    /**
+     * Obtains an instance of {@code SemVer} from a text such as {@code 1.0.0-alpha+001}.
+     * <p>
+     * This uses the {@link SemVerParser#LOOSE loose} parser, that splits the text on
+     * dots, hyphens and pluses, and accepts any character in identifiers. Use
+     * {@link SemVerParser#STRICT} to only accept the SemVer 2.0.0 grammar.
+     * <p>
+     * Use {@link #tryParse(CharSequence, ParseResult)} to check text that is often
+     * malformed without the cost of an exception.
+     * 
+     * @param text the text to parse, not null
+     * @return the parsed version, not null
+     * @throws SemVerException if the text is null, empty, has a missing, negative or invalid
+     *         number, or has more than three numeric parts
+     */
+    public static SemVer parse(final CharSequence text) {
+        return SemVerParser.LOOSE.parse(text);
+    }
+    
+    /**
+     * Obtains an instance of {@code SemVer} from a text, without throwing exceptions.
+     * <p>
+     * This accepts the same text as {@link #parse(CharSequence)}, but reports the
+     * errors in a new {@link ParseResult}.
+     * 
+     * @param text the text to parse, may be null
+     * @return the result, with the version or the error, not null
+     */
+    public static ParseResult tryParse(final CharSequence text) {
+        return SemVerParser.LOOSE.tryParse(text);
+    }
+    
+    /**
+     * Obtains an instance of {@code SemVer} from a text, reusing a result.
+     * <p>
+     * This accepts the same text as {@link #parse(CharSequence)}, but reports the
+     * errors in the supplied {@link ParseResult}, that is cleared first. This does
+     * not allocate anything for malformed text, so a single result can validate
+     * many versions:
+     * <pre>
+     *   ParseResult result = new ParseResult();
+     *   for(String line : lines) {
+     *       if(SemVer.tryParse(line, result)) {
+     *           versions.add(result.getVersion());
+     *       } else {
+     *           log.warn(line + ": " + result.getMessage());
+     *       }
+     *   }
+     * </pre>
+     * 
+     * @param text the text to parse, may be null
+     * @param result the result to fill, not null
+     * @return true if the text is a valid version
+     */
+    public static boolean tryParse(final CharSequence text, final ParseResult result) {
+        return SemVerParser.LOOSE.tryParse(text, result);
+    }
+    
+    /**
+     * Obtains an instance of {@code SemVer} from fields validated by a parser.
+     * <p>
+     * The arrays are not copied, so the parser must not keep them.
+     * 
+     * @param major the MAJOR version, non-negative
+     * @param minor the MINOR version, non-negative
+     * @param patch the PATCH version, non-negative
+     * @param preRelease the pre-release tags, not null
+     * @param build the build metadata, not null
+     * @return the version, not null
+     */
+    static SemVer ofParsed(final int major, final int minor, final int patch,
+            final Identifier[] preRelease, final Identifier[] build) {
+        return new SemVer(major, minor, patch,
+                preRelease.length == 0 ? NO_IDENTIFIERS : preRelease,
+                build.length == 0 ? NO_IDENTIFIERS : build);
+    }
+    
     /**
      * Constructor, previously validated.
      * 
      * @param major the MAJOR number
      * @param minor the MINOR number
      * @param patch the PATCH number
-     * @param preRelease the pre-release tags
-     * @param build the build metadata
+     * @param preRelease the pre-release tags, not shared with the caller
+     * @param build the build metadata, not shared with the caller
      */
-    private SemVer(final int major, final int minor, final int patch, final Collection<?> preRelease, final Collection<?> build) {
+    private SemVer(final int major, final int minor, final int patch, final Identifier[] preRelease, final Identifier[] build) {
         this.major = major;
         this.minor = minor;
         this.patch = patch;
-        this.preRelease = Collections.unmodifiableCollection(preRelease);
-        this.build = Collections.unmodifiableCollection(build);
+        this.preRelease = preRelease;
+        this.build = build;
+        this.core = pack(major, minor, patch);
+    }
+    
+    /**
+     * Packs the MAJOR, MINOR and PATCH versions in a single {@code long}.
+     * <p>
+     * Packed values keep the order of the versions, so two packed cores can
+     * be compared with a single primitive comparison.
+     * 
+     * @param major the MAJOR version, non-negative
+     * @param minor the MINOR version, non-negative
+     * @param patch the PATCH version, non-negative
+     * @return the packed core, or {@link #UNPACKED} if any number is too big
+     */
+    private static long pack(final int major, final int minor, final int patch) {
+        if(((major | minor | patch) >>> CORE_BITS) != 0) return UNPACKED;
+        
+        return ((long)major << (2 * CORE_BITS)) | ((long)minor << CORE_BITS) | patch;
     }
     
     //-----------------------------------------------------------------------
@@ -255,18 +428,70 @@ public class SemVer implements Comparable<SemVer> {
     
     /**
      * Gets the pre-release tags
-     * @return the pre-release tags, not null
+     * @return the pre-release tags, unmodifiable, not null
      */
-    public Collection<?> getPreRelease() {
-        return this.preRelease;
+    public List<Identifier> getPreRelease() {
+        return this.preRelease.length == 0 ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(this.preRelease));
     }
     
     /**
      * Gets the build metadata
-     * @return the build metadata, not null
+     * @return the build metadata, unmodifiable, not null
      */
-    public Collection<?> getBuild() {
-        return this.build;
+    public List<Identifier> getBuild() {
+        return this.build.length == 0 ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(this.build));
+    }
+    
+    /**
+     * Gets the number of pre-release tags.
+     * 
+     * @return the number of tags, zero for a normal version
+     */
+    public int getPreReleaseCount() {
+        return this.preRelease.length;
+    }
+    
+    /**
+     * Gets a pre-release tag.
+     * 
+     * @param index the position of the tag
+     * @return the tag, not null
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public Identifier getPreRelease(final int index) {
+        return this.preRelease[index];
+    }
+    
+    /**
+     * Gets the number of build identifiers.
+     * 
+     * @return the number of identifiers, zero without build metadata
+     */
+    public int getBuildCount() {
+        return this.build.length;
+    }
+    
+    /**
+     * Gets a build identifier.
+     * 
+     * @param index the position of the identifier
+     * @return the identifier, not null
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public Identifier getBuild(final int index) {
+        return this.build[index];
+    }
+    
+    /**
+     * Gets the MAJOR, MINOR and PATCH versions packed in a single value.
+     * <p>
+     * Packed cores keep the order of the versions. Versions with any number too big
+     * to be packed return a negative value, and must be compared with {@link #compareTo(SemVer)}.
+     * 
+     * @return the packed core, or a negative value if not packed
+     */
+    long packedCore() {
+        return this.core;
     }
     
     //-----------------------------------------------------------------------
@@ -279,48 +504,270 @@ public class SemVer implements Comparable<SemVer> {
      * @return true if the version is a pre-release, false otherwise
      */
     public boolean isPreRelease() {
-        return this.major == 0 || !this.preRelease.isEmpty();
+        return this.major == 0 || this.preRelease.length != 0;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains the next MAJOR version, such as {@code 2.0.0} for {@code 1.4.2}.
+     * <p>
+     * A pre-release of a MAJOR version, such as {@code 2.0.0-rc.1}, is promoted to
+     * that version instead. Build metadata is dropped.
+     * 
+     * @return the next MAJOR version, not null
+     * @throws SemVerException if the MAJOR version cannot be incremented
+     */
+    public SemVer nextMajor() {
+        if(this.preRelease.length != 0 && this.minor == 0 && this.patch == 0) return new SemVer(this.major, 0, 0, NO_IDENTIFIERS, NO_IDENTIFIERS);
+        if(this.major == Integer.MAX_VALUE) throw new SemVerException("Invalid MAJOR version");
+        
+        return new SemVer(this.major + 1, 0, 0, NO_IDENTIFIERS, NO_IDENTIFIERS);
+    }
+    
+    /**
+     * Obtains the next MINOR version, such as {@code 1.5.0} for {@code 1.4.2}.
+     * <p>
+     * A pre-release of a MINOR version, such as {@code 1.5.0-rc.1}, is promoted to
+     * that version instead. Build metadata is dropped.
+     * 
+     * @return the next MINOR version, not null
+     * @throws SemVerException if the MINOR version cannot be incremented
+     */
+    public SemVer nextMinor() {
+        if(this.preRelease.length != 0 && this.patch == 0) return new SemVer(this.major, this.minor, 0, NO_IDENTIFIERS, NO_IDENTIFIERS);
+        if(this.minor == Integer.MAX_VALUE) throw new SemVerException("Invalid MINOR version");
+        
+        return new SemVer(this.major, this.minor + 1, 0, NO_IDENTIFIERS, NO_IDENTIFIERS);
+    }
+    
+    /**
+     * Obtains the next PATCH version, such as {@code 1.4.3} for {@code 1.4.2}.
+     * <p>
+     * A pre-release, such as {@code 1.4.3-rc.1}, is promoted to its normal
+     * version instead. Build metadata is dropped.
+     * 
+     * @return the next PATCH version, not null
+     * @throws SemVerException if the PATCH version cannot be incremented
+     */
+    public SemVer nextPatch() {
+        if(this.preRelease.length != 0) return new SemVer(this.major, this.minor, this.patch, NO_IDENTIFIERS, NO_IDENTIFIERS);
+        
+        return new SemVer(this.major, this.minor, nextPatchNumber(), NO_IDENTIFIERS, NO_IDENTIFIERS);
+    }
+    
+    /**
+     * Gets the PATCH version after this one.
+     * 
+     * @return the next PATCH version, positive
+     * @throws SemVerException if the PATCH version cannot be incremented
+     */
+    private int nextPatchNumber() {
+        if(this.patch == Integer.MAX_VALUE) throw new SemVerException("Invalid PATCH version");
+        
+        return this.patch + 1;
+    }
+    
+    /**
+     * Obtains the normal version of this version, such as {@code 1.0.0} for {@code 1.0.0-rc.1+b42}.
+     * <p>
+     * Both the pre-release tags and the build metadata are dropped.
+     * 
+     * @return the normal version, this if already normal, not null
+     */
+    public SemVer release() {
+        if(this.preRelease.length == 0 && this.build.length == 0) return this;
+        
+        return new SemVer(this.major, this.minor, this.patch, NO_IDENTIFIERS, NO_IDENTIFIERS);
+    }
+    
+    /**
+     * Obtains the next pre-release, as npm does.
+     * <p>
+     * The last numeric pre-release tag is incremented, or {@code 0} is appended if there
+     * is none, so {@code 1.0.0-rc.1} becomes {@code 1.0.0-rc.2} and {@code 1.0.0-beta}
+     * becomes {@code 1.0.0-beta.0}. A normal version becomes the first pre-release of
+     * the next PATCH version, so {@code 1.0.0} becomes {@code 1.0.1-0}. Build metadata is dropped.
+     * 
+     * @return the next pre-release, not null
+     * @throws SemVerException if the version cannot be incremented
+     */
+    public SemVer incrementPreRelease() {
+        if(this.preRelease.length == 0) {
+            return new SemVer(this.major, this.minor, nextPatchNumber(), new Identifier[] { Identifier.of(0) }, NO_IDENTIFIERS);
+        }
+        
+        for(int i = this.preRelease.length - 1; i >= 0; i--) {
+            if(this.preRelease[i].isNumeric()) {
+                final Identifier[] tags = this.preRelease.clone();
+                tags[i] = increment(tags[i]);
+                return new SemVer(this.major, this.minor, this.patch, tags, NO_IDENTIFIERS);
+            }
+        }
+        
+        final Identifier[] tags = Arrays.copyOf(this.preRelease, this.preRelease.length + 1);
+        tags[this.preRelease.length] = Identifier.of(0);
+        return new SemVer(this.major, this.minor, this.patch, tags, NO_IDENTIFIERS);
+    }
+    
+    /**
+     * Obtains the next pre-release with a name, as npm does.
+     * <p>
+     * If the first pre-release tag is the name, the pre-release is incremented as
+     * {@link #incrementPreRelease()} does, so {@code 1.0.0-rc.1} becomes {@code 1.0.0-rc.2}.
+     * Otherwise the pre-release becomes the name followed by {@code 0}, so {@code 1.0.0-beta.3}
+     * becomes {@code 1.0.0-rc.0}. A normal version becomes the first pre-release of the next
+     * PATCH version, so {@code 1.0.0} becomes {@code 1.0.1-rc.0}. Build metadata is dropped.
+     * 
+     * @param name the name of the pre-release, such as {@code rc}, not null
+     * @return the next pre-release, not null
+     * @throws SemVerException if the version cannot be incremented
+     */
+    public SemVer incrementPreRelease(final String name) {
+        final Identifier identifier = Identifier.of(name);
+        if(this.preRelease.length != 0 && this.preRelease[0].equals(identifier)) return incrementPreRelease();
+        
+        final Identifier[] tags = new Identifier[] { identifier, Identifier.of(0) };
+        return new SemVer(this.major, this.minor, this.preRelease.length == 0 ? nextPatchNumber() : this.patch, tags, NO_IDENTIFIERS);
+    }
+    
+    /**
+     * Obtains a copy of this version with other pre-release tags.
+     * <p>
+     * The build metadata is kept.
+     * 
+     * @param preRelease the pre-release tags, empty for a normal version
+     * @return the version with the tags, not null
+     */
+    public SemVer withPreRelease(final Object... preRelease) {
+        return withPreRelease(Arrays.asList(preRelease));
+    }
+    
+    /**
+     * Obtains a copy of this version with other pre-release tags.
+     * <p>
+     * The build metadata is kept, and shared with this version.
+     * 
+     * @param preRelease the pre-release tags, empty for a normal version, not null
+     * @return the version with the tags, not null
+     */
+    public SemVer withPreRelease(final Collection<?> preRelease) {
+        return new SemVer(this.major, this.minor, this.patch,
+                identifiers(Objects.requireNonNull(preRelease, "Invalid pre-release tags")), this.build);
+    }
+    
+    /**
+     * Obtains a copy of this version with other build metadata.
+     * <p>
+     * The pre-release tags are kept.
+     * 
+     * @param build the build metadata, empty for none
+     * @return the version with the build metadata, not null
+     */
+    public SemVer withBuild(final Object... build) {
+        return withBuild(Arrays.asList(build));
+    }
+    
+    /**
+     * Obtains a copy of this version with other build metadata.
+     * <p>
+     * The pre-release tags are kept, and shared with this version.
+     * 
+     * @param build the build metadata, empty for none, not null
+     * @return the version with the build metadata, not null
+     */
+    public SemVer withBuild(final Collection<?> build) {
+        return new SemVer(this.major, this.minor, this.patch, this.preRelease,
+                identifiers(Objects.requireNonNull(build, "Invalid build metadata")));
+    }
+    
+    /**
+     * Increments a numeric identifier.
+     * 
+     * @param identifier the identifier, numeric
+     * @return the next identifier, not null
+     * @throws SemVerException if the identifier is too big to be incremented
+     */
+    private static Identifier increment(final Identifier identifier) {
+        final long number = identifier.numericValue();
+        if(number >= Long.MAX_VALUE - 1) throw new SemVerException("Numeric identifier too big: " + identifier);
+        
+        return Identifier.of(number + 1);
     }
     
     //-----------------------------------------------------------------------
     /**
      * Compares this version to another version
      * <p>
-     * The comparison is primarily based on the date, from earliest to latest.
-     * It is "consistent with equals", as defined by {@link Comparable}.
+     * The comparison is based on the precedence rules of Semantic Versioning:
+     * MAJOR, MINOR and PATCH are compared numerically, a pre-release has lower
+     * precedence than the associated normal version, and pre-release tags are
+     * compared one by one. Build metadata is not taken into account.
+     * <p>
+     * This ordering is not "consistent with equals", as defined by {@link Comparable}:
+     * versions that only differ by build metadata are equivalent, but not equal.
+     * Use {@link #BUILD_ORDER} for sorted sets and maps.
+     * 
+     * @implNote
+     * The comparison runs in tiers, each one only reached when the previous one ties:
+     * <ol>
+     * <li>the packed MAJOR.MINOR.PATCH, computed when the version is created, with a
+     * single primitive comparison;</li>
+     * <li>whether each side has pre-release tags, a check of the array lengths. Normal
+     * versions, and versions sharing their tags, are decided here;</li>
+     * <li>the pre-release tags, one by one, only when both sides have them.</li>
+     * </ol>
+     * Numbers too big to be packed are compared one by one, with {@code Integer.compare}.
+     * 
+     * @param otherVersion  the other version to compare to, not null
+     * @return the comparator value, negative if less, positive if greater
+     */
+    @Override
+    public int compareTo(final SemVer otherVersion) {
+        final int cmp = compareCores(otherVersion);
+        if(cmp != 0) return coreDecided(cmp);
+        
+        final Identifier[] thisTags = this.preRelease;
+        final Identifier[] otherTags = otherVersion.preRelease;
+        
+        // normal versions share the empty array
+        if(thisTags == otherTags) return coreDecided(0);
+        
+        final int thisSize = thisTags.length;
+        final int otherSize = otherTags.length;
+        if(thisSize == 0) return coreDecided(1);
+        if(otherSize == 0) return coreDecided(-1);
+        
+        if(Metrics.ENABLED) Metrics.listener.onTagCompare();
+        return compareTags(thisTags, otherTags);
+    }
+    
+    /**
+     * Reports a comparison decided without comparing the pre-release tags one by one.
+     * 
+     * @param cmp the comparator value
+     * @return the comparator value
+     */
+    private static int coreDecided(final int cmp) {
+        if(Metrics.ENABLED) Metrics.listener.onCoreCompare();
+        return cmp;
+    }
+    
+    /**
+     * Compares the MAJOR, MINOR and PATCH versions.
      * 
-     * @param other  the other version to compare to, not null
+     * @param otherVersion the other version to compare to, not null
      * @return the comparator value, negative if less, positive if greater
      */
-    public int compareTo(SemVer otherVersion) {
-        int cmp = this.major - otherVersion.major;
+    private int compareCores(final SemVer otherVersion) {
+        final long thisCore = this.core;
+        final long otherCore = otherVersion.core;
+        if(thisCore != UNPACKED && otherCore != UNPACKED) return Long.compare(thisCore, otherCore);
+        
+        int cmp = Integer.compare(this.major, otherVersion.major);
         if(cmp == 0) {
-            cmp = this.minor - otherVersion.minor;
+            cmp = Integer.compare(this.minor, otherVersion.minor);
             if(cmp == 0) {
-                cmp = this.patch - otherVersion.patch;
-            }
-            
-            if(cmp == 0) {
-                cmp = Boolean.compare(otherVersion.isPreRelease(), this.isPreRelease());
-                
-                if(cmp == 0) {
-                    Iterator<?> thisIterator = this.preRelease.iterator();
-                    Iterator<?> otherIterator = otherVersion.preRelease.iterator();
-                    
-                    while(cmp == 0 && thisIterator.hasNext() && otherIterator.hasNext()) {
-                        String thisPR = thisIterator.next().toString();
-                        String otherPR = otherIterator.next().toString();
-                        cmp = compareTags(thisPR, otherPR);
-                    }
-                    
-                    if(cmp == 0) {
-                        if(thisIterator.hasNext()) {
-                            cmp = 1;
-                        } else if(otherIterator.hasNext()) {
-                            cmp = -1;
-                        }
-                    }
-                }
+                cmp = Integer.compare(this.patch, otherVersion.patch);
             }
         }
         
@@ -328,41 +775,37 @@ public class SemVer implements Comparable<SemVer> {
     }
     
     /**
-     * Compares two tag identifiers
-     * <p>
-     * Identifiers consisting of only digits are compared numerically and identifiers
-     * with letters or hyphens are compared lexically in ASCII sort order. Numeric
-     * identifiers always have lower precedence than non-numeric identifiers
-     * @param thisTag the tag from this object
-     * @param otherTag the tag from the other object
+     * Compares pre-release tags one by one, with fewer tags first when one is a prefix of the other.
+     * 
+     * @param thisTags the tags of this version, not empty
+     * @param otherTags the tags of the other version, not empty
      * @return the comparator value, negative if less, positive if greater
      */
-    private int compareTags(String thisTag, String otherTag) {
-        Integer thisNum = null;
-        Integer otherNum = null;
-        int cmp = 0;
-        
-        try {
-            thisNum = Integer.parseUnsignedInt(thisTag);
-        } catch(NumberFormatException e) { }
+    private static int compareTags(final Identifier[] thisTags, final Identifier[] otherTags) {
+        final int size = Math.min(thisTags.length, otherTags.length);
+        for(int i = 0; i < size; i++) {
+            final int cmp = thisTags[i].compareTo(otherTags[i]);
+            if(cmp != 0) return cmp;
+        }
         
-        try {
-            otherNum = Integer.parseUnsignedInt(otherTag);
-        } catch(NumberFormatException e) { }
-        
-        if(thisNum != null && otherNum != null) {
-            cmp = thisNum.intValue() - otherNum.intValue();
-        } else {
-            if(thisNum != null) {
-                cmp = -thisNum.intValue();
-            } else if(otherNum != null) {
-                cmp = -otherNum.intValue();
-            } else {
-                cmp = thisTag.compareTo(otherTag);
-            }
+        return Integer.compare(thisTags.length, otherTags.length);
+    }
+    
+    /**
+     * Compares identifiers as text, one by one.
+     * 
+     * @param thisTexts the identifiers from this object
+     * @param otherTexts the identifiers from the other object
+     * @return the comparator value, negative if less, positive if greater
+     */
+    private static int compareTexts(final Identifier[] thisTexts, final Identifier[] otherTexts) {
+        final int size = Math.min(thisTexts.length, otherTexts.length);
+        for(int i = 0; i < size; i++) {
+            final int cmp = thisTexts[i].getText().compareTo(otherTexts[i].getText());
+            if(cmp != 0) return cmp;
         }
         
-        return cmp;
+        return Integer.compare(thisTexts.length, otherTexts.length);
     }
     
     /**
@@ -431,16 +874,67 @@ public class SemVer implements Comparable<SemVer> {
         return major == otherVersion.major && compareTo(otherVersion) >= 0;
     }
     
+    //-----------------------------------------------------------------------
+    /**
+     * Writes this version to a buffer, in the compact binary format.
+     * 
+     * @param buffer the buffer to write, from its position, not null
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     * @see SemVerCodec
+     */
+    public void writeTo(final ByteBuffer buffer) {
+        SemVerCodec.encode(this, buffer);
+    }
+    
+    /**
+     * Writes this version to a data output, in the compact binary format.
+     * 
+     * @param out the output, not null
+     * @throws IOException if the output cannot be written
+     * @see SemVerCodec
+     */
+    public void writeTo(final DataOutput out) throws IOException {
+        SemVerCodec.encode(this, out);
+    }
+    
+    /**
+     * Reads a version from a buffer, in the compact binary format.
+     * 
+     * @param buffer the buffer to read, from its position, not null
+     * @return the version, not null
+     * @throws SemVerException if the bytes are not a valid version
+     * @see SemVerCodec
+     */
+    public static SemVer readFrom(final ByteBuffer buffer) {
+        return SemVerCodec.decode(buffer);
+    }
+    
+    /**
+     * Reads a version from a data input, in the compact binary format.
+     * 
+     * @param in the input, not null
+     * @return the version, not null
+     * @throws IOException if the input cannot be read
+     * @throws SemVerException if the bytes are not a valid version
+     * @see SemVerCodec
+     */
+    public static SemVer readFrom(final DataInput in) throws IOException {
+        return SemVerCodec.decode(in);
+    }
+    
     //-----------------------------------------------------------------------
     /**
      * Checks if this version is equal to another version.
      * <p>
      * Compares this {@code SemVer} with another ensuring that the version is the same.
+     * Two versions are equal if they have the same MAJOR, MINOR and PATCH versions,
+     * and the same pre-release and build identifiers, compared as text.
      * <p>
      * Only objects of type {@code SemVer} are compared, other types return false.
      * 
      * @implSpec
-     * This takes build tags into account.
+     * This takes build tags into account, so versions with the same precedence
+     * may not be equal. See {@link #compareTo(SemVer)}.
      * 
      * @param obj  the object to check, null returns false
      * @return true if this is equal to the other version
@@ -450,7 +944,13 @@ public class SemVer implements Comparable<SemVer> {
         if(this == obj) return true;
         
         if(obj instanceof SemVer) {
-            return compareTo((SemVer)obj) == 0;
+            final SemVer other = (SemVer)obj;
+            return this.major == other.major
+                    && this.minor == other.minor
+                    && this.patch == other.patch
+                    && (this.hash == 0 || other.hash == 0 || this.hash == other.hash)
+                    && Arrays.equals(this.preRelease, other.preRelease)
+                    && Arrays.equals(this.build, other.build);
         }
         
         return false;
@@ -458,18 +958,26 @@ public class SemVer implements Comparable<SemVer> {
     
     /**
      * A hash code for this version.
+     * <p>
+     * The hash code is consistent with {@link #equals(Object)}. It is computed on
+     * first use, and kept by the version.
      *
      * @return a suitable hash code
      */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + this.major;
-        result = prime * result + this.minor;
-        result = prime * result + this.patch;
-        result = prime * result + this.preRelease.hashCode();
-        result = prime * result + this.build.hashCode();
+        int result = this.hash;
+        if(result == 0) {
+            final int prime = 31;
+            result = 1;
+            result = prime * result + this.major;
+            result = prime * result + this.minor;
+            result = prime * result + this.patch;
+            result = prime * result + Arrays.hashCode(this.preRelease);
+            result = prime * result + Arrays.hashCode(this.build);
+            this.hash = result;
+        }
+        
         return result;
     }
     
@@ -478,33 +986,279 @@ public class SemVer implements Comparable<SemVer> {
      * Outputs this versuib as a {@code String}, such as {@code 1.0.0-alpha.1}.
      * <p>
      * The output will be in the Semantic Versioning format {@code MAJOR.MINOR.PATCH-pre-release+build}.
+     * It is computed on first use, and kept by the version.
      *
      * @return a string representation of this version, not null
      */
     @Override
     public String toString() {
-        StringBuilder buf = new StringBuilder();
+        String result = this.text;
+        if(result == null) {
+            result = format();
+            this.text = result;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Gets the number of characters of the {@link #toString() string representation}.
+     * <p>
+     * This is computed from the numbers and tags, without formatting the version, so
+     * it can size a buffer before {@link #formatTo(ByteBuffer)}.
+     * 
+     * @return the length of the formatted version, positive
+     */
+    public int formattedLength() {
+        final String cached = this.text;
+        if(cached != null) return cached.length();
         
-        buf.append(this.major).append('.').append(this.minor).append('.').append(this.patch);
+        return digits(this.major) + digits(this.minor) + digits(this.patch) + 2
+                + sectionLength(this.preRelease) + sectionLength(this.build);
+    }
+    
+    /**
+     * Appends the {@link #toString() string representation} of this version.
+     * <p>
+     * The numbers are appended digit by digit and the tags as the text they
+     * already hold, so nothing is allocated for this version.
+     * 
+     * @param <A> the type of the output
+     * @param out the output, not null
+     * @return the output
+     * @throws IOException if the output cannot be written
+     */
+    public <A extends Appendable> A formatTo(final A out) throws IOException {
+        final String cached = this.text;
+        if(cached != null) {
+            out.append(cached);
+            return out;
+        }
         
-        if(!this.preRelease.isEmpty()) {
-            buf.append('-');
-            for(Object pr : this.preRelease) {
-                buf.append(pr).append('.');
-            }
-            
-            buf.deleteCharAt(buf.length() - 1);
+        appendNumber(out, this.major);
+        out.append('.');
+        appendNumber(out, this.minor);
+        out.append('.');
+        appendNumber(out, this.patch);
+        appendSection(out, '-', this.preRelease);
+        appendSection(out, '+', this.build);
+        return out;
+    }
+    
+    /**
+     * Appends the {@link #toString() string representation} of this version to a builder.
+     * 
+     * @param buf the builder, not null
+     * @return the builder
+     * @see #formatTo(Appendable)
+     */
+    public StringBuilder formatTo(final StringBuilder buf) {
+        try {
+            formatTo((Appendable)buf);
+            return buf;
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
+    
+    /**
+     * Writes the {@link #toString() string representation} of this version as ASCII bytes.
+     * <p>
+     * Exactly {@link #formattedLength()} bytes are written. Versions with characters
+     * that are not ASCII, only accepted by the {@link SemVerParser#LOOSE loose} parser,
+     * are rejected before anything is written.
+     * 
+     * @param buffer the buffer to write, from its position, not null
+     * @throws java.nio.BufferOverflowException if the buffer is too small, in which case nothing is written
+     * @throws SemVerException if the version is not ASCII, in which case nothing is written
+     */
+    public void formatTo(final ByteBuffer buffer) {
+        if(buffer.remaining() < formattedLength()) throw new BufferOverflowException();
+        if(!isAscii(this.preRelease) || !isAscii(this.build)) throw new SemVerException("Not an ASCII version: " + this);
         
-        if(!this.build.isEmpty()) {
-            buf.append('+');
-            for(Object bm : this.build) {
-                buf.append(bm).append('.');
+        final String cached = this.text;
+        if(cached != null) {
+            putText(buffer, cached);
+            return;
+        }
+        
+        putNumber(buffer, this.major);
+        buffer.put((byte)'.');
+        putNumber(buffer, this.minor);
+        buffer.put((byte)'.');
+        putNumber(buffer, this.patch);
+        putSection(buffer, '-', this.preRelease);
+        putSection(buffer, '+', this.build);
+    }
+    
+    /**
+     * Formats this version as a {@code String}.
+     * <p>
+     * The characters are written to an array of the exact length, that is copied once
+     * to the string.
+     * 
+     * @return a string representation of this version, not null
+     */
+    private String format() {
+        final char[] chars = new char[formattedLength()];
+        
+        int pos = putNumber(chars, 0, this.major);
+        chars[pos++] = '.';
+        pos = putNumber(chars, pos, this.minor);
+        chars[pos++] = '.';
+        pos = putNumber(chars, pos, this.patch);
+        pos = putSection(chars, pos, '-', this.preRelease);
+        putSection(chars, pos, '+', this.build);
+        
+        return new String(chars);
+    }
+    
+    /**
+     * Counts the decimal digits of a number.
+     * 
+     * @param value the number, non-negative
+     * @return the number of digits, from 1 to 10
+     */
+    private static int digits(final int value) {
+        int digits = 1;
+        while(digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) digits++;
+        return digits;
+    }
+    
+    /**
+     * Counts the characters of a section of tags, with its leading separator.
+     * 
+     * @param tags the tags
+     * @return the number of characters, zero if there are no tags
+     */
+    private static int sectionLength(final Identifier[] tags) {
+        int length = tags.length;
+        for(Identifier tag : tags) {
+            length += tag.getText().length();
+        }
+        
+        return length;
+    }
+    
+    /**
+     * Appends the decimal digits of a number.
+     * 
+     * @param out the output
+     * @param value the number, non-negative
+     * @throws IOException if the output cannot be written
+     */
+    private static void appendNumber(final Appendable out, final int value) throws IOException {
+        for(int d = digits(value) - 1; d >= 0; d--) {
+            out.append((char)('0' + value / POWERS_OF_TEN[d] % 10));
+        }
+    }
+    
+    /**
+     * Appends a section of tags, if any.
+     * 
+     * @param out the output
+     * @param separator the character that starts the section
+     * @param tags the tags
+     * @throws IOException if the output cannot be written
+     */
+    private static void appendSection(final Appendable out, final char separator, final Identifier[] tags) throws IOException {
+        for(int i = 0; i < tags.length; i++) {
+            out.append(i == 0 ? separator : '.').append(tags[i].getText());
+        }
+    }
+    
+    /**
+     * Writes the decimal digits of a number.
+     * 
+     * @param buffer the buffer to write
+     * @param value the number, non-negative
+     */
+    private static void putNumber(final ByteBuffer buffer, final int value) {
+        for(int d = digits(value) - 1; d >= 0; d--) {
+            buffer.put((byte)('0' + value / POWERS_OF_TEN[d] % 10));
+        }
+    }
+    
+    /**
+     * Writes a section of tags, if any.
+     * 
+     * @param buffer the buffer to write
+     * @param separator the character that starts the section
+     * @param tags the tags
+     */
+    private static void putSection(final ByteBuffer buffer, final char separator, final Identifier[] tags) {
+        for(int i = 0; i < tags.length; i++) {
+            buffer.put((byte)(i == 0 ? separator : '.'));
+            putText(buffer, tags[i].getText());
+        }
+    }
+    
+    /**
+     * Writes the characters of a text, one byte each.
+     * 
+     * @param buffer the buffer to write
+     * @param text the text, ASCII
+     */
+    private static void putText(final ByteBuffer buffer, final String text) {
+        for(int i = 0; i < text.length(); i++) {
+            buffer.put((byte)text.charAt(i));
+        }
+    }
+    
+    /**
+     * Checks if the tags only have ASCII characters.
+     * 
+     * @param tags the tags
+     * @return true if every character is ASCII
+     */
+    private static boolean isAscii(final Identifier[] tags) {
+        for(Identifier tag : tags) {
+            final String text = tag.getText();
+            for(int i = 0; i < text.length(); i++) {
+                if(text.charAt(i) > 0x7F) return false;
             }
-            
-            buf.deleteCharAt(buf.length() - 1);
         }
         
-        return buf.toString();
+        return true;
+    }
+    
+    /**
+     * Writes the decimal digits of a number.
+     * 
+     * @param chars the array to write
+     * @param pos the position of the first digit
+     * @param value the number, non-negative
+     * @return the position after the last digit
+     */
+    private static int putNumber(final char[] chars, final int pos, final int value) {
+        final int end = pos + digits(value);
+        int v = value;
+        for(int i = end - 1; i >= pos; i--) {
+            chars[i] = (char)('0' + v % 10);
+            v /= 10;
+        }
+        
+        return end;
+    }
+    
+    /**
+     * Writes a section of tags, if any.
+     * 
+     * @param chars the array to write
+     * @param pos the position of the separator
+     * @param separator the character that starts the section
+     * @param tags the tags
+     * @return the position after the last tag
+     */
+    private static int putSection(final char[] chars, final int pos, final char separator, final Identifier[] tags) {
+        int p = pos;
+        for(int i = 0; i < tags.length; i++) {
+            chars[p++] = i == 0 ? separator : '.';
+            final String text = tags[i].getText();
+            text.getChars(0, text.length(), chars, p);
+            p += text.length();
+        }
+        
+        return p;
     }
 }
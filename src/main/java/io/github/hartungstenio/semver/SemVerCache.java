@@ -0,0 +1,347 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of shared {@code SemVer} instances.
+ * <p>
+ * Applications that see the same version strings over and over can use a cache
+ * to avoid parsing and allocating them again. Since {@code SemVer} is immutable
+ * and value-based, the same instance can be safely shared.
+ * <pre>
+ *   SemVerCache cache = new SemVerCache(4096);
+ *   SemVer a = cache.parse("1.0.0");
+ *   SemVer b = cache.parse("1.0.0");
+ *   a == b; // true, unless evicted in between
+ * </pre>
+ * <p>
+ * Versions are kept in two fixed-size tables, one keyed by the raw string and another
+ * keyed by the MAJOR, MINOR and PATCH versions. Each table is set-associative: a key
+ * maps to a bucket of four entries, so keys that share a bucket do not evict each
+ * other. A full bucket evicts with the second-chance policy: each hit marks its entry,
+ * and a miss replaces the first unmarked entry, clearing the marks it passes. Entries
+ * looked up again since the last eviction stay cached, and versions seen only once are
+ * the first to go. The cache never grows past its capacity, and repeated lookups of a
+ * cached key do not allocate.
+ * 
+ * @implSpec
+ * This class is thread-safe. Lookups never block. Concurrent misses in the same bucket
+ * may evict a different entry than a single thread would, but never corrupt the cache.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVerCache {
+    
+    /**
+     * The largest supported capacity.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    
+    /**
+     * The number of entries in each bucket.
+     */
+    private static final int WAYS = 4;
+    
+    /**
+     * The versions keyed by the parsed text.
+     */
+    private final Table parsed;
+    
+    /**
+     * The versions keyed by MAJOR, MINOR and PATCH versions.
+     */
+    private final Table released;
+    
+    /**
+     * Number of lookups answered from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+    
+    /**
+     * Number of lookups that created a new version.
+     */
+    private final LongAdder misses = new LongAdder();
+    
+    /**
+     * Creates a new cache.
+     * 
+     * @param capacity the number of entries kept for each kind of key, positive.
+     *      It is rounded up to a power of two.
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public SemVerCache(final int capacity) {
+        if(capacity <= 0) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        
+        final int size = capacity >= MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY : tableSizeFor(capacity);
+        this.parsed = new Table(size);
+        this.released = new Table(size);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains a shared instance of {@code SemVer} from a text string.
+     * 
+     * @param versionStr the text to parse, not null
+     * @return the version, not null
+     * @throws SemVerException if the text cannot be parsed
+     * @see SemVer#parse(String)
+     */
+    public SemVer parse(final String versionStr) {
+        if(versionStr == null) throw new SemVerException("null");
+        
+        final Table table = this.parsed;
+        final int bucket = table.bucketOf(versionStr.hashCode());
+        for(int i = bucket; i < bucket + table.ways; i++) {
+            final Entry entry = table.entries.get(i);
+            if(entry != null && versionStr.equals(entry.text)) return hit(entry);
+        }
+        
+        final SemVer version = SemVer.parse(versionStr);
+        table.insert(bucket, new Entry(versionStr, version));
+        miss();
+        
+        return version;
+    }
+    
+    /**
+     * Obtains a shared instance of {@code SemVer} from a MAJOR, MINOR and PATCH versions.
+     * 
+     * @param major the MAJOR version, non-negative
+     * @param minor the MINOR version, non-negative
+     * @param patch the PATCH version, non-negative
+     * @return the version, not null
+     * @throws SemVerException if the value of any field is out of range
+     * @see SemVer#of(int, int, int)
+     */
+    public SemVer of(final int major, final int minor, final int patch) {
+        final Table table = this.released;
+        final int bucket = table.bucketOf((major * 31 + minor) * 31 + patch);
+        for(int i = bucket; i < bucket + table.ways; i++) {
+            final Entry entry = table.entries.get(i);
+            if(entry != null) {
+                final SemVer cached = entry.version;
+                if(cached.getMajor() == major && cached.getMinor() == minor && cached.getPatch() == patch) return hit(entry);
+            }
+        }
+        
+        final SemVer version = SemVer.of(major, minor, patch);
+        table.insert(bucket, new Entry(null, version));
+        miss();
+        
+        return version;
+    }
+    
+    /**
+     * Records a hit, and marks its entry as recently used.
+     * 
+     * @param entry the entry found
+     * @return the version of the entry
+     */
+    private SemVer hit(final Entry entry) {
+        // only written when it changes, so hot entries are read-only
+        if(!entry.referenced) entry.referenced = true;
+        this.hits.increment();
+        if(Metrics.ENABLED) Metrics.listener.onCacheHit();
+        return entry.version;
+    }
+    
+    /**
+     * Records a miss.
+     */
+    private void miss() {
+        this.misses.increment();
+        if(Metrics.ENABLED) Metrics.listener.onCacheMiss();
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of entries kept for each kind of key.
+     * 
+     * @return the capacity, a power of two
+     */
+    public int capacity() {
+        return this.parsed.entries.length();
+    }
+    
+    /**
+     * Gets the number of lookups answered with a cached version.
+     * 
+     * @return the number of hits, non-negative
+     */
+    public long hitCount() {
+        return this.hits.sum();
+    }
+    
+    /**
+     * Gets the number of lookups that had to create a new version.
+     * 
+     * @return the number of misses, non-negative
+     */
+    public long missCount() {
+        return this.misses.sum();
+    }
+    
+    /**
+     * Removes all cached versions and resets the counters.
+     */
+    public void clear() {
+        this.parsed.clear();
+        this.released.clear();
+        
+        this.hits.reset();
+        this.misses.reset();
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Spreads the higher bits of a hash to the lower ones, that select the bucket.
+     * 
+     * @param hash the hash code
+     * @return the spread hash code
+     */
+    private static int spread(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * Finds the smallest power of two not less than the capacity.
+     * 
+     * @param capacity the requested capacity, positive
+     * @return the table size
+     */
+    private static int tableSizeFor(final int capacity) {
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+    
+    /**
+     * A set-associative table of entries.
+     */
+    private static final class Table {
+        
+        /**
+         * The entries, bucket after bucket.
+         */
+        private final AtomicReferenceArray<Entry> entries;
+        
+        /**
+         * The next entry each bucket considers for eviction, relative to the bucket.
+         * <p>
+         * Updated without synchronization: a lost update only changes which entry is
+         * evicted next.
+         */
+        private final int[] hands;
+        
+        /**
+         * The number of entries in each bucket.
+         */
+        private final int ways;
+        
+        /**
+         * Mask used to find the bucket of a key.
+         */
+        private final int mask;
+        
+        /**
+         * Constructor.
+         * 
+         * @param size the number of entries, a power of two
+         */
+        private Table(final int size) {
+            this.entries = new AtomicReferenceArray<>(size);
+            this.ways = Math.min(WAYS, size);
+            this.hands = new int[size / this.ways];
+            this.mask = this.hands.length - 1;
+        }
+        
+        /**
+         * Finds the bucket of a key.
+         * 
+         * @param hash the hash code of the key
+         * @return the position of the first entry of the bucket
+         */
+        private int bucketOf(final int hash) {
+            return (spread(hash) & this.mask) * this.ways;
+        }
+        
+        /**
+         * Adds an entry to a bucket, in an empty place or in place of the first entry
+         * not used since the hand last passed it.
+         * 
+         * @param bucket the position of the first entry of the bucket
+         * @param entry the entry to add
+         */
+        private void insert(final int bucket, final Entry entry) {
+            final int index = bucket / this.ways;
+            int hand = this.hands[index];
+            for(int i = 0; i < 2 * this.ways; i++) {
+                final int slot = bucket + hand;
+                hand = hand + 1 == this.ways ? 0 : hand + 1;
+                
+                final Entry current = this.entries.get(slot);
+                if(current != null && current.referenced) {
+                    current.referenced = false;
+                } else {
+                    this.entries.set(slot, entry);
+                    break;
+                }
+            }
+            
+            this.hands[index] = hand;
+        }
+        
+        /**
+         * Removes all entries.
+         */
+        private void clear() {
+            for(int i = 0; i < this.entries.length(); i++) {
+                this.entries.set(i, null);
+            }
+        }
+    }
+    
+    /**
+     * A version, the text it was parsed from, and whether it was used since its bucket
+     * last evicted.
+     */
+    private static final class Entry {
+        
+        /**
+         * The parsed text, or null if keyed by MAJOR, MINOR and PATCH versions.
+         */
+        private final String text;
+        
+        /**
+         * The version.
+         */
+        private final SemVer version;
+        
+        /**
+         * Whether the entry was found since the hand of its bucket last passed it.
+         */
+        private volatile boolean referenced;
+        
+        /**
+         * Constructor.
+         * 
+         * @param text the parsed text, or null
+         * @param version the version
+         */
+        private Entry(final String text, final SemVer version) {
+            this.text = text;
+            this.version = version;
+        }
+    }
+}
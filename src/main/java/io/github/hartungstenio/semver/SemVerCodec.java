@@ -0,0 +1,762 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binary encodings of {@code SemVer}.
+ * <p>
+ * Two formats are available. The <b>compact</b> format is the smallest, and is meant
+ * for transfer and storage:
+ * <pre>
+ *   version     := varint(MAJOR) varint(MINOR) varint(PATCH) identifiers(pre-release) identifiers(build)
+ *   identifiers := varint(count) identifier*
+ *   identifier  := varint(value &lt;&lt; 1)                  numeric, without leading zeros
+ *                | varint(length &lt;&lt; 1 | 1) byte[length]  any other text, in UTF-8
+ * </pre>
+ * Varints use 7 bits per byte, least significant group first, with the high bit set
+ * on every byte but the last. Build identifiers are always written as text, so they
+ * are restored exactly. A typical version such as {@code 1.2.3} takes 5 bytes.
+ * <p>
+ * The <b>sortable</b> format is larger, but the unsigned lexicographic order of the
+ * encoded bytes is the {@link SemVer#compareTo(SemVer) precedence} order of the versions,
+ * with ties broken by the build metadata. Encoded versions can be used as keys of
+ * ordered key-value stores, and compared with {@link #compareSortable(byte[], byte[])}
+ * without being decoded:
+ * <pre>
+ *   sortable    := u32(MAJOR) u32(MINOR) u32(PATCH) pre-release build
+ *   pre-release := 0x02                            normal version
+ *                | 0x01 tag* 0x00                  pre-release
+ *   tag         := 0x01 u8(n) byte[n]              numeric, n minimal bytes of the value, big-endian
+ *                | 0x01 0x09 u32(n) digit[n]       numeric, too big for a long
+ *                | 0x02 text                       alphanumeric
+ *   build       := (0x02 text)* 0x00
+ *   text        := UTF-8 bytes, with 0x00 escaped as 0x00 0xFF, followed by 0x00 0x01
+ * </pre>
+ * Numbers are big-endian. Numeric pre-release tags with leading zeros, which are
+ * not allowed by Semantic Versioning, are decoded without them.
+ * 
+ * @implSpec
+ * This class is thread-safe.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVerCodec {
+    
+    private static final int NORMAL = 0x02;
+    
+    private static final int PRE_RELEASE = 0x01;
+    
+    private static final int END = 0x00;
+    
+    private static final int NUMERIC = 0x01;
+    
+    private static final int TEXT = 0x02;
+    
+    /**
+     * Length marker of numeric tags too big for a {@code long}.
+     */
+    private static final int OVERSIZED = 0x09;
+    
+    /**
+     * Largest numeric identifier written in numeric form in the compact format.
+     */
+    private static final long MAX_COMPACT_NUMBER = Long.MAX_VALUE >>> 1;
+    
+    /**
+     * The largest array or list allocated from a length read, before its content is read.
+     */
+    private static final int MAX_PRESIZE = 1 << 12;
+    
+    private SemVerCodec() {
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Encodes a version in the compact format.
+     * 
+     * @param version the version, not null
+     * @return the encoded bytes, not null
+     */
+    public static byte[] encode(final SemVer version) {
+        final ArraySink sink = new ArraySink();
+        try {
+            writeCompact(version, sink);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        return sink.toByteArray();
+    }
+    
+    /**
+     * Encodes a version in the compact format, to a buffer.
+     * 
+     * @param version the version, not null
+     * @param buffer the buffer to write, from its position, not null
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void encode(final SemVer version, final ByteBuffer buffer) {
+        try {
+            writeCompact(version, new BufferSink(buffer));
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Encodes a version in the compact format, to a data output.
+     * 
+     * @param version the version, not null
+     * @param out the output, not null
+     * @throws IOException if the output cannot be written
+     */
+    public static void encode(final SemVer version, final DataOutput out) throws IOException {
+        writeCompact(version, new DataSink(out));
+    }
+    
+    /**
+     * Decodes a version in the compact format.
+     * 
+     * @param bytes the encoded bytes, not null
+     * @return the version, not null
+     * @throws SemVerException if the bytes are not a valid version
+     */
+    public static SemVer decode(final byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+    
+    /**
+     * Decodes a version in the compact format, from a buffer.
+     * 
+     * @param buffer the buffer to read, from its position, not null
+     * @return the version, not null
+     * @throws SemVerException if the bytes are not a valid version
+     */
+    public static SemVer decode(final ByteBuffer buffer) {
+        try {
+            return readCompact(new BufferSource(buffer));
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Decodes a version in the compact format, from a data input.
+     * 
+     * @param in the input, not null
+     * @return the version, not null
+     * @throws IOException if the input cannot be read
+     * @throws SemVerException if the bytes are not a valid version, including when the
+     *      input ends before the version does
+     */
+    public static SemVer decode(final DataInput in) throws IOException {
+        try {
+            return readCompact(new DataSource(in));
+        } catch(EOFException e) {
+            throw new SemVerException("Truncated version", e);
+        }
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Encodes a version in the sortable format.
+     * 
+     * @param version the version, not null
+     * @return the encoded bytes, not null
+     */
+    public static byte[] encodeSortable(final SemVer version) {
+        final ArraySink sink = new ArraySink();
+        try {
+            writeSortable(version, sink);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        return sink.toByteArray();
+    }
+    
+    /**
+     * Encodes a version in the sortable format, to a buffer.
+     * 
+     * @param version the version, not null
+     * @param buffer the buffer to write, from its position, not null
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void encodeSortable(final SemVer version, final ByteBuffer buffer) {
+        try {
+            writeSortable(version, new BufferSink(buffer));
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Decodes a version in the sortable format.
+     * 
+     * @param bytes the encoded bytes, not null
+     * @return the version, not null
+     * @throws SemVerException if the bytes are not a valid version
+     */
+    public static SemVer decodeSortable(final byte[] bytes) {
+        return decodeSortable(ByteBuffer.wrap(bytes));
+    }
+    
+    /**
+     * Decodes a version in the sortable format, from a buffer.
+     * 
+     * @param buffer the buffer to read, from its position, not null
+     * @return the version, not null
+     * @throws SemVerException if the bytes are not a valid version
+     */
+    public static SemVer decodeSortable(final ByteBuffer buffer) {
+        try {
+            return readSortable(new BufferSource(buffer));
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Compares two versions in the sortable format, without decoding them.
+     * 
+     * @param a the first encoded version, not null
+     * @param b the second encoded version, not null
+     * @return the comparator value, negative if less, positive if greater
+     */
+    public static int compareSortable(final byte[] a, final byte[] b) {
+        final int len = Math.min(a.length, b.length);
+        for(int i = 0; i < len; i++) {
+            if(a[i] != b[i]) return (a[i] & 0xFF) - (b[i] & 0xFF);
+        }
+        
+        return a.length - b.length;
+    }
+    
+    /**
+     * Compares two versions in the sortable format, without decoding them.
+     * <p>
+     * Compares the bytes from the position to the limit of each buffer, without
+     * changing the buffers.
+     * 
+     * @param a the first encoded version, not null
+     * @param b the second encoded version, not null
+     * @return the comparator value, negative if less, positive if greater
+     */
+    public static int compareSortable(final ByteBuffer a, final ByteBuffer b) {
+        final int offsetA = a.position();
+        final int offsetB = b.position();
+        final int len = Math.min(a.remaining(), b.remaining());
+        for(int i = 0; i < len; i++) {
+            final int byteA = a.get(offsetA + i) & 0xFF;
+            final int byteB = b.get(offsetB + i) & 0xFF;
+            if(byteA != byteB) return byteA - byteB;
+        }
+        
+        return a.remaining() - b.remaining();
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Writes the compact format.
+     */
+    private static void writeCompact(final SemVer version, final Sink sink) throws IOException {
+        writeVarint(sink, version.getMajor());
+        writeVarint(sink, version.getMinor());
+        writeVarint(sink, version.getPatch());
+        
+        final List<Identifier> preRelease = version.getPreRelease();
+        writeVarint(sink, preRelease.size());
+        for(Identifier tag : preRelease) {
+            writeCompactIdentifier(sink, tag);
+        }
+        
+        final List<Identifier> build = version.getBuild();
+        writeVarint(sink, build.size());
+        for(Identifier tag : build) {
+            writeCompactText(sink, tag.getText());
+        }
+    }
+    
+    /**
+     * Writes an identifier in the compact format, numeric when it can be read back as
+     * the same text.
+     */
+    static void writeCompactIdentifier(final Sink sink, final Identifier tag) throws IOException {
+        final String text = tag.getText();
+        final long value = tag.numericValue();
+        if(value >= 0 && value <= MAX_COMPACT_NUMBER && isCanonical(text)) {
+            writeVarint(sink, value << 1);
+        } else {
+            writeCompactText(sink, text);
+        }
+    }
+    
+    /**
+     * Writes a text identifier in the compact format.
+     */
+    private static void writeCompactText(final Sink sink, final String text) throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeVarint(sink, ((long)bytes.length << 1) | 1);
+        sink.put(bytes);
+    }
+    
+    /**
+     * Reads the compact format.
+     */
+    private static SemVer readCompact(final Source source) throws IOException {
+        final int major = readInt(source);
+        final int minor = readInt(source);
+        final int patch = readInt(source);
+        
+        final int preReleaseCount = readCount(source);
+        final List<Object> preRelease = preReleaseCount == 0 ? Collections.emptyList() : new ArrayList<>(Math.min(preReleaseCount, MAX_PRESIZE));
+        for(int i = 0; i < preReleaseCount; i++) {
+            preRelease.add(readCompactIdentifier(source));
+        }
+        
+        final int buildCount = readCount(source);
+        final List<Object> build = buildCount == 0 ? Collections.emptyList() : new ArrayList<>(Math.min(buildCount, MAX_PRESIZE));
+        for(int i = 0; i < buildCount; i++) {
+            build.add(readCompactIdentifier(source));
+        }
+        
+        return SemVer.of(major, minor, patch, preRelease, build);
+    }
+    
+    /**
+     * Reads an identifier in the compact format.
+     */
+    static String readCompactIdentifier(final Source source) throws IOException {
+        final long header = readVarint(source);
+        if((header & 1) == 0) return Long.toString(header >>> 1);
+        
+        final long length = header >>> 1;
+        if(length > source.remaining()) throw new SemVerException("Malformed identifier length: " + length);
+        
+        return new String(source.get((int)length), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Reads a number of identifiers, each taking at least one byte.
+     */
+    private static int readCount(final Source source) throws IOException {
+        final int count = readInt(source);
+        if(count > source.remaining()) throw new SemVerException("Malformed identifier count: " + count);
+        return count;
+    }
+    
+    /**
+     * Reads a varint that must fit a non-negative {@code int}.
+     */
+    static int readInt(final Source source) throws IOException {
+        final long value = readVarint(source);
+        if(value > Integer.MAX_VALUE) throw new SemVerException("Malformed number: " + value);
+        return (int)value;
+    }
+    
+    /**
+     * Writes a varint.
+     */
+    static void writeVarint(final Sink sink, final long value) throws IOException {
+        long rest = value;
+        while((rest & ~0x7FL) != 0) {
+            sink.put((int)((rest & 0x7F) | 0x80));
+            rest >>>= 7;
+        }
+        sink.put((int)rest);
+    }
+    
+    /**
+     * Reads a varint.
+     */
+    static long readVarint(final Source source) throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7) {
+            final int b = source.get();
+            value |= (long)(b & 0x7F) << shift;
+            if((b & 0x80) == 0) return value;
+        }
+        
+        throw new SemVerException("Malformed varint");
+    }
+    
+    /**
+     * Checks if a numeric identifier has no leading zeros.
+     */
+    private static boolean isCanonical(final String digits) {
+        return digits.length() == 1 || digits.charAt(0) != '0';
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Writes the sortable format.
+     */
+    private static void writeSortable(final SemVer version, final Sink sink) throws IOException {
+        writeInt(sink, version.getMajor());
+        writeInt(sink, version.getMinor());
+        writeInt(sink, version.getPatch());
+        
+        final List<Identifier> preRelease = version.getPreRelease();
+        if(preRelease.isEmpty()) {
+            sink.put(NORMAL);
+        } else {
+            sink.put(PRE_RELEASE);
+            for(Identifier tag : preRelease) {
+                final String text = tag.getText();
+                final long value = tag.numericValue();
+                if(value == Long.MAX_VALUE) {
+                    int start = 0;
+                    while(text.charAt(start) == '0') start++;
+                    
+                    sink.put(NUMERIC);
+                    sink.put(OVERSIZED);
+                    writeInt(sink, text.length() - start);
+                    sink.put(text.substring(start).getBytes(StandardCharsets.US_ASCII));
+                } else if(value >= 0) {
+                    final int length = Math.max(1, 8 - Long.numberOfLeadingZeros(value) / 8);
+                    sink.put(NUMERIC);
+                    sink.put(length);
+                    for(int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+                        sink.put((int)(value >>> shift) & 0xFF);
+                    }
+                } else {
+                    sink.put(TEXT);
+                    writeSortableText(sink, text);
+                }
+            }
+            sink.put(END);
+        }
+        
+        for(Identifier tag : version.getBuild()) {
+            sink.put(TEXT);
+            writeSortableText(sink, tag.getText());
+        }
+        sink.put(END);
+    }
+    
+    /**
+     * Writes a terminated text in the sortable format.
+     */
+    private static void writeSortableText(final Sink sink, final String text) throws IOException {
+        for(byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            sink.put(b & 0xFF);
+            if(b == 0) sink.put(0xFF);
+        }
+        
+        sink.put(0x00);
+        sink.put(0x01);
+    }
+    
+    /**
+     * Reads the sortable format.
+     */
+    private static SemVer readSortable(final Source source) throws IOException {
+        final int major = readSortableInt(source);
+        final int minor = readSortableInt(source);
+        final int patch = readSortableInt(source);
+        
+        final List<Object> preRelease = new ArrayList<>();
+        final int kind = source.get();
+        if(kind == PRE_RELEASE) {
+            int type;
+            while((type = source.get()) != END) {
+                if(type == NUMERIC) {
+                    final int length = source.get();
+                    if(length == OVERSIZED) {
+                        final int digits = readSortableInt(source);
+                        if(digits > source.remaining()) throw new SemVerException("Malformed numeric tag length: " + digits);
+                        preRelease.add(new String(source.get(digits), StandardCharsets.US_ASCII));
+                    } else if(length >= 1 && length <= 8) {
+                        long value = 0;
+                        for(int i = 0; i < length; i++) {
+                            value = (value << 8) | source.get();
+                        }
+                        preRelease.add(Long.toString(value));
+                    } else {
+                        throw new SemVerException("Malformed numeric tag length: " + length);
+                    }
+                } else if(type == TEXT) {
+                    preRelease.add(readSortableText(source));
+                } else {
+                    throw new SemVerException("Malformed tag type: " + type);
+                }
+            }
+        } else if(kind != NORMAL) {
+            throw new SemVerException("Malformed pre-release marker: " + kind);
+        }
+        
+        final List<Object> build = new ArrayList<>();
+        int type;
+        while((type = source.get()) != END) {
+            if(type != TEXT) throw new SemVerException("Malformed build identifier type: " + type);
+            build.add(readSortableText(source));
+        }
+        
+        return SemVer.of(major, minor, patch, preRelease, build);
+    }
+    
+    /**
+     * Reads a terminated text in the sortable format.
+     */
+    private static String readSortableText(final Source source) throws IOException {
+        byte[] bytes = new byte[16];
+        int length = 0;
+        while(true) {
+            int b = source.get();
+            if(b == 0) {
+                final int escape = source.get();
+                if(escape == 0x01) break;
+                if(escape != 0xFF) throw new SemVerException("Malformed text escape: " + escape);
+            }
+            
+            if(length == bytes.length) bytes = Arrays.copyOf(bytes, length * 2);
+            bytes[length++] = (byte)b;
+        }
+        
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Writes a big-endian 32-bit number.
+     */
+    private static void writeInt(final Sink sink, final int value) throws IOException {
+        sink.put(value >>> 24);
+        sink.put((value >>> 16) & 0xFF);
+        sink.put((value >>> 8) & 0xFF);
+        sink.put(value & 0xFF);
+    }
+    
+    /**
+     * Reads a big-endian 32-bit number, that must not be negative.
+     */
+    private static int readSortableInt(final Source source) throws IOException {
+        final int value = (source.get() << 24) | (source.get() << 16) | (source.get() << 8) | source.get();
+        if(value < 0) throw new SemVerException("Malformed number: " + (value & 0xFFFFFFFFL));
+        return value;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * A destination of encoded bytes.
+     * <p>
+     * Only data outputs throw {@code IOException}, arrays and buffers never do.
+     * {@link SemVerList} writes its entries through the same helpers.
+     */
+    interface Sink {
+        
+        /**
+         * Writes a byte.
+         * 
+         * @param b the byte, in the low 8 bits
+         */
+        void put(int b) throws IOException;
+        
+        /**
+         * Writes bytes.
+         * 
+         * @param bytes the bytes
+         */
+        void put(byte[] bytes) throws IOException;
+    }
+    
+    /**
+     * A source of encoded bytes.
+     * <p>
+     * Lengths read from the bytes are checked against {@link #remaining()} before
+     * anything is allocated, so a malformed length cannot exhaust the memory.
+     */
+    interface Source {
+        
+        /**
+         * Reads a byte.
+         * 
+         * @return the byte, from 0 to 255
+         * @throws SemVerException if there are no more bytes in a buffer or array
+         * @throws java.io.EOFException if there are no more bytes in a data input
+         */
+        int get() throws IOException;
+        
+        /**
+         * Reads bytes.
+         * 
+         * @param length the number of bytes, at most {@link #remaining()}
+         * @return the bytes
+         * @throws SemVerException if there are not enough bytes in a buffer or array
+         * @throws java.io.EOFException if there are not enough bytes in a data input
+         */
+        byte[] get(int length) throws IOException;
+        
+        /**
+         * Gets the maximum number of bytes that can still be read.
+         * 
+         * @return the number of bytes left, or {@code Integer.MAX_VALUE} if unknown
+         */
+        int remaining();
+    }
+    
+    /**
+     * Writes to a growing array.
+     */
+    private static final class ArraySink implements Sink {
+        
+        private byte[] bytes = new byte[32];
+        
+        private int length;
+        
+        @Override
+        public void put(final int b) {
+            if(this.length == this.bytes.length) this.bytes = Arrays.copyOf(this.bytes, this.length * 2);
+            this.bytes[this.length++] = (byte)b;
+        }
+        
+        @Override
+        public void put(final byte[] src) {
+            if(this.length + src.length > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.length + src.length, this.length * 2));
+            }
+            
+            System.arraycopy(src, 0, this.bytes, this.length, src.length);
+            this.length += src.length;
+        }
+        
+        private byte[] toByteArray() {
+            return Arrays.copyOf(this.bytes, this.length);
+        }
+    }
+    
+    /**
+     * Writes to a buffer.
+     */
+    private static final class BufferSink implements Sink {
+        
+        private final ByteBuffer buffer;
+        
+        private BufferSink(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        public void put(final int b) {
+            this.buffer.put((byte)b);
+        }
+        
+        @Override
+        public void put(final byte[] bytes) {
+            this.buffer.put(bytes);
+        }
+    }
+    
+    /**
+     * Writes to a data output.
+     */
+    private static final class DataSink implements Sink {
+        
+        private final DataOutput out;
+        
+        private DataSink(final DataOutput out) {
+            this.out = out;
+        }
+        
+        @Override
+        public void put(final int b) throws IOException {
+            this.out.write(b);
+        }
+        
+        @Override
+        public void put(final byte[] bytes) throws IOException {
+            this.out.write(bytes);
+        }
+    }
+    
+    /**
+     * Reads from a buffer.
+     */
+    private static final class BufferSource implements Source {
+        
+        private final ByteBuffer buffer;
+        
+        private BufferSource(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        public int get() {
+            if(!this.buffer.hasRemaining()) throw new SemVerException("Truncated version");
+            return this.buffer.get() & 0xFF;
+        }
+        
+        @Override
+        public byte[] get(final int length) {
+            if(length > this.buffer.remaining()) throw new SemVerException("Truncated version");
+            
+            final byte[] bytes = new byte[length];
+            this.buffer.get(bytes);
+            return bytes;
+        }
+        
+        @Override
+        public int remaining() {
+            return this.buffer.remaining();
+        }
+    }
+    
+    /**
+     * Reads from a data input.
+     */
+    private static final class DataSource implements Source {
+        
+        private final DataInput in;
+        
+        private DataSource(final DataInput in) {
+            this.in = in;
+        }
+        
+        @Override
+        public int get() throws IOException {
+            return this.in.readUnsignedByte();
+        }
+        
+        /**
+         * Reads bytes, growing the array only as the bytes arrive, as the length of a
+         * data input is unknown.
+         */
+        @Override
+        public byte[] get(final int length) throws IOException {
+            byte[] bytes = new byte[Math.min(length, MAX_PRESIZE)];
+            int read = 0;
+            while(read < length) {
+                if(read == bytes.length) bytes = Arrays.copyOf(bytes, (int)Math.min(length, 2L * read));
+                this.in.readFully(bytes, read, bytes.length - read);
+                read = bytes.length;
+            }
+            
+            return bytes;
+        }
+        
+        @Override
+        public int remaining() {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
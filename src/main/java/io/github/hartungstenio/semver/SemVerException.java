@@ -47,4 +47,19 @@ public class SemVerException extends RuntimeException {
     public SemVerException(final String message, final Throwable cause) {
         super(message, cause);
     }
+    
+    /**
+     * Constructs a new version exception, optionally without a stack trace.
+     * <p>
+     * Filling the stack trace is the most expensive part of creating an exception.
+     * Code that reports many malformed versions, and does not need to know where
+     * they were found, can skip it.
+     *
+     * @param message  the message to use for this exception, may be null
+     * @param cause    the cause of the exception, may be null
+     * @param writableStackTrace  whether the stack trace should be filled
+     */
+    public SemVerException(final String message, final Throwable cause, final boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+    }
 }
@@ -0,0 +1,569 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * A compressed encoding of sorted lists of versions.
+ * <p>
+ * Sorted version histories, such as {@code 2.3.0}, {@code 2.3.1}, {@code 2.3.2-rc.1}
+ * and {@code 2.3.2}, change little from one version to the next. This encoding
+ * writes each version as the difference from the previous one: the MAJOR, MINOR and
+ * PATCH versions as deltas, and the leading identifiers it has in common with the
+ * last version that had any as a count:
+ * <pre>
+ *   byte[] bytes = SemVerList.encode(versions);
+ *   List&lt;SemVer&gt; decoded = SemVerList.decode(bytes);
+ * </pre>
+ * <p>
+ * The versions are split in blocks of {@value #BLOCK_SIZE}. The first version of a
+ * block does not depend on any other, and a table of offsets points to the start of
+ * each block, so {@link #get(int)} decodes at most one block. Iterating decodes the
+ * versions one after the other, and is the fastest way to read the whole list:
+ * <pre>
+ *   list       := varint(count) varint(block size) u32(block offset)* entry*
+ *   entry      := u8(flags) core tags(pre-release)? tags(build)?
+ *   flags      := bits 0-1: form of the core, bit 2: has pre-release, bit 3: has build
+ *   core       := varint(PATCH delta)                             form 0, same MAJOR and MINOR
+ *               | varint(MINOR delta) varint(PATCH)               form 1, same MAJOR
+ *               | varint(MAJOR delta) varint(MINOR) varint(PATCH) form 2
+ *   tags       := varint(shared &lt;&lt; 3 | added) identifier*                   added &lt; 7
+ *               | varint(shared &lt;&lt; 3 | 7) varint(added - 7) identifier*
+ * </pre>
+ * {@code shared} is the number of leading identifiers equal to those of the last
+ * pre-release, or the last version with build metadata, of the block. {@code added}
+ * is the number of identifiers that follow them. So {@code 2.3.2-rc.1}, after
+ * {@code 2.3.1-rc.2} and {@code 2.3.1}, only writes the tag {@code 1}. Identifiers
+ * and varints are written by the helpers of the {@link SemVerCodec compact format},
+ * and block offsets are big-endian, from the first entry. The first version of a
+ * block is encoded as the difference from {@code 0.0.0}.
+ * <p>
+ * A decoded list is an immutable view of the encoded bytes, and decodes the versions
+ * every time they are read.
+ * 
+ * @implSpec
+ * This class is immutable and thread-safe, as long as the encoded bytes are not changed.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVerList extends AbstractList<SemVer> implements RandomAccess {
+    
+    /**
+     * Number of versions in each block.
+     */
+    static final int BLOCK_SIZE = 64;
+    
+    private static final int SAME_MINOR = 0;
+    
+    private static final int SAME_MAJOR = 1;
+    
+    private static final int NEW_MAJOR = 2;
+    
+    private static final int CORE_MASK = 0x03;
+    
+    private static final int HAS_PRE_RELEASE = 0x04;
+    
+    private static final int HAS_BUILD = 0x08;
+    
+    /**
+     * Number of added identifiers that needs a varint of its own.
+     */
+    private static final int MANY_ADDED = 0x07;
+    
+    private static final Identifier[] NO_IDENTIFIERS = new Identifier[0];
+    
+    /**
+     * The encoded list.
+     */
+    private final ByteBuffer buffer;
+    
+    /**
+     * The number of versions.
+     */
+    private final int size;
+    
+    /**
+     * The number of versions in each block.
+     */
+    private final int blockSize;
+    
+    /**
+     * The position of the block offsets.
+     */
+    private final int offsets;
+    
+    /**
+     * The position of the first entry.
+     */
+    private final int entries;
+    
+    /**
+     * Constructor.
+     * 
+     * @param buffer the encoded list, from position zero
+     */
+    private SemVerList(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        
+        final Decoder header = new Decoder(buffer, 0);
+        try {
+            this.size = SemVerCodec.readInt(header);
+            this.blockSize = SemVerCodec.readInt(header);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if(this.blockSize == 0) throw new SemVerException("Malformed block size: 0");
+        
+        final long blocks = (this.size + (long)this.blockSize - 1) / this.blockSize;
+        this.offsets = header.position;
+        if(this.offsets + 4 * blocks > buffer.limit()) throw new SemVerException("Truncated version list");
+        this.entries = this.offsets + 4 * (int)blocks;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Encodes a sorted list of versions.
+     * 
+     * @param versions the versions, in precedence order, not null
+     * @return the encoded bytes, not null
+     * @throws NullPointerException if any version is null
+     * @throws IllegalArgumentException if the versions are not in precedence order
+     */
+    public static byte[] encode(final Collection<SemVer> versions) {
+        final int size = versions.size();
+        final int blocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        final Encoder entries = new Encoder(size * 4);
+        final int[] offsets = new int[blocks];
+        
+        try {
+            SemVer previous = null;
+            int i = 0;
+            for(SemVer version : versions) {
+                if(version == null) throw new NullPointerException("Invalid version");
+                if(previous != null && previous.compareTo(version) > 0) {
+                    throw new IllegalArgumentException("Versions not sorted: " + previous + " before " + version);
+                }
+                
+                if(i % BLOCK_SIZE == 0) {
+                    offsets[i / BLOCK_SIZE] = entries.length;
+                    entries.reset();
+                }
+                entries.writeEntry(version);
+                
+                previous = version;
+                i++;
+            }
+            
+            final Encoder list = new Encoder(entries.length + 4 * blocks + 10);
+            SemVerCodec.writeVarint(list, size);
+            SemVerCodec.writeVarint(list, BLOCK_SIZE);
+            for(int offset : offsets) {
+                list.writeInt(offset);
+            }
+            list.put(entries.bytes, entries.length);
+            
+            return Arrays.copyOf(list.bytes, list.length);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Decodes a list of versions.
+     * <p>
+     * The header of the list is read at once, and the versions are decoded when read.
+     * The array must not be changed while the list is in use.
+     * 
+     * @param bytes the encoded bytes, not null
+     * @return an immutable list of the versions, not null
+     * @throws SemVerException if the header of the list is not valid
+     */
+    public static SemVerList decode(final byte[] bytes) {
+        return new SemVerList(ByteBuffer.wrap(bytes));
+    }
+    
+    /**
+     * Decodes a list of versions, from a buffer.
+     * <p>
+     * The list is read from the position to the limit of the buffer, without changing
+     * the buffer, and the buffer must not be changed while the list is in use.
+     * 
+     * @param buffer the encoded bytes, not null
+     * @return an immutable list of the versions, not null
+     * @throws SemVerException if the header of the list is not valid
+     */
+    public static SemVerList decode(final ByteBuffer buffer) {
+        return new SemVerList(buffer.slice());
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of versions.
+     * 
+     * @return the number of versions
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+    
+    /**
+     * Gets a version, decoding it from the start of its block.
+     * 
+     * @param index the index of the version
+     * @return the version, not null
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws SemVerException if the version is not encoded correctly
+     */
+    @Override
+    public SemVer get(final int index) {
+        if(index < 0 || index >= this.size) throw new IndexOutOfBoundsException("Invalid index: " + index);
+        
+        final int block = index / this.blockSize;
+        final int offset = this.buffer.getInt(this.offsets + 4 * block);
+        if(offset < 0 || offset >= this.buffer.limit() - this.entries) throw new SemVerException("Malformed block offset: " + offset);
+        
+        final Decoder decoder = new Decoder(this.buffer, this.entries + offset);
+        try {
+            for(int i = block * this.blockSize; i < index; i++) {
+                decoder.readEntry();
+            }
+            
+            decoder.readEntry();
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return decoder.version();
+    }
+    
+    /**
+     * Gets an iterator that decodes the versions one after the other.
+     * 
+     * @return the iterator, not null
+     */
+    @Override
+    public Iterator<SemVer> iterator() {
+        return new Iterator<SemVer>() {
+            private final Decoder decoder = new Decoder(SemVerList.this.buffer, SemVerList.this.entries);
+            
+            private int next;
+            
+            @Override
+            public boolean hasNext() {
+                return this.next < SemVerList.this.size;
+            }
+            
+            @Override
+            public SemVer next() {
+                if(this.next >= SemVerList.this.size) throw new NoSuchElementException();
+                
+                if(this.next++ % SemVerList.this.blockSize == 0) this.decoder.reset();
+                try {
+                    this.decoder.readEntry();
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return this.decoder.version();
+            }
+        };
+    }
+    
+    /**
+     * Gets the size of the encoded list.
+     * 
+     * @return the number of bytes
+     */
+    public int encodedSize() {
+        return this.buffer.limit();
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Writes the entries of a list to a growing array, keeping the state of the block.
+     * <p>
+     * Never throws {@code IOException}, it is only declared by the helpers of the codec.
+     */
+    private static final class Encoder implements SemVerCodec.Sink {
+        
+        private byte[] bytes;
+        
+        private int length;
+        
+        private int major;
+        
+        private int minor;
+        
+        private int patch;
+        
+        /**
+         * The pre-release tags of the last version that had any.
+         */
+        private List<Identifier> preRelease = Collections.emptyList();
+        
+        /**
+         * The build metadata of the last version that had any.
+         */
+        private List<Identifier> build = Collections.emptyList();
+        
+        private Encoder(final int capacity) {
+            this.bytes = new byte[Math.max(16, capacity)];
+        }
+        
+        /**
+         * Forgets the previous versions, at the start of a block.
+         */
+        private void reset() {
+            this.major = 0;
+            this.minor = 0;
+            this.patch = 0;
+            this.preRelease = Collections.emptyList();
+            this.build = Collections.emptyList();
+        }
+        
+        /**
+         * Writes the difference between a version and the previous ones.
+         * 
+         * @param version the version to write, not less than the previous one
+         */
+        private void writeEntry(final SemVer version) throws IOException {
+            final List<Identifier> preRelease = version.getPreRelease();
+            final List<Identifier> build = version.getBuild();
+            
+            final int form = version.getMajor() != this.major ? NEW_MAJOR : version.getMinor() != this.minor ? SAME_MAJOR : SAME_MINOR;
+            put(form | (preRelease.isEmpty() ? 0 : HAS_PRE_RELEASE) | (build.isEmpty() ? 0 : HAS_BUILD));
+            
+            // the list is sorted, so the deltas are never negative
+            if(form == NEW_MAJOR) {
+                SemVerCodec.writeVarint(this, version.getMajor() - this.major);
+                SemVerCodec.writeVarint(this, version.getMinor());
+                SemVerCodec.writeVarint(this, version.getPatch());
+            } else if(form == SAME_MAJOR) {
+                SemVerCodec.writeVarint(this, version.getMinor() - this.minor);
+                SemVerCodec.writeVarint(this, version.getPatch());
+            } else {
+                SemVerCodec.writeVarint(this, version.getPatch() - this.patch);
+            }
+            
+            this.major = version.getMajor();
+            this.minor = version.getMinor();
+            this.patch = version.getPatch();
+            if(!preRelease.isEmpty()) {
+                writeTags(this.preRelease, preRelease);
+                this.preRelease = preRelease;
+            }
+            if(!build.isEmpty()) {
+                writeTags(this.build, build);
+                this.build = build;
+            }
+        }
+        
+        /**
+         * Writes identifiers, sharing a prefix with the previous ones.
+         * 
+         * @param previous the previous identifiers of the same kind
+         * @param current the identifiers to write
+         */
+        private void writeTags(final List<Identifier> previous, final List<Identifier> current) throws IOException {
+            final int len = Math.min(previous.size(), current.size());
+            int shared = 0;
+            while(shared < len && previous.get(shared).equals(current.get(shared))) shared++;
+            
+            final int added = current.size() - shared;
+            if(added < MANY_ADDED) {
+                SemVerCodec.writeVarint(this, (long)shared << 3 | added);
+            } else {
+                SemVerCodec.writeVarint(this, (long)shared << 3 | MANY_ADDED);
+                SemVerCodec.writeVarint(this, added - MANY_ADDED);
+            }
+            
+            for(int i = shared; i < current.size(); i++) {
+                SemVerCodec.writeCompactIdentifier(this, current.get(i));
+            }
+        }
+        
+        @Override
+        public void put(final int b) {
+            if(this.length == this.bytes.length) this.bytes = Arrays.copyOf(this.bytes, this.length * 2);
+            this.bytes[this.length++] = (byte)b;
+        }
+        
+        @Override
+        public void put(final byte[] src) {
+            put(src, src.length);
+        }
+        
+        private void put(final byte[] src, final int count) {
+            if(this.length + count > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.length + count, this.length * 2));
+            }
+            
+            System.arraycopy(src, 0, this.bytes, this.length, count);
+            this.length += count;
+        }
+        
+        private void writeInt(final int value) {
+            put(value >>> 24);
+            put((value >>> 16) & 0xFF);
+            put((value >>> 8) & 0xFF);
+            put(value & 0xFF);
+        }
+    }
+    
+    /**
+     * Reads the entries of a list, keeping the state of the block.
+     * <p>
+     * Never throws {@code IOException}, it is only declared by the helpers of the codec.
+     */
+    private static final class Decoder implements SemVerCodec.Source {
+        
+        private final ByteBuffer buffer;
+        
+        private int position;
+        
+        private int major;
+        
+        private int minor;
+        
+        private int patch;
+        
+        /**
+         * The pre-release tags of the last version that had any.
+         */
+        private Identifier[] preRelease = NO_IDENTIFIERS;
+        
+        /**
+         * The build metadata of the last version that had any.
+         */
+        private Identifier[] build = NO_IDENTIFIERS;
+        
+        /**
+         * The flags of the last entry read.
+         */
+        private int flags;
+        
+        private Decoder(final ByteBuffer buffer, final int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+        
+        /**
+         * Forgets the previous versions, at the start of a block.
+         */
+        private void reset() {
+            this.major = 0;
+            this.minor = 0;
+            this.patch = 0;
+            this.preRelease = NO_IDENTIFIERS;
+            this.build = NO_IDENTIFIERS;
+        }
+        
+        /**
+         * Reads the next entry, without creating its version.
+         */
+        private void readEntry() throws IOException {
+            this.flags = get();
+            switch(this.flags & CORE_MASK) {
+                case NEW_MAJOR:
+                    this.major = add(this.major, SemVerCodec.readInt(this));
+                    this.minor = SemVerCodec.readInt(this);
+                    this.patch = SemVerCodec.readInt(this);
+                    break;
+                case SAME_MAJOR:
+                    this.minor = add(this.minor, SemVerCodec.readInt(this));
+                    this.patch = SemVerCodec.readInt(this);
+                    break;
+                case SAME_MINOR:
+                    this.patch = add(this.patch, SemVerCodec.readInt(this));
+                    break;
+                default:
+                    throw new SemVerException("Malformed entry flags: " + this.flags);
+            }
+            
+            if((this.flags & HAS_PRE_RELEASE) != 0) this.preRelease = readTags(this.preRelease);
+            if((this.flags & HAS_BUILD) != 0) this.build = readTags(this.build);
+        }
+        
+        /**
+         * Creates the version of the last entry read.
+         * 
+         * @return the version, not null
+         */
+        private SemVer version() {
+            return SemVer.ofParsed(this.major, this.minor, this.patch,
+                    (this.flags & HAS_PRE_RELEASE) == 0 ? NO_IDENTIFIERS : this.preRelease,
+                    (this.flags & HAS_BUILD) == 0 ? NO_IDENTIFIERS : this.build);
+        }
+        
+        /**
+         * Reads identifiers, sharing a prefix with the previous ones.
+         * <p>
+         * The previous identifiers are reused as they are when nothing is added, as the
+         * arrays of a version are never changed.
+         */
+        private Identifier[] readTags(final Identifier[] previous) throws IOException {
+            final long header = SemVerCodec.readVarint(this);
+            final long shared = header >>> 3;
+            final long added = (header & MANY_ADDED) == MANY_ADDED ? MANY_ADDED + (long)SemVerCodec.readInt(this) : header & MANY_ADDED;
+            if(shared > previous.length) throw new SemVerException("Malformed shared identifier count: " + shared);
+            if(added == 0 && shared == previous.length) return previous;
+            if(shared + added == 0 || added > remaining()) {
+                throw new SemVerException("Malformed identifier count: " + (shared + added));
+            }
+            
+            final Identifier[] tags = Arrays.copyOf(previous, (int)(shared + added));
+            for(int i = (int)shared; i < tags.length; i++) {
+                tags[i] = Identifier.of(SemVerCodec.readCompactIdentifier(this));
+            }
+            
+            return tags;
+        }
+        
+        private static int add(final int previous, final int delta) {
+            final long value = (long)previous + delta;
+            if(value > Integer.MAX_VALUE) throw new SemVerException("Malformed number: " + value);
+            return (int)value;
+        }
+        
+        @Override
+        public int get() {
+            if(this.position >= this.buffer.limit()) throw new SemVerException("Truncated version list");
+            return this.buffer.get(this.position++) & 0xFF;
+        }
+        
+        @Override
+        public byte[] get(final int length) {
+            if(length > remaining()) throw new SemVerException("Truncated version list");
+            
+            final byte[] bytes = new byte[length];
+            for(int i = 0; i < length; i++) {
+                bytes[i] = this.buffer.get(this.position++);
+            }
+            return bytes;
+        }
+        
+        @Override
+        public int remaining() {
+            return this.buffer.limit() - this.position;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.Objects;
+
+/**
+ * A listener of the hot paths of SemVer-J: parsing, caching and comparison.
+ * <p>
+ * Metrics are off by default, and the hooks cost nothing. They are enabled by
+ * starting the JVM with {@code -Dio.github.hartungstenio.semver.metrics=true}, and
+ * then a listener can be installed, such as the counters of {@link SemVerStatistics}:
+ * <pre>
+ *   SemVerStatistics statistics = new SemVerStatistics();
+ *   statistics.register(); // exports it over JMX
+ *   SemVerMetrics.install(statistics);
+ * </pre>
+ * <p>
+ * The methods are called on the thread doing the work, for every event, so they
+ * must be fast and thread-safe. All of them do nothing by default.
+ * 
+ * @see SemVerStatistics
+ * 
+ * @author Christian Hartung
+ */
+public interface SemVerMetrics {
+    
+    /**
+     * The name of the system property that enables the metrics.
+     */
+    String ENABLED_PROPERTY = "io.github.hartungstenio.semver.metrics";
+    
+    /**
+     * A listener that ignores all events.
+     */
+    SemVerMetrics NONE = new SemVerMetrics() { };
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if the metrics were enabled when the JVM started.
+     * 
+     * @return true if the hooks call the installed listener
+     * @see #ENABLED_PROPERTY
+     */
+    static boolean isEnabled() {
+        return Metrics.ENABLED;
+    }
+    
+    /**
+     * Installs the listener that receives the events, replacing the previous one.
+     * 
+     * @param listener the listener, {@link #NONE} to remove it, not null
+     * @throws IllegalStateException if the metrics are not {@link #isEnabled() enabled}
+     */
+    static void install(final SemVerMetrics listener) {
+        Objects.requireNonNull(listener, "listener");
+        if(!Metrics.ENABLED) throw new IllegalStateException("Metrics are disabled, set -D" + ENABLED_PROPERTY + "=true");
+        
+        Metrics.listener = listener;
+    }
+    
+    /**
+     * Gets the installed listener.
+     * 
+     * @return the listener, {@link #NONE} if none was installed, not null
+     */
+    static SemVerMetrics installed() {
+        return Metrics.listener;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Called when a text is parsed to a version.
+     */
+    default void onParse() {
+    }
+    
+    /**
+     * Called when a text is rejected by a parser, including {@link SemVerParser#isValid(CharSequence)}.
+     * 
+     * @param error the reason the text was rejected, not null
+     */
+    default void onParseFailure(final ParseError error) {
+    }
+    
+    /**
+     * Called when a {@link SemVerCache} answers a lookup with a cached version.
+     */
+    default void onCacheHit() {
+    }
+    
+    /**
+     * Called when a {@link SemVerCache} has to create a new version.
+     */
+    default void onCacheMiss() {
+    }
+    
+    /**
+     * Called when {@link SemVer#compareTo(SemVer)} is decided by the MAJOR, MINOR and PATCH
+     * versions, or by whether each side has pre-release tags.
+     */
+    default void onCoreCompare() {
+    }
+    
+    /**
+     * Called when {@link SemVer#compareTo(SemVer)} compares the pre-release tags one by one,
+     * because both versions have the same MAJOR, MINOR and PATCH versions and pre-release
+     * tags that are not the same array. The tags may still be equal.
+     */
+    default void onTagCompare() {
+    }
+}
@@ -0,0 +1,543 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.Arrays;
+
+/**
+ * A parser of versions, with a configurable strictness.
+ * <p>
+ * Three modes are available:
+ * <ul>
+ * <li>{@link Mode#STRICT} accepts exactly the <a href="https://semver.org/spec/v2.0.0.html">SemVer 2.0.0</a>
+ * grammar: no leading zeros in numbers, no empty identifiers, only {@code [0-9A-Za-z-]} in
+ * identifiers, and hyphens are part of the pre-release identifiers.</li>
+ * <li>{@link Mode#LENIENT} accepts the same identifiers, and also the forms found on
+ * tags and registries: a {@code v} or {@code =} prefix, surrounding whitespace, leading
+ * zeros in numbers, and missing MINOR or PATCH versions, such as {@code v1.2}.</li>
+ * <li>{@link Mode#LOOSE} is the parser of {@link SemVer#parse(CharSequence)}: it splits the
+ * text on dots, hyphens and pluses and accepts any character in identifiers.</li>
+ * </ul>
+ * <pre>
+ *   SemVerParser.STRICT.parse("1.0.0-alpha-1");  // one identifier, alpha-1
+ *   SemVerParser.STRICT.isValid("1.0.01");       // false
+ *   SemVerParser.LENIENT.parse("v1.2");          // 1.2.0
+ * </pre>
+ * <p>
+ * All modes scan the text once, classifying each character with a lookup table, so
+ * validating the full grammar costs no more than the loose split.
+ * 
+ * @implSpec
+ * This class is immutable and thread-safe.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVerParser {
+    
+    /**
+     * The strictness of a parser.
+     */
+    public enum Mode {
+        
+        /**
+         * The SemVer 2.0.0 grammar.
+         */
+        STRICT,
+        
+        /**
+         * The SemVer 2.0.0 identifiers, with common deviations in the prefix and numbers.
+         */
+        LENIENT,
+        
+        /**
+         * The historical parser, splitting the text on dots, hyphens and pluses.
+         */
+        LOOSE
+    }
+    
+    /**
+     * A parser of the SemVer 2.0.0 grammar.
+     */
+    public static final SemVerParser STRICT = new SemVerParser(Mode.STRICT);
+    
+    /**
+     * A parser of SemVer 2.0.0 identifiers, accepting common deviations.
+     */
+    public static final SemVerParser LENIENT = new SemVerParser(Mode.LENIENT);
+    
+    /**
+     * The parser used by {@link SemVer#parse(CharSequence)}.
+     */
+    public static final SemVerParser LOOSE = new SemVerParser(Mode.LOOSE);
+    
+    /**
+     * Characters not allowed in versions.
+     */
+    private static final byte OTHER = 0;
+    
+    /**
+     * The characters {@code 0-9}.
+     */
+    private static final byte DIGIT = 1;
+    
+    /**
+     * The characters {@code A-Z} and {@code a-z}.
+     */
+    private static final byte LETTER = 2;
+    
+    /**
+     * The character {@code -}.
+     */
+    private static final byte HYPHEN = 3;
+    
+    /**
+     * The character {@code .}.
+     */
+    private static final byte DOT = 4;
+    
+    /**
+     * The character {@code +}.
+     */
+    private static final byte PLUS = 5;
+    
+    /**
+     * The class of each ASCII character.
+     */
+    private static final byte[] CLASSES = new byte[128];
+    
+    static {
+        for(char c = '0'; c <= '9'; c++) CLASSES[c] = DIGIT;
+        for(char c = 'A'; c <= 'Z'; c++) CLASSES[c] = LETTER;
+        for(char c = 'a'; c <= 'z'; c++) CLASSES[c] = LETTER;
+        CLASSES['-'] = HYPHEN;
+        CLASSES['.'] = DOT;
+        CLASSES['+'] = PLUS;
+    }
+    
+    /**
+     * No identifiers.
+     */
+    private static final Identifier[] NONE = new Identifier[0];
+    
+    /**
+     * A result that ignores the errors, used to check text without exceptions.
+     */
+    private static final ParseResult DISCARD = new ParseResult();
+    
+    /**
+     * The strictness of this parser.
+     */
+    private final Mode mode;
+    
+    /**
+     * Constructor.
+     * 
+     * @param mode the strictness of the parser
+     */
+    private SemVerParser(final Mode mode) {
+        this.mode = mode;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains the parser of a mode.
+     * 
+     * @param mode the strictness of the parser, not null
+     * @return the parser, not null
+     */
+    public static SemVerParser of(final Mode mode) {
+        switch(mode) {
+            case STRICT: return STRICT;
+            case LENIENT: return LENIENT;
+            default: return LOOSE;
+        }
+    }
+    
+    /**
+     * Gets the strictness of this parser.
+     * 
+     * @return the mode, not null
+     */
+    public Mode getMode() {
+        return this.mode;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Parses a version.
+     * 
+     * @param text the text to parse, not null
+     * @return the parsed version, not null
+     * @throws SemVerException if the text is not valid in the mode of this parser
+     */
+    public SemVer parse(final CharSequence text) {
+        return parse(text, null);
+    }
+    
+    /**
+     * Parses a version, without throwing exceptions.
+     * 
+     * @param text the text to parse, may be null
+     * @return the result, with the version or the error, not null
+     * @see SemVer#tryParse(CharSequence)
+     */
+    public ParseResult tryParse(final CharSequence text) {
+        final ParseResult result = new ParseResult();
+        tryParse(text, result);
+        return result;
+    }
+    
+    /**
+     * Parses a version, reusing a result.
+     * 
+     * @param text the text to parse, may be null
+     * @param result the result to fill, not null
+     * @return true if the text is a valid version
+     * @see SemVer#tryParse(CharSequence, ParseResult)
+     */
+    public boolean tryParse(final CharSequence text, final ParseResult result) {
+        result.clear(text);
+        final SemVer version = parse(text, result);
+        if(version == null) return false;
+        
+        result.succeed(version);
+        return true;
+    }
+    
+    /**
+     * Checks if a text is a valid version.
+     * 
+     * @param text the text to check, may be null
+     * @return true if the text is a valid version
+     */
+    public boolean isValid(final CharSequence text) {
+        return parse(text, DISCARD) != null;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the class of a character.
+     * 
+     * @param c the character
+     * @return the class, {@link #OTHER} for characters outside ASCII
+     */
+    private static int classOf(final char c) {
+        return c < 128 ? CLASSES[c] : OTHER;
+    }
+    
+    /**
+     * Reports an error found while parsing.
+     * 
+     * @param result the result that keeps the error, null to throw it
+     * @param error the error found
+     * @param text the text being parsed
+     * @param begin the position of the first character of the malformed part
+     * @param end the position after the last character of the malformed part
+     * @return always null
+     * @throws SemVerException if the result is null
+     */
+    private static SemVer fail(final ParseResult result, final ParseError error, final CharSequence text,
+            final int begin, final int end) {
+        if(Metrics.ENABLED) Metrics.listener.onParseFailure(error);
+        if(result == null) throw new SemVerException(error.format(text, begin, end));
+        
+        if(result != DISCARD) result.fail(error, begin, end);
+        return null;
+    }
+    
+    /**
+     * Parses a version.
+     * 
+     * @param text the text to parse, may be null
+     * @param result the result that keeps errors, null to throw them
+     * @return the parsed version, or null if malformed and the result is not null
+     * @throws SemVerException if malformed and the result is null
+     */
+    private SemVer parse(final CharSequence text, final ParseResult result) {
+        if(text == null) return fail(result, ParseError.NULL, text, 0, 0);
+        if(text.length() == 0) return fail(result, ParseError.EMPTY, text, 0, 0);
+        
+        final SemVer version = this.mode == Mode.LOOSE
+                ? parseLoose(text, result)
+                : parseGrammar(text, result, this.mode == Mode.STRICT);
+        if(Metrics.ENABLED && version != null) Metrics.listener.onParse();
+        
+        return version;
+    }
+    
+    /**
+     * Parses a version following the SemVer 2.0.0 grammar.
+     * 
+     * @param text the text to parse, not empty
+     * @param result the result that keeps errors, null to throw them
+     * @param strict false to accept the lenient deviations
+     * @return the parsed version, or null if malformed and the result is not null
+     * @throws SemVerException if malformed and the result is null
+     */
+    private static SemVer parseGrammar(final CharSequence text, final ParseResult result, final boolean strict) {
+        int pos = 0;
+        int end = text.length();
+        
+        if(!strict) {
+            while(pos < end && text.charAt(pos) <= ' ') pos++;
+            while(end > pos && text.charAt(end - 1) <= ' ') end--;
+            if(pos < end && text.charAt(pos) == '=') pos++;
+            if(pos < end && (text.charAt(pos) == 'v' || text.charAt(pos) == 'V')) pos++;
+            if(pos == end) return fail(result, ParseError.EMPTY, text, pos, pos);
+        }
+        
+        // MAJOR.MINOR.PATCH, missing parts are only accepted when lenient
+        int major = 0;
+        int minor = 0;
+        int patch = 0;
+        for(int part = 0; part < 3; part++) {
+            if(part > 0) {
+                final int cls = pos < end ? classOf(text.charAt(pos)) : OTHER;
+                if(cls == DOT) {
+                    pos++;
+                } else if(pos == end || cls == HYPHEN || cls == PLUS) {
+                    if(strict) {
+                        return fail(result, part == 1 ? ParseError.MISSING_MINOR : ParseError.MISSING_PATCH, text, pos, pos);
+                    }
+                    break;
+                } else {
+                    return fail(result, ParseError.INVALID_CHARACTER, text, pos, pos + 1);
+                }
+            }
+            
+            final int begin = pos;
+            long value = 0;
+            while(pos < end && classOf(text.charAt(pos)) == DIGIT) {
+                if(value <= Integer.MAX_VALUE) value = value * 10 + (text.charAt(pos) - '0');
+                pos++;
+            }
+            
+            if(pos == begin) {
+                final ParseError error = pos < end && classOf(text.charAt(pos)) != DOT ? ParseError.INVALID_CHARACTER : ParseError.INVALID_NUMBER;
+                return fail(result, error, text, pos, Math.min(pos + 1, end));
+            }
+            if(strict && text.charAt(begin) == '0' && pos - begin > 1) return fail(result, ParseError.LEADING_ZERO, text, begin, pos);
+            if(value > Integer.MAX_VALUE) return fail(result, ParseError.NUMBER_TOO_LARGE, text, begin, pos);
+            
+            switch(part) {
+                case 0: major = (int)value; break;
+                case 1: minor = (int)value; break;
+                default: patch = (int)value; break;
+            }
+        }
+        
+        Identifier[] preRelease = NONE;
+        Identifier[] build = NONE;
+        
+        int cls = pos < end ? classOf(text.charAt(pos)) : PLUS;
+        if(pos < end && cls == DOT) return fail(result, ParseError.TOO_MANY_PARTS, text, pos, end);
+        
+        if(pos < end && cls == HYPHEN) {
+            preRelease = new Identifier[count(text, pos + 1, end)];
+            pos = identifiers(text, pos + 1, end, preRelease, strict, result);
+            if(pos < 0) return null;
+            cls = pos < end ? classOf(text.charAt(pos)) : PLUS;
+        }
+        
+        if(pos < end && cls == PLUS) {
+            build = new Identifier[count(text, pos + 1, end)];
+            pos = identifiers(text, pos + 1, end, build, false, result);
+            if(pos < 0) return null;
+        }
+        
+        if(pos < end) return fail(result, ParseError.INVALID_CHARACTER, text, pos, pos + 1);
+        
+        return SemVer.ofParsed(major, minor, patch, preRelease, build);
+    }
+    
+    /**
+     * Counts dot separated identifiers, up to the start of the build metadata.
+     * 
+     * @param text the text to parse
+     * @param begin the position of the first identifier
+     * @param end the end of the text
+     * @return the number of identifiers, positive
+     */
+    private static int count(final CharSequence text, final int begin, final int end) {
+        int count = 1;
+        for(int pos = begin; pos < end; pos++) {
+            final int cls = classOf(text.charAt(pos));
+            if(cls == DOT) {
+                count++;
+            } else if(cls == PLUS) {
+                break;
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Parses dot separated identifiers.
+     * 
+     * @param text the text to parse
+     * @param begin the position of the first identifier
+     * @param end the end of the text
+     * @param identifiers the array that receives the identifiers, sized by {@link #count}
+     * @param checkZeros true to reject numeric identifiers with leading zeros
+     * @param result the result that keeps errors, null to throw them
+     * @return the position after the last identifier, or -1 if malformed and the result is not null
+     * @throws SemVerException if malformed and the result is null
+     */
+    private static int identifiers(final CharSequence text, final int begin, final int end, final Identifier[] identifiers,
+            final boolean checkZeros, final ParseResult result) {
+        int pos = begin;
+        for(int i = 0; ; i++) {
+            final int start = pos;
+            boolean numeric = true;
+            int cls;
+            while(pos < end && ((cls = classOf(text.charAt(pos))) == DIGIT || cls == LETTER || cls == HYPHEN)) {
+                numeric &= cls == DIGIT;
+                pos++;
+            }
+            
+            if(pos == start) {
+                fail(result, ParseError.EMPTY_IDENTIFIER, text, pos, pos);
+                return -1;
+            }
+            if(checkZeros && numeric && text.charAt(start) == '0' && pos - start > 1) {
+                fail(result, ParseError.LEADING_ZERO, text, start, pos);
+                return -1;
+            }
+            identifiers[i] = Identifier.of(text.subSequence(start, pos).toString());
+            
+            if(pos == end || classOf(text.charAt(pos)) != DOT) return pos;
+            pos++;
+        }
+    }
+    
+    /**
+     * Parses a version splitting the text on dots, hyphens and pluses.
+     * <p>
+     * The first character always belongs to the MAJOR version, that may have a sign.
+     * A hyphen starts the pre-release section, or separates two pre-release identifiers,
+     * and a plus starts the build section. Identifiers may have any character.
+     * 
+     * @param text the text to parse, not empty
+     * @param result the result that keeps errors, null to throw them
+     * @return the parsed version, or null if malformed and the result is not null
+     * @throws SemVerException if malformed and the result is null
+     */
+    private static SemVer parseLoose(final CharSequence text, final ParseResult result) {
+        final int len = text.length();
+        
+        int parts = 0;
+        int major = 0;
+        int minor = 0;
+        int patch = 0;
+        Identifier[] preReleaseIdentifiers = NONE;
+        Identifier[] buildMetadata = NONE;
+        int preReleaseSize = 0;
+        int buildSize = 0;
+        
+        boolean pr = false;
+        boolean build = false;
+        
+        int begin = 0;
+        long value = 0;
+        int digits = 0;
+        boolean negative = false;
+        boolean numeric = true;
+        boolean overflow = false;
+        int coreEnd = len;
+        
+        for(int current = 0; current <= len; current++) {
+            final char c = current < len ? text.charAt(current) : 0;
+            final int cls = current < len ? classOf(c) : DOT;
+            
+            // the first character always belongs to the MAJOR version
+            if(current == len || (current > 0 && (cls == DOT || cls == HYPHEN || cls == PLUS))) {
+                if(pr) {
+                    preReleaseIdentifiers = append(preReleaseIdentifiers, preReleaseSize++, text.subSequence(begin, current));
+                } else if(build) {
+                    buildMetadata = append(buildMetadata, buildSize++, text.subSequence(begin, current));
+                } else {
+                    if(parts == 3) return fail(result, ParseError.TOO_MANY_PARTS, text, begin, current);
+                    if(overflow) return fail(result, ParseError.NUMBER_TOO_LARGE, text, begin, current);
+                    if(!numeric || digits == 0) return fail(result, ParseError.INVALID_NUMBER, text, begin, current);
+                    if(negative && value != 0) return fail(result, ParseError.NEGATIVE_NUMBER, text, begin, current);
+                    
+                    final int val = (int)value;
+                    switch(parts++) {
+                        case 0: major = val; break;
+                        case 1: minor = val; break;
+                        default: patch = val; break;
+                    }
+                    coreEnd = current;
+                }
+                
+                if(current < len && cls != DOT) {
+                    pr = (cls == HYPHEN);
+                    build = (cls == PLUS);
+                }
+                
+                begin = current + 1;
+                value = 0;
+                digits = 0;
+                negative = false;
+                numeric = true;
+                overflow = false;
+            } else if(!pr && !build && numeric && !overflow) {
+                if(current == 0 && (cls == HYPHEN || cls == PLUS)) {
+                    negative = (cls == HYPHEN);
+                } else {
+                    // other Unicode digits are accepted, as Integer.parseInt does
+                    final int digit = cls == DIGIT ? c - '0' : (c < 128 ? -1 : Character.digit(c, 10));
+                    if(digit < 0) {
+                        numeric = false;
+                    } else {
+                        value = value * 10 + digit;
+                        digits++;
+                        overflow = value > Integer.MAX_VALUE;
+                    }
+                }
+            }
+        }
+        
+        if(parts < 2) return fail(result, ParseError.MISSING_MINOR, text, coreEnd, coreEnd);
+        if(parts < 3) return fail(result, ParseError.MISSING_PATCH, text, coreEnd, coreEnd);
+        
+        return SemVer.ofParsed(major, minor, patch,
+                trim(preReleaseIdentifiers, preReleaseSize),
+                trim(buildMetadata, buildSize));
+    }
+    
+    /**
+     * Appends an identifier, growing the array if needed.
+     * 
+     * @param identifiers the identifiers
+     * @param size the number of identifiers in the array
+     * @param text the text of the identifier to append
+     * @return the array with the identifier, not null
+     */
+    private static Identifier[] append(final Identifier[] identifiers, final int size, final CharSequence text) {
+        final Identifier[] result = size < identifiers.length ? identifiers : Arrays.copyOf(identifiers, Math.max(4, size * 2));
+        result[size] = Identifier.of(text.toString());
+        return result;
+    }
+    
+    /**
+     * Trims an array of identifiers to its size.
+     * 
+     * @param identifiers the identifiers
+     * @param size the number of identifiers in the array
+     * @return an array with exactly the identifiers, not null
+     */
+    private static Identifier[] trim(final Identifier[] identifiers, final int size) {
+        return size == identifiers.length ? identifiers : Arrays.copyOf(identifiers, size);
+    }
+}
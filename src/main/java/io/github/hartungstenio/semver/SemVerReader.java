@@ -0,0 +1,506 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads versions from newline-delimited ASCII input, such as registry dumps.
+ * <p>
+ * Versions are parsed straight from the bytes, in a single pass, without creating
+ * a {@code String} for each line. Blank lines are skipped, and leading and trailing
+ * whitespace (including the {@code \r} of {@code \r\n} line breaks) is ignored.
+ * Malformed lines do not stop the reading: they are reported to an {@link ErrorHandler},
+ * together with the offset of the line in the input.
+ * <pre>
+ *   SemVerReader.read(input, versions::add, (offset, line, message) -&gt; log(offset, line));
+ *   
+ *   try(Stream&lt;SemVer&gt; versions = SemVerReader.stream(path, ErrorHandler.IGNORE)) {
+ *       SemVer latest = versions.parallel().max(SemVer::compareTo).orElse(null);
+ *   }
+ * </pre>
+ * <p>
+ * Streams over buffers and files split at line breaks, so they can be parsed in
+ * parallel by calling {@link Stream#parallel()}. Their error handler must then be thread-safe.
+ * 
+ * @implSpec
+ * This class is thread-safe.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVerReader {
+    
+    /**
+     * Size of the buffer used to read input streams.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * Largest region of a file mapped at once.
+     */
+    private static final long REGION_SIZE = 1L << 30;
+    
+    /**
+     * Smallest piece of a buffer parsed by each parallel task.
+     */
+    private static final int MIN_SPLIT_SIZE = 16 * 1024;
+    
+    private SemVerReader() {
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Reads all versions from an input stream.
+     * <p>
+     * The stream is read until its end, but is not closed.
+     * 
+     * @param in the input to read, not null
+     * @param action the action called for each version, not null
+     * @param errors the handler called for each malformed line, not null
+     * @return the number of versions read
+     * @throws IOException if the input cannot be read
+     */
+    public static long read(final InputStream in, final Consumer<? super SemVer> action, final ErrorHandler errors) throws IOException {
+        Objects.requireNonNull(action, "Invalid action");
+        Objects.requireNonNull(errors, "Invalid error handler");
+        
+        final LineParser parser = new LineParser(errors);
+        byte[] bytes = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long offset = 0;
+        int filled = 0;
+        long count = 0;
+        
+        int read;
+        while((read = in.read(bytes, filled, bytes.length - filled)) >= 0) {
+            filled += read;
+            
+            // parses the complete lines, and keeps the last partial line for the next read
+            int begin = 0;
+            for(int i = filled - read; i < filled; i++) {
+                if(bytes[i] == '\n') {
+                    count += parser.parse(buffer, begin, i, offset + begin, action);
+                    begin = i + 1;
+                }
+            }
+            
+            final int remaining = filled - begin;
+            if(begin == 0 && remaining == bytes.length) {
+                // a single line does not fit the buffer
+                final byte[] larger = new byte[bytes.length * 2];
+                System.arraycopy(bytes, 0, larger, 0, remaining);
+                bytes = larger;
+                buffer = ByteBuffer.wrap(bytes);
+            } else {
+                System.arraycopy(bytes, begin, bytes, 0, remaining);
+            }
+            
+            offset += begin;
+            filled = remaining;
+        }
+        
+        return count + parser.parse(buffer, 0, filled, offset, action);
+    }
+    
+    /**
+     * Reads all versions from a buffer.
+     * <p>
+     * Reads the bytes from the position to the limit of the buffer. The position,
+     * limit and mark of the buffer are not changed, and offsets are relative to the position.
+     * 
+     * @param buffer the buffer to read, not null
+     * @param action the action called for each version, not null
+     * @param errors the handler called for each malformed line, not null
+     * @return the number of versions read
+     */
+    public static long read(final ByteBuffer buffer, final Consumer<? super SemVer> action, final ErrorHandler errors) {
+        Objects.requireNonNull(action, "Invalid action");
+        
+        final LineParser parser = new LineParser(Objects.requireNonNull(errors, "Invalid error handler"));
+        final int base = buffer.position();
+        final int limit = buffer.limit();
+        long count = 0;
+        
+        int begin = base;
+        for(int i = base; i < limit; i++) {
+            if(buffer.get(i) == '\n') {
+                count += parser.parse(buffer, begin, i, begin - base, action);
+                begin = i + 1;
+            }
+        }
+        
+        return count + parser.parse(buffer, begin, limit, begin - base, action);
+    }
+    
+    /**
+     * Reads all versions from a file, mapping it in memory.
+     * 
+     * @param file the file to read, not null
+     * @param action the action called for each version, not null
+     * @param errors the handler called for each malformed line, not null
+     * @return the number of versions read
+     * @throws IOException if the file cannot be read
+     */
+    public static long read(final Path file, final Consumer<? super SemVer> action, final ErrorHandler errors) throws IOException {
+        long count = 0;
+        for(Region region : map(file)) {
+            count += read(region.buffer, action, region.offset(errors));
+        }
+        
+        return count;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains a stream of the versions in a buffer.
+     * <p>
+     * Reads the bytes from the position to the limit of the buffer, which must not
+     * be changed while the stream is in use. Offsets are relative to the position.
+     * 
+     * @param buffer the buffer to read, not null
+     * @param errors the handler called for each malformed line, not null
+     * @return a sequential stream that can be made parallel, not null
+     */
+    public static Stream<SemVer> stream(final ByteBuffer buffer, final ErrorHandler errors) {
+        Objects.requireNonNull(errors, "Invalid error handler");
+        
+        final Region region = new Region(buffer.duplicate(), 0);
+        return StreamSupport.stream(new LineSpliterator(new Region[] { region }, errors), false);
+    }
+    
+    /**
+     * Obtains a stream of the versions in a file, mapping it in memory.
+     * 
+     * @param file the file to read, not null
+     * @param errors the handler called for each malformed line, not null
+     * @return a sequential stream that can be made parallel, not null
+     * @throws IOException if the file cannot be mapped
+     */
+    public static Stream<SemVer> stream(final Path file, final ErrorHandler errors) throws IOException {
+        Objects.requireNonNull(errors, "Invalid error handler");
+        
+        final List<Region> regions = map(file);
+        return StreamSupport.stream(new LineSpliterator(regions.toArray(new Region[regions.size()]), errors), false);
+    }
+    
+    /**
+     * Maps a file in memory, in regions that end at line breaks.
+     * 
+     * @param file the file to map, not null
+     * @return the regions, not null
+     * @throws IOException if the file cannot be mapped
+     */
+    private static List<Region> map(final Path file) throws IOException {
+        final List<Region> regions = new ArrayList<>();
+        
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long offset = 0;
+            while(offset < size) {
+                final long length = Math.min(REGION_SIZE, size - offset);
+                final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                
+                // the last line of a region continues in the next one
+                int end = (int)length;
+                if(offset + length < size) {
+                    while(end > 0 && mapped.get(end - 1) != '\n') end--;
+                    if(end == 0) throw new IOException("Line too long at offset " + offset);
+                }
+                
+                mapped.limit(end);
+                regions.add(new Region(mapped, offset));
+                offset += end;
+            }
+        }
+        
+        return regions;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Receives the malformed lines found while reading.
+     */
+    @FunctionalInterface
+    public interface ErrorHandler {
+        
+        /**
+         * A handler that ignores all errors.
+         */
+        ErrorHandler IGNORE = (offset, line, message) -> { };
+        
+        /**
+         * Called for each malformed line.
+         * 
+         * @param offset the offset of the first byte of the line in the input
+         * @param line the malformed line, without surrounding whitespace
+         * @param message the reason why the line could not be parsed
+         */
+        void malformed(long offset, String line, String message);
+    }
+    
+    /**
+     * Parses single lines.
+     */
+    private static final class LineParser {
+        
+        /**
+         * The view reused for every line.
+         */
+        private final AsciiSequence text = new AsciiSequence();
+        
+        /**
+         * The result reused for every line.
+         */
+        private final ParseResult result = new ParseResult();
+        
+        /**
+         * The handler of malformed lines.
+         */
+        private final ErrorHandler errors;
+        
+        /**
+         * Constructor.
+         * 
+         * @param errors the handler of malformed lines
+         */
+        private LineParser(final ErrorHandler errors) {
+            this.errors = errors;
+        }
+        
+        /**
+         * Parses a line.
+         * 
+         * @param buffer the buffer with the line
+         * @param begin the position of the first byte of the line
+         * @param end the position after the last byte of the line
+         * @param offset the offset of the line in the input
+         * @param action the action called with the version
+         * @return the number of versions parsed, 0 or 1
+         */
+        private int parse(final ByteBuffer buffer, final int begin, final int end, final long offset,
+                final Consumer<? super SemVer> action) {
+            int from = begin;
+            int to = end;
+            while(from < to && (buffer.get(from) & 0xFF) <= ' ') from++;
+            while(to > from && (buffer.get(to - 1) & 0xFF) <= ' ') to--;
+            if(from == to) return 0;
+            
+            if(!SemVer.tryParse(this.text.reset(buffer, from, to), this.result)) {
+                this.errors.malformed(offset, this.text.toString(), this.result.getMessage());
+                return 0;
+            }
+            
+            action.accept(this.result.getVersion());
+            return 1;
+        }
+    }
+    
+    /**
+     * A region of the input, and its offset.
+     */
+    private static final class Region {
+        
+        /**
+         * The bytes of the region, from its position to its limit.
+         */
+        private final ByteBuffer buffer;
+        
+        /**
+         * The offset of the position of the buffer in the input.
+         */
+        private final long offset;
+        
+        /**
+         * Constructor.
+         * 
+         * @param buffer the bytes of the region
+         * @param offset the offset of the region in the input
+         */
+        private Region(final ByteBuffer buffer, final long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+        
+        /**
+         * Adjusts the offsets reported to a handler to the offset of this region.
+         * 
+         * @param errors the handler
+         * @return the adjusted handler
+         */
+        private ErrorHandler offset(final ErrorHandler errors) {
+            if(this.offset == 0) return errors;
+            
+            return (lineOffset, line, message) -> errors.malformed(this.offset + lineOffset, line, message);
+        }
+    }
+    
+    /**
+     * Splits regions of the input in lines, and parses them.
+     * <p>
+     * Splitting first divides the regions among tasks, and then divides a single
+     * region at the line break closest to its middle.
+     */
+    private static final class LineSpliterator implements Spliterator<SemVer> {
+        
+        private final Region[] regions;
+        
+        private final ErrorHandler errors;
+        
+        private final LineParser parser;
+        
+        /**
+         * The current region.
+         */
+        private int region;
+        
+        /**
+         * The region after the last one of this spliterator.
+         */
+        private int regionEnd;
+        
+        /**
+         * The position of the next line in the current region.
+         */
+        private int pos;
+        
+        /**
+         * The position after the last byte of the current region, for this spliterator.
+         */
+        private int end;
+        
+        /**
+         * The number of bytes not read in the current region and the following ones.
+         */
+        private long remaining;
+        
+        /**
+         * Constructor for all regions.
+         * 
+         * @param regions the regions to read
+         * @param errors the handler of malformed lines
+         */
+        private LineSpliterator(final Region[] regions, final ErrorHandler errors) {
+            this(regions, 0, regions.length, errors);
+        }
+        
+        /**
+         * Constructor for some regions.
+         * 
+         * @param regions all regions
+         * @param from the first region to read
+         * @param to the region after the last one to read
+         * @param errors the handler of malformed lines
+         */
+        private LineSpliterator(final Region[] regions, final int from, final int to, final ErrorHandler errors) {
+            this.regions = regions;
+            this.errors = errors;
+            this.parser = new LineParser(errors);
+            this.region = from;
+            this.regionEnd = to;
+            if(from < to) {
+                this.pos = regions[from].buffer.position();
+                this.end = regions[from].buffer.limit();
+            }
+            
+            for(int i = from; i < to; i++) {
+                this.remaining += regions[i].buffer.remaining();
+            }
+        }
+        
+        @Override
+        public boolean tryAdvance(final Consumer<? super SemVer> action) {
+            while(this.region < this.regionEnd) {
+                final Region current = this.regions[this.region];
+                final ByteBuffer buffer = current.buffer;
+                final int base = buffer.position();
+                
+                while(this.pos < this.end) {
+                    int lineEnd = this.pos;
+                    while(lineEnd < this.end && buffer.get(lineEnd) != '\n') lineEnd++;
+                    
+                    final int begin = this.pos;
+                    this.remaining -= Math.min(lineEnd + 1, this.end) - begin;
+                    this.pos = lineEnd + 1;
+                    
+                    if(this.parser.parse(buffer, begin, lineEnd, current.offset + begin - base, action) > 0) {
+                        return true;
+                    }
+                }
+                
+                if(++this.region < this.regionEnd) {
+                    this.pos = this.regions[this.region].buffer.position();
+                    this.end = this.regions[this.region].buffer.limit();
+                }
+            }
+            
+            return false;
+        }
+        
+        @Override
+        public Spliterator<SemVer> trySplit() {
+            if(this.regionEnd - this.region > 1) {
+                // gives away the first half of the regions
+                final int mid = (this.region + this.regionEnd) >>> 1;
+                final LineSpliterator prefix = new LineSpliterator(this.regions, this.region, mid, this.errors);
+                prefix.remaining -= this.pos - prefix.pos;
+                prefix.pos = this.pos;
+                
+                this.remaining -= prefix.remaining;
+                this.region = mid;
+                this.pos = this.regions[mid].buffer.position();
+                this.end = this.regions[mid].buffer.limit();
+                return prefix;
+            }
+            
+            if(this.region >= this.regionEnd || this.end - this.pos < 2 * MIN_SPLIT_SIZE) return null;
+            
+            // gives away the first half of the current region, up to a line break
+            final ByteBuffer buffer = this.regions[this.region].buffer;
+            int split = (this.pos + this.end) >>> 1;
+            while(split < this.end && buffer.get(split) != '\n') split++;
+            if(split >= this.end - 1) return null;
+            
+            final LineSpliterator prefix = new LineSpliterator(this.regions, this.region, this.region + 1, this.errors);
+            prefix.pos = this.pos;
+            prefix.end = split + 1;
+            prefix.remaining = split + 1 - this.pos;
+            
+            this.remaining -= prefix.remaining;
+            this.pos = split + 1;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize() {
+            // versions take about 8 bytes per line on average
+            return this.remaining / 8;
+        }
+        
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
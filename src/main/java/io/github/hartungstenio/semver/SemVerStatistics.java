@@ -0,0 +1,220 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters of the events reported to {@link SemVerMetrics}.
+ * <p>
+ * Each counter is a {@code LongAdder}, that spreads concurrent updates over
+ * per-thread cells, so threads parsing and comparing versions at the same time
+ * do not contend on a single value. Reading a counter sums the cells.
+ * <p>
+ * The counters can be exported over JMX, as a {@link SemVerStatisticsMXBean}:
+ * <pre>
+ *   SemVerStatistics statistics = new SemVerStatistics();
+ *   statistics.register(); // io.github.hartungstenio.semver:type=SemVerStatistics
+ *   SemVerMetrics.install(statistics);
+ * </pre>
+ * 
+ * @implSpec
+ * This class is thread-safe. Counters read while events are recorded may miss
+ * the concurrent updates.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVerStatistics implements SemVerMetrics, SemVerStatisticsMXBean {
+    
+    /**
+     * The name used by {@link #register()}.
+     */
+    public static final String OBJECT_NAME = "io.github.hartungstenio.semver:type=SemVerStatistics";
+    
+    /**
+     * The errors, by ordinal.
+     */
+    private static final ParseError[] ERRORS = ParseError.values();
+    
+    /**
+     * Number of texts parsed.
+     */
+    private final LongAdder parses = new LongAdder();
+    
+    /**
+     * Number of texts rejected, by error ordinal.
+     */
+    private final LongAdder[] failures = new LongAdder[ERRORS.length];
+    
+    /**
+     * Number of cache lookups answered from the cache.
+     */
+    private final LongAdder cacheHits = new LongAdder();
+    
+    /**
+     * Number of cache lookups that created a new version.
+     */
+    private final LongAdder cacheMisses = new LongAdder();
+    
+    /**
+     * Number of comparisons decided without comparing the pre-release tags one by one.
+     */
+    private final LongAdder coreCompares = new LongAdder();
+    
+    /**
+     * Number of comparisons that compared the pre-release tags one by one.
+     */
+    private final LongAdder tagCompares = new LongAdder();
+    
+    /**
+     * Creates new counters, all zero.
+     */
+    public SemVerStatistics() {
+        for(int i = 0; i < this.failures.length; i++) {
+            this.failures[i] = new LongAdder();
+        }
+    }
+    
+    //-----------------------------------------------------------------------
+    @Override
+    public void onParse() {
+        this.parses.increment();
+    }
+    
+    @Override
+    public void onParseFailure(final ParseError error) {
+        this.failures[error.ordinal()].increment();
+    }
+    
+    @Override
+    public void onCacheHit() {
+        this.cacheHits.increment();
+    }
+    
+    @Override
+    public void onCacheMiss() {
+        this.cacheMisses.increment();
+    }
+    
+    @Override
+    public void onCoreCompare() {
+        this.coreCompares.increment();
+    }
+    
+    @Override
+    public void onTagCompare() {
+        this.tagCompares.increment();
+    }
+    
+    //-----------------------------------------------------------------------
+    @Override
+    public long getParseCount() {
+        return this.parses.sum();
+    }
+    
+    @Override
+    public long getFailureCount() {
+        long sum = 0;
+        for(LongAdder failure : this.failures) {
+            sum += failure.sum();
+        }
+        
+        return sum;
+    }
+    
+    /**
+     * Gets the number of texts rejected with an error.
+     * 
+     * @param error the error, not null
+     * @return the number of failures, non-negative
+     */
+    public long getFailureCount(final ParseError error) {
+        return this.failures[error.ordinal()].sum();
+    }
+    
+    @Override
+    public Map<String, Long> getFailureCounts() {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for(ParseError error : ERRORS) {
+            result.put(error.name(), this.failures[error.ordinal()].sum());
+        }
+        
+        return result;
+    }
+    
+    @Override
+    public long getCacheHitCount() {
+        return this.cacheHits.sum();
+    }
+    
+    @Override
+    public long getCacheMissCount() {
+        return this.cacheMisses.sum();
+    }
+    
+    @Override
+    public long getCoreCompareCount() {
+        return this.coreCompares.sum();
+    }
+    
+    @Override
+    public long getTagCompareCount() {
+        return this.tagCompares.sum();
+    }
+    
+    @Override
+    public void reset() {
+        this.parses.reset();
+        for(LongAdder failure : this.failures) {
+            failure.reset();
+        }
+        this.cacheHits.reset();
+        this.cacheMisses.reset();
+        this.coreCompares.reset();
+        this.tagCompares.reset();
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Registers these counters in the platform MBean server, as {@link #OBJECT_NAME}.
+     * 
+     * @return the name of the registered MBean, not null
+     * @throws JMException if an MBean is already registered with the name
+     */
+    public ObjectName register() throws JMException {
+        return register(new ObjectName(OBJECT_NAME));
+    }
+    
+    /**
+     * Registers these counters in the platform MBean server.
+     * 
+     * @param name the name of the MBean, not null
+     * @return the name of the registered MBean, not null
+     * @throws JMException if an MBean is already registered with the name
+     */
+    public ObjectName register(final ObjectName name) throws JMException {
+        return ManagementFactory.getPlatformMBeanServer().registerMBean(this, name).getObjectName();
+    }
+    
+    @Override
+    public String toString() {
+        return "SemVerStatistics[parses=" + getParseCount() + ", failures=" + getFailureCount()
+                + ", cacheHits=" + getCacheHitCount() + ", cacheMisses=" + getCacheMissCount()
+                + ", coreCompares=" + getCoreCompareCount() + ", tagCompares=" + getTagCompareCount() + "]";
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link SemVerStatistics}.
+ * 
+ * @author Christian Hartung
+ */
+public interface SemVerStatisticsMXBean {
+    
+    /**
+     * Gets the number of texts parsed to a version.
+     * 
+     * @return the number of parses, non-negative
+     */
+    long getParseCount();
+    
+    /**
+     * Gets the number of texts rejected by a parser.
+     * 
+     * @return the number of failures, non-negative
+     */
+    long getFailureCount();
+    
+    /**
+     * Gets the number of texts rejected by a parser, by {@link ParseError} name.
+     * 
+     * @return the number of failures of each error, not null
+     */
+    Map<String, Long> getFailureCounts();
+    
+    /**
+     * Gets the number of {@link SemVerCache} lookups answered with a cached version.
+     * 
+     * @return the number of hits, non-negative
+     */
+    long getCacheHitCount();
+    
+    /**
+     * Gets the number of {@link SemVerCache} lookups that created a new version.
+     * 
+     * @return the number of misses, non-negative
+     */
+    long getCacheMissCount();
+    
+    /**
+     * Gets the number of comparisons decided by the MAJOR, MINOR and PATCH versions,
+     * or by whether each side has pre-release tags.
+     * 
+     * @return the number of comparisons, non-negative
+     */
+    long getCoreCompareCount();
+    
+    /**
+     * Gets the number of comparisons that compared the pre-release tags one by one,
+     * whether or not the tags turned out equal.
+     * 
+     * @return the number of comparisons, non-negative
+     */
+    long getTagCompareCount();
+    
+    /**
+     * Resets all the counters to zero.
+     */
+    void reset();
+}
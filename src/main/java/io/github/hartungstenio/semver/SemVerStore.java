@@ -0,0 +1,822 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A read-only catalogue of the versions of many packages, stored in a file and read
+ * straight from memory-mapped pages.
+ * <p>
+ * A store is written once, and then opened as many times as needed. Opening it only
+ * maps the file: nothing is parsed, and the versions stay off the heap until a lookup
+ * returns them:
+ * <pre>
+ *   SemVerStore.writer()
+ *       .add("lib", SemVer.parse("1.2.0"))
+ *       .add("lib", SemVer.parse("2.0.0-rc.1"))
+ *       .writeTo(file);
+ * 
+ *   SemVerStore store = SemVerStore.open(file);
+ *   store.latestStable("lib");                    // 1.2.0
+ *   store.floor("lib", SemVer.parse("1.9.0"));    // 1.2.0
+ * </pre>
+ * <p>
+ * The file has a header, a table of the packages sorted by name, a block index, the
+ * version records and a heap of variable-length data. All numbers are big-endian:
+ * <pre>
+ *   header   := u32(magic "SVS1") u32(format 1) u32(packages) u32(records) u32(blocks) u32(heap length)
+ *   package  := u32(name offset) u32(name length) u32(first record) u32(record count) i32(latest stable record)
+ *   block    := key of the record at position {@value #BLOCK_SIZE} &times; i
+ *   record   := key u32(heap offset) u16(encoded length) u16(pre-release length)
+ *   key      := u32(MAJOR) u32(MINOR) u32(PATCH) u32(1 if normal version, 0 if pre-release)
+ * </pre>
+ * The records of each package are contiguous and sorted by precedence, then by build
+ * metadata. Each one points to the {@link SemVerCodec sortable encoding} of its version
+ * in the heap, and the package names are kept in the heap as UTF-8.
+ * <p>
+ * The fixed-width key of a record sorts like its version, so lookups binary search the
+ * keys, and only read the heap to compare the pre-release tags of versions with the
+ * same key. The block index keeps one key out of every {@value #BLOCK_SIZE} records
+ * next to each other, so the first steps of the search stay within a few pages.
+ * 
+ * @implSpec
+ * This class is immutable and thread-safe. Files are limited to 2 GiB.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVerStore {
+    
+    /**
+     * The first bytes of a store, {@code SVS1} in ASCII.
+     */
+    private static final int MAGIC = 0x53565331;
+    
+    /**
+     * The version of the file format.
+     */
+    private static final int FORMAT = 1;
+    
+    /**
+     * Number of records covered by each entry of the block index.
+     */
+    static final int BLOCK_SIZE = 64;
+    
+    private static final int HEADER_BYTES = 24;
+    
+    private static final int PACKAGE_BYTES = 20;
+    
+    private static final int KEY_BYTES = 16;
+    
+    private static final int RECORD_BYTES = 24;
+    
+    /**
+     * Offset of the MAJOR version in the sortable encoding, before the pre-release section.
+     */
+    private static final int CORE_BYTES = 12;
+    
+    /**
+     * The mapped file.
+     */
+    private final ByteBuffer buffer;
+    
+    /**
+     * The number of packages.
+     */
+    private final int packageCount;
+    
+    /**
+     * The number of records, of all packages.
+     */
+    private final int recordCount;
+    
+    /**
+     * The position of the block index.
+     */
+    private final int blocks;
+    
+    /**
+     * The position of the records.
+     */
+    private final int records;
+    
+    /**
+     * The position of the heap.
+     */
+    private final int heap;
+    
+    /**
+     * Constructor.
+     * 
+     * @param buffer the contents of the store
+     * @throws IOException if the contents are not a valid store
+     */
+    private SemVerStore(final ByteBuffer buffer) throws IOException {
+        if(buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) throw new IOException("Not a version store");
+        if(buffer.getInt(4) != FORMAT) throw new IOException("Unsupported version store format: " + buffer.getInt(4));
+        
+        this.buffer = buffer;
+        this.packageCount = buffer.getInt(8);
+        this.recordCount = buffer.getInt(12);
+        
+        final long blocks = HEADER_BYTES + (long)PACKAGE_BYTES * this.packageCount;
+        final long records = blocks + (long)KEY_BYTES * buffer.getInt(16);
+        final long heap = records + (long)RECORD_BYTES * this.recordCount;
+        if(this.packageCount < 0 || this.recordCount < 0 || heap + (buffer.getInt(20) & 0xFFFFFFFFL) != buffer.capacity()) {
+            throw new IOException("Truncated version store");
+        }
+        
+        this.blocks = (int)blocks;
+        this.records = (int)records;
+        this.heap = (int)heap;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Opens a store, mapping the file in memory.
+     * <p>
+     * The file is mapped read-only, and must not be changed while the store is in use.
+     * 
+     * @param file the file, not null
+     * @return the store, not null
+     * @throws IOException if the file cannot be mapped, or is not a valid store
+     */
+    public static SemVerStore open(final Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if(size > Integer.MAX_VALUE) throw new IOException("Version store too large: " + file);
+            
+            return new SemVerStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+    
+    /**
+     * Opens a store held in a buffer, such as a store read from the network.
+     * <p>
+     * The store reads from position zero to the capacity of the buffer, and the buffer
+     * must not be changed while the store is in use.
+     * 
+     * @param buffer the contents of the store, not null
+     * @return the store, not null
+     * @throws IOException if the contents are not a valid store
+     */
+    public static SemVerStore open(final ByteBuffer buffer) throws IOException {
+        return new SemVerStore(buffer.duplicate());
+    }
+    
+    /**
+     * Obtains a writer of a new store.
+     * 
+     * @return the writer, not null
+     */
+    public static Writer writer() {
+        return new Writer();
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of packages in the store.
+     * 
+     * @return the number of packages
+     */
+    public int packageCount() {
+        return this.packageCount;
+    }
+    
+    /**
+     * Gets the number of versions in the store, of all packages.
+     * 
+     * @return the number of versions
+     */
+    public int versionCount() {
+        return this.recordCount;
+    }
+    
+    /**
+     * Gets the names of the packages, in the order of their UTF-8 bytes.
+     * <p>
+     * The names are decoded when the list is read.
+     * 
+     * @return an unmodifiable list of the names, not null
+     */
+    public List<String> packages() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(final int index) {
+                if(index < 0 || index >= SemVerStore.this.packageCount) throw new IndexOutOfBoundsException("Invalid index: " + index);
+                return name(index);
+            }
+            
+            @Override
+            public int size() {
+                return SemVerStore.this.packageCount;
+            }
+        };
+    }
+    
+    /**
+     * Checks if the store has a package.
+     * 
+     * @param name the name of the package, not null
+     * @return true if the package is in the store
+     */
+    public boolean contains(final String name) {
+        return find(name) >= 0;
+    }
+    
+    /**
+     * Gets the number of versions of a package.
+     * 
+     * @param name the name of the package, not null
+     * @return the number of versions, zero if the package is not in the store
+     */
+    public int size(final String name) {
+        final int pkg = find(name);
+        return pkg < 0 ? 0 : count(pkg);
+    }
+    
+    /**
+     * Gets all the versions of a package.
+     * 
+     * @param name the name of the package, not null
+     * @return the index of the versions, empty if the package is not in the store, not null
+     */
+    public VersionIndex versions(final String name) {
+        final int pkg = find(name);
+        if(pkg < 0) return VersionIndex.empty();
+        
+        final int first = first(pkg);
+        return VersionIndex.of(decode(first, first + count(pkg)));
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the highest version of a package.
+     * 
+     * @param name the name of the package, not null
+     * @return the highest version, null if none
+     */
+    public SemVer latest(final String name) {
+        final int pkg = find(name);
+        if(pkg < 0 || count(pkg) == 0) return null;
+        
+        return decode(first(pkg) + count(pkg) - 1);
+    }
+    
+    /**
+     * Gets the highest version of a package that is not a pre-release.
+     * 
+     * @param name the name of the package, not null
+     * @return the highest stable version, null if none
+     * @see SemVer#isPreRelease()
+     */
+    public SemVer latestStable(final String name) {
+        final int pkg = find(name);
+        if(pkg < 0) return null;
+        
+        final int record = this.buffer.getInt(packageAt(pkg) + 16);
+        return record < 0 ? null : decode(record);
+    }
+    
+    /**
+     * Gets the highest version of a package less than or equal to the given version.
+     * 
+     * @param name the name of the package, not null
+     * @param version the version to search, not null
+     * @return the highest version not newer than the given one, null if none
+     */
+    public SemVer floor(final String name, final SemVer version) {
+        final int pkg = find(name);
+        if(pkg < 0) return null;
+        
+        final int from = first(pkg);
+        final int pos = upperBound(from, from + count(pkg), new Key(version));
+        return pos == from ? null : decode(pos - 1);
+    }
+    
+    /**
+     * Gets the lowest version of a package greater than or equal to the given version.
+     * 
+     * @param name the name of the package, not null
+     * @param version the version to search, not null
+     * @return the lowest version not older than the given one, null if none
+     */
+    public SemVer ceiling(final String name, final SemVer version) {
+        final int pkg = find(name);
+        if(pkg < 0) return null;
+        
+        final int to = first(pkg) + count(pkg);
+        final int pos = lowerBound(first(pkg), to, new Key(version));
+        return pos == to ? null : decode(pos);
+    }
+    
+    /**
+     * Gets the versions of a package in a range.
+     * 
+     * @param name the name of the package, not null
+     * @param fromInclusive the lowest version of the range, not null
+     * @param toExclusive the version that ends the range, not null
+     * @return the versions in the range, in precedence order, not null
+     */
+    public List<SemVer> range(final String name, final SemVer fromInclusive, final SemVer toExclusive) {
+        final int pkg = find(name);
+        if(pkg < 0) return Collections.emptyList();
+        
+        final int first = first(pkg);
+        final int last = first + count(pkg);
+        final int from = lowerBound(first, last, new Key(fromInclusive));
+        final int to = Math.max(from, lowerBound(from, last, new Key(toExclusive)));
+        return decode(from, to);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Finds a package by name.
+     * 
+     * @param name the name of the package, not null
+     * @return the number of the package, or -1 if not found
+     */
+    private int find(final String name) {
+        final byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = this.packageCount - 1;
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = compareName(mid, key);
+            if(cmp < 0) low = mid + 1;
+            else if(cmp > 0) high = mid - 1;
+            else return mid;
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Compares the name of a package with UTF-8 bytes.
+     * 
+     * @param pkg the number of the package
+     * @param key the bytes to compare to
+     * @return the comparator value, negative if less, positive if greater
+     */
+    private int compareName(final int pkg, final byte[] key) {
+        final int offset = this.heap + this.buffer.getInt(packageAt(pkg));
+        final int length = this.buffer.getInt(packageAt(pkg) + 4);
+        final int len = Math.min(length, key.length);
+        for(int i = 0; i < len; i++) {
+            final int a = this.buffer.get(offset + i) & 0xFF;
+            final int b = key[i] & 0xFF;
+            if(a != b) return a - b;
+        }
+        
+        return length - key.length;
+    }
+    
+    /**
+     * Decodes the name of a package.
+     * 
+     * @param pkg the number of the package
+     * @return the name, not null
+     */
+    private String name(final int pkg) {
+        final byte[] bytes = new byte[this.buffer.getInt(packageAt(pkg) + 4)];
+        final ByteBuffer view = this.buffer.duplicate();
+        view.position(this.heap + this.buffer.getInt(packageAt(pkg)));
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private int packageAt(final int pkg) {
+        return HEADER_BYTES + pkg * PACKAGE_BYTES;
+    }
+    
+    private int first(final int pkg) {
+        return this.buffer.getInt(packageAt(pkg) + 8);
+    }
+    
+    private int count(final int pkg) {
+        return this.buffer.getInt(packageAt(pkg) + 12);
+    }
+    
+    private int recordAt(final int record) {
+        return this.records + record * RECORD_BYTES;
+    }
+    
+    /**
+     * Decodes the version of a record.
+     * 
+     * @param record the number of the record
+     * @return the version, not null
+     */
+    private SemVer decode(final int record) {
+        final int pos = recordAt(record);
+        final int offset = this.heap + this.buffer.getInt(pos + KEY_BYTES);
+        final ByteBuffer view = this.buffer.duplicate();
+        view.position(offset).limit(offset + (this.buffer.getShort(pos + KEY_BYTES + 4) & 0xFFFF));
+        return SemVerCodec.decodeSortable(view);
+    }
+    
+    /**
+     * Decodes the versions of a range of records.
+     * 
+     * @param from the first record, inclusive
+     * @param to the last record, exclusive
+     * @return the versions, not null
+     */
+    private List<SemVer> decode(final int from, final int to) {
+        final List<SemVer> result = new ArrayList<>(to - from);
+        for(int i = from; i < to; i++) {
+            result.add(decode(i));
+        }
+        
+        return result;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the first record in a range with a version not less than the given one.
+     * 
+     * @param from the first record of the range
+     * @param to the end of the range
+     * @param key the version to search
+     * @return the position, from {@code from} to {@code to}
+     */
+    private int lowerBound(final int from, final int to, final Key key) {
+        int low = narrowLow(from, to, key);
+        int high = narrowHigh(from, to, key);
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(compareRecord(mid, key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        
+        return low;
+    }
+    
+    /**
+     * Finds the first record in a range with a version greater than the given one.
+     * 
+     * @param from the first record of the range
+     * @param to the end of the range
+     * @param key the version to search
+     * @return the position, from {@code from} to {@code to}
+     */
+    private int upperBound(final int from, final int to, final Key key) {
+        int low = narrowLow(from, to, key);
+        int high = narrowHigh(from, to, key);
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(compareRecord(mid, key) <= 0) low = mid + 1;
+            else high = mid;
+        }
+        
+        return low;
+    }
+    
+    /**
+     * Uses the block index to skip the records whose key is less than the given key.
+     * 
+     * @param from the first record of the range
+     * @param to the end of the range
+     * @param key the version to search
+     * @return a position in the range, with only lesser records before it
+     */
+    private int narrowLow(final int from, final int to, final Key key) {
+        // the last block, starting in the range, with a lesser key
+        int low = (from + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int high = to == 0 ? -1 : (to - 1) / BLOCK_SIZE;
+        int found = -1;
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            if(key.comparePrefix(this.buffer, this.blocks + mid * KEY_BYTES) > 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        
+        return found < 0 ? from : found * BLOCK_SIZE;
+    }
+    
+    /**
+     * Uses the block index to skip the records whose key is greater than the given key.
+     * 
+     * @param from the first record of the range
+     * @param to the end of the range
+     * @param key the version to search
+     * @return a position in the range, with only greater records from it
+     */
+    private int narrowHigh(final int from, final int to, final Key key) {
+        // the first block, starting in the range, with a greater key
+        int low = (from + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int high = to == 0 ? -1 : (to - 1) / BLOCK_SIZE;
+        int found = -1;
+        while(low <= high) {
+            final int mid = (low + high) >>> 1;
+            if(key.comparePrefix(this.buffer, this.blocks + mid * KEY_BYTES) < 0) {
+                found = mid;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        
+        return found < 0 ? to : found * BLOCK_SIZE;
+    }
+    
+    /**
+     * Compares the version of a record with another version, by precedence.
+     * 
+     * @param record the number of the record
+     * @param key the other version
+     * @return the comparator value, negative if less, positive if greater
+     */
+    private int compareRecord(final int record, final Key key) {
+        final int pos = recordAt(record);
+        final int cmp = -key.comparePrefix(this.buffer, pos);
+        if(cmp != 0 || key.release) return cmp;
+        
+        // both are pre-releases of the same version: compare the encoded tags
+        final int offset = this.heap + this.buffer.getInt(pos + KEY_BYTES) + CORE_BYTES;
+        final int length = this.buffer.getShort(pos + KEY_BYTES + 6) & 0xFFFF;
+        final int len = Math.min(length, key.preRelease.length);
+        for(int i = 0; i < len; i++) {
+            final int a = this.buffer.get(offset + i) & 0xFF;
+            final int b = key.preRelease[i] & 0xFF;
+            if(a != b) return a - b;
+        }
+        
+        return length - key.preRelease.length;
+    }
+    
+    /**
+     * Encodes a version as a record: the fixed-width key, and the encoded pre-release section.
+     * 
+     * @param version the version
+     * @return the sortable encoding of the version without build metadata
+     */
+    private static byte[] encodeWithoutBuild(final SemVer version) {
+        return SemVerCodec.encodeSortable(version.getBuildCount() == 0 ? version : version.withBuild());
+    }
+    
+    /**
+     * A version being searched, in the layout of the records.
+     */
+    private static final class Key {
+        private final int major;
+        private final int minor;
+        private final int patch;
+        private final boolean release;
+        
+        /**
+         * The encoded pre-release section.
+         */
+        private final byte[] preRelease;
+        
+        Key(final SemVer version) {
+            this.major = version.getMajor();
+            this.minor = version.getMinor();
+            this.patch = version.getPatch();
+            this.release = version.getPreReleaseCount() == 0;
+            
+            if(this.release) {
+                this.preRelease = null;
+            } else {
+                // the encoding ends with the empty build section
+                final byte[] encoded = encodeWithoutBuild(version);
+                this.preRelease = Arrays.copyOfRange(encoded, CORE_BYTES, encoded.length - 1);
+            }
+        }
+        
+        /**
+         * Compares this key with a fixed-width key.
+         * 
+         * @param buffer the buffer with the key
+         * @param pos the position of the key
+         * @return the comparator value, negative if this key is less, positive if greater
+         */
+        int comparePrefix(final ByteBuffer buffer, final int pos) {
+            int cmp = Integer.compare(this.major, buffer.getInt(pos));
+            if(cmp == 0) {
+                cmp = Integer.compare(this.minor, buffer.getInt(pos + 4));
+                if(cmp == 0) {
+                    cmp = Integer.compare(this.patch, buffer.getInt(pos + 8));
+                    if(cmp == 0) {
+                        cmp = Integer.compare(this.release ? 1 : 0, buffer.getInt(pos + 12));
+                    }
+                }
+            }
+            
+            return cmp;
+        }
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * A writer of a {@link SemVerStore}.
+     * <p>
+     * The writer collects the versions of each package in memory, and writes the whole
+     * store at once. Versions equal to one already added are ignored.
+     * 
+     * @implSpec
+     * This class is intended for use in a single thread.
+     */
+    public static final class Writer {
+        
+        /**
+         * The versions of each package, by the UTF-8 bytes of its name.
+         */
+        private final Map<String, TreeSet<SemVer>> packages = new TreeMap<>(Writer::compareUtf8);
+        
+        /**
+         * Constructor.
+         */
+        private Writer() {
+        }
+        
+        /**
+         * Adds a package without versions, if not added yet.
+         * 
+         * @param name the name of the package, not null
+         * @return this writer
+         */
+        public Writer add(final String name) {
+            this.packages.computeIfAbsent(Objects.requireNonNull(name, "name"), key -> new TreeSet<>(SemVer.BUILD_ORDER));
+            return this;
+        }
+        
+        /**
+         * Adds a version of a package.
+         * 
+         * @param name the name of the package, not null
+         * @param version the version, not null
+         * @return this writer
+         */
+        public Writer add(final String name, final SemVer version) {
+            Objects.requireNonNull(version, "Invalid version");
+            add(name);
+            this.packages.get(name).add(version);
+            return this;
+        }
+        
+        /**
+         * Adds versions of a package.
+         * 
+         * @param name the name of the package, not null
+         * @param versions the versions, not null
+         * @return this writer
+         * @throws NullPointerException if any version is null
+         */
+        public Writer addAll(final String name, final Collection<SemVer> versions) {
+            for(SemVer version : versions) {
+                add(name, version);
+            }
+            
+            return add(name);
+        }
+        
+        /**
+         * Writes the store to a file, replacing it if it exists.
+         * 
+         * @param file the file, not null
+         * @throws IOException if the file cannot be written
+         * @throws IllegalArgumentException if the store or a single version is too large for the format
+         */
+        public void writeTo(final Path file) throws IOException {
+            int recordCount = 0;
+            for(TreeSet<SemVer> versions : this.packages.values()) {
+                recordCount += versions.size();
+            }
+            
+            // the heap has the names, and then the versions
+            final List<byte[]> names = new ArrayList<>(this.packages.size());
+            final byte[][] encoded = new byte[recordCount][];
+            final int[] preReleaseLengths = new int[recordCount];
+            final SemVer[] versions = new SemVer[recordCount];
+            long heapLength = 0;
+            int record = 0;
+            for(Map.Entry<String, TreeSet<SemVer>> entry : this.packages.entrySet()) {
+                final byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                names.add(name);
+                heapLength += name.length;
+                for(SemVer version : entry.getValue()) {
+                    versions[record] = version;
+                    encoded[record] = SemVerCodec.encodeSortable(version);
+                    preReleaseLengths[record] = version.getPreReleaseCount() == 0 ? 1 : encodeWithoutBuild(version).length - CORE_BYTES - 1;
+                    if(encoded[record].length > 0xFFFF) throw new IllegalArgumentException("Version too large: " + version);
+                    heapLength += encoded[record].length;
+                    record++;
+                }
+            }
+            
+            final int blockCount = (recordCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            final long size = HEADER_BYTES + (long)PACKAGE_BYTES * names.size() + (long)KEY_BYTES * blockCount
+                    + (long)RECORD_BYTES * recordCount + heapLength;
+            if(size > Integer.MAX_VALUE) throw new IllegalArgumentException("Version store too large: " + size + " bytes");
+            
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeInt(names.size());
+                out.writeInt(recordCount);
+                out.writeInt(blockCount);
+                out.writeInt((int)heapLength);
+                
+                int nameOffset = 0;
+                int first = 0;
+                int pkg = 0;
+                for(TreeSet<SemVer> set : this.packages.values()) {
+                    final int length = names.get(pkg++).length;
+                    out.writeInt(nameOffset);
+                    out.writeInt(length);
+                    out.writeInt(first);
+                    out.writeInt(set.size());
+                    
+                    int latestStable = -1;
+                    for(int i = first + set.size() - 1; i >= first; i--) {
+                        if(!versions[i].isPreRelease()) {
+                            latestStable = i;
+                            break;
+                        }
+                    }
+                    out.writeInt(latestStable);
+                    
+                    nameOffset += length;
+                    first += set.size();
+                }
+                
+                for(int block = 0; block < blockCount; block++) {
+                    writeKey(out, versions[block * BLOCK_SIZE]);
+                }
+                
+                int heapOffset = nameOffset;
+                for(int i = 0; i < recordCount; i++) {
+                    writeKey(out, versions[i]);
+                    out.writeInt(heapOffset);
+                    out.writeShort(encoded[i].length);
+                    out.writeShort(preReleaseLengths[i]);
+                    heapOffset += encoded[i].length;
+                }
+                
+                for(byte[] name : names) {
+                    out.write(name);
+                }
+                for(byte[] bytes : encoded) {
+                    out.write(bytes);
+                }
+            }
+        }
+        
+        /**
+         * Writes the fixed-width key of a version.
+         * 
+         * @param out the output
+         * @param version the version
+         * @throws IOException if the output cannot be written
+         */
+        private static void writeKey(final DataOutputStream out, final SemVer version) throws IOException {
+            out.writeInt(version.getMajor());
+            out.writeInt(version.getMinor());
+            out.writeInt(version.getPatch());
+            out.writeInt(version.getPreReleaseCount() == 0 ? 1 : 0);
+        }
+        
+        /**
+         * Compares two strings by their UTF-8 bytes, the order of the names in the store.
+         * 
+         * @param a the first string
+         * @param b the second string
+         * @return the comparator value, negative if less, positive if greater
+         */
+        private static int compareUtf8(final String a, final String b) {
+            return SemVerCodec.compareSortable(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
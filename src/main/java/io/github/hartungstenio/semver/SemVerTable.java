@@ -0,0 +1,673 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A compact, column-oriented table of versions, for large in-memory catalogues.
+ * <p>
+ * The MAJOR, MINOR and PATCH versions are stored in {@code int[]} columns, and the
+ * pre-release and build identifiers are stored once in a dictionary, and referenced
+ * from each row by their {@code int} code. A table of versions takes a few dozen bytes
+ * per row, instead of the hundreds of bytes of the equivalent {@code SemVer} objects.
+ * <p>
+ * Rows can be read without creating objects through a {@link Cursor}, a view that
+ * moves from row to row, and are only turned into {@code SemVer} objects on demand:
+ * <pre>
+ *   SemVerTable table = new SemVerTable();
+ *   table.addAll(versions);
+ *   table.sort();
+ *   SemVerTable.Cursor cursor = table.cursor();
+ *   while(cursor.next()) {
+ *       if(cursor.getMajor() == 2 &amp;&amp; !cursor.isPreRelease()) count++;
+ *   }
+ *   SemVer latest = table.get(table.size() - 1);
+ * </pre>
+ * 
+ * @implSpec
+ * This class is mutable and intended for use in a single thread. Tables created
+ * by {@link #filter(Predicate)} share the dictionary of the original table.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVerTable {
+    
+    /**
+     * Initial number of rows.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    
+    /**
+     * The identifiers used by the rows.
+     */
+    private final Dictionary dictionary;
+    
+    /**
+     * The number of rows.
+     */
+    private int size;
+    
+    private int[] majors;
+    
+    private int[] minors;
+    
+    private int[] patches;
+    
+    /**
+     * The position of the first pre-release identifier of each row in {@link #codes}.
+     */
+    private int[] preReleaseOffsets;
+    
+    /**
+     * The position of the first build identifier of each row in {@link #codes}.
+     */
+    private int[] buildOffsets;
+    
+    /**
+     * The number of pre-release identifiers of each row, in the high 16 bits, and of
+     * build identifiers, in the low 16 bits.
+     */
+    private int[] counts;
+    
+    /**
+     * The dictionary codes of the identifiers of all rows.
+     */
+    private int[] codes;
+    
+    /**
+     * The number of codes in use.
+     */
+    private int codeCount;
+    
+    /**
+     * Creates an empty table.
+     */
+    public SemVerTable() {
+        this(new Dictionary(), INITIAL_CAPACITY);
+    }
+    
+    /**
+     * Creates an empty table, sized for a number of rows.
+     * 
+     * @param capacity the expected number of rows, non-negative
+     */
+    public SemVerTable(final int capacity) {
+        this(new Dictionary(), capacity);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param dictionary the dictionary of identifiers
+     * @param capacity the expected number of rows
+     */
+    private SemVerTable(final Dictionary dictionary, final int capacity) {
+        if(capacity < 0) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        
+        this.dictionary = dictionary;
+        this.majors = new int[capacity];
+        this.minors = new int[capacity];
+        this.patches = new int[capacity];
+        this.preReleaseOffsets = new int[capacity];
+        this.buildOffsets = new int[capacity];
+        this.counts = new int[capacity];
+        this.codes = new int[capacity];
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of rows.
+     * 
+     * @return the number of rows
+     */
+    public int size() {
+        return this.size;
+    }
+    
+    /**
+     * Gets the number of distinct identifiers stored in the dictionary.
+     * 
+     * @return the number of identifiers
+     */
+    public int dictionarySize() {
+        return this.dictionary.size;
+    }
+    
+    /**
+     * Adds a version.
+     * 
+     * @param version the version to add, not null
+     * @return the row of the version
+     */
+    public int add(final SemVer version) {
+        final Collection<?> preRelease = version.getPreRelease();
+        final Collection<?> build = version.getBuild();
+        if(preRelease.size() > 0xFFFF || build.size() > 0xFFFF) throw new SemVerException("Too many identifiers: " + version);
+        
+        final int row = this.size;
+        ensureRows(row + 1);
+        ensureCodes(this.codeCount + preRelease.size() + build.size());
+        
+        this.majors[row] = version.getMajor();
+        this.minors[row] = version.getMinor();
+        this.patches[row] = version.getPatch();
+        this.counts[row] = (preRelease.size() << 16) | build.size();
+        
+        this.preReleaseOffsets[row] = this.codeCount;
+        for(Object tag : preRelease) {
+            this.codes[this.codeCount++] = this.dictionary.code(tag.toString());
+        }
+        
+        this.buildOffsets[row] = this.codeCount;
+        for(Object tag : build) {
+            this.codes[this.codeCount++] = this.dictionary.code(tag.toString());
+        }
+        
+        this.size++;
+        return row;
+    }
+    
+    /**
+     * Adds versions.
+     * 
+     * @param versions the versions to add, not null
+     */
+    public void addAll(final Collection<SemVer> versions) {
+        ensureRows(this.size + versions.size());
+        for(SemVer version : versions) {
+            add(version);
+        }
+    }
+    
+    /**
+     * Creates the {@code SemVer} stored in a row.
+     * 
+     * @param row the row, from 0 to {@code size() - 1}
+     * @return the version, not null
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public SemVer get(final int row) {
+        checkRow(row);
+        
+        return SemVer.of(this.majors[row], this.minors[row], this.patches[row],
+                identifiers(this.preReleaseOffsets[row], this.counts[row] >>> 16),
+                identifiers(this.buildOffsets[row], this.counts[row] & 0xFFFF));
+    }
+    
+    /**
+     * Gets the identifiers of a row.
+     * 
+     * @param offset the position of the first code
+     * @param count the number of codes
+     * @return the identifiers
+     */
+    private List<String> identifiers(final int offset, final int count) {
+        if(count == 0) return Collections.emptyList();
+        
+        final List<String> identifiers = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            identifiers.add(this.dictionary.texts[this.codes[offset + i]]);
+        }
+        
+        return identifiers;
+    }
+    
+    /**
+     * Obtains a cursor positioned before the first row.
+     * 
+     * @return the cursor, not null
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+    
+    /**
+     * Calls an action for each row, reusing the same cursor.
+     * 
+     * @param action the action, not null
+     */
+    public void forEach(final Consumer<? super Cursor> action) {
+        final Cursor cursor = new Cursor();
+        while(cursor.next()) {
+            action.accept(cursor);
+        }
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Sorts the rows in {@link SemVer#compareTo(SemVer) precedence} order.
+     * <p>
+     * The sort is stable.
+     */
+    public void sort() {
+        final int[] order = new int[this.size];
+        for(int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        
+        mergeSort(order, order.clone(), 0, order.length);
+        
+        this.majors = permute(this.majors, order);
+        this.minors = permute(this.minors, order);
+        this.patches = permute(this.patches, order);
+        this.preReleaseOffsets = permute(this.preReleaseOffsets, order);
+        this.buildOffsets = permute(this.buildOffsets, order);
+        this.counts = permute(this.counts, order);
+    }
+    
+    /**
+     * Compares the versions of two rows.
+     * 
+     * @param a the first row
+     * @param b the second row
+     * @return the comparator value, negative if the first row is less, positive if greater
+     * @throws IndexOutOfBoundsException if any row is out of range
+     */
+    public int compare(final int a, final int b) {
+        checkRow(a);
+        checkRow(b);
+        
+        return compareRows(a, b);
+    }
+    
+    /**
+     * Creates a table with the rows that satisfy a condition.
+     * <p>
+     * The new table shares the dictionary of this table.
+     * 
+     * @param condition the condition, not null
+     * @return the table with the selected rows, not null
+     */
+    public SemVerTable filter(final Predicate<? super Cursor> condition) {
+        final SemVerTable result = new SemVerTable(this.dictionary, INITIAL_CAPACITY);
+        final Cursor cursor = new Cursor();
+        while(cursor.next()) {
+            if(condition.test(cursor)) result.copy(this, cursor.row);
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Copies a row from a table that shares the same dictionary.
+     * 
+     * @param source the table to copy from
+     * @param row the row to copy
+     */
+    private void copy(final SemVerTable source, final int row) {
+        final int preReleaseCount = source.counts[row] >>> 16;
+        final int buildCount = source.counts[row] & 0xFFFF;
+        final int target = this.size;
+        ensureRows(target + 1);
+        ensureCodes(this.codeCount + preReleaseCount + buildCount);
+        
+        this.majors[target] = source.majors[row];
+        this.minors[target] = source.minors[row];
+        this.patches[target] = source.patches[row];
+        this.counts[target] = source.counts[row];
+        
+        this.preReleaseOffsets[target] = this.codeCount;
+        System.arraycopy(source.codes, source.preReleaseOffsets[row], this.codes, this.codeCount, preReleaseCount);
+        this.codeCount += preReleaseCount;
+        
+        this.buildOffsets[target] = this.codeCount;
+        System.arraycopy(source.codes, source.buildOffsets[row], this.codes, this.codeCount, buildCount);
+        this.codeCount += buildCount;
+        
+        this.size++;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Compares two rows, previously validated.
+     */
+    private int compareRows(final int a, final int b) {
+        int cmp = Integer.compare(this.majors[a], this.majors[b]);
+        if(cmp != 0) return cmp;
+        
+        cmp = Integer.compare(this.minors[a], this.minors[b]);
+        if(cmp != 0) return cmp;
+        
+        cmp = Integer.compare(this.patches[a], this.patches[b]);
+        if(cmp != 0) return cmp;
+        
+        final int countA = this.counts[a] >>> 16;
+        final int countB = this.counts[b] >>> 16;
+        if(countA == 0 || countB == 0) {
+            // a normal version has precedence over any pre-release
+            return Integer.compare(countA == 0 ? 1 : 0, countB == 0 ? 1 : 0);
+        }
+        
+        final int offsetA = this.preReleaseOffsets[a];
+        final int offsetB = this.preReleaseOffsets[b];
+        final Dictionary dict = this.dictionary;
+        final int count = Math.min(countA, countB);
+        for(int i = 0; i < count; i++) {
+            final int codeA = this.codes[offsetA + i];
+            final int codeB = this.codes[offsetB + i];
+            if(codeA != codeB) {
+                cmp = Identifier.compare(dict.numbers[codeA], dict.texts[codeA], dict.numbers[codeB], dict.texts[codeB]);
+                if(cmp != 0) return cmp;
+            }
+        }
+        
+        return Integer.compare(countA, countB);
+    }
+    
+    /**
+     * Sorts row numbers with a stable merge sort.
+     * 
+     * @param rows the row numbers to sort
+     * @param buffer a copy of the row numbers in the range
+     * @param from the first position of the range
+     * @param to the position after the range
+     */
+    private void mergeSort(final int[] rows, final int[] buffer, final int from, final int to) {
+        if(to - from < 8) {
+            for(int i = from + 1; i < to; i++) {
+                final int row = rows[i];
+                int j = i;
+                while(j > from && compareRows(rows[j - 1], row) > 0) {
+                    rows[j] = rows[j - 1];
+                    j--;
+                }
+                rows[j] = row;
+            }
+            return;
+        }
+        
+        // sorts the halves of the buffer, and merges them into the rows
+        final int mid = (from + to) >>> 1;
+        mergeSort(buffer, rows, from, mid);
+        mergeSort(buffer, rows, mid, to);
+        
+        int i = from;
+        int j = mid;
+        for(int k = from; k < to; k++) {
+            if(j >= to || (i < mid && compareRows(buffer[i], buffer[j]) <= 0)) {
+                rows[k] = buffer[i++];
+            } else {
+                rows[k] = buffer[j++];
+            }
+        }
+    }
+    
+    /**
+     * Reorders a column.
+     * 
+     * @param column the column to reorder
+     * @param order the old row of each new row
+     * @return the reordered column
+     */
+    private static int[] permute(final int[] column, final int[] order) {
+        final int[] result = new int[column.length];
+        for(int i = 0; i < order.length; i++) {
+            result[i] = column[order[i]];
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Validates a row number.
+     * 
+     * @param row the row number
+     */
+    private void checkRow(final int row) {
+        if(row < 0 || row >= this.size) throw new IndexOutOfBoundsException("Row: " + row + ", size: " + this.size);
+    }
+    
+    /**
+     * Grows the columns to hold a number of rows.
+     * 
+     * @param rows the number of rows
+     */
+    private void ensureRows(final int rows) {
+        if(rows <= this.majors.length) return;
+        
+        final int capacity = Math.max(rows, Math.max(INITIAL_CAPACITY, this.majors.length + (this.majors.length >> 1)));
+        this.majors = Arrays.copyOf(this.majors, capacity);
+        this.minors = Arrays.copyOf(this.minors, capacity);
+        this.patches = Arrays.copyOf(this.patches, capacity);
+        this.preReleaseOffsets = Arrays.copyOf(this.preReleaseOffsets, capacity);
+        this.buildOffsets = Arrays.copyOf(this.buildOffsets, capacity);
+        this.counts = Arrays.copyOf(this.counts, capacity);
+    }
+    
+    /**
+     * Grows the identifier codes.
+     * 
+     * @param count the number of codes
+     */
+    private void ensureCodes(final int count) {
+        if(count <= this.codes.length) return;
+        
+        this.codes = Arrays.copyOf(this.codes, Math.max(count, Math.max(INITIAL_CAPACITY, this.codes.length + (this.codes.length >> 1))));
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * A view of one row of the table.
+     * <p>
+     * The same cursor is moved from row to row, so scans do not allocate.
+     * 
+     * @implSpec
+     * This class is mutable and intended for use in a single thread.
+     */
+    public final class Cursor {
+        
+        /**
+         * The current row.
+         */
+        private int row = -1;
+        
+        private Cursor() {
+        }
+        
+        /**
+         * Moves to the next row.
+         * 
+         * @return true if there is a next row, false if the cursor is past the last row
+         */
+        public boolean next() {
+            if(this.row < SemVerTable.this.size) this.row++;
+            return this.row < SemVerTable.this.size;
+        }
+        
+        /**
+         * Moves to a row.
+         * 
+         * @param row the row, from 0 to {@code size() - 1}
+         * @return this cursor
+         * @throws IndexOutOfBoundsException if the row is out of range
+         */
+        public Cursor moveTo(final int row) {
+            checkRow(row);
+            this.row = row;
+            return this;
+        }
+        
+        /**
+         * Gets the current row.
+         * 
+         * @return the row number
+         */
+        public int getRow() {
+            return this.row;
+        }
+        
+        /**
+         * Gets the MAJOR version of the current row.
+         * 
+         * @return the MAJOR version
+         */
+        public int getMajor() {
+            return SemVerTable.this.majors[current()];
+        }
+        
+        /**
+         * Gets the MINOR version of the current row.
+         * 
+         * @return the MINOR version
+         */
+        public int getMinor() {
+            return SemVerTable.this.minors[current()];
+        }
+        
+        /**
+         * Gets the PATCH version of the current row.
+         * 
+         * @return the PATCH version
+         */
+        public int getPatch() {
+            return SemVerTable.this.patches[current()];
+        }
+        
+        /**
+         * Gets the number of pre-release tags of the current row.
+         * 
+         * @return the number of pre-release tags
+         */
+        public int getPreReleaseCount() {
+            return SemVerTable.this.counts[current()] >>> 16;
+        }
+        
+        /**
+         * Gets a pre-release tag of the current row.
+         * 
+         * @param index the position of the tag
+         * @return the tag, not null
+         */
+        public String getPreRelease(final int index) {
+            final int row = current();
+            checkIndex(index, SemVerTable.this.counts[row] >>> 16);
+            return SemVerTable.this.dictionary.texts[SemVerTable.this.codes[SemVerTable.this.preReleaseOffsets[row] + index]];
+        }
+        
+        /**
+         * Gets the number of build identifiers of the current row.
+         * 
+         * @return the number of build identifiers
+         */
+        public int getBuildCount() {
+            return SemVerTable.this.counts[current()] & 0xFFFF;
+        }
+        
+        /**
+         * Gets a build identifier of the current row.
+         * 
+         * @param index the position of the identifier
+         * @return the identifier, not null
+         */
+        public String getBuild(final int index) {
+            final int row = current();
+            checkIndex(index, SemVerTable.this.counts[row] & 0xFFFF);
+            return SemVerTable.this.dictionary.texts[SemVerTable.this.codes[SemVerTable.this.buildOffsets[row] + index]];
+        }
+        
+        /**
+         * Checks if the current row is a pre-release.
+         * 
+         * @return true if the version is a pre-release
+         * @see SemVer#isPreRelease()
+         */
+        public boolean isPreRelease() {
+            final int row = current();
+            return SemVerTable.this.majors[row] == 0 || (SemVerTable.this.counts[row] >>> 16) != 0;
+        }
+        
+        /**
+         * Creates the {@code SemVer} of the current row.
+         * 
+         * @return the version, not null
+         */
+        public SemVer toSemVer() {
+            return get(current());
+        }
+        
+        /**
+         * Validates the position of an identifier.
+         * 
+         * @param index the position
+         * @param count the number of identifiers
+         */
+        private void checkIndex(final int index, final int count) {
+            if(index < 0 || index >= count) throw new IndexOutOfBoundsException("Index: " + index + ", count: " + count);
+        }
+        
+        /**
+         * Validates the current row.
+         * 
+         * @return the current row
+         */
+        private int current() {
+            checkRow(this.row);
+            return this.row;
+        }
+    }
+    
+    /**
+     * Identifiers shared by the rows of one or more tables.
+     */
+    private static final class Dictionary {
+        
+        /**
+         * The code of each identifier.
+         */
+        private final Map<String, Integer> codes = new HashMap<>();
+        
+        /**
+         * The identifiers, by code.
+         */
+        private String[] texts = new String[INITIAL_CAPACITY];
+        
+        /**
+         * The numeric value of each identifier, as used by {@link Identifier#compareTo}.
+         */
+        private long[] numbers = new long[INITIAL_CAPACITY];
+        
+        /**
+         * The number of identifiers.
+         */
+        private int size;
+        
+        /**
+         * Gets the code of an identifier, adding it if needed.
+         * 
+         * @param text the identifier
+         * @return the code
+         */
+        private int code(final String text) {
+            final Integer code = this.codes.get(text);
+            if(code != null) return code;
+            
+            if(this.size == this.texts.length) {
+                this.texts = Arrays.copyOf(this.texts, this.size * 2);
+                this.numbers = Arrays.copyOf(this.numbers, this.size * 2);
+            }
+            
+            this.texts[this.size] = text;
+            this.numbers[this.size] = Identifier.numericValue(text);
+            this.codes.put(text, this.size);
+            return this.size++;
+        }
+    }
+}
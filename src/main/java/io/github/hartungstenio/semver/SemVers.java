@@ -0,0 +1,1022 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bulk operations over large collections of versions.
+ * <p>
+ * The operations split the work in {@link java.util.concurrent.ForkJoinPool fork/join}
+ * tasks, run in the common pool, so they scale with the number of cores:
+ * <pre>
+ *   SemVers.parallelSort(versions);          // precedence order
+ *   SemVers.max(versions);                   // newest version
+ *   SemVers.latestPerMajor(versions, 3);     // newest three of each MAJOR line
+ *   SemVers.upgrades(packages, installed, available, thresholds);
+ * </pre>
+ * <p>
+ * Small inputs are handled in the calling thread.
+ * 
+ * @implSpec
+ * This class is thread-safe. The arrays and lists must not be modified while an
+ * operation is running.
+ * 
+ * @author Christian Hartung
+ */
+public final class SemVers {
+    
+    /**
+     * Inputs smaller than this are not split.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+    
+    /**
+     * Buckets smaller than this are sorted by insertion.
+     */
+    private static final int INSERTION_THRESHOLD = 32;
+    
+    /**
+     * The number of bits in each radix digit.
+     */
+    private static final int RADIX_BITS = 8;
+    
+    /**
+     * The number of buckets for each radix digit.
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+    
+    /**
+     * Marks keys of versions whose numbers are too big to be packed.
+     */
+    private static final long UNPACKED = -1L;
+    
+    private SemVers() {
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Sorts the versions in {@link SemVer#compareTo(SemVer) precedence} order.
+     * <p>
+     * The sort is stable: versions with the same precedence keep their relative order.
+     * 
+     * @implNote
+     * The versions are radix sorted on their MAJOR.MINOR.PATCH, with each bucket sorted
+     * by a separate task. Only versions with the same MAJOR, MINOR and PATCH have their
+     * pre-release tags compared.
+     * 
+     * @param versions the versions to sort, not null
+     * @throws NullPointerException if any version is null
+     */
+    public static void parallelSort(final SemVer[] versions) {
+        parallelSort(versions, 0, versions.length);
+    }
+    
+    /**
+     * Sorts a range of the versions in {@link SemVer#compareTo(SemVer) precedence} order.
+     * <p>
+     * The sort is stable: versions with the same precedence keep their relative order.
+     * 
+     * @param versions the versions to sort, not null
+     * @param fromIndex the first position to sort, inclusive
+     * @param toIndex the last position to sort, exclusive
+     * @throws IndexOutOfBoundsException if the range is out of the array
+     * @throws IllegalArgumentException if {@code fromIndex} is greater than {@code toIndex}
+     * @throws NullPointerException if any version in the range is null
+     */
+    public static void parallelSort(final SemVer[] versions, final int fromIndex, final int toIndex) {
+        checkRange(versions.length, fromIndex, toIndex);
+        
+        final int size = toIndex - fromIndex;
+        if(size < SEQUENTIAL_THRESHOLD) {
+            Arrays.sort(versions, fromIndex, toIndex);
+            return;
+        }
+        
+        final SemVer[] values = Arrays.copyOfRange(versions, fromIndex, toIndex);
+        final long[] keys = new long[size];
+        final int unpacked = new KeyTask(values, keys, 0, size).invoke();
+        
+        if(unpacked == 0) {
+            new RadixTask(keys, values, new long[size], new SemVer[size], 0, size, firstShift(keys, size)).invoke();
+            System.arraycopy(values, 0, versions, fromIndex, size);
+            return;
+        }
+        
+        // versions with big numbers are rare: sort them apart and merge
+        final SemVer[] big = new SemVer[unpacked];
+        int packed = 0;
+        int j = 0;
+        for(int i = 0; i < size; i++) {
+            if(keys[i] == UNPACKED) {
+                big[j++] = values[i];
+            } else {
+                keys[packed] = keys[i];
+                values[packed++] = values[i];
+            }
+        }
+        
+        new RadixTask(keys, values, new long[packed], new SemVer[packed], 0, packed, firstShift(keys, packed)).invoke();
+        Arrays.sort(big);
+        
+        int left = 0;
+        int right = 0;
+        for(int i = fromIndex; i < toIndex; i++) {
+            if(right == unpacked || (left < packed && values[left].compareTo(big[right]) <= 0)) {
+                versions[i] = values[left++];
+            } else {
+                versions[i] = big[right++];
+            }
+        }
+    }
+    
+    /**
+     * Sorts the list in {@link SemVer#compareTo(SemVer) precedence} order.
+     * <p>
+     * The sort is stable: versions with the same precedence keep their relative order.
+     * As {@link Collections#sort(List)}, the list is copied to an array, and then
+     * updated from the sorted array.
+     * 
+     * @param versions the versions to sort, not null
+     * @throws NullPointerException if any version is null
+     * @throws UnsupportedOperationException if the list cannot be modified
+     */
+    public static void parallelSort(final List<SemVer> versions) {
+        final SemVer[] array = versions.toArray(new SemVer[0]);
+        parallelSort(array);
+        
+        final ListIterator<SemVer> it = versions.listIterator();
+        for(SemVer version : array) {
+            it.next();
+            it.set(version);
+        }
+    }
+    
+    /**
+     * Sorts the versions in the order of a comparator.
+     * <p>
+     * The sort is stable. When the comparator is {@link SemVer#PRECEDENCE_ORDER}, or null
+     * for the natural order, the versions are sorted by {@link #parallelSort(SemVer[])},
+     * that compares the packed MAJOR.MINOR.PATCH of the versions instead of calling the
+     * comparator. Other comparators are used with {@link Arrays#sort(Object[], Comparator)}.
+     * 
+     * @param versions the versions to sort, not null
+     * @param order the order of the versions, null for {@link SemVer#compareTo(SemVer) precedence}
+     * @throws NullPointerException if any version is null
+     */
+    public static void sort(final SemVer[] versions, final Comparator<? super SemVer> order) {
+        if(order == null || order == SemVer.PRECEDENCE_ORDER) {
+            parallelSort(versions);
+        } else {
+            Arrays.sort(versions, order);
+        }
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the version with the highest precedence.
+     * <p>
+     * If many versions have the highest precedence, the first one is returned.
+     * 
+     * @param versions the versions, not null
+     * @return the highest version, not null
+     * @throws NoSuchElementException if there are no versions
+     * @throws NullPointerException if any version is null
+     */
+    public static SemVer max(final SemVer[] versions) {
+        if(versions.length == 0) throw new NoSuchElementException();
+        
+        return new ExtremeTask(versions, 0, versions.length, true).invoke();
+    }
+    
+    /**
+     * Gets the version with the highest precedence.
+     * <p>
+     * If many versions have the highest precedence, the first one is returned.
+     * 
+     * @param versions the versions, not null
+     * @return the highest version, not null
+     * @throws NoSuchElementException if there are no versions
+     * @throws NullPointerException if any version is null
+     */
+    public static SemVer max(final Collection<? extends SemVer> versions) {
+        return max(versions.toArray(new SemVer[0]));
+    }
+    
+    /**
+     * Gets the version with the lowest precedence.
+     * <p>
+     * If many versions have the lowest precedence, the first one is returned.
+     * 
+     * @param versions the versions, not null
+     * @return the lowest version, not null
+     * @throws NoSuchElementException if there are no versions
+     * @throws NullPointerException if any version is null
+     */
+    public static SemVer min(final SemVer[] versions) {
+        if(versions.length == 0) throw new NoSuchElementException();
+        
+        return new ExtremeTask(versions, 0, versions.length, false).invoke();
+    }
+    
+    /**
+     * Gets the version with the lowest precedence.
+     * <p>
+     * If many versions have the lowest precedence, the first one is returned.
+     * 
+     * @param versions the versions, not null
+     * @return the lowest version, not null
+     * @throws NoSuchElementException if there are no versions
+     * @throws NullPointerException if any version is null
+     */
+    public static SemVer min(final Collection<? extends SemVer> versions) {
+        return min(versions.toArray(new SemVer[0]));
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the newest versions of each MAJOR line.
+     * <p>
+     * The result maps each MAJOR version, in ascending order, to at most {@code limit}
+     * versions with that MAJOR, newest first. Versions are not deduplicated: if the
+     * input has the same version twice, it may be kept twice. Versions with the same
+     * precedence keep their relative order.
+     * 
+     * @param versions the versions, not null
+     * @param limit the maximum number of versions of each MAJOR line, positive
+     * @return the newest versions by MAJOR, unmodifiable, not null
+     * @throws IllegalArgumentException if the limit is not positive
+     * @throws NullPointerException if any version is null
+     */
+    public static SortedMap<Integer, List<SemVer>> latestPerMajor(final SemVer[] versions, final int limit) {
+        if(limit <= 0) throw new IllegalArgumentException("Invalid limit: " + limit);
+        
+        final Map<Integer, Top> tops = new TopTask(versions, 0, versions.length, limit).invoke();
+        
+        final SortedMap<Integer, List<SemVer>> result = new TreeMap<>();
+        for(Map.Entry<Integer, Top> entry : tops.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toList());
+        }
+        
+        return Collections.unmodifiableSortedMap(result);
+    }
+    
+    /**
+     * Gets the newest versions of each MAJOR line.
+     * 
+     * @param versions the versions, not null
+     * @param limit the maximum number of versions of each MAJOR line, positive
+     * @return the newest versions by MAJOR, unmodifiable, not null
+     * @throws IllegalArgumentException if the limit is not positive
+     * @throws NullPointerException if any version is null
+     * @see #latestPerMajor(SemVer[], int)
+     */
+    public static SortedMap<Integer, List<SemVer>> latestPerMajor(final Collection<? extends SemVer> versions, final int limit) {
+        return latestPerMajor(versions.toArray(new SemVer[0]), limit);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the upgrades of many installed versions.
+     * <p>
+     * Each entry is a package and its installed version, such as the ones found when
+     * scanning many machines. The upgrades of an entry are chosen among the available
+     * versions of its package:
+     * <ul>
+     * <li>the {@link Upgrade#getLatest() latest} available version;</li>
+     * <li>the {@link Upgrade#getLatestCompatible() latest compatible} version, the highest
+     * one that {@link SemVer#isCompatibleWith(SemVer) is compatible with} the installed
+     * version, which may be the installed version itself;</li>
+     * <li>the {@link Upgrade#getMinimalUpgrade() minimal upgrade}, the lowest version newer
+     * than the installed one and not older than the threshold of the package, such as
+     * the first version with a security fix.</li>
+     * </ul>
+     * <pre>
+     *   Upgrade[] upgrades = SemVers.upgrades(packages, installed, available, fixedIn);
+     *   upgrades[i].getMinimalUpgrade(); // lowest fixed version newer than installed[i]
+     * </pre>
+     * <p>
+     * Among available versions with the same precedence, the latest ones are the last
+     * of them, and the minimal upgrade is the first one, in the order of the collection.
+     * 
+     * @implNote
+     * The entries are grouped by package, and the packages are split in tasks. The
+     * available and installed versions of a package are sorted, and then merged in a
+     * single pass, so a package with n installed and m available versions takes
+     * O(n log n + m log m) comparisons, instead of n &times; m calls to
+     * {@code isCompatibleWith}. Entries with equal installed versions share the same
+     * upgrade.
+     * 
+     * @param packages the package of each entry, not null
+     * @param installed the installed version of each entry, not null
+     * @param available the available versions of each package, not null
+     * @param thresholds the lowest acceptable version of each package, not null. The
+     *      minimal upgrade of a package without threshold is the next version
+     * @return the upgrade of each entry, at the position of the entry, not null
+     * @throws IllegalArgumentException if there are not as many packages as installed versions
+     * @throws NullPointerException if any package or version is null
+     */
+    public static Upgrade[] upgrades(final String[] packages, final SemVer[] installed,
+            final Map<String, ? extends Collection<SemVer>> available, final Map<String, SemVer> thresholds) {
+        if(packages.length != installed.length) {
+            throw new IllegalArgumentException("packages(" + packages.length + ") != installed(" + installed.length + ")");
+        }
+        Objects.requireNonNull(available, "Invalid available versions");
+        Objects.requireNonNull(thresholds, "Invalid thresholds");
+        
+        // numbers the packages, and counts their entries
+        final Map<String, Integer> ids = new HashMap<>();
+        final int[] entryIds = new int[packages.length];
+        int[] counts = new int[16];
+        for(int i = 0; i < packages.length; i++) {
+            Objects.requireNonNull(installed[i], "Invalid version");
+            Integer id = ids.get(Objects.requireNonNull(packages[i], "Invalid package"));
+            if(id == null) {
+                id = ids.size();
+                ids.put(packages[i], id);
+                if(id == counts.length) counts = Arrays.copyOf(counts, id * 2);
+            }
+            
+            entryIds[i] = id;
+            counts[id]++;
+        }
+        
+        // groups the entries of each package, in the order of the entries
+        final String[] names = new String[ids.size()];
+        for(Map.Entry<String, Integer> entry : ids.entrySet()) {
+            names[entry.getValue()] = entry.getKey();
+        }
+        
+        final int[] starts = new int[names.length + 1];
+        for(int id = 0; id < names.length; id++) {
+            starts[id + 1] = starts[id] + counts[id];
+        }
+        
+        final int[] positions = new int[packages.length];
+        final int[] next = Arrays.copyOf(starts, names.length);
+        for(int i = 0; i < entryIds.length; i++) {
+            positions[next[entryIds[i]]++] = i;
+        }
+        
+        final Upgrade[] result = new Upgrade[packages.length];
+        new UpgradeTask(new UpgradeJob(names, starts, positions, installed, available, thresholds, result), 0, names.length).invoke();
+        return result;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Checks a range of an array.
+     * 
+     * @param length the length of the array
+     * @param fromIndex the first position, inclusive
+     * @param toIndex the last position, exclusive
+     */
+    private static void checkRange(final int length, final int fromIndex, final int toIndex) {
+        if(fromIndex > toIndex) throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        if(fromIndex < 0) throw new ArrayIndexOutOfBoundsException(fromIndex);
+        if(toIndex > length) throw new ArrayIndexOutOfBoundsException(toIndex);
+    }
+    
+    /**
+     * Gets the shift of the most significant radix digit in use.
+     * 
+     * @param keys the keys
+     * @param size the number of keys
+     * @return the shift of the first digit, or -1 if all keys are zero
+     */
+    private static int firstShift(final long[] keys, final int size) {
+        long bits = 0;
+        for(int i = 0; i < size; i++) {
+            bits |= keys[i];
+        }
+        
+        if(bits == 0) return -1;
+        
+        return ((63 - Long.numberOfLeadingZeros(bits)) / RADIX_BITS) * RADIX_BITS;
+    }
+    
+    /**
+     * Compares two versions by key, then by precedence.
+     * 
+     * @param key1 the key of the first version
+     * @param version1 the first version
+     * @param key2 the key of the second version
+     * @param version2 the second version
+     * @return the comparator value, negative if less, positive if greater
+     */
+    private static int compare(final long key1, final SemVer version1, final long key2, final SemVer version2) {
+        if(key1 != key2) return Long.compare(key1, key2);
+        
+        return version1.compareTo(version2);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Computes the packed core of each version, counting the ones that cannot be packed.
+     */
+    private static final class KeyTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        
+        private final SemVer[] values;
+        private final long[] keys;
+        private final int from;
+        private final int to;
+        
+        KeyTask(final SemVer[] values, final long[] keys, final int from, final int to) {
+            this.values = values;
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Integer compute() {
+            if(this.to - this.from > SEQUENTIAL_THRESHOLD) {
+                final int middle = (this.from + this.to) >>> 1;
+                final KeyTask left = new KeyTask(this.values, this.keys, this.from, middle);
+                left.fork();
+                final int right = new KeyTask(this.values, this.keys, middle, this.to).compute();
+                return left.join() + right;
+            }
+            
+            int unpacked = 0;
+            for(int i = this.from; i < this.to; i++) {
+                final long key = this.values[i].packedCore();
+                this.keys[i] = key;
+                if(key == UNPACKED) unpacked++;
+            }
+            
+            return unpacked;
+        }
+    }
+    
+    /**
+     * Sorts a range of versions by their packed core, most significant digit first.
+     * <p>
+     * Each bucket is sorted by its own task. Versions with the same key are sorted
+     * by precedence.
+     */
+    private static final class RadixTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final long[] keys;
+        private final SemVer[] values;
+        private final long[] keyBuffer;
+        private final SemVer[] valueBuffer;
+        private final int from;
+        private final int to;
+        private final int shift;
+        
+        RadixTask(final long[] keys, final SemVer[] values, final long[] keyBuffer, final SemVer[] valueBuffer,
+                final int from, final int to, final int shift) {
+            this.keys = keys;
+            this.values = values;
+            this.keyBuffer = keyBuffer;
+            this.valueBuffer = valueBuffer;
+            this.from = from;
+            this.to = to;
+            this.shift = shift;
+        }
+        
+        @Override
+        protected void compute() {
+            final int size = this.to - this.from;
+            if(size <= INSERTION_THRESHOLD) {
+                insertionSort();
+                return;
+            }
+            
+            if(this.shift < 0) {
+                // all keys are the same, only the tags are left
+                Arrays.sort(this.values, this.from, this.to);
+                return;
+            }
+            
+            int shift = this.shift;
+            int[] counts = count(shift);
+            while(counts[digit(this.keys[this.from], shift)] == size) {
+                // skip digits that are the same on all keys
+                shift -= RADIX_BITS;
+                if(shift < 0) {
+                    Arrays.sort(this.values, this.from, this.to);
+                    return;
+                }
+                counts = count(shift);
+            }
+            
+            final int[] starts = new int[RADIX + 1];
+            starts[0] = this.from;
+            for(int d = 0; d < RADIX; d++) {
+                starts[d + 1] = starts[d] + counts[d];
+            }
+            
+            final int[] positions = Arrays.copyOf(starts, RADIX);
+            for(int i = this.from; i < this.to; i++) {
+                final int p = positions[digit(this.keys[i], shift)]++;
+                this.keyBuffer[p] = this.keys[i];
+                this.valueBuffer[p] = this.values[i];
+            }
+            System.arraycopy(this.keyBuffer, this.from, this.keys, this.from, size);
+            System.arraycopy(this.valueBuffer, this.from, this.values, this.from, size);
+            
+            final List<RadixTask> tasks = new ArrayList<>();
+            for(int d = 0; d < RADIX; d++) {
+                if(counts[d] > 1) {
+                    tasks.add(new RadixTask(this.keys, this.values, this.keyBuffer, this.valueBuffer,
+                            starts[d], starts[d + 1], shift - RADIX_BITS));
+                }
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+        
+        /**
+         * Counts the keys in the range by digit.
+         * 
+         * @param shift the shift of the digit
+         * @return the number of keys with each digit
+         */
+        private int[] count(final int shift) {
+            final int[] counts = new int[RADIX];
+            for(int i = this.from; i < this.to; i++) {
+                counts[digit(this.keys[i], shift)]++;
+            }
+            
+            return counts;
+        }
+        
+        /**
+         * Sorts the range by insertion, by key and then by precedence.
+         */
+        private void insertionSort() {
+            for(int i = this.from + 1; i < this.to; i++) {
+                final long key = this.keys[i];
+                final SemVer value = this.values[i];
+                int j = i - 1;
+                while(j >= this.from && compare(this.keys[j], this.values[j], key, value) > 0) {
+                    this.keys[j + 1] = this.keys[j];
+                    this.values[j + 1] = this.values[j];
+                    j--;
+                }
+                this.keys[j + 1] = key;
+                this.values[j + 1] = value;
+            }
+        }
+        
+        private static int digit(final long key, final int shift) {
+            return (int)(key >>> shift) & (RADIX - 1);
+        }
+    }
+    
+    /**
+     * Finds the first version with the highest or lowest precedence.
+     */
+    private static final class ExtremeTask extends RecursiveTask<SemVer> {
+        private static final long serialVersionUID = 1L;
+        
+        private final SemVer[] versions;
+        private final int from;
+        private final int to;
+        private final boolean max;
+        
+        ExtremeTask(final SemVer[] versions, final int from, final int to, final boolean max) {
+            this.versions = versions;
+            this.from = from;
+            this.to = to;
+            this.max = max;
+        }
+        
+        @Override
+        protected SemVer compute() {
+            if(this.to - this.from > SEQUENTIAL_THRESHOLD) {
+                final int middle = (this.from + this.to) >>> 1;
+                final ExtremeTask left = new ExtremeTask(this.versions, this.from, middle, this.max);
+                left.fork();
+                final SemVer right = new ExtremeTask(this.versions, middle, this.to, this.max).compute();
+                return better(left.join(), right);
+            }
+            
+            SemVer result = this.versions[this.from];
+            for(int i = this.from + 1; i < this.to; i++) {
+                result = better(result, this.versions[i]);
+            }
+            
+            return result;
+        }
+        
+        /**
+         * Chooses between two versions, keeping the first one on ties.
+         * 
+         * @param first the first version
+         * @param second the second version
+         * @return the chosen version
+         */
+        private SemVer better(final SemVer first, final SemVer second) {
+            final int cmp = second.compareTo(first);
+            return (this.max ? cmp > 0 : cmp < 0) ? second : first;
+        }
+    }
+    
+    /**
+     * Collects the newest versions of each MAJOR line in a range.
+     */
+    private static final class TopTask extends RecursiveTask<Map<Integer, Top>> {
+        private static final long serialVersionUID = 1L;
+        
+        private final SemVer[] versions;
+        private final int from;
+        private final int to;
+        private final int limit;
+        
+        TopTask(final SemVer[] versions, final int from, final int to, final int limit) {
+            this.versions = versions;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+        }
+        
+        @Override
+        protected Map<Integer, Top> compute() {
+            if(this.to - this.from > SEQUENTIAL_THRESHOLD) {
+                final int middle = (this.from + this.to) >>> 1;
+                final TopTask left = new TopTask(this.versions, this.from, middle, this.limit);
+                left.fork();
+                final Map<Integer, Top> right = new TopTask(this.versions, middle, this.to, this.limit).compute();
+                final Map<Integer, Top> result = left.join();
+                for(Map.Entry<Integer, Top> entry : right.entrySet()) {
+                    final Top top = result.get(entry.getKey());
+                    if(top == null) {
+                        result.put(entry.getKey(), entry.getValue());
+                    } else {
+                        top.addAll(entry.getValue());
+                    }
+                }
+                return result;
+            }
+            
+            final Map<Integer, Top> result = new HashMap<>();
+            for(int i = this.from; i < this.to; i++) {
+                final SemVer version = this.versions[i];
+                Top top = result.get(version.getMajor());
+                if(top == null) {
+                    top = new Top(this.limit);
+                    result.put(version.getMajor(), top);
+                }
+                top.add(version);
+            }
+            
+            return result;
+        }
+    }
+    
+    /**
+     * The newest versions seen so far, newest first.
+     * <p>
+     * Versions with the same precedence are kept in the order they were added.
+     */
+    private static final class Top {
+        private final int limit;
+        private SemVer[] versions;
+        private int size;
+        
+        Top(final int limit) {
+            this.limit = limit;
+            this.versions = new SemVer[Math.min(limit, 8)];
+        }
+        
+        /**
+         * Adds a version, if it is among the newest ones.
+         * 
+         * @param version the version to add
+         */
+        void add(final SemVer version) {
+            if(this.size == this.limit && this.versions[this.size - 1].compareTo(version) >= 0) return;
+            
+            int position = this.size;
+            while(position > 0 && this.versions[position - 1].compareTo(version) < 0) {
+                position--;
+            }
+            
+            if(this.size < this.limit) {
+                if(this.size == this.versions.length) {
+                    this.versions = Arrays.copyOf(this.versions, Math.min(this.limit, this.size * 2));
+                }
+                this.size++;
+            }
+            
+            System.arraycopy(this.versions, position, this.versions, position + 1, this.size - position - 1);
+            this.versions[position] = version;
+        }
+        
+        /**
+         * Adds the versions of another top, which were seen after the versions in this top.
+         * 
+         * @param other the other top
+         */
+        void addAll(final Top other) {
+            for(int i = 0; i < other.size; i++) {
+                add(other.versions[i]);
+            }
+        }
+        
+        /**
+         * Gets the versions, newest first.
+         * 
+         * @return the versions, unmodifiable
+         */
+        List<SemVer> toList() {
+            return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(this.versions, this.size)));
+        }
+    }
+    
+    /**
+     * The upgrades of an installed version.
+     * 
+     * @implSpec
+     * This class is immutable and thread-safe.
+     * 
+     * @see SemVers#upgrades(String[], SemVer[], Map, Map)
+     */
+    public static final class Upgrade {
+        
+        private final SemVer installed;
+        
+        private final SemVer latest;
+        
+        private final SemVer latestCompatible;
+        
+        private final SemVer minimalUpgrade;
+        
+        /**
+         * Constructor.
+         * 
+         * @param installed the installed version
+         * @param latest the latest available version, or null
+         * @param latestCompatible the latest compatible version, or null
+         * @param minimalUpgrade the minimal upgrade, or null
+         */
+        Upgrade(final SemVer installed, final SemVer latest, final SemVer latestCompatible, final SemVer minimalUpgrade) {
+            this.installed = installed;
+            this.latest = latest;
+            this.latestCompatible = latestCompatible;
+            this.minimalUpgrade = minimalUpgrade;
+        }
+        
+        /**
+         * Gets the installed version.
+         * 
+         * @return the installed version, not null
+         */
+        public SemVer getInstalled() {
+            return this.installed;
+        }
+        
+        /**
+         * Gets the highest available version.
+         * 
+         * @return the latest version, which may not be newer than the installed one,
+         *      null if the package has no available versions
+         */
+        public SemVer getLatest() {
+            return this.latest;
+        }
+        
+        /**
+         * Gets the highest available version compatible with the installed one.
+         * 
+         * @return the latest compatible version, which may have the same precedence as
+         *      the installed one, null if none
+         * @see SemVer#isCompatibleWith(SemVer)
+         */
+        public SemVer getLatestCompatible() {
+            return this.latestCompatible;
+        }
+        
+        /**
+         * Gets the lowest available version newer than the installed one, and not older
+         * than the threshold of the package.
+         * 
+         * @return the minimal upgrade, null if none
+         */
+        public SemVer getMinimalUpgrade() {
+            return this.minimalUpgrade;
+        }
+        
+        /**
+         * Outputs this upgrade as a {@code String}, such as
+         * {@code 1.2.0 -> latest 2.1.0, compatible 1.4.1, minimal 1.2.3}.
+         * 
+         * @return a string representation of this upgrade, not null
+         */
+        @Override
+        public String toString() {
+            return this.installed + " -> latest " + this.latest + ", compatible " + this.latestCompatible + ", minimal " + this.minimalUpgrade;
+        }
+    }
+    
+    /**
+     * The inputs and output of {@link SemVers#upgrades(String[], SemVer[], Map, Map)},
+     * shared by its tasks.
+     */
+    private static final class UpgradeJob {
+        private static final SemVer[] NO_VERSIONS = new SemVer[0];
+        
+        private final String[] names;
+        private final int[] starts;
+        private final int[] positions;
+        private final int[] buffer;
+        private final SemVer[] installed;
+        private final Map<String, ? extends Collection<SemVer>> available;
+        private final Map<String, SemVer> thresholds;
+        private final Upgrade[] result;
+        
+        /**
+         * Constructor.
+         * 
+         * @param names the name of each package
+         * @param starts the first position of the entries of each package, and the number of entries
+         * @param positions the entries, grouped by package
+         * @param installed the installed version of each entry
+         * @param available the available versions of each package
+         * @param thresholds the lowest acceptable version of each package
+         * @param result the upgrade of each entry
+         */
+        UpgradeJob(final String[] names, final int[] starts, final int[] positions, final SemVer[] installed,
+                final Map<String, ? extends Collection<SemVer>> available, final Map<String, SemVer> thresholds, final Upgrade[] result) {
+            this.names = names;
+            this.starts = starts;
+            this.positions = positions;
+            this.buffer = new int[positions.length];
+            this.installed = installed;
+            this.available = available;
+            this.thresholds = thresholds;
+            this.result = result;
+        }
+        
+        /**
+         * Finds the upgrades of the entries of a package.
+         * 
+         * @param id the number of the package
+         */
+        void upgrade(final int id) {
+            final Collection<SemVer> versions = this.available.get(this.names[id]);
+            final SemVer[] sorted = versions == null ? NO_VERSIONS : versions.toArray(new SemVer[versions.size()]);
+            for(SemVer version : sorted) {
+                Objects.requireNonNull(version, "Invalid version");
+            }
+            Arrays.sort(sorted);
+            
+            final int from = this.starts[id];
+            final int to = this.starts[id + 1];
+            sortEntries(from, to);
+            
+            final int size = sorted.length;
+            final SemVer latest = size == 0 ? null : sorted[size - 1];
+            final SemVer threshold = this.thresholds.get(this.names[id]);
+            final int fixed = threshold == null ? 0 : lowerBound(sorted, threshold);
+            
+            // the installed versions only grow, so the positions only move forward
+            int lower = 0;
+            int upper = 0;
+            int majorEnd = 0;
+            Upgrade previous = null;
+            for(int k = from; k < to; k++) {
+                final int entry = this.positions[k];
+                final SemVer version = this.installed[entry];
+                if(previous != null && previous.installed.equals(version)) {
+                    this.result[entry] = previous;
+                    continue;
+                }
+                
+                while(lower < size && sorted[lower].compareTo(version) < 0) lower++;
+                upper = Math.max(upper, lower);
+                while(upper < size && sorted[upper].compareTo(version) == 0) upper++;
+                while(majorEnd < size && sorted[majorEnd].getMajor() <= version.getMajor()) majorEnd++;
+                
+                // a version in initial development is only compatible with its own precedence,
+                // otherwise the last version of the MAJOR line is, if not older
+                final SemVer compatible;
+                if(version.getMajor() == 0) {
+                    compatible = upper > lower ? sorted[upper - 1] : null;
+                } else {
+                    compatible = majorEnd > lower ? sorted[majorEnd - 1] : null;
+                }
+                
+                final int minimal = Math.max(upper, fixed);
+                previous = new Upgrade(version, latest, compatible, minimal < size ? sorted[minimal] : null);
+                this.result[entry] = previous;
+            }
+        }
+        
+        /**
+         * Sorts the entries of a package by installed version, keeping the order of equivalent ones.
+         * 
+         * @param from the first position of the entries
+         * @param to the position after the last entry
+         */
+        private void sortEntries(final int from, final int to) {
+            final int[] entries = this.positions;
+            final SemVer[] versions = this.installed;
+            if(to - from <= INSERTION_THRESHOLD) {
+                for(int i = from + 1; i < to; i++) {
+                    final int entry = entries[i];
+                    int j = i;
+                    while(j > from && versions[entries[j - 1]].compareTo(versions[entry]) > 0) {
+                        entries[j] = entries[j - 1];
+                        j--;
+                    }
+                    entries[j] = entry;
+                }
+                return;
+            }
+            
+            final int middle = (from + to) >>> 1;
+            sortEntries(from, middle);
+            sortEntries(middle, to);
+            if(versions[entries[middle - 1]].compareTo(versions[entries[middle]]) <= 0) return;
+            
+            System.arraycopy(entries, from, this.buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for(int k = from; k < to; k++) {
+                if(right == to || left < middle && versions[this.buffer[left]].compareTo(versions[this.buffer[right]]) <= 0) {
+                    entries[k] = this.buffer[left++];
+                } else {
+                    entries[k] = this.buffer[right++];
+                }
+            }
+        }
+        
+        /**
+         * Finds the first version not less than the given one.
+         * 
+         * @param sorted the versions, in precedence order
+         * @param version the version to search
+         * @return the position, from 0 to the number of versions
+         */
+        private static int lowerBound(final SemVer[] sorted, final SemVer version) {
+            int low = 0;
+            int high = sorted.length;
+            while(low < high) {
+                final int mid = (low + high) >>> 1;
+                if(sorted[mid].compareTo(version) < 0) low = mid + 1;
+                else high = mid;
+            }
+            
+            return low;
+        }
+    }
+    
+    /**
+     * Finds the upgrades of the entries of a range of packages.
+     */
+    private static final class UpgradeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final UpgradeJob job;
+        private final int from;
+        private final int to;
+        
+        UpgradeTask(final UpgradeJob job, final int from, final int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if(this.to - this.from > 1 && this.job.starts[this.to] - this.job.starts[this.from] > SEQUENTIAL_THRESHOLD) {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new UpgradeTask(this.job, this.from, middle), new UpgradeTask(this.job, middle, this.to));
+                return;
+            }
+            
+            for(int id = this.from; id < this.to; id++) {
+                this.job.upgrade(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,553 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable, sorted index of versions.
+ * <p>
+ * The versions are kept in {@link SemVer#compareTo(SemVer) precedence} order, and
+ * the lookups are answered in O(log n) by binary search:
+ * <pre>
+ *   VersionIndex index = VersionIndex.of(versions);
+ *   index.floor(SemVer.parse("2.0.0"));   // highest version up to 2.0.0
+ *   index.ceiling(SemVer.parse("1.4.0")); // lowest version from 1.4.0
+ *   index.latestStable();                 // highest released version
+ *   index.latestWithMajor(1);             // highest 1.x.x version
+ *   index.range(SemVer.of(1, 0, 0), SemVer.of(2, 0, 0));
+ * </pre>
+ * <p>
+ * Versions with the same precedence, such as versions that only differ by build
+ * metadata, are all kept, in the order they were added.
+ * <p>
+ * New versions can be added with a {@link Builder}. The builder shares the arrays of
+ * the index it was created from, and only merges them with the new versions when
+ * {@link Builder#build()} is called.
+ * 
+ * @implSpec
+ * This class is immutable and thread-safe.
+ * 
+ * @author Christian Hartung
+ */
+public final class VersionIndex {
+    
+    /**
+     * The empty index.
+     */
+    private static final VersionIndex EMPTY = new VersionIndex(new SemVer[0]);
+    
+    /**
+     * The versions, in precedence order.
+     */
+    private final SemVer[] versions;
+    
+    /**
+     * The packed MAJOR.MINOR.PATCH of each version, negative if not packed.
+     */
+    private final long[] cores;
+    
+    /**
+     * The MAJOR version of each version.
+     */
+    private final int[] majors;
+    
+    /**
+     * The position of the latest version that is not a pre-release, or -1.
+     */
+    private final int latestStable;
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains an empty index.
+     * 
+     * @return the empty index, not null
+     */
+    public static VersionIndex empty() {
+        return EMPTY;
+    }
+    
+    /**
+     * Obtains an index of the given versions.
+     * 
+     * @param versions the versions to index, not null
+     * @return the index, not null
+     * @throws NullPointerException if any version is null
+     */
+    public static VersionIndex of(final SemVer... versions) {
+        return of(Arrays.asList(versions));
+    }
+    
+    /**
+     * Obtains an index of the given versions.
+     * 
+     * @param versions the versions to index, not null
+     * @return the index, not null
+     * @throws NullPointerException if any version is null
+     */
+    public static VersionIndex of(final Collection<SemVer> versions) {
+        if(versions.isEmpty()) return EMPTY;
+        
+        final SemVer[] sorted = versions.toArray(new SemVer[versions.size()]);
+        for(SemVer version : sorted) {
+            Objects.requireNonNull(version, "Invalid version");
+        }
+        
+        Arrays.sort(sorted);
+        return new VersionIndex(sorted);
+    }
+    
+    /**
+     * Obtains a builder with no versions.
+     * 
+     * @return the builder, not null
+     */
+    public static Builder builder() {
+        return new Builder(EMPTY);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param versions the versions, sorted and owned by this index
+     */
+    private VersionIndex(final SemVer[] versions) {
+        final int size = versions.length;
+        this.versions = versions;
+        this.cores = new long[size];
+        this.majors = new int[size];
+        
+        int stable = -1;
+        for(int i = 0; i < size; i++) {
+            this.cores[i] = versions[i].packedCore();
+            this.majors[i] = versions[i].getMajor();
+            if(!versions[i].isPreRelease()) stable = i;
+        }
+        
+        this.latestStable = stable;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the number of versions in the index.
+     * 
+     * @return the number of versions
+     */
+    public int size() {
+        return this.versions.length;
+    }
+    
+    /**
+     * Checks if the index has no versions.
+     * 
+     * @return true if the index is empty
+     */
+    public boolean isEmpty() {
+        return this.versions.length == 0;
+    }
+    
+    /**
+     * Gets the version at a position.
+     * 
+     * @param index the position, from 0 to {@code size() - 1}
+     * @return the version, not null
+     * @throws IndexOutOfBoundsException if the position is out of range
+     */
+    public SemVer get(final int index) {
+        return this.versions[index];
+    }
+    
+    /**
+     * Gets all versions, in precedence order.
+     * 
+     * @return an unmodifiable list of versions, not null
+     */
+    public List<SemVer> asList() {
+        return Collections.unmodifiableList(Arrays.asList(this.versions));
+    }
+    
+    /**
+     * Creates a builder that starts with the versions of this index.
+     * 
+     * @return the builder, not null
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+    
+    /**
+     * Obtains an index with one more version.
+     * 
+     * @param version the version to add, not null
+     * @return the new index, not null
+     */
+    public VersionIndex with(final SemVer version) {
+        Objects.requireNonNull(version, "Invalid version");
+        
+        final int pos = upperBound(version);
+        final SemVer[] merged = new SemVer[this.versions.length + 1];
+        System.arraycopy(this.versions, 0, merged, 0, pos);
+        merged[pos] = version;
+        System.arraycopy(this.versions, pos, merged, pos + 1, this.versions.length - pos);
+        
+        return new VersionIndex(merged);
+    }
+    
+    /**
+     * Obtains an index without a version.
+     * 
+     * @param version the version to remove, not null
+     * @return the new index, this index if it does not have the version, not null
+     */
+    public VersionIndex without(final SemVer version) {
+        final int pos = indexOf(version);
+        if(pos < 0) return this;
+        
+        final SemVer[] remaining = new SemVer[this.versions.length - 1];
+        System.arraycopy(this.versions, 0, remaining, 0, pos);
+        System.arraycopy(this.versions, pos + 1, remaining, pos, remaining.length - pos);
+        
+        return new VersionIndex(remaining);
+    }
+    
+    /**
+     * Checks if the index has a version equal to the given one, including build metadata.
+     * 
+     * @param version the version to search, not null
+     * @return true if the index has the version
+     * @see SemVer#equals(Object)
+     */
+    public boolean contains(final SemVer version) {
+        return indexOf(version) >= 0;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the highest version.
+     * 
+     * @return the highest version, null if empty
+     */
+    public SemVer latest() {
+        return this.versions.length == 0 ? null : this.versions[this.versions.length - 1];
+    }
+    
+    /**
+     * Gets the lowest version.
+     * 
+     * @return the lowest version, null if empty
+     */
+    public SemVer earliest() {
+        return this.versions.length == 0 ? null : this.versions[0];
+    }
+    
+    /**
+     * Gets the highest version that is not a pre-release.
+     * 
+     * @return the highest stable version, null if none
+     * @see SemVer#isPreRelease()
+     */
+    public SemVer latestStable() {
+        return this.latestStable < 0 ? null : this.versions[this.latestStable];
+    }
+    
+    /**
+     * Gets the highest version with the given MAJOR version.
+     * 
+     * @param major the MAJOR version
+     * @return the highest version with that MAJOR version, null if none
+     */
+    public SemVer latestWithMajor(final int major) {
+        // the last position with a MAJOR version not greater than the requested one
+        int low = 0;
+        int high = this.majors.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(this.majors[mid] <= major) low = mid + 1;
+            else high = mid;
+        }
+        
+        return low > 0 && this.majors[low - 1] == major ? this.versions[low - 1] : null;
+    }
+    
+    /**
+     * Gets the highest version that is compatible with the given version.
+     * <p>
+     * This is the highest version for which {@link SemVer#isCompatibleWith(SemVer)}
+     * is true: the latest version with the same MAJOR version, if not older than the
+     * given one. Versions in initial development, with MAJOR version 0, are only
+     * compatible with versions of the same precedence.
+     * 
+     * @param version the version to be compatible with, not null
+     * @return the highest compatible version, null if none
+     */
+    public SemVer latestCompatibleWith(final SemVer version) {
+        final SemVer latest = version.getMajor() == 0 ? floor(version) : latestWithMajor(version.getMajor());
+        
+        return latest != null && latest.isCompatibleWith(version) ? latest : null;
+    }
+    
+    /**
+     * Gets the highest version less than or equal to the given version.
+     * 
+     * @param version the version to search, not null
+     * @return the highest version not newer than the given one, null if none
+     */
+    public SemVer floor(final SemVer version) {
+        final int pos = upperBound(version);
+        return pos == 0 ? null : this.versions[pos - 1];
+    }
+    
+    /**
+     * Gets the lowest version greater than or equal to the given version.
+     * 
+     * @param version the version to search, not null
+     * @return the lowest version not older than the given one, null if none
+     */
+    public SemVer ceiling(final SemVer version) {
+        final int pos = lowerBound(version);
+        return pos == this.versions.length ? null : this.versions[pos];
+    }
+    
+    /**
+     * Gets the highest version strictly less than the given version.
+     * 
+     * @param version the version to search, not null
+     * @return the highest version older than the given one, null if none
+     */
+    public SemVer lower(final SemVer version) {
+        final int pos = lowerBound(version);
+        return pos == 0 ? null : this.versions[pos - 1];
+    }
+    
+    /**
+     * Gets the lowest version strictly greater than the given version.
+     * 
+     * @param version the version to search, not null
+     * @return the lowest version newer than the given one, null if none
+     */
+    public SemVer higher(final SemVer version) {
+        final int pos = upperBound(version);
+        return pos == this.versions.length ? null : this.versions[pos];
+    }
+    
+    /**
+     * Gets the versions in a range.
+     * 
+     * @param fromInclusive the lowest version of the range, not null
+     * @param toExclusive the version that ends the range, not null
+     * @return an unmodifiable list of the versions in the range, in precedence order, not null
+     */
+    public List<SemVer> range(final SemVer fromInclusive, final SemVer toExclusive) {
+        final int from = lowerBound(fromInclusive);
+        final int to = Math.max(from, lowerBound(toExclusive));
+        
+        return asList().subList(from, to);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the first position with a version not less than the given one.
+     * 
+     * @param version the version to search, not null
+     * @return the position, from 0 to {@code size()}
+     */
+    int lowerBound(final SemVer version) {
+        final long key = version.packedCore();
+        int low = 0;
+        int high = this.versions.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(compareAt(mid, key, version) < 0) low = mid + 1;
+            else high = mid;
+        }
+        
+        return low;
+    }
+    
+    /**
+     * Finds the first position with a version greater than the given one.
+     * 
+     * @param version the version to search, not null
+     * @return the position, from 0 to {@code size()}
+     */
+    int upperBound(final SemVer version) {
+        final long key = version.packedCore();
+        int low = 0;
+        int high = this.versions.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(compareAt(mid, key, version) <= 0) low = mid + 1;
+            else high = mid;
+        }
+        
+        return low;
+    }
+    
+    /**
+     * Finds the position of a version equal to the given one.
+     * 
+     * @param version the version to search, not null
+     * @return the position, or -1 if not found
+     */
+    private int indexOf(final SemVer version) {
+        for(int pos = lowerBound(version); pos < this.versions.length && this.versions[pos].compareTo(version) == 0; pos++) {
+            if(this.versions[pos].equals(version)) return pos;
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Compares the version at a position with another version.
+     * <p>
+     * Uses the packed cores when they differ, so most probes do not need to
+     * load the version itself.
+     * 
+     * @param pos the position
+     * @param key the packed core of the other version
+     * @param version the other version
+     * @return the comparator value, negative if less, positive if greater
+     */
+    private int compareAt(final int pos, final long key, final SemVer version) {
+        final long core = this.cores[pos];
+        if(core >= 0 && key >= 0 && core != key) return Long.compare(core, key);
+        
+        return this.versions[pos].compareTo(version);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if this index has the same versions as another index.
+     * 
+     * @param obj the object to check, null returns false
+     * @return true if this is equal to the other index
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if(this == obj) return true;
+        
+        if(obj instanceof VersionIndex) {
+            return Arrays.equals(this.versions, ((VersionIndex)obj).versions);
+        }
+        
+        return false;
+    }
+    
+    /**
+     * A hash code for this index.
+     * 
+     * @return a suitable hash code
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.versions);
+    }
+    
+    /**
+     * Outputs this index as a {@code String}, such as {@code [1.0.0, 1.1.0]}.
+     * 
+     * @return a string representation of this index, not null
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(this.versions);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * A builder of {@link VersionIndex}.
+     * <p>
+     * The builder keeps a reference to the index it started from, and collects the
+     * new versions separately, so creating a builder is cheap. Building sorts the new
+     * versions and merges them with the original ones in a single pass.
+     * 
+     * @implSpec
+     * This class is intended for use in a single thread.
+     */
+    public static final class Builder {
+        
+        /**
+         * The index this builder started from.
+         */
+        private final VersionIndex base;
+        
+        /**
+         * The versions added to this builder.
+         */
+        private final List<SemVer> added = new ArrayList<>();
+        
+        /**
+         * Constructor.
+         * 
+         * @param base the index to start from
+         */
+        private Builder(final VersionIndex base) {
+            this.base = base;
+        }
+        
+        /**
+         * Adds a version.
+         * 
+         * @param version the version to add, not null
+         * @return this builder
+         */
+        public Builder add(final SemVer version) {
+            this.added.add(Objects.requireNonNull(version, "Invalid version"));
+            return this;
+        }
+        
+        /**
+         * Adds versions.
+         * 
+         * @param versions the versions to add, not null
+         * @return this builder
+         */
+        public Builder addAll(final Collection<SemVer> versions) {
+            for(SemVer version : versions) {
+                add(version);
+            }
+            
+            return this;
+        }
+        
+        /**
+         * Builds the index.
+         * 
+         * @return the index, not null
+         */
+        public VersionIndex build() {
+            if(this.added.isEmpty()) return this.base;
+            
+            final SemVer[] extra = this.added.toArray(new SemVer[this.added.size()]);
+            Arrays.sort(extra);
+            
+            final SemVer[] current = this.base.versions;
+            final SemVer[] merged = new SemVer[current.length + extra.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while(i < current.length && j < extra.length) {
+                merged[k++] = current[i].compareTo(extra[j]) <= 0 ? current[i++] : extra[j++];
+            }
+            
+            while(i < current.length) merged[k++] = current[i++];
+            while(j < extra.length) merged[k++] = extra[j++];
+            
+            return new VersionIndex(merged);
+        }
+    }
+}
@@ -0,0 +1,841 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A set of versions, such as {@code ^1.2.3} or {@code >=1.0.0 <2.0.0-0 || 3.x}.
+ * <p>
+ * Ranges are parsed once and compiled into a sorted list of disjoint intervals over
+ * the {@link SemVer#compareTo(SemVer) precedence} order of the versions. Testing
+ * a version is a binary search over the intervals, followed by at most two comparisons.
+ * <pre>
+ *   VersionRange range = VersionRange.parse("^1.2.3 || ~2.0");
+ *   range.test(SemVer.parse("1.9.0")); // true
+ *   range.test(SemVer.parse("2.1.0")); // false
+ * </pre>
+ * <p>
+ * The supported syntax is the one used by npm and Cargo:
+ * <ul>
+ * <li>{@code 1.2.3} or {@code =1.2.3} matches that exact version;</li>
+ * <li>{@code >1.2.3}, {@code >=1.2.3}, {@code <1.2.3} and {@code <=1.2.3} compare with a version;</li>
+ * <li>{@code 1.2.x}, {@code 1.*}, {@code 1} and {@code *} match any version with the given prefix;</li>
+ * <li>{@code ~1.2.3} allows PATCH changes, and {@code ~1} allows MINOR changes;</li>
+ * <li>{@code ^1.2.3} allows changes that do not modify the left-most non-zero number;</li>
+ * <li>{@code 1.2.3 - 2.3.4} is an inclusive range;</li>
+ * <li>comparators separated by spaces must all match, and sets separated by {@code ||} are alternatives.</li>
+ * </ul>
+ * Upper bounds of wildcards, tildes and carets exclude the pre-releases of the next
+ * version: {@code ^1.2.3} is {@code >=1.2.3 <2.0.0-0}. Unlike npm, pre-releases
+ * inside the bounds are always matched.
+ * 
+ * @implSpec
+ * This class is immutable and thread-safe.
+ * 
+ * @author Christian Hartung
+ */
+public final class VersionRange implements Predicate<SemVer> {
+    
+    /**
+     * The range with all versions.
+     */
+    private static final VersionRange ALL = new VersionRange(
+            new SemVer[] { null, null }, new boolean[] { false, false });
+    
+    /**
+     * The range with no versions.
+     */
+    private static final VersionRange NONE = new VersionRange(new SemVer[0], new boolean[0]);
+    
+    /**
+     * The bounds of each interval, lower bounds at even positions and upper bounds
+     * at odd positions. Null bounds are unbounded.
+     */
+    private final SemVer[] bounds;
+    
+    /**
+     * Whether each bound is inclusive.
+     */
+    private final boolean[] inclusive;
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains the range with all versions.
+     * 
+     * @return the range, not null
+     */
+    public static VersionRange all() {
+        return ALL;
+    }
+    
+    /**
+     * Obtains the range with no versions.
+     * 
+     * @return the range, not null
+     */
+    public static VersionRange none() {
+        return NONE;
+    }
+    
+    /**
+     * Obtains the range with a single version.
+     * 
+     * @param version the version, not null
+     * @return the range, not null
+     */
+    public static VersionRange exactly(final SemVer version) {
+        Objects.requireNonNull(version, "Invalid version");
+        return of(new Interval(version, true, version, true));
+    }
+    
+    /**
+     * Obtains the range with the versions greater than or equal to a version.
+     * 
+     * @param version the lower bound, not null
+     * @return the range, not null
+     */
+    public static VersionRange atLeast(final SemVer version) {
+        return of(new Interval(Objects.requireNonNull(version, "Invalid version"), true, null, false));
+    }
+    
+    /**
+     * Obtains the range with the versions greater than a version.
+     * 
+     * @param version the lower bound, not null
+     * @return the range, not null
+     */
+    public static VersionRange greaterThan(final SemVer version) {
+        return of(new Interval(Objects.requireNonNull(version, "Invalid version"), false, null, false));
+    }
+    
+    /**
+     * Obtains the range with the versions less than or equal to a version.
+     * 
+     * @param version the upper bound, not null
+     * @return the range, not null
+     */
+    public static VersionRange atMost(final SemVer version) {
+        return of(new Interval(null, false, Objects.requireNonNull(version, "Invalid version"), true));
+    }
+    
+    /**
+     * Obtains the range with the versions less than a version.
+     * 
+     * @param version the upper bound, not null
+     * @return the range, not null
+     */
+    public static VersionRange lessThan(final SemVer version) {
+        return of(new Interval(null, false, Objects.requireNonNull(version, "Invalid version"), false));
+    }
+    
+    /**
+     * Obtains the range with the versions from a version, inclusive, to another, exclusive.
+     * 
+     * @param fromInclusive the lower bound, not null
+     * @param toExclusive the upper bound, not null
+     * @return the range, not null
+     */
+    public static VersionRange between(final SemVer fromInclusive, final SemVer toExclusive) {
+        return of(new Interval(Objects.requireNonNull(fromInclusive, "Invalid version"), true,
+                Objects.requireNonNull(toExclusive, "Invalid version"), false));
+    }
+    
+    /**
+     * Obtains a range from a text such as {@code ^1.2.3 || >=2.0.0 <2.5.0}.
+     * 
+     * @param rangeStr the text to parse, not null
+     * @return the range, not null
+     * @throws SemVerException if the text is not a valid range
+     */
+    public static VersionRange parse(final String rangeStr) {
+        if(rangeStr == null) throw new SemVerException("null");
+        
+        final List<Interval> union = new ArrayList<>();
+        int begin = 0;
+        while(true) {
+            final int end = rangeStr.indexOf("||", begin);
+            final Interval interval = parseSet(rangeStr, rangeStr.substring(begin, end < 0 ? rangeStr.length() : end).trim());
+            if(interval != null) union.add(interval);
+            
+            if(end < 0) break;
+            begin = end + 2;
+        }
+        
+        return of(union);
+    }
+    
+    /**
+     * Parses a set of comparators that must all match.
+     * 
+     * @param rangeStr the whole range, for error messages
+     * @param set the set to parse, trimmed
+     * @return the matching interval, null if empty
+     */
+    private static Interval parseSet(final String rangeStr, final String set) {
+        if(set.isEmpty()) return Interval.ALL;
+        
+        final int hyphen = set.indexOf(" - ");
+        if(hyphen >= 0) {
+            final Partial from = Partial.parse(rangeStr, set.substring(0, hyphen).trim());
+            final Partial to = Partial.parse(rangeStr, set.substring(hyphen + 3).trim());
+            return from.atLeast().intersect(to.atMost());
+        }
+        
+        final String[] tokens = set.split("\\s+");
+        Interval result = Interval.ALL;
+        String operator = "";
+        for(String token : tokens) {
+            int split = 0;
+            while(split < token.length() && "<>=~^".indexOf(token.charAt(split)) >= 0) split++;
+            
+            operator += token.substring(0, split);
+            if(split == token.length()) continue; // operator separated from its version
+            
+            final Interval comparator = parseComparator(rangeStr, operator, token.substring(split));
+            result = result == null || comparator == null ? null : result.intersect(comparator);
+            operator = "";
+        }
+        
+        if(!operator.isEmpty()) throw new SemVerException(rangeStr);
+        
+        return result;
+    }
+    
+    /**
+     * Parses a single comparator.
+     * 
+     * @param rangeStr the whole range, for error messages
+     * @param operator the operator, may be empty
+     * @param version the partial version
+     * @return the matching interval, null if empty
+     */
+    private static Interval parseComparator(final String rangeStr, final String operator, final String version) {
+        final Partial partial = Partial.parse(rangeStr, version);
+        
+        switch(operator) {
+            case "":
+            case "=":
+                return partial.exactly();
+            case ">":
+                return partial.greaterThan();
+            case ">=":
+                return partial.atLeast();
+            case "<":
+                return partial.lessThan();
+            case "<=":
+                return partial.atMost();
+            case "~":
+            case "~>":
+                return partial.tilde();
+            case "^":
+                return partial.caret();
+            default:
+                throw new SemVerException(rangeStr);
+        }
+    }
+    
+    /**
+     * Obtains a range from a single interval.
+     * 
+     * @param interval the interval, null if empty
+     * @return the range, not null
+     */
+    private static VersionRange of(final Interval interval) {
+        final List<Interval> intervals = new ArrayList<>(1);
+        if(interval != null) intervals.add(interval);
+        
+        return of(intervals);
+    }
+    
+    /**
+     * Obtains a range from the union of some intervals.
+     * 
+     * @param intervals the intervals, in any order
+     * @return the range, not null
+     */
+    private static VersionRange of(final List<Interval> intervals) {
+        for(int i = intervals.size() - 1; i >= 0; i--) {
+            if(intervals.get(i).isEmpty()) intervals.remove(i);
+        }
+        
+        if(intervals.isEmpty()) return NONE;
+        
+        final Interval[] sorted = intervals.toArray(new Interval[intervals.size()]);
+        Arrays.sort(sorted, Interval.BY_LOWER);
+        
+        final List<Interval> merged = new ArrayList<>(sorted.length);
+        Interval current = sorted[0];
+        for(int i = 1; i < sorted.length; i++) {
+            final Interval next = sorted[i];
+            if(current.touches(next)) {
+                current = current.span(next);
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        
+        if(merged.size() == 1 && merged.get(0).lower == null && merged.get(0).upper == null) return ALL;
+        
+        final SemVer[] bounds = new SemVer[merged.size() * 2];
+        final boolean[] inclusive = new boolean[merged.size() * 2];
+        for(int i = 0; i < merged.size(); i++) {
+            final Interval interval = merged.get(i);
+            bounds[2 * i] = interval.lower;
+            inclusive[2 * i] = interval.lowerInclusive;
+            bounds[2 * i + 1] = interval.upper;
+            inclusive[2 * i + 1] = interval.upperInclusive;
+        }
+        
+        return new VersionRange(bounds, inclusive);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param bounds the bounds, owned by this range
+     * @param inclusive whether each bound is inclusive, owned by this range
+     */
+    private VersionRange(final SemVer[] bounds, final boolean[] inclusive) {
+        this.bounds = bounds;
+        this.inclusive = inclusive;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if a version belongs to this range.
+     * 
+     * @param version the version to check, not null
+     * @return true if the version is in this range
+     */
+    @Override
+    public boolean test(final SemVer version) {
+        final SemVer[] bounds = this.bounds;
+        final int count = bounds.length >>> 1;
+        
+        // finds the last interval whose lower bound admits the version
+        int low = 0;
+        int high = count;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(aboveLower(2 * mid, version)) low = mid + 1;
+            else high = mid;
+        }
+        
+        return low > 0 && belowUpper(2 * low - 1, version);
+    }
+    
+    /**
+     * Checks if a version is above a lower bound.
+     * 
+     * @param pos the position of the bound
+     * @param version the version to check
+     * @return true if the version is admitted by the bound
+     */
+    private boolean aboveLower(final int pos, final SemVer version) {
+        final SemVer bound = this.bounds[pos];
+        if(bound == null) return true;
+        
+        final int cmp = version.compareTo(bound);
+        return cmp > 0 || (cmp == 0 && this.inclusive[pos]);
+    }
+    
+    /**
+     * Checks if a version is below an upper bound.
+     * 
+     * @param pos the position of the bound
+     * @param version the version to check
+     * @return true if the version is admitted by the bound
+     */
+    private boolean belowUpper(final int pos, final SemVer version) {
+        final SemVer bound = this.bounds[pos];
+        if(bound == null) return true;
+        
+        final int cmp = version.compareTo(bound);
+        return cmp < 0 || (cmp == 0 && this.inclusive[pos]);
+    }
+    
+    /**
+     * Checks if this range has no versions.
+     * 
+     * @return true if the range is empty
+     */
+    public boolean isEmpty() {
+        return this.bounds.length == 0;
+    }
+    
+    /**
+     * Checks if this range has all versions.
+     * 
+     * @return true if the range has no bounds
+     */
+    public boolean isAll() {
+        return this.bounds.length == 2 && this.bounds[0] == null && this.bounds[1] == null;
+    }
+    
+    /**
+     * Obtains the range of the versions that belong to both this range and another.
+     * 
+     * @param other the other range, not null
+     * @return the intersection, not null
+     */
+    public VersionRange intersect(final VersionRange other) {
+        if(this.isAll() || other.isEmpty()) return other;
+        if(other.isAll() || this.isEmpty()) return this;
+        
+        final List<Interval> result = new ArrayList<>();
+        for(int i = 0; i < this.bounds.length; i += 2) {
+            for(int j = 0; j < other.bounds.length; j += 2) {
+                final Interval interval = this.interval(i).intersect(other.interval(j));
+                if(interval != null) result.add(interval);
+            }
+        }
+        
+        return of(result);
+    }
+    
+    /**
+     * Obtains the range of the versions that belong to this range or to another.
+     * 
+     * @param other the other range, not null
+     * @return the union, not null
+     */
+    public VersionRange union(final VersionRange other) {
+        if(this.isAll() || other.isEmpty()) return this;
+        if(other.isAll() || this.isEmpty()) return other;
+        
+        final List<Interval> result = new ArrayList<>();
+        for(int i = 0; i < this.bounds.length; i += 2) {
+            result.add(this.interval(i));
+        }
+        for(int j = 0; j < other.bounds.length; j += 2) {
+            result.add(other.interval(j));
+        }
+        
+        return of(result);
+    }
+    
+    /**
+     * Gets an interval of this range.
+     * 
+     * @param pos the position of the lower bound
+     * @return the interval, not null
+     */
+    private Interval interval(final int pos) {
+        return new Interval(this.bounds[pos], this.inclusive[pos], this.bounds[pos + 1], this.inclusive[pos + 1]);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Checks if this range is equal to another range.
+     * <p>
+     * Ranges are equal if they have the same intervals, regardless of how they were written.
+     * 
+     * @param obj the object to check, null returns false
+     * @return true if this is equal to the other range
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if(this == obj) return true;
+        
+        if(obj instanceof VersionRange) {
+            final VersionRange other = (VersionRange)obj;
+            return Arrays.equals(this.bounds, other.bounds) && Arrays.equals(this.inclusive, other.inclusive);
+        }
+        
+        return false;
+    }
+    
+    /**
+     * A hash code for this range.
+     * 
+     * @return a suitable hash code
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.bounds) + Arrays.hashCode(this.inclusive);
+    }
+    
+    /**
+     * Outputs this range as a {@code String}, such as {@code >=1.2.3 <2.0.0-0 || 3.0.0}.
+     * 
+     * @return a string representation of this range, not null
+     */
+    @Override
+    public String toString() {
+        if(isEmpty()) return "<0.0.0-0";
+        
+        final StringBuilder buf = new StringBuilder();
+        for(int i = 0; i < this.bounds.length; i += 2) {
+            if(i > 0) buf.append(" || ");
+            
+            final SemVer lower = this.bounds[i];
+            final SemVer upper = this.bounds[i + 1];
+            if(lower == null && upper == null) {
+                buf.append('*');
+            } else if(lower != null && lower.equals(upper)) {
+                buf.append(lower);
+            } else {
+                if(lower != null) {
+                    buf.append(this.inclusive[i] ? ">=" : ">").append(lower);
+                    if(upper != null) buf.append(' ');
+                }
+                
+                if(upper != null) {
+                    buf.append(this.inclusive[i + 1] ? "<=" : "<").append(upper);
+                }
+            }
+        }
+        
+        return buf.toString();
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * An interval of versions, used while building a range.
+     */
+    private static final class Interval {
+        
+        /**
+         * The interval with all versions.
+         */
+        private static final Interval ALL = new Interval(null, false, null, false);
+        
+        /**
+         * The lowest possible version, {@code 0.0.0-0}.
+         */
+        private static final SemVer LOWEST = SemVer.of(0, 0, 0, "0");
+        
+        /**
+         * Orders intervals by their lower bound.
+         */
+        private static final Comparator<Interval> BY_LOWER = new Comparator<Interval>() {
+            @Override
+            public int compare(final Interval a, final Interval b) {
+                return compareLower(a.lower, a.lowerInclusive, b.lower, b.lowerInclusive);
+            }
+        };
+        
+        /**
+         * The lower bound, null if unbounded.
+         */
+        private final SemVer lower;
+        
+        /**
+         * Whether the lower bound is inclusive.
+         */
+        private final boolean lowerInclusive;
+        
+        /**
+         * The upper bound, null if unbounded.
+         */
+        private final SemVer upper;
+        
+        /**
+         * Whether the upper bound is inclusive.
+         */
+        private final boolean upperInclusive;
+        
+        /**
+         * Constructor.
+         * 
+         * @param lower the lower bound, null if unbounded
+         * @param lowerInclusive whether the lower bound is inclusive
+         * @param upper the upper bound, null if unbounded
+         * @param upperInclusive whether the upper bound is inclusive
+         */
+        private Interval(final SemVer lower, final boolean lowerInclusive, final SemVer upper, final boolean upperInclusive) {
+            this.lower = lower;
+            this.lowerInclusive = lower != null && lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upper != null && upperInclusive;
+        }
+        
+        /**
+         * Intersects this interval with another.
+         * 
+         * @param other the other interval
+         * @return the intersection, null if empty
+         */
+        private Interval intersect(final Interval other) {
+            final boolean thisLower = compareLower(this.lower, this.lowerInclusive, other.lower, other.lowerInclusive) >= 0;
+            final boolean thisUpper = compareUpper(this.upper, this.upperInclusive, other.upper, other.upperInclusive) <= 0;
+            
+            final Interval result = new Interval(
+                    thisLower ? this.lower : other.lower,
+                    thisLower ? this.lowerInclusive : other.lowerInclusive,
+                    thisUpper ? this.upper : other.upper,
+                    thisUpper ? this.upperInclusive : other.upperInclusive);
+            
+            return result.isEmpty() ? null : result;
+        }
+        
+        /**
+         * Checks if this interval has no versions.
+         * 
+         * @return true if empty
+         */
+        private boolean isEmpty() {
+            // no version precedes the lowest one
+            if(this.lower == null) return this.upper != null && !this.upperInclusive && this.upper.compareTo(LOWEST) <= 0;
+            if(this.upper == null) return false;
+            
+            final int cmp = this.lower.compareTo(this.upper);
+            return cmp > 0 || (cmp == 0 && !(this.lowerInclusive && this.upperInclusive));
+        }
+        
+        /**
+         * Checks if a following interval overlaps or is adjacent to this one.
+         * 
+         * @param next an interval that does not start before this one
+         * @return true if both intervals can be merged
+         */
+        private boolean touches(final Interval next) {
+            if(this.upper == null || next.lower == null) return true;
+            
+            final int cmp = next.lower.compareTo(this.upper);
+            return cmp < 0 || (cmp == 0 && (this.upperInclusive || next.lowerInclusive));
+        }
+        
+        /**
+         * Merges a following interval with this one.
+         * 
+         * @param next an interval that touches this one
+         * @return the interval covering both
+         */
+        private Interval span(final Interval next) {
+            final boolean nextUpper = compareUpper(this.upper, this.upperInclusive, next.upper, next.upperInclusive) < 0;
+            
+            return new Interval(this.lower, this.lowerInclusive,
+                    nextUpper ? next.upper : this.upper,
+                    nextUpper ? next.upperInclusive : this.upperInclusive);
+        }
+        
+        /**
+         * Compares two lower bounds.
+         * 
+         * @return the comparator value, negative if the first bound admits more versions
+         */
+        private static int compareLower(final SemVer a, final boolean aInclusive, final SemVer b, final boolean bInclusive) {
+            if(a == null || b == null) return (a == null ? 0 : 1) - (b == null ? 0 : 1);
+            
+            final int cmp = a.compareTo(b);
+            return cmp != 0 ? cmp : Boolean.compare(bInclusive, aInclusive);
+        }
+        
+        /**
+         * Compares two upper bounds.
+         * 
+         * @return the comparator value, negative if the first bound admits less versions
+         */
+        private static int compareUpper(final SemVer a, final boolean aInclusive, final SemVer b, final boolean bInclusive) {
+            if(a == null || b == null) return (a == null ? 1 : 0) - (b == null ? 1 : 0);
+            
+            final int cmp = a.compareTo(b);
+            return cmp != 0 ? cmp : Boolean.compare(aInclusive, bInclusive);
+        }
+    }
+    
+    /**
+     * A version with wildcards, such as {@code 1.2.x} or {@code 1}.
+     */
+    private static final class Partial {
+        
+        /**
+         * Marks a missing or wildcard number.
+         */
+        private static final int ANY = -1;
+        
+        private final int major;
+        
+        private final int minor;
+        
+        private final int patch;
+        
+        /**
+         * The complete version, if no number is missing.
+         */
+        private final SemVer version;
+        
+        /**
+         * Constructor.
+         * 
+         * @param major the MAJOR version, or {@link #ANY}
+         * @param minor the MINOR version, or {@link #ANY}
+         * @param patch the PATCH version, or {@link #ANY}
+         * @param version the complete version, or null
+         */
+        private Partial(final int major, final int minor, final int patch, final SemVer version) {
+            this.major = major;
+            this.minor = minor;
+            this.patch = patch;
+            this.version = version;
+        }
+        
+        /**
+         * Parses a partial version.
+         * 
+         * @param rangeStr the whole range, for error messages
+         * @param text the partial version
+         * @return the partial version, not null
+         */
+        private static Partial parse(final String rangeStr, final String text) {
+            final String partial = text.startsWith("v") || text.startsWith("=") ? text.substring(1) : text;
+            
+            int tail = 0;
+            while(tail < partial.length() && partial.charAt(tail) != '-' && partial.charAt(tail) != '+') tail++;
+            
+            final String[] parts = partial.substring(0, tail).split("\\.", -1);
+            if(parts.length > 3) throw new SemVerException(rangeStr);
+            
+            final int[] numbers = { ANY, ANY, ANY };
+            for(int i = 0; i < parts.length; i++) {
+                final String part = parts[i];
+                if(!part.equals("x") && !part.equals("X") && !part.equals("*")) {
+                    // numbers cannot follow a wildcard, as in 1.x.3
+                    if(i > 0 && numbers[i - 1] == ANY) throw new SemVerException(rangeStr);
+                    numbers[i] = parseNumber(rangeStr, part);
+                }
+            }
+            
+            // pre-release and build tags need a complete version
+            if(tail < partial.length() && numbers[2] == ANY) throw new SemVerException(rangeStr);
+            
+            final SemVer version = numbers[2] == ANY ? null : parseVersion(rangeStr, partial);
+            return new Partial(numbers[0], numbers[1], numbers[2], version);
+        }
+        
+        /**
+         * Parses a number of a partial version.
+         */
+        private static int parseNumber(final String rangeStr, final String number) {
+            if(number.isEmpty() || number.length() > 9) throw new SemVerException(rangeStr);
+            
+            int value = 0;
+            for(int i = 0; i < number.length(); i++) {
+                final char c = number.charAt(i);
+                if(c < '0' || c > '9') throw new SemVerException(rangeStr);
+                value = value * 10 + (c - '0');
+            }
+            
+            return value;
+        }
+        
+        /**
+         * Parses a complete version.
+         */
+        private static SemVer parseVersion(final String rangeStr, final String text) {
+            final ParseResult result = SemVer.tryParse(text);
+            if(!result.isValid()) throw new SemVerException(rangeStr, result.toException());
+            
+            return result.getVersion();
+        }
+        
+        /**
+         * Gets the lowest version matched by this partial version.
+         */
+        private SemVer floor() {
+            if(this.version != null) return this.version;
+            
+            return SemVer.of(Math.max(this.major, 0), Math.max(this.minor, 0), Math.max(this.patch, 0));
+        }
+        
+        /**
+         * Gets the lowest version above all versions matched by this partial version.
+         * The result is the first pre-release of the next version.
+         * 
+         * @return the version, or null if unbounded
+         */
+        private SemVer ceiling() {
+            if(this.major == ANY) return null;
+            if(this.minor == ANY) return firstOf(this.major + 1, 0, 0);
+            if(this.patch == ANY) return firstOf(this.major, this.minor + 1, 0);
+            
+            return null;
+        }
+        
+        /**
+         * Gets the first pre-release of a version.
+         */
+        private static SemVer firstOf(final int major, final int minor, final int patch) {
+            return SemVer.of(major, minor, patch, "0");
+        }
+        
+        private Interval exactly() {
+            if(this.version != null) return new Interval(this.version, true, this.version, true);
+            if(this.major == ANY) return Interval.ALL;
+            
+            return new Interval(floor(), true, ceiling(), false);
+        }
+        
+        private Interval atLeast() {
+            if(this.major == ANY) return Interval.ALL;
+            
+            return new Interval(floor(), true, null, false);
+        }
+        
+        private Interval greaterThan() {
+            if(this.version != null) return new Interval(this.version, false, null, false);
+            if(this.major == ANY) return null;
+            
+            final SemVer next = this.minor == ANY
+                    ? SemVer.of(this.major + 1, 0, 0)
+                    : SemVer.of(this.major, this.minor + 1, 0);
+            return new Interval(next, true, null, false);
+        }
+        
+        private Interval lessThan() {
+            if(this.major == ANY) return null;
+            if(this.version != null) return new Interval(null, false, this.version, false);
+            
+            return new Interval(null, false, firstOf(this.major, Math.max(this.minor, 0), 0), false);
+        }
+        
+        private Interval atMost() {
+            if(this.major == ANY) return Interval.ALL;
+            if(this.version != null) return new Interval(null, false, this.version, true);
+            
+            return new Interval(null, false, ceiling(), false);
+        }
+        
+        private Interval tilde() {
+            if(this.major == ANY) return Interval.ALL;
+            
+            final SemVer upper = this.minor == ANY
+                    ? firstOf(this.major + 1, 0, 0)
+                    : firstOf(this.major, this.minor + 1, 0);
+            return new Interval(floor(), true, upper, false);
+        }
+        
+        private Interval caret() {
+            if(this.major == ANY) return Interval.ALL;
+            
+            final SemVer upper;
+            if(this.major > 0 || this.minor == ANY) {
+                upper = firstOf(this.major + 1, 0, 0);
+            } else if(this.minor > 0 || this.patch == ANY) {
+                upper = firstOf(0, this.minor + 1, 0);
+            } else {
+                upper = firstOf(0, 0, this.patch + 1);
+            }
+            
+            return new Interval(floor(), true, upper, false);
+        }
+    }
+}
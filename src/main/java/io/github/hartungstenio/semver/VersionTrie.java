@@ -0,0 +1,530 @@
+/*
+ * This file is part of the SemVer-J project.
+ * Copyright (c) 2018 Christian Hartung
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the MIT License
+ * which accompanies this distribution.
+ *
+ * Contributors:
+ *     Christian Hartung - initial API and implementation
+ */
+package io.github.hartungstenio.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An index of versions by partial version, such as {@code 1}, {@code 1.4.x} or
+ * {@code 1.4.2-rc}.
+ * <p>
+ * The versions are kept in a trie keyed on the MAJOR, MINOR and PATCH versions, and
+ * then on the pre-release identifiers, one per level:
+ * <pre>
+ *   VersionTrie trie = new VersionTrie();
+ *   trie.addAll(versions);
+ *   trie.find("1.4");            // every 1.4.x version, newest first
+ *   trie.find("1.4.2-rc", 10);   // the ten newest 1.4.2-rc.N versions
+ *   trie.latestStable("1.x");    // highest released 1.x.x version
+ *   trie.count("2");             // number of 2.x.x versions
+ * </pre>
+ * <p>
+ * A partial version matches every version that starts with the same components, so
+ * {@code 1.4} matches {@code 1.4.0-rc.1} and {@code 1.4.12}, but not {@code 1.40.0},
+ * and {@code 1.4.2-rc} matches {@code 1.4.2-rc} and {@code 1.4.2-rc.1}, but not
+ * {@code 1.4.2-rc1}. The missing components can also be written as wildcards, as in
+ * {@code 1.x}, {@code 1.4.*} or {@code *}, and the empty text matches every version.
+ * <p>
+ * The children of each node are sorted, so the matches are listed by walking the
+ * subtree of the partial version, in time proportional to the number of matches.
+ * Each node also caches the number of versions below it, and the highest, lowest
+ * and highest stable ones, so {@link #latest(CharSequence)} and the other
+ * aggregates only walk down to the node of the partial version.
+ * <p>
+ * Adding a version updates the nodes on its path, in O(depth) plus the insertion
+ * in the children of each node, so the trie can be kept up to date while serving
+ * lookups. Versions with the same precedence, such as versions that only differ by
+ * build metadata, are all kept, and the latest of them is the last added.
+ * 
+ * @implSpec
+ * This class is intended for use in a single thread. Lookups concurrent with
+ * additions need external synchronization.
+ * 
+ * @author Christian Hartung
+ */
+public final class VersionTrie {
+    
+    /**
+     * The depth of the PATCH versions, under the root, the MAJOR and the MINOR versions.
+     */
+    private static final int PATCH_DEPTH = 3;
+    
+    /**
+     * The root, matching every version.
+     */
+    private final Node root = new Node(0, 0, null);
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Adds a version.
+     * 
+     * @param version the version to add, not null
+     * @return true if the version was added, false if the trie already had it
+     * @see SemVer#equals(Object)
+     */
+    public boolean add(final SemVer version) {
+        Objects.requireNonNull(version, "Invalid version");
+        
+        final List<Identifier> preRelease = version.getPreRelease();
+        final Node[] path = new Node[PATCH_DEPTH + 1 + preRelease.size()];
+        path[0] = this.root;
+        path[1] = this.root.childOrAdd(version.getMajor(), null);
+        path[2] = path[1].childOrAdd(version.getMinor(), null);
+        path[3] = path[2].childOrAdd(version.getPatch(), null);
+        for(int i = 0; i < preRelease.size(); i++) {
+            path[PATCH_DEPTH + 1 + i] = path[PATCH_DEPTH + i].childOrAdd(0, preRelease.get(i));
+        }
+        
+        if(!path[path.length - 1].addOwn(version)) return false;
+        
+        for(Node node : path) {
+            node.count(version);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Adds versions.
+     * 
+     * @param versions the versions to add, not null
+     * @return true if any version was added
+     * @throws NullPointerException if any version is null
+     */
+    public boolean addAll(final Collection<SemVer> versions) {
+        boolean changed = false;
+        for(SemVer version : versions) {
+            changed |= add(version);
+        }
+        
+        return changed;
+    }
+    
+    /**
+     * Gets the number of versions in the trie.
+     * 
+     * @return the number of versions
+     */
+    public int size() {
+        return this.root.size;
+    }
+    
+    /**
+     * Checks if the trie has no versions.
+     * 
+     * @return true if the trie is empty
+     */
+    public boolean isEmpty() {
+        return this.root.size == 0;
+    }
+    
+    /**
+     * Checks if the trie has a version equal to the given one, including build metadata.
+     * 
+     * @param version the version to search, not null
+     * @return true if the trie has the version
+     * @see SemVer#equals(Object)
+     */
+    public boolean contains(final SemVer version) {
+        Node node = this.root.child(version.getMajor(), null);
+        node = node == null ? null : node.child(version.getMinor(), null);
+        node = node == null ? null : node.child(version.getPatch(), null);
+        for(Identifier tag : version.getPreRelease()) {
+            if(node == null) return false;
+            node = node.child(0, tag);
+        }
+        
+        return node != null && node.indexOfOwn(version) >= 0;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the versions that match a partial version.
+     * 
+     * @param partial the partial version, such as {@code 1.4} or {@code 1.4.2-rc}, not null
+     * @return an unmodifiable list of the matching versions, newest first, not null
+     * @throws SemVerException if the partial version is not valid
+     */
+    public List<SemVer> find(final CharSequence partial) {
+        return find(partial, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Gets the newest versions that match a partial version.
+     * <p>
+     * Only the subtrees holding the returned versions are visited, so the time is
+     * proportional to the limit, and not to the number of matches.
+     * 
+     * @param partial the partial version, such as {@code 1.4} or {@code 1.4.2-rc}, not null
+     * @param limit the maximum number of versions to return, not negative
+     * @return an unmodifiable list of the matching versions, newest first, not null
+     * @throws SemVerException if the partial version is not valid
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public List<SemVer> find(final CharSequence partial, final int limit) {
+        if(limit < 0) throw new IllegalArgumentException("Invalid limit: " + limit);
+        
+        final Node node = locate(partial);
+        if(node == null || limit == 0) return Collections.emptyList();
+        
+        final List<SemVer> result = new ArrayList<>(Math.min(node.size, limit));
+        node.collect(result, limit);
+        return Collections.unmodifiableList(result);
+    }
+    
+    /**
+     * Gets the number of versions that match a partial version.
+     * 
+     * @param partial the partial version, such as {@code 1.4} or {@code 1.4.2-rc}, not null
+     * @return the number of matching versions
+     * @throws SemVerException if the partial version is not valid
+     */
+    public int count(final CharSequence partial) {
+        final Node node = locate(partial);
+        return node == null ? 0 : node.size;
+    }
+    
+    /**
+     * Gets the highest version that matches a partial version.
+     * 
+     * @param partial the partial version, such as {@code 1.4} or {@code 1.4.2-rc}, not null
+     * @return the highest matching version, null if none
+     * @throws SemVerException if the partial version is not valid
+     */
+    public SemVer latest(final CharSequence partial) {
+        final Node node = locate(partial);
+        return node == null ? null : node.latest;
+    }
+    
+    /**
+     * Gets the highest version that matches a partial version and is not a pre-release.
+     * 
+     * @param partial the partial version, such as {@code 1.4} or {@code 1.x}, not null
+     * @return the highest stable matching version, null if none
+     * @throws SemVerException if the partial version is not valid
+     * @see SemVer#isPreRelease()
+     */
+    public SemVer latestStable(final CharSequence partial) {
+        final Node node = locate(partial);
+        return node == null ? null : node.latestStable;
+    }
+    
+    /**
+     * Gets the lowest version that matches a partial version.
+     * 
+     * @param partial the partial version, such as {@code 1.4} or {@code 1.4.2-rc}, not null
+     * @return the lowest matching version, null if none
+     * @throws SemVerException if the partial version is not valid
+     */
+    public SemVer earliest(final CharSequence partial) {
+        final Node node = locate(partial);
+        return node == null ? null : node.earliest;
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the node of a partial version.
+     * <p>
+     * The whole text is validated, even after a component with no node.
+     * 
+     * @param partial the partial version, not null
+     * @return the node, null if no version matches
+     * @throws SemVerException if the partial version is not valid
+     */
+    private Node locate(final CharSequence partial) {
+        final int length = partial.length();
+        int pos = length > 0 && (partial.charAt(0) == 'v' || partial.charAt(0) == 'V') ? 1 : 0;
+        if(pos == length) return pos == 0 ? this.root : invalid(partial);
+        
+        Node node = this.root;
+        boolean wildcard = false;
+        for(int depth = 1; ; depth++) {
+            int end = pos;
+            while(end < length && partial.charAt(end) != '.' && partial.charAt(end) != '-' && partial.charAt(end) != '+') end++;
+            
+            if(isWildcard(partial, pos, end)) {
+                wildcard = true;
+            } else if(wildcard) {
+                // numbers cannot follow a wildcard, as in 1.x.3
+                return invalid(partial);
+            } else {
+                final int number = parseNumber(partial, pos, end);
+                node = node == null ? null : node.child(number, null);
+            }
+            
+            if(end == length) return node;
+            
+            final char separator = partial.charAt(end);
+            if(separator == '.' && depth < PATCH_DEPTH) {
+                pos = end + 1;
+            } else if(separator == '-' && depth == PATCH_DEPTH && !wildcard) {
+                // only a complete MAJOR.MINOR.PATCH version can have pre-release identifiers
+                return locateTags(partial, end + 1, node);
+            } else {
+                return invalid(partial);
+            }
+        }
+    }
+    
+    /**
+     * Finds the node of the pre-release identifiers of a partial version.
+     * 
+     * @param partial the partial version, not null
+     * @param begin the position of the first identifier
+     * @param patch the node of the PATCH version, null if none
+     * @return the node, null if no version matches
+     * @throws SemVerException if the identifiers are not valid
+     */
+    private static Node locateTags(final CharSequence partial, final int begin, final Node patch) {
+        final int length = partial.length();
+        Node node = patch;
+        int pos = begin;
+        for(;;) {
+            int end = pos;
+            while(end < length && partial.charAt(end) != '.') {
+                final char c = partial.charAt(end++);
+                if((c < '0' || c > '9') && (c < 'A' || c > 'Z') && (c < 'a' || c > 'z') && c != '-') return invalid(partial);
+            }
+            if(end == pos) return invalid(partial);
+            
+            if(node != null) {
+                node = node.child(0, Identifier.of(partial.subSequence(pos, end).toString()));
+            }
+            
+            if(end == length) return node;
+            pos = end + 1;
+        }
+    }
+    
+    /**
+     * Parses a number of a partial version.
+     */
+    private static int parseNumber(final CharSequence partial, final int begin, final int end) {
+        if(begin == end || end - begin > 10) invalid(partial);
+        
+        long value = 0;
+        for(int i = begin; i < end; i++) {
+            final char c = partial.charAt(i);
+            if(c < '0' || c > '9') invalid(partial);
+            value = value * 10 + (c - '0');
+        }
+        
+        if(value > Integer.MAX_VALUE) invalid(partial);
+        return (int)value;
+    }
+    
+    private static boolean isWildcard(final CharSequence partial, final int begin, final int end) {
+        if(end - begin != 1) return false;
+        
+        final char c = partial.charAt(begin);
+        return c == 'x' || c == 'X' || c == '*';
+    }
+    
+    private static Node invalid(final CharSequence partial) {
+        throw new SemVerException("Invalid partial version: " + partial);
+    }
+    
+    //-----------------------------------------------------------------------
+    /**
+     * A node of the trie, for a MAJOR, MINOR or PATCH version, or a pre-release identifier.
+     */
+    private static final class Node {
+        
+        private static final Node[] NO_NODES = new Node[0];
+        
+        private static final SemVer[] NO_VERSIONS = new SemVer[0];
+        
+        /**
+         * The depth of this node, 0 for the root.
+         */
+        private final int depth;
+        
+        /**
+         * The number of this node, if above the pre-release identifiers.
+         */
+        private final int number;
+        
+        /**
+         * The pre-release identifier of this node, null if above them.
+         */
+        private final Identifier tag;
+        
+        /**
+         * The children, sorted by number or by identifier.
+         */
+        private Node[] children = NO_NODES;
+        
+        private int childCount;
+        
+        /**
+         * The versions that end at this node, all with the same precedence, in the order
+         * they were added.
+         */
+        private SemVer[] own = NO_VERSIONS;
+        
+        private int ownCount;
+        
+        /**
+         * The number of versions in this subtree.
+         */
+        private int size;
+        
+        /**
+         * The highest version in this subtree, the last added among equivalent ones.
+         */
+        private SemVer latest;
+        
+        /**
+         * The lowest version in this subtree, the first added among equivalent ones.
+         */
+        private SemVer earliest;
+        
+        /**
+         * The highest version in this subtree that is not a pre-release.
+         */
+        private SemVer latestStable;
+        
+        /**
+         * Constructor.
+         * 
+         * @param depth the depth of the node
+         * @param number the number of the node, if above the pre-release identifiers
+         * @param tag the pre-release identifier of the node, null if above them
+         */
+        private Node(final int depth, final int number, final Identifier tag) {
+            this.depth = depth;
+            this.number = number;
+            this.tag = tag;
+        }
+        
+        /**
+         * Gets a child.
+         * 
+         * @param key the number of the child, if {@code tag} is null
+         * @param tag the pre-release identifier of the child, or null
+         * @return the child, null if none
+         */
+        Node child(final int key, final Identifier tag) {
+            final int pos = search(key, tag);
+            return pos < 0 ? null : this.children[pos];
+        }
+        
+        /**
+         * Gets a child, adding it if needed.
+         * 
+         * @param key the number of the child, if {@code tag} is null
+         * @param tag the pre-release identifier of the child, or null
+         * @return the child, not null
+         */
+        Node childOrAdd(final int key, final Identifier tag) {
+            final int pos = search(key, tag);
+            if(pos >= 0) return this.children[pos];
+            
+            final int insert = -(pos + 1);
+            if(this.childCount == this.children.length) {
+                this.children = Arrays.copyOf(this.children, Math.max(4, this.childCount * 2));
+            }
+            System.arraycopy(this.children, insert, this.children, insert + 1, this.childCount - insert);
+            this.childCount++;
+            
+            return this.children[insert] = new Node(this.depth + 1, key, tag);
+        }
+        
+        /**
+         * Searches the children.
+         * 
+         * @return the position of the child, or {@code -(insertion point) - 1} if not found
+         */
+        private int search(final int key, final Identifier tag) {
+            int low = 0;
+            int high = this.childCount - 1;
+            while(low <= high) {
+                final int mid = (low + high) >>> 1;
+                final Node child = this.children[mid];
+                final int cmp = tag == null ? Integer.compare(child.number, key) : child.tag.compareTo(tag);
+                if(cmp < 0) low = mid + 1;
+                else if(cmp > 0) high = mid - 1;
+                else return mid;
+            }
+            
+            return -(low + 1);
+        }
+        
+        /**
+         * Adds a version that ends at this node.
+         * 
+         * @param version the version to add
+         * @return true if added, false if this node already had it
+         */
+        boolean addOwn(final SemVer version) {
+            if(indexOfOwn(version) >= 0) return false;
+            
+            if(this.ownCount == this.own.length) {
+                this.own = Arrays.copyOf(this.own, Math.max(1, this.ownCount * 2));
+            }
+            this.own[this.ownCount++] = version;
+            return true;
+        }
+        
+        int indexOfOwn(final SemVer version) {
+            for(int i = 0; i < this.ownCount; i++) {
+                if(this.own[i].equals(version)) return i;
+            }
+            
+            return -1;
+        }
+        
+        /**
+         * Updates the aggregates with a version added to this subtree.
+         * 
+         * @param version the version added
+         */
+        void count(final SemVer version) {
+            this.size++;
+            if(this.latest == null || version.compareTo(this.latest) >= 0) this.latest = version;
+            if(this.earliest == null || version.compareTo(this.earliest) < 0) this.earliest = version;
+            if(!version.isPreRelease() && (this.latestStable == null || version.compareTo(this.latestStable) >= 0)) {
+                this.latestStable = version;
+            }
+        }
+        
+        /**
+         * Lists the versions of this subtree, newest first.
+         * <p>
+         * The normal version of a PATCH node is newer than its pre-releases, and the
+         * versions ending at a pre-release identifier are older than the longer ones.
+         * 
+         * @param result the list that receives the versions
+         * @param limit the maximum size of the list
+         */
+        void collect(final List<SemVer> result, final int limit) {
+            if(this.depth == PATCH_DEPTH) collectOwn(result, limit);
+            
+            for(int i = this.childCount - 1; i >= 0 && result.size() < limit; i--) {
+                this.children[i].collect(result, limit);
+            }
+            
+            if(this.depth > PATCH_DEPTH) collectOwn(result, limit);
+        }
+        
+        private void collectOwn(final List<SemVer> result, final int limit) {
+            for(int i = this.ownCount - 1; i >= 0 && result.size() < limit; i--) {
+                result.add(this.own[i]);
+            }
+        }
+    }
+}
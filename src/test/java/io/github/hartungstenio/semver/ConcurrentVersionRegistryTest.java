@@ -0,0 +1,142 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentVersionRegistryTest {
+    
+    @Test
+    public void lookupsShouldFindLatestVersions() {
+        ConcurrentVersionRegistry registry = new ConcurrentVersionRegistry();
+        assertTrue(registry.publish("lib", SemVer.parse("1.2.0")));
+        assertTrue(registry.publish("lib", SemVer.parse("1.0.0")));
+        assertTrue(registry.publish("lib", SemVer.parse("2.0.0-rc.1")));
+        assertFalse(registry.publish("lib", SemVer.parse("1.2.0")));
+        
+        assertEquals(SemVer.parse("2.0.0-rc.1"), registry.latest("lib"));
+        assertEquals(SemVer.parse("1.2.0"), registry.latestStable("lib"));
+        assertEquals(SemVer.parse("1.2.0"), registry.latestCompatibleWith("lib", SemVer.parse("1.0.0")));
+        assertEquals(SemVer.parse("2.0.0-rc.1"), registry.latestCompatibleWith("lib", SemVer.parse("2.0.0-alpha")));
+        assertNull(registry.latestCompatibleWith("lib", SemVer.parse("3.0.0")));
+        assertEquals("[1.0.0, 1.2.0, 2.0.0-rc.1]", registry.versions("lib").toString());
+        assertEquals(Collections.singleton("lib"), registry.packages());
+    }
+    
+    @Test
+    public void unknownPackageShouldHaveNoVersions() {
+        ConcurrentVersionRegistry registry = new ConcurrentVersionRegistry();
+        
+        assertTrue(registry.versions("none").isEmpty());
+        assertNull(registry.latest("none"));
+        assertNull(registry.latestStable("none"));
+        assertNull(registry.latestCompatibleWith("none", SemVer.parse("1.0.0")));
+        assertFalse(registry.retract("none", SemVer.parse("1.0.0")));
+        assertTrue(registry.packages().isEmpty());
+    }
+    
+    @Test
+    public void publishAllShouldAddOnlyNewVersions() {
+        ConcurrentVersionRegistry registry = new ConcurrentVersionRegistry();
+        registry.publish("lib", SemVer.parse("1.0.0"));
+        
+        assertTrue(registry.publishAll("lib", Arrays.asList(SemVer.parse("1.0.0"), SemVer.parse("1.1.0"), SemVer.parse("1.1.0"))));
+        assertFalse(registry.publishAll("lib", Arrays.asList(SemVer.parse("1.0.0"), SemVer.parse("1.1.0"))));
+        assertEquals("[1.0.0, 1.1.0]", registry.versions("lib").toString());
+        assertThrows(NullPointerException.class, () -> registry.publishAll("lib", Arrays.asList(SemVer.parse("2.0.0"), null)));
+        assertEquals(2, registry.versions("lib").size());
+    }
+    
+    @Test
+    public void retractShouldRemoveEqualVersion() {
+        ConcurrentVersionRegistry registry = new ConcurrentVersionRegistry();
+        registry.publish("lib", SemVer.parse("1.0.0"));
+        registry.publish("lib", SemVer.parse("1.0.0+build.2"));
+        VersionIndex before = registry.versions("lib");
+        
+        assertFalse(registry.retract("lib", SemVer.parse("1.0.0+build.3")));
+        assertTrue(registry.retract("lib", SemVer.parse("1.0.0")));
+        assertEquals(SemVer.parse("1.0.0+build.2"), registry.latest("lib"));
+        assertTrue(registry.retract("lib", SemVer.parse("1.0.0+build.2")));
+        assertNull(registry.latest("lib"));
+        assertEquals(Collections.singleton("lib"), registry.packages());
+        assertEquals(2, before.size());
+    }
+    
+    @Test
+    public void concurrentPublishesShouldNotBeLost() throws Exception {
+        final int threads = 8;
+        final int perThread = 500;
+        final ConcurrentVersionRegistry registry = new ConcurrentVersionRegistry();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads + 2);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean done = new AtomicBoolean();
+        try {
+            final List<Future<?>> writers = new ArrayList<>();
+            for(int t = 0; t < threads; t++) {
+                final int thread = t;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for(int i = 0; i < perThread; i++) {
+                        // all threads write to the same package, and to one package of their own
+                        assertTrue(registry.publish("shared", SemVer.of(1, thread, i)));
+                        assertTrue(registry.publish("own" + thread, SemVer.of(1, 0, i)));
+                        if(i % 10 == 0) assertTrue(registry.retract("own" + thread, SemVer.of(1, 0, i)));
+                    }
+                    return null;
+                }));
+            }
+            
+            // readers only ever see the latest version move forward
+            final List<Future<?>> readers = new ArrayList<>();
+            for(int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    SemVer previous = null;
+                    while(!done.get()) {
+                        final SemVer latest = registry.latest("shared");
+                        if(previous != null) assertTrue(latest.compareTo(previous) >= 0, latest + " < " + previous);
+                        previous = latest;
+                        
+                        final VersionIndex snapshot = registry.versions("shared");
+                        if(!snapshot.isEmpty()) assertEquals(snapshot.latest(), snapshot.latestCompatibleWith(SemVer.of(1, 0, 0)));
+                    }
+                    return null;
+                }));
+            }
+            
+            start.countDown();
+            for(Future<?> writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+            done.set(true);
+            for(Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(threads * perThread, registry.versions("shared").size());
+        assertEquals(SemVer.of(1, threads - 1, perThread - 1), registry.latest("shared"));
+        for(int t = 0; t < threads; t++) {
+            assertEquals(perThread - perThread / 10, registry.versions("own" + t).size());
+        }
+        assertEquals(threads + 1, registry.packages().size());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class IdentifierTest {
+    
+    @Test
+    public void numericIdentifiersShouldKeepTheirValue() {
+        final Identifier identifier = Identifier.of("1227");
+        
+        assertTrue(identifier.isNumeric());
+        assertEquals(1227L, identifier.getNumber());
+        assertEquals("1227", identifier.getText());
+        assertEquals(Identifier.of(1227), identifier);
+        assertThrows(ArithmeticException.class, () -> Identifier.of("99999999999999999999").getNumber());
+        assertThrows(SemVerException.class, () -> Identifier.of(-1));
+    }
+    
+    @Test
+    public void alphanumericIdentifiersShouldNotHaveValue() {
+        final Identifier identifier = Identifier.of("rc-1");
+        
+        assertFalse(identifier.isNumeric());
+        assertEquals("rc-1", identifier.toString());
+        assertThrows(IllegalStateException.class, identifier::getNumber);
+        assertFalse(Identifier.of("").isNumeric());
+    }
+    
+    @Test
+    public void commonIdentifiersShouldBeShared() {
+        assertSame(Identifier.of("SNAPSHOT"), Identifier.of(new String("SNAPSHOT")));
+        assertSame(Identifier.of("7"), Identifier.of(7));
+        assertSame(Identifier.of(7), SemVer.parse("1.0.0-rc.7").getPreRelease(1));
+        assertNotEquals(Identifier.of("07"), Identifier.of("7"));
+    }
+    
+    @Test
+    public void identifiersShouldBeOrderedByPrecedence() {
+        final Identifier[] ascending = {
+                Identifier.of(2),
+                Identifier.of("11"),
+                Identifier.of("9223372036854775806"),
+                Identifier.of("99999999999999999999"),
+                Identifier.of("100000000000000000000"),
+                Identifier.of("-"),
+                Identifier.of("BETA"),
+                Identifier.of("alpha"),
+                Identifier.of("alpha-1"),
+                Identifier.of("beta"),
+        };
+        
+        for(int i = 0; i < ascending.length; i++) {
+            for(int j = 0; j < ascending.length; j++) {
+                assertEquals(Integer.signum(Integer.compare(i, j)), Integer.signum(ascending[i].compareTo(ascending[j])),
+                        ascending[i] + " " + ascending[j]);
+            }
+        }
+        
+        assertEquals(0, Identifier.of("007").compareTo(Identifier.of("7")));
+    }
+    
+    @Test
+    public void versionsShouldExposeTypedIdentifiers() {
+        final SemVer version = SemVer.of(1, 0, 0, Arrays.asList("alpha", 1), Arrays.asList("sha", "5114f85"));
+        
+        assertEquals(2, version.getPreReleaseCount());
+        assertEquals(Identifier.of("alpha"), version.getPreRelease(0));
+        assertEquals(1L, version.getPreRelease(1).getNumber());
+        assertEquals(Arrays.asList(Identifier.of("sha"), Identifier.of("5114f85")), version.getBuild());
+        assertEquals(2, version.getBuildCount());
+        assertEquals("5114f85", version.getBuild(1).getText());
+        assertEquals(version, SemVer.parse("1.0.0-alpha.1+sha.5114f85"));
+        assertThrows(UnsupportedOperationException.class, () -> version.getPreRelease().add(Identifier.of("x")));
+    }
+}
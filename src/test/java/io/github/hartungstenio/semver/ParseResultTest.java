@@ -0,0 +1,89 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ParseResultTest {
+    
+    private static void assertError(final ParseError error, final int position, final String text) {
+        final ParseResult result = SemVer.tryParse(text);
+        
+        assertFalse(result.isValid(), text);
+        assertNull(result.getVersion());
+        assertEquals(error, result.getError(), text);
+        assertEquals(position, result.getPosition(), text);
+        assertThrows(SemVerException.class, () -> SemVer.parse(text), text);
+    }
+    
+    @Test
+    public void validTextShouldHaveVersion() {
+        final ParseResult result = SemVer.tryParse("1.0.0-alpha.1+build");
+        
+        assertTrue(result.isValid());
+        assertEquals(SemVer.parse("1.0.0-alpha.1+build"), result.getVersion());
+        assertEquals(result.getVersion(), result.orElseThrow());
+        assertNull(result.getError());
+        assertNull(result.getMessage());
+        assertNull(result.toException());
+        assertEquals(-1, result.getPosition());
+    }
+    
+    @Test
+    public void malformedTextShouldHaveErrorAndPosition() {
+        assertError(ParseError.NULL, 0, null);
+        assertError(ParseError.EMPTY, 0, "");
+        assertError(ParseError.INVALID_NUMBER, 2, "1.x.0");
+        assertError(ParseError.INVALID_NUMBER, 0, "v1.0.0");
+        assertError(ParseError.INVALID_NUMBER, 2, "1..0");
+        assertError(ParseError.NUMBER_TOO_LARGE, 2, "1.2147483648.0");
+        assertError(ParseError.NEGATIVE_NUMBER, 0, "-1.0.0");
+        assertError(ParseError.MISSING_MINOR, 1, "1");
+        assertError(ParseError.MISSING_PATCH, 3, "1.2");
+        assertError(ParseError.MISSING_PATCH, 3, "1.2-beta");
+        assertError(ParseError.TOO_MANY_PARTS, 6, "1.2.3.4");
+    }
+    
+    @Test
+    public void resultShouldBeReusable() {
+        final ParseResult result = new ParseResult();
+        
+        assertFalse(SemVer.tryParse("1.x", result));
+        assertEquals(ParseError.INVALID_NUMBER, result.getError());
+        assertEquals("Invalid number \"x\" at position 2: 1.x", result.getMessage());
+        
+        assertTrue(SemVer.tryParse("1.2.3", result));
+        assertEquals(SemVer.of(1, 2, 3), result.getVersion());
+        assertNull(result.getError());
+        
+        assertFalse(SemVer.tryParse("1.2", result));
+        assertNull(result.getVersion());
+        assertEquals("Missing PATCH version at position 3: 1.2", result.getMessage());
+    }
+    
+    @Test
+    public void exceptionsShouldCarryTheMessage() {
+        final ParseResult result = SemVer.tryParse("1.2.3.4");
+        
+        final SemVerException exception = result.toException();
+        assertEquals(result.getMessage(), exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+        
+        final SemVerException thrown = assertThrows(SemVerException.class, result::orElseThrow);
+        assertEquals(result.getMessage(), thrown.getMessage());
+        assertTrue(thrown.getStackTrace().length > 0);
+        
+        final SemVerException parsed = assertThrows(SemVerException.class, () -> SemVer.parse("1.2.3.4"));
+        assertEquals(result.getMessage(), parsed.getMessage());
+    }
+    
+    @Test
+    public void signsShouldBeAcceptedOnMajor() {
+        assertEquals(SemVer.of(1, 0, 0), SemVer.tryParse("+1.0.0").getVersion());
+        assertEquals(SemVer.of(0, 1, 0), SemVer.tryParse("-0.1.0").getVersion());
+    }
+}
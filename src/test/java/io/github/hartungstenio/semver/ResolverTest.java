@@ -0,0 +1,179 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ResolverTest {
+    private static final String[] VERSIONS = { "1.0.0", "1.1.0", "2.0.0" };
+    private static final String[] RANGES = { "^1.0.0", ">=1.1.0", "2.0.0", "<2.0.0", "1.0.0 || 2.0.0", "*", "1.1.0" };
+    
+    private static Map<String, VersionRange> deps(final String... nameAndRange) {
+        final Map<String, VersionRange> result = new LinkedHashMap<>();
+        for(int i = 0; i < nameAndRange.length; i += 2) {
+            result.put(nameAndRange[i], VersionRange.parse(nameAndRange[i + 1]));
+        }
+        
+        return result;
+    }
+    
+    private static Map<String, SemVer> solution(final String... nameAndVersion) {
+        final Map<String, SemVer> result = new HashMap<>();
+        for(int i = 0; i < nameAndVersion.length; i += 2) {
+            result.put(nameAndVersion[i], SemVer.parse(nameAndVersion[i + 1]));
+        }
+        
+        return result;
+    }
+    
+    @Test
+    public void testResolvePicksHighestCompatible() {
+        final Resolver resolver = Resolver.builder()
+                .add("app", SemVer.parse("1.0.0"), deps("lib", "^2.0.0", "util", ">=1.0.0"))
+                .add("lib", SemVer.parse("2.0.0"), deps("util", "^1.0.0"))
+                .add("lib", SemVer.parse("2.3.0"), deps("util", "^1.2.0"))
+                .add("lib", SemVer.parse("3.0.0"))
+                .add("util", SemVer.parse("1.1.0"))
+                .add("util", SemVer.parse("1.4.0"))
+                .add("util", SemVer.parse("2.0.0"))
+                .build();
+        
+        assertEquals(3, resolver.size());
+        assertEquals(3, resolver.getVersions("lib").size());
+        assertTrue(resolver.getVersions("unknown").isEmpty());
+        assertEquals(solution("app", "1.0.0", "lib", "2.3.0", "util", "1.4.0"), resolver.resolve("app", VersionRange.all()));
+        assertEquals(solution("lib", "3.0.0"), resolver.resolve("lib", VersionRange.all()));
+        assertEquals(solution("app", "1.0.0", "lib", "2.0.0", "util", "1.1.0"),
+                resolver.resolve(deps("app", "*", "util", "~1.1.0")));
+    }
+    
+    @Test
+    public void testResolveBackjumps() {
+        // b is decided before c, but only c's constraint rules out the newest versions of b
+        final Resolver.Builder builder = Resolver.builder()
+                .add("a", SemVer.parse("1.0.0"), deps("b", "*", "filler0", "*", "c", "*"))
+                .add("b", SemVer.parse("1.0.0"), deps("d", "1.0.0"))
+                .add("b", SemVer.parse("2.0.0"), deps("d", "2.0.0"))
+                .add("b", SemVer.parse("3.0.0"), deps("d", "3.0.0"))
+                .add("c", SemVer.parse("1.0.0"), deps("d", "1.0.0"))
+                .add("d", SemVer.parse("1.0.0"))
+                .add("d", SemVer.parse("2.0.0"))
+                .add("d", SemVer.parse("3.0.0"));
+        for(int i = 0; i < 20; i++) {
+            final Map<String, VersionRange> next = i < 19 ? deps("filler" + (i + 1), "*") : deps();
+            builder.add("filler" + i, SemVer.parse("1.0.0"), next).add("filler" + i, SemVer.parse("2.0.0"), next);
+        }
+        
+        final Map<String, SemVer> result = builder.build().resolve("a", VersionRange.all());
+        assertEquals(SemVer.parse("1.0.0"), result.get("b"));
+        assertEquals(SemVer.parse("1.0.0"), result.get("d"));
+        assertEquals(SemVer.parse("2.0.0"), result.get("filler0"));
+        assertEquals(24, result.size());
+    }
+    
+    @Test
+    public void testResolveFailure() {
+        final Resolver resolver = Resolver.builder()
+                .add("app", SemVer.parse("1.0.0"), deps("lib", "^2.0.0", "util", "^1.0.0"))
+                .add("lib", SemVer.parse("2.0.0"), deps("util", "^2.0.0"))
+                .add("util", SemVer.parse("1.0.0"))
+                .add("util", SemVer.parse("2.0.0"))
+                .build();
+        
+        final SemVerException missing = assertThrows(SemVerException.class, () -> resolver.resolve("none", VersionRange.all()));
+        assertEquals("Cannot resolve dependencies: none * is required, but no versions match", missing.getMessage());
+        
+        final SemVerException conflict = assertThrows(SemVerException.class, () -> resolver.resolve("app", VersionRange.all()));
+        assertTrue(conflict.getMessage().startsWith("Cannot resolve "), conflict.getMessage());
+        assertThrows(SemVerException.class, () -> resolver.resolve("util", VersionRange.parse(">=3.0.0")));
+    }
+    
+    @Test
+    public void testResolveAgainstBruteForce() {
+        final Random random = new Random(42);
+        for(int round = 0; round < 500; round++) {
+            final int size = 2 + random.nextInt(4);
+            final VersionRange[][][] graph = new VersionRange[size][VERSIONS.length][size];
+            final Resolver.Builder builder = Resolver.builder();
+            for(int p = 0; p < size; p++) {
+                for(int v = 0; v < VERSIONS.length; v++) {
+                    final Map<String, VersionRange> dependencies = new LinkedHashMap<>();
+                    for(int q = 0; q < size; q++) {
+                        if(q != p && random.nextInt(3) == 0) {
+                            graph[p][v][q] = VersionRange.parse(RANGES[random.nextInt(RANGES.length)]);
+                            dependencies.put("p" + q, graph[p][v][q]);
+                        }
+                    }
+                    builder.add("p" + p, SemVer.parse(VERSIONS[v]), dependencies);
+                }
+            }
+            
+            final VersionRange root = VersionRange.parse(RANGES[random.nextInt(RANGES.length)]);
+            final Resolver resolver = builder.build();
+            
+            // the highest version of p0 in any valid selection, -1 if none
+            int best = -1;
+            final int[] selection = new int[size];
+            for(int code = 0; code < Math.pow(VERSIONS.length + 1, size); code++) {
+                for(int p = 0, c = code; p < size; p++, c /= VERSIONS.length + 1) {
+                    selection[p] = c % (VERSIONS.length + 1) - 1;
+                }
+                if(selection[0] > best && isValid(graph, root, selection)) best = selection[0];
+            }
+            
+            if(best < 0) {
+                assertThrows(SemVerException.class, () -> resolver.resolve("p0", root));
+                continue;
+            }
+            
+            final Map<String, SemVer> result = resolver.resolve("p0", root);
+            assertEquals(SemVer.parse(VERSIONS[best]), result.get("p0"));
+            for(int p = 0; p < size; p++) {
+                final SemVer version = result.get("p" + p);
+                selection[p] = version == null ? -1 : Arrays.asList(VERSIONS).indexOf(version.toString());
+            }
+            assertTrue(isValid(graph, root, selection), result::toString);
+            
+            final List<String> names = new ArrayList<>(result.keySet());
+            final List<String> sorted = new ArrayList<>(names);
+            Collections.sort(sorted);
+            assertEquals(sorted, names);
+        }
+    }
+    
+    private static boolean isValid(final VersionRange[][][] graph, final VersionRange root, final int[] selection) {
+        if(selection[0] < 0 || !root.test(SemVer.parse(VERSIONS[selection[0]]))) return false;
+        for(int p = 0; p < selection.length; p++) {
+            if(selection[p] < 0) continue;
+            for(int q = 0; q < selection.length; q++) {
+                final VersionRange range = graph[p][selection[p]][q];
+                if(range != null && (selection[q] < 0 || !range.test(SemVer.parse(VERSIONS[selection[q]])))) return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    @Test
+    public void testBuilderReplacesVersions() {
+        final Resolver resolver = Resolver.builder()
+                .add("a", SemVer.parse("1.0.0"), deps("b", "1.0.0"))
+                .add("a", SemVer.parse("1.0.0"))
+                .build();
+        
+        assertEquals(solution("a", "1.0.0"), resolver.resolve("a", VersionRange.all()));
+        assertFalse(resolver.resolve("a", VersionRange.all()).containsKey("b"));
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class SemVerCacheTest {
+    
+    @Test
+    public void invalidCapacityShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> new SemVerCache(0));
+    }
+    
+    @Test
+    public void capacityShouldBeRoundedToPowerOfTwo() {
+        assertEquals(1, new SemVerCache(1).capacity());
+        assertEquals(128, new SemVerCache(100).capacity());
+        assertEquals(128, new SemVerCache(128).capacity());
+    }
+    
+    @Test
+    public void repeatedParseShouldReturnSameInstance() {
+        SemVerCache cache = new SemVerCache(16);
+        SemVer first = cache.parse("1.0.0-alpha+001");
+        
+        assertSame(first, cache.parse(new String("1.0.0-alpha+001")));
+        assertEquals(SemVer.parse("1.0.0-alpha+001"), first);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+    
+    @Test
+    public void repeatedOfShouldReturnSameInstance() {
+        SemVerCache cache = new SemVerCache(16);
+        SemVer first = cache.of(1, 2, 3);
+        
+        assertSame(first, cache.of(1, 2, 3));
+        assertEquals(SemVer.of(1, 2, 3), first);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+    
+    @Test
+    public void cacheShouldNotGrowPastCapacity() {
+        SemVerCache cache = new SemVerCache(1);
+        SemVer first = cache.of(1, 0, 0);
+        cache.of(2, 0, 0);
+        
+        assertEquals(SemVer.of(1, 0, 0), cache.of(1, 0, 0));
+        assertEquals(0, cache.hitCount());
+        assertEquals(3, cache.missCount());
+        assertEquals(first, cache.of(1, 0, 0));
+    }
+    
+    @Test
+    public void collidingHotKeysShouldKeepHitting() {
+        // a single bucket, so every key collides
+        SemVerCache cache = new SemVerCache(4);
+        String[] hot = { "1.0.0", "2.0.0-rc.1", "3.0.0+build" };
+        SemVer[] first = new SemVer[hot.length];
+        for(int i = 0; i < hot.length; i++) {
+            first[i] = cache.parse(hot[i]);
+            cache.of(i, 0, 0);
+        }
+        
+        for(int round = 0; round < 100; round++) {
+            for(int i = 0; i < hot.length; i++) {
+                assertSame(first[i], cache.parse(hot[i]));
+                assertSame(cache.of(i, 0, 0), cache.of(i, 0, 0));
+            }
+            cache.parse("9.0." + round);
+            cache.of(9, 0, round);
+        }
+        
+        assertEquals(2 * hot.length + 2 * 100, cache.missCount());
+        assertEquals(3 * hot.length * 100, cache.hitCount());
+    }
+    
+    @Test
+    public void clearShouldResetCounters() {
+        SemVerCache cache = new SemVerCache(16);
+        SemVer first = cache.parse("1.0.0");
+        cache.parse("1.0.0");
+        cache.clear();
+        
+        assertEquals(0, cache.hitCount());
+        assertEquals(0, cache.missCount());
+        assertEquals(first, cache.parse("1.0.0"));
+        assertEquals(1, cache.missCount());
+    }
+    
+    @Test
+    public void invalidVersionsShouldNotBeCached() {
+        SemVerCache cache = new SemVerCache(16);
+        
+        assertThrows(SemVerException.class, () -> cache.parse(null));
+        assertThrows(SemVerException.class, () -> cache.of(-1, 0, 0));
+    }
+}
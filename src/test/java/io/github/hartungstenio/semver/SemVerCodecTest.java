@@ -0,0 +1,124 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SemVerCodecTest {
+    private final String[] VERSIONS = {
+            "0.0.0",
+            "1.2.3",
+            "1.0.0-alpha+001",
+            "1.0.0-beta+exp.sha.5114f85",
+            "2147483647.2147483647.2147483647-rc.9223372036854775807",
+            "1.0.0-rc.99999999999999999999",
+            "1.0.0-\u00e9t\u00e9+\u0000",
+    };
+    
+    @Test
+    public void compactFormatShouldRoundTrip() throws IOException {
+        for(String text : VERSIONS) {
+            SemVer version = SemVer.parse(text);
+            
+            assertEquals(text, SemVerCodec.decode(SemVerCodec.encode(version)).toString());
+            
+            ByteBuffer buffer = ByteBuffer.allocate(128);
+            version.writeTo(buffer);
+            buffer.flip();
+            assertEquals(text, SemVer.readFrom(buffer).toString());
+            assertEquals(0, buffer.remaining());
+            
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            version.writeTo(new DataOutputStream(bytes));
+            assertArrayEquals(SemVerCodec.encode(version), bytes.toByteArray());
+            assertEquals(text, SemVer.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))).toString());
+        }
+    }
+    
+    @Test
+    public void compactFormatShouldBeSmall() {
+        assertEquals(5, SemVerCodec.encode(SemVer.parse("1.2.3")).length);
+        assertEquals(12, SemVerCodec.encode(SemVer.parse("1.0.0-alpha.1")).length);
+    }
+    
+    @Test
+    public void sortableFormatShouldRoundTrip() {
+        for(String text : VERSIONS) {
+            assertEquals(text, SemVerCodec.decodeSortable(SemVerCodec.encodeSortable(SemVer.parse(text))).toString());
+        }
+    }
+    
+    @Test
+    public void sortableFormatShouldKeepPrecedence() {
+        Random random = new Random(11);
+        String[] tags = { "alpha", "beta", "rc", "0", "1", "2", "11", "256", "alpha-1", "a\u0000", "a" };
+        List<SemVer> versions = new ArrayList<>();
+        for(int i = 0; i < 2000; i++) {
+            List<Object> preRelease = new ArrayList<>();
+            int count = random.nextInt(3);
+            for(int j = 0; j < count; j++) preRelease.add(tags[random.nextInt(tags.length)]);
+            
+            versions.add(SemVer.of(random.nextInt(3), random.nextInt(300), random.nextInt(2), preRelease,
+                    random.nextInt(4) == 0 ? Arrays.asList("b" + random.nextInt(3)) : Collections.emptyList()));
+        }
+        
+        for(int i = 0; i < versions.size() - 1; i++) {
+            SemVer a = versions.get(i);
+            SemVer b = versions.get(i + 1);
+            int precedence = a.compareTo(b);
+            int bytes = SemVerCodec.compareSortable(SemVerCodec.encodeSortable(a), SemVerCodec.encodeSortable(b));
+            
+            if(precedence != 0) assertEquals(Integer.signum(precedence), Integer.signum(bytes), a + " vs " + b);
+            assertEquals(Integer.signum(bytes), Integer.signum(SemVerCodec.compareSortable(
+                    ByteBuffer.wrap(SemVerCodec.encodeSortable(a)), ByteBuffer.wrap(SemVerCodec.encodeSortable(b)))));
+        }
+    }
+    
+    @Test
+    public void malformedBytesShouldThrowException() {
+        assertThrows(SemVerException.class, () -> SemVerCodec.decodeSortable(new byte[] { 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 7, 0 }));
+        assertThrows(SemVerException.class, () -> SemVerCodec.decode(new byte[] { -1, -1, -1, -1, 15, 0, 0, 0, 0 }));
+    }
+    
+    @Test
+    public void truncatedBytesShouldThrowException() throws IOException {
+        final SemVer version = SemVer.parse("1.2.3-alpha.99999999999999999999999+build.7");
+        final byte[] compact = SemVerCodec.encode(version);
+        final byte[] sortable = SemVerCodec.encodeSortable(version);
+        
+        for(int length = 0; length < compact.length; length++) {
+            final byte[] truncated = Arrays.copyOf(compact, length);
+            assertThrows(SemVerException.class, () -> SemVerCodec.decode(truncated), "length " + length);
+            assertThrows(SemVerException.class, () -> SemVerCodec.decode(new DataInputStream(new ByteArrayInputStream(truncated))), "length " + length);
+        }
+        for(int length = 0; length < sortable.length; length++) {
+            final byte[] truncated = Arrays.copyOf(sortable, length);
+            assertThrows(SemVerException.class, () -> SemVerCodec.decodeSortable(truncated), "length " + length);
+        }
+    }
+    
+    @Test
+    public void hugeLengthsShouldNotBeAllocated() {
+        // 1.0.0 with 2^31 - 1 pre-release identifiers
+        assertThrows(SemVerException.class, () -> SemVerCodec.decode(new byte[] { 1, 0, 0, -1, -1, -1, -1, 7 }));
+        // 1.0.0 with a text identifier of 2^31 - 1 bytes
+        assertThrows(SemVerException.class, () -> SemVerCodec.decode(new byte[] { 1, 0, 0, 1, -1, -1, -1, -1, 15 }));
+        assertThrows(SemVerException.class, () -> SemVerCodec.decode(new DataInputStream(new ByteArrayInputStream(new byte[] { 1, 0, 0, 1, -1, -1, -1, -1, 15 }))));
+        // 1.0.0-N with an oversized number of 2^31 - 1 digits
+        assertThrows(SemVerException.class, () -> SemVerCodec.decodeSortable(new byte[] { 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 9, 127, -1, -1, -1 }));
+    }
+}
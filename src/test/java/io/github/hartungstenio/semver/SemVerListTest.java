@@ -0,0 +1,140 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SemVerListTest {
+    @Test
+    public void historyShouldRoundTrip() {
+        List<SemVer> versions = Arrays.asList(
+                SemVer.parse("2.3.0"),
+                SemVer.parse("2.3.1"),
+                SemVer.parse("2.3.2-rc.1"),
+                SemVer.parse("2.3.2-rc.2"),
+                SemVer.parse("2.3.2"),
+                SemVer.parse("2.3.2+build.7"),
+                SemVer.parse("2.4.0-beta"),
+                SemVer.parse("10.0.0"));
+        
+        byte[] bytes = SemVerList.encode(versions);
+        SemVerList decoded = SemVerList.decode(bytes);
+        
+        assertEquals(versions, decoded);
+        assertEquals(versions.size(), decoded.size());
+        assertEquals(SemVer.parse("2.3.2-rc.2"), decoded.get(3));
+        assertEquals("2.3.2+build.7", decoded.get(5).toString());
+        assertEquals(bytes.length, decoded.encodedSize());
+    }
+    
+    @Test
+    public void emptyListShouldRoundTrip() {
+        SemVerList decoded = SemVerList.decode(SemVerList.encode(Collections.<SemVer>emptyList()));
+        
+        assertTrue(decoded.isEmpty());
+        assertFalse(decoded.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> decoded.iterator().next());
+        assertThrows(IndexOutOfBoundsException.class, () -> decoded.get(0));
+    }
+    
+    @Test
+    public void unsortedVersionsShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SemVerList.encode(Arrays.asList(SemVer.parse("1.0.1"), SemVer.parse("1.0.0"))));
+        assertThrows(IllegalArgumentException.class, () -> SemVerList.encode(Arrays.asList(SemVer.parse("1.0.0"), SemVer.parse("1.0.0-rc"))));
+        assertThrows(NullPointerException.class, () -> SemVerList.encode(Arrays.asList(SemVer.parse("1.0.0"), null)));
+    }
+    
+    @Test
+    public void truncatedListShouldBeRejected() {
+        byte[] bytes = SemVerList.encode(randomVersions(1000));
+        
+        assertThrows(SemVerException.class, () -> SemVerList.decode(Arrays.copyOf(bytes, 10)));
+        assertThrows(SemVerException.class, () -> SemVerList.decode(new byte[] { 1, 0 }));
+    }
+    
+    @Test
+    public void truncatedEntriesShouldThrowSemVerException() {
+        List<SemVer> versions = Arrays.asList(SemVer.parse("1.0.0"), SemVer.parse("1.0.1-rc.1"), SemVer.parse("1.0.1+build.7"));
+        byte[] bytes = SemVerList.encode(versions);
+        SemVerList decoded = SemVerList.decode(Arrays.copyOf(bytes, bytes.length - 1));
+        
+        assertEquals(versions.get(1), decoded.get(1));
+        assertThrows(SemVerException.class, () -> decoded.get(2));
+        assertThrows(SemVerException.class, () -> new ArrayList<>(decoded));
+        
+        // a block offset past the end of the entries
+        byte[] offset = bytes.clone();
+        offset[2] = 0x7F;
+        assertThrows(SemVerException.class, () -> SemVerList.decode(offset).get(0));
+    }
+    
+    @Test
+    public void randomListsShouldRoundTrip() {
+        for(int size : new int[] { 1, 63, 64, 65, 1000 }) {
+            List<SemVer> versions = randomVersions(size);
+            byte[] bytes = SemVerList.encode(versions);
+            
+            // the list is read from the position of the buffer
+            ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+            buffer.position(3);
+            buffer.put(bytes);
+            buffer.position(3);
+            SemVerList decoded = SemVerList.decode(buffer);
+            assertEquals(3, buffer.position());
+            
+            List<SemVer> iterated = new ArrayList<>();
+            for(Iterator<SemVer> it = decoded.iterator(); it.hasNext();) {
+                iterated.add(it.next());
+            }
+            assertEquals(versions, iterated);
+            for(int i = size - 1; i >= 0; i--) {
+                assertEquals(versions.get(i).toString(), decoded.get(i).toString(), "index " + i);
+            }
+        }
+    }
+    
+    @Test
+    public void sortedHistoryShouldBeSmallerThanText() {
+        // a release train: every patch has two release candidates
+        List<SemVer> versions = new ArrayList<>();
+        for(int major = 1; major <= 3; major++) {
+            for(int minor = 0; minor < 10; minor++) {
+                for(int patch = 0; patch < 20; patch++) {
+                    versions.add(SemVer.of(major, minor, patch, "rc", 1));
+                    versions.add(SemVer.of(major, minor, patch, "rc", 2));
+                    versions.add(SemVer.of(major, minor, patch));
+                }
+            }
+        }
+        
+        int text = 0;
+        int compact = 0;
+        for(SemVer version : versions) {
+            text += version.toString().getBytes(StandardCharsets.UTF_8).length + 1;
+            compact += SemVerCodec.encode(version).length;
+        }
+        
+        int listed = SemVerList.encode(versions).length;
+        assertTrue(listed < compact, listed + " >= " + compact);
+        assertTrue(listed * 2 < text, listed + " * 2 >= " + text);
+    }
+    
+    private static List<SemVer> randomVersions(final int size) {
+        final List<SemVer> versions = TestVersions.randomVersions(new Random(size), size, 3, 10, 200);
+        Collections.sort(versions);
+        return versions;
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class SemVerParserTest {
+    
+    /**
+     * The regular expression suggested by the SemVer 2.0.0 specification.
+     */
+    private static final Pattern SPEC = Pattern.compile(
+            "^(0|[1-9]\\d*)\\.(0|[1-9]\\d*)\\.(0|[1-9]\\d*)"
+            + "(?:-((?:0|[1-9]\\d*|\\d*[a-zA-Z-][0-9a-zA-Z-]*)(?:\\.(?:0|[1-9]\\d*|\\d*[a-zA-Z-][0-9a-zA-Z-]*))*))?"
+            + "(?:\\+([0-9a-zA-Z-]+(?:\\.[0-9a-zA-Z-]+)*))?$");
+    
+    private static final String[] VALID = {
+            "0.0.4",
+            "1.2.3",
+            "10.20.30",
+            "1.1.2-prerelease+meta",
+            "1.1.2+meta",
+            "1.1.2+meta-valid",
+            "1.0.0-alpha",
+            "1.0.0-beta",
+            "1.0.0-alpha.beta",
+            "1.0.0-alpha.beta.1",
+            "1.0.0-alpha.1",
+            "1.0.0-alpha0.valid",
+            "1.0.0-alpha.0valid",
+            "1.0.0-alpha-a.b-c-somethinglong+build.1-aef.1-its-okay",
+            "1.0.0-rc.1+build.1",
+            "2.0.0-rc.1+build.123",
+            "1.2.3-beta",
+            "10.2.3-DEV-SNAPSHOT",
+            "1.2.3-SNAPSHOT-123",
+            "1.0.0",
+            "2.0.0",
+            "1.1.7",
+            "2.0.0+build.1848",
+            "2.0.1-alpha.1227",
+            "1.0.0-alpha+beta",
+            "1.2.3----RC-SNAPSHOT.12.9.1--.12+788",
+            "1.2.3----R-S.12.9.1--.12+meta",
+            "1.2.3----RC-SNAPSHOT.12.9.1--.12",
+            "1.0.0+0.build.1-rc.10000aaa-kk-0.1",
+            "1.0.0-0A.is.legal",
+            "2147483647.0.0-99999999999999999999999"
+    };
+    
+    private static final String[] INVALID = {
+            "",
+            "1",
+            "1.2",
+            "1.2.3-0123",
+            "1.2.3-0123.0123",
+            "1.1.2+.123",
+            "+invalid",
+            "-invalid",
+            "-invalid+invalid",
+            "-invalid.01",
+            "alpha",
+            "alpha.beta",
+            "alpha.beta.1",
+            "alpha.1",
+            "alpha+beta",
+            "alpha_beta",
+            "alpha.",
+            "alpha..",
+            "beta",
+            "1.0.0-alpha_beta",
+            "-alpha.",
+            "1.0.0-alpha..",
+            "1.0.0-alpha..1",
+            "1.0.0-alpha...1",
+            "1.0.0-alpha.",
+            "1.0.0-",
+            "1.0.0+",
+            "01.1.1",
+            "1.01.1",
+            "1.1.01",
+            "1.2.3.DEV",
+            "1.2-SNAPSHOT",
+            "1.2.31.2.3----RC-SNAPSHOT.12.09.1--..12+788",
+            "1.2-RC-SNAPSHOT",
+            "-1.0.3-gamma+b7718",
+            "+justmeta",
+            "9.8.7+meta+meta",
+            "9.8.7-whatever+meta+meta",
+            "v1.2.3",
+            " 1.2.3",
+            "1.2.3 ",
+            "1.2.3-\u00e9",
+            "2147483648.0.0"
+    };
+    
+    @Test
+    public void strictShouldAcceptTheSpecificationGrammar() {
+        for(String text : VALID) {
+            assertTrue(SemVerParser.STRICT.isValid(text), text);
+            assertEquals(text, SemVerParser.STRICT.parse(text).toString());
+        }
+        
+        for(String text : INVALID) {
+            assertFalse(SemVerParser.STRICT.isValid(text), text);
+            assertThrows(SemVerException.class, () -> SemVerParser.STRICT.parse(text), text);
+        }
+    }
+    
+    @Test
+    public void strictShouldKeepHyphensInIdentifiers() {
+        final SemVer version = SemVerParser.STRICT.parse("1.2.3----RC-SNAPSHOT.12.9.1--.12+788");
+        
+        assertEquals(Arrays.asList("---RC-SNAPSHOT", "12", "9", "1--", "12"),
+                version.getPreRelease().stream().map(Identifier::getText).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(Identifier.of("788")), version.getBuild());
+        assertEquals(1, SemVerParser.STRICT.parse("1.0.0-alpha-1").getPreRelease().size());
+        assertEquals(2, SemVerParser.LOOSE.parse("1.0.0-alpha-1").getPreRelease().size());
+    }
+    
+    @Test
+    public void strictShouldReportTheError() {
+        assertError(ParseError.LEADING_ZERO, 2, "1.01.1");
+        assertError(ParseError.LEADING_ZERO, 6, "1.2.3-0123");
+        assertError(ParseError.EMPTY_IDENTIFIER, 12, "1.0.0-alpha..1");
+        assertError(ParseError.EMPTY_IDENTIFIER, 6, "1.1.2+.123");
+        assertError(ParseError.INVALID_CHARACTER, 11, "1.0.0-alpha_beta");
+        assertError(ParseError.INVALID_CHARACTER, 0, "v1.2.3");
+        assertError(ParseError.INVALID_CHARACTER, 10, "9.8.7+meta+meta");
+        assertError(ParseError.MISSING_PATCH, 3, "1.2-SNAPSHOT");
+        assertError(ParseError.MISSING_MINOR, 1, "1");
+        assertError(ParseError.TOO_MANY_PARTS, 5, "1.2.3.DEV");
+        assertError(ParseError.NUMBER_TOO_LARGE, 0, "2147483648.0.0");
+        assertError(ParseError.EMPTY, 0, "");
+        assertError(ParseError.NULL, 0, null);
+    }
+    
+    private static void assertError(final ParseError error, final int position, final String text) {
+        final ParseResult result = SemVerParser.STRICT.tryParse(text);
+        
+        assertEquals(error, result.getError(), text);
+        assertEquals(position, result.getPosition(), text);
+    }
+    
+    @Test
+    public void strictShouldMatchTheSpecificationExpression() {
+        final char[] alphabet = "0123a-.+".toCharArray();
+        final Random random = new Random(2018);
+        final ParseResult result = new ParseResult();
+        final StringBuilder buf = new StringBuilder();
+        
+        for(int i = 0; i < 200_000; i++) {
+            buf.setLength(0);
+            for(int len = 1 + random.nextInt(14); len > 0; len--) {
+                buf.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            
+            final String text = buf.toString();
+            final boolean valid = SemVerParser.STRICT.tryParse(text, result);
+            if(result.getError() == ParseError.NUMBER_TOO_LARGE) continue;
+            
+            assertEquals(SPEC.matcher(text).matches(), valid, text);
+            if(valid) {
+                assertEquals(text, result.getVersion().toString());
+            }
+        }
+    }
+    
+    @Test
+    public void lenientShouldAcceptCommonDeviations() {
+        for(String text : VALID) {
+            assertEquals(SemVerParser.STRICT.parse(text), SemVerParser.LENIENT.parse(text), text);
+        }
+        
+        assertEquals(SemVer.of(1, 2, 0), SemVerParser.LENIENT.parse("v1.2"));
+        assertEquals(SemVer.of(1, 0, 0), SemVerParser.LENIENT.parse("1"));
+        assertEquals(SemVer.of(1, 2, 3), SemVerParser.LENIENT.parse(" =v1.2.3\n"));
+        assertEquals(SemVer.of(1, 1, 1), SemVerParser.LENIENT.parse("01.1.01"));
+        assertEquals(SemVer.parse("1.2.0-SNAPSHOT"), SemVerParser.LENIENT.parse("V1.2-SNAPSHOT"));
+        assertEquals(SemVer.parse("1.0.0+build"), SemVerParser.LENIENT.parse("1+build"));
+        assertEquals("1.2.3-01", SemVerParser.LENIENT.parse("1.2.3-01").toString());
+        
+        for(String text : new String[] { "", " ", "v", "alpha", "1.", "1.0.0-alpha..1", "1.0.0-alpha_beta", "9.8.7+meta+meta", "1.2.3.4", "vv1.2.3" }) {
+            assertFalse(SemVerParser.LENIENT.isValid(text), text);
+        }
+    }
+    
+    @Test
+    public void looseShouldMatchSemVerParse() {
+        assertEquals(SemVer.parse("1.0.0-alpha..1"), SemVerParser.LOOSE.parse("1.0.0-alpha..1"));
+        assertEquals(3, SemVerParser.LOOSE.parse("1.0.0-alpha..1").getPreRelease().size());
+        assertEquals(SemVer.of(0, 1, 0), SemVerParser.LOOSE.parse("-0.1.0"));
+        assertTrue(SemVerParser.LOOSE.isValid("1.0.0-alpha_beta"));
+        assertFalse(SemVerParser.LOOSE.isValid("v1.2.3"));
+        assertFalse(SemVerParser.LOOSE.isValid("1.2"));
+        
+        for(String text : VALID) {
+            if(text.indexOf('-') < 0) {
+                assertEquals(SemVerParser.STRICT.parse(text), SemVerParser.LOOSE.parse(text), text);
+            }
+        }
+    }
+    
+    @Test
+    public void parsersShouldBeObtainedByMode() {
+        for(SemVerParser.Mode mode : SemVerParser.Mode.values()) {
+            assertEquals(mode, SemVerParser.of(mode).getMode());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SemVerReaderTest {
+    private final String INPUT = "1.0.0\n  1.2.3-rc.1 \r\n\nnot.a.version\n2.0.0+build.7\n1.2\n3.0.0-beta";
+    
+    private final List<SemVer> VERSIONS = Arrays.asList(
+            SemVer.parse("1.0.0"),
+            SemVer.parse("1.2.3-rc.1"),
+            SemVer.parse("2.0.0+build.7"),
+            SemVer.parse("3.0.0-beta"));
+    
+    private final List<String> ERRORS = Arrays.asList("22:not.a.version", "50:1.2");
+    
+    @Test
+    public void inputStreamShouldBeReadLineByLine() throws IOException {
+        List<SemVer> versions = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        
+        long count = SemVerReader.read(new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.US_ASCII)),
+                versions::add, (offset, line, message) -> errors.add(offset + ":" + line));
+        
+        assertEquals(4, count);
+        assertEquals(VERSIONS, versions);
+        assertEquals(ERRORS, errors);
+    }
+    
+    @Test
+    public void bufferShouldBeReadFromItsPosition() {
+        List<SemVer> versions = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(("garbage\n" + INPUT).getBytes(StandardCharsets.US_ASCII));
+        buffer.position(8);
+        
+        SemVerReader.read(buffer, versions::add, (offset, line, message) -> errors.add(offset + ":" + line));
+        
+        assertEquals(VERSIONS, versions);
+        assertEquals(ERRORS, errors);
+        assertEquals(8, buffer.position());
+    }
+    
+    @Test
+    public void streamShouldReportMalformedLines() {
+        List<String> errors = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(INPUT.getBytes(StandardCharsets.US_ASCII));
+        
+        try(Stream<SemVer> stream = SemVerReader.stream(buffer, (offset, line, message) -> errors.add(offset + ":" + line))) {
+            assertEquals(VERSIONS, stream.collect(Collectors.toList()));
+        }
+        
+        assertEquals(ERRORS, errors);
+    }
+    
+    @Test
+    public void largeInputsShouldBeReadAcrossBuffers() throws IOException {
+        StringBuilder buf = new StringBuilder();
+        List<SemVer> expected = new ArrayList<>();
+        for(int i = 0; i < 100000; i++) {
+            String version = (i % 7) + "." + (i % 13) + "." + i + (i % 5 == 0 ? "-rc." + i : "");
+            buf.append(version).append('\n');
+            expected.add(SemVer.parse(version));
+        }
+        
+        // a malformed line longer than the read buffer
+        buf.append(String.join("", Collections.nCopies(100000, "x"))).append('\n');
+        buf.append("9.9.9");
+        expected.add(SemVer.of(9, 9, 9));
+        byte[] bytes = buf.toString().getBytes(StandardCharsets.US_ASCII);
+        
+        List<SemVer> read = new ArrayList<>();
+        List<Long> errors = new ArrayList<>();
+        SemVerReader.read(new ByteArrayInputStream(bytes), read::add, (offset, line, message) -> errors.add(offset));
+        assertEquals(expected, read);
+        assertEquals(Collections.singletonList((long)bytes.length - 100006), errors);
+        
+        List<SemVer> parallel = SemVerReader.stream(ByteBuffer.wrap(bytes), SemVerReader.ErrorHandler.IGNORE)
+                .parallel()
+                .collect(Collectors.toList());
+        assertEquals(expected, parallel);
+    }
+    
+    @Test
+    public void filesShouldBeMapped(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("versions.txt");
+        Files.write(file, INPUT.getBytes(StandardCharsets.US_ASCII));
+        
+        List<SemVer> versions = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        SemVerReader.read(file, versions::add, (offset, line, message) -> errors.add(offset + ":" + line));
+        
+        assertEquals(VERSIONS, versions);
+        assertEquals(ERRORS, errors);
+        try(Stream<SemVer> stream = SemVerReader.stream(file, SemVerReader.ErrorHandler.IGNORE)) {
+            assertEquals(VERSIONS, stream.parallel().collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.Test;
+
+public class SemVerStatisticsTest {
+    
+    @Test
+    public void eventsShouldBeCounted() {
+        SemVerStatistics statistics = new SemVerStatistics();
+        statistics.onParse();
+        statistics.onParse();
+        statistics.onParseFailure(ParseError.INVALID_NUMBER);
+        statistics.onCacheHit();
+        statistics.onCacheMiss();
+        statistics.onCoreCompare();
+        statistics.onTagCompare();
+        
+        assertEquals(2, statistics.getParseCount());
+        assertEquals(1, statistics.getFailureCount());
+        assertEquals(1, statistics.getFailureCount(ParseError.INVALID_NUMBER));
+        assertEquals(0, statistics.getFailureCount(ParseError.EMPTY));
+        assertEquals(Long.valueOf(1), statistics.getFailureCounts().get("INVALID_NUMBER"));
+        assertEquals(ParseError.values().length, statistics.getFailureCounts().size());
+        assertEquals(1, statistics.getCacheHitCount());
+        assertEquals(1, statistics.getCacheMissCount());
+        assertEquals(1, statistics.getCoreCompareCount());
+        assertEquals(1, statistics.getTagCompareCount());
+        
+        statistics.reset();
+        assertEquals(0, statistics.getParseCount());
+        assertEquals(0, statistics.getFailureCount());
+        assertEquals(0, statistics.getTagCompareCount());
+    }
+    
+    @Test
+    public void statisticsShouldBeExportedOverJmx() throws Exception {
+        SemVerStatistics statistics = new SemVerStatistics();
+        ObjectName name = statistics.register(new ObjectName(SemVerStatistics.OBJECT_NAME + ",name=test"));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            statistics.onParse();
+            statistics.onParseFailure(ParseError.EMPTY);
+            
+            assertEquals(1L, server.getAttribute(name, "ParseCount"));
+            assertEquals(1L, server.getAttribute(name, "FailureCount"));
+            assertTrue(server.getAttribute(name, "FailureCounts") instanceof TabularData);
+            
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "ParseCount"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+    
+    @Test
+    public void hooksShouldReportToInstalledListener() {
+        SemVerStatistics statistics = new SemVerStatistics();
+        if(!SemVerMetrics.isEnabled()) {
+            assertThrows(IllegalStateException.class, () -> SemVerMetrics.install(statistics));
+            return;
+        }
+        
+        SemVerMetrics.install(statistics);
+        try {
+            assertSame(statistics, SemVerMetrics.installed());
+            
+            SemVer.parse("1.0.0");
+            SemVer.tryParse("1.x");
+            SemVerParser.STRICT.isValid("01.0.0");
+            assertThrows(SemVerException.class, () -> SemVer.parse(""));
+            assertEquals(1, statistics.getParseCount());
+            assertEquals(1, statistics.getFailureCount(ParseError.INVALID_NUMBER));
+            assertEquals(1, statistics.getFailureCount(ParseError.LEADING_ZERO));
+            assertEquals(1, statistics.getFailureCount(ParseError.EMPTY));
+            
+            SemVerCache cache = new SemVerCache(16);
+            cache.of(1, 0, 0);
+            cache.of(1, 0, 0);
+            assertEquals(1, statistics.getCacheHitCount());
+            assertEquals(1, statistics.getCacheMissCount());
+            
+            SemVer.of(1, 0, 0).compareTo(SemVer.of(2, 0, 0));
+            SemVer.of(1, 0, 0).compareTo(SemVer.of(1, 0, 0, "alpha"));
+            SemVer.of(1, 0, 0, "alpha").compareTo(SemVer.of(1, 0, 0, "beta"));
+            assertEquals(2, statistics.getCoreCompareCount());
+            assertEquals(1, statistics.getTagCompareCount());
+        } finally {
+            SemVerMetrics.install(SemVerMetrics.NONE);
+        }
+        
+        assertSame(SemVerMetrics.NONE, SemVerMetrics.installed());
+        SemVer.parse("1.0.0");
+        assertEquals(1, statistics.getParseCount());
+    }
+    
+    @Test
+    public void nullListenerShouldThrowException() {
+        assertThrows(NullPointerException.class, () -> SemVerMetrics.install(null));
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SemVerStoreTest {
+    @Test
+    public void lookupsShouldReadMappedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("versions.svs");
+        SemVerStore.writer()
+                .add("lib", SemVer.parse("1.2.0"))
+                .add("lib", SemVer.parse("1.0.0"))
+                .add("lib", SemVer.parse("2.0.0-rc.1"))
+                .add("lib", SemVer.parse("1.2.0"))
+                .addAll("app", Arrays.asList(SemVer.parse("0.1.0"), SemVer.parse("0.2.0-beta")))
+                .add("empty")
+                .writeTo(file);
+        
+        SemVerStore store = SemVerStore.open(file);
+        assertEquals(Arrays.asList("app", "empty", "lib"), store.packages());
+        assertEquals(3, store.packageCount());
+        assertEquals(5, store.versionCount());
+        assertEquals(3, store.size("lib"));
+        assertTrue(store.contains("empty"));
+        
+        assertEquals(SemVer.parse("2.0.0-rc.1"), store.latest("lib"));
+        assertEquals(SemVer.parse("1.2.0"), store.latestStable("lib"));
+        assertNull(store.latestStable("app"));
+        assertEquals(SemVer.parse("1.2.0"), store.floor("lib", SemVer.parse("2.0.0-alpha")));
+        assertEquals(SemVer.parse("2.0.0-rc.1"), store.ceiling("lib", SemVer.parse("2.0.0-alpha")));
+        assertNull(store.ceiling("lib", SemVer.parse("2.0.0")));
+        assertNull(store.floor("lib", SemVer.parse("0.9.0")));
+        assertEquals(Arrays.asList(SemVer.parse("1.0.0"), SemVer.parse("1.2.0")),
+                store.range("lib", SemVer.parse("1.0.0"), SemVer.parse("2.0.0-rc.1")));
+        assertEquals("[0.1.0, 0.2.0-beta]", store.versions("app").toString());
+    }
+    
+    @Test
+    public void unknownPackageShouldHaveNoVersions(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("empty.svs");
+        SemVerStore.writer().writeTo(file);
+        
+        SemVerStore store = SemVerStore.open(file);
+        assertTrue(store.packages().isEmpty());
+        assertFalse(store.contains("none"));
+        assertEquals(0, store.size("none"));
+        assertNull(store.latest("none"));
+        assertNull(store.latestStable("none"));
+        assertNull(store.floor("none", SemVer.parse("1.0.0")));
+        assertNull(store.ceiling("none", SemVer.parse("1.0.0")));
+        assertEquals(Collections.emptyList(), store.range("none", SemVer.parse("1.0.0"), SemVer.parse("2.0.0")));
+        assertTrue(store.versions("none").isEmpty());
+    }
+    
+    @Test
+    public void invalidFilesShouldBeRejected(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("invalid.svs");
+        Files.write(file, "1.0.0\n".getBytes("US-ASCII"));
+        assertThrows(IOException.class, () -> SemVerStore.open(file));
+        
+        SemVerStore.writer().add("lib", SemVer.parse("1.0.0")).writeTo(file);
+        byte[] bytes = Files.readAllBytes(file);
+        assertThrows(IOException.class, () -> SemVerStore.open(ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice()));
+    }
+    
+    @Test
+    public void lookupsShouldMatchVersionIndex(@TempDir Path dir) throws IOException {
+        final Random random = new Random(2018);
+        final SemVerStore.Writer writer = SemVerStore.writer();
+        final List<VersionIndex> indexes = new ArrayList<>();
+        for(int p = 0; p < 20; p++) {
+            // big enough packages to use the block index
+            final List<SemVer> versions = TestVersions.randomVersions(random, random.nextInt(p * 40 + 1), 3, 4, 5);
+            writer.addAll("package" + p, versions);
+            
+            // the store keeps equal versions once, ordered by build metadata
+            final TreeSet<SemVer> distinct = new TreeSet<>(SemVer.BUILD_ORDER);
+            distinct.addAll(versions);
+            indexes.add(VersionIndex.of(distinct));
+        }
+        
+        Path file = dir.resolve("random.svs");
+        writer.writeTo(file);
+        SemVerStore store = SemVerStore.open(file);
+        
+        final List<SemVer> probes = TestVersions.randomVersions(random, 200, 3, 4, 5);
+        for(int p = 0; p < 20; p++) {
+            final String name = "package" + p;
+            final VersionIndex index = indexes.get(p);
+            assertEquals(index.size(), store.size(name));
+            assertEquals(index, store.versions(name));
+            assertEquals(index.latest(), store.latest(name));
+            assertEquals(index.latestStable(), store.latestStable(name));
+            for(int i = 0; i < probes.size(); i++) {
+                final SemVer probe = probes.get(i);
+                final SemVer other = probes.get((i + 1) % probes.size());
+                assertEquals(index.floor(probe), store.floor(name, probe), name + " floor " + probe);
+                assertEquals(index.ceiling(probe), store.ceiling(name, probe), name + " ceiling " + probe);
+                assertEquals(index.range(probe, other), store.range(name, probe, other), name + " range " + probe);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SemVerTableTest {
+    private final List<SemVer> VERSIONS = Arrays.asList(
+            SemVer.parse("1.0.0-beta.11"),
+            SemVer.parse("1.0.0+20130313144700"),
+            SemVer.parse("1.0.0-alpha"),
+            SemVer.parse("1.0.0-beta+exp.sha.5114f85"),
+            SemVer.parse("1.0.0-alpha.1"),
+            SemVer.parse("1.0.0-rc.1"),
+            SemVer.parse("1.0.0-beta.2"),
+            SemVer.parse("0.9.0")
+    );
+    
+    @Test
+    public void rowsShouldMaterializeTheSameVersions() {
+        SemVerTable table = new SemVerTable();
+        table.addAll(VERSIONS);
+        
+        assertEquals(VERSIONS.size(), table.size());
+        for(int i = 0; i < VERSIONS.size(); i++) {
+            assertEquals(VERSIONS.get(i), table.get(i));
+            assertEquals(VERSIONS.get(i).toString(), table.get(i).toString());
+        }
+    }
+    
+    @Test
+    public void identifiersShouldBeStoredOnce() {
+        SemVerTable table = new SemVerTable(0);
+        for(int i = 0; i < 1000; i++) {
+            table.add(SemVer.of(1, 0, i, "beta", 1));
+        }
+        
+        assertEquals(1000, table.size());
+        assertEquals(2, table.dictionarySize());
+    }
+    
+    @Test
+    public void sortShouldFollowPrecedence() {
+        Random random = new Random(3);
+        List<SemVer> versions = new ArrayList<>();
+        for(int i = 0; i < 2000; i++) {
+            SemVer v = SemVer.of(random.nextInt(3), random.nextInt(3), random.nextInt(3));
+            versions.add(random.nextBoolean() ? v : SemVer.of(v.getMajor(), v.getMinor(), v.getPatch(),
+                    Arrays.asList(random.nextBoolean() ? "rc" : "beta", random.nextInt(12)), Collections.emptyList()));
+        }
+        versions.addAll(VERSIONS);
+        
+        SemVerTable table = new SemVerTable();
+        table.addAll(versions);
+        table.sort();
+        Collections.sort(versions);
+        
+        for(int i = 0; i < versions.size(); i++) {
+            assertEquals(versions.get(i).toString(), table.get(i).toString());
+            if(i > 0) assertTrue(table.compare(i - 1, i) <= 0);
+        }
+    }
+    
+    @Test
+    public void cursorShouldReadRowsInPlace() {
+        SemVerTable table = new SemVerTable();
+        table.addAll(VERSIONS);
+        SemVerTable.Cursor cursor = table.cursor();
+        
+        assertTrue(cursor.next());
+        assertEquals(1, cursor.getMajor());
+        assertEquals(2, cursor.getPreReleaseCount());
+        assertEquals("beta", cursor.getPreRelease(0));
+        assertEquals("11", cursor.getPreRelease(1));
+        assertEquals(0, cursor.getBuildCount());
+        assertTrue(cursor.isPreRelease());
+        
+        cursor.moveTo(3);
+        assertEquals("5114f85", cursor.getBuild(2));
+        assertEquals(VERSIONS.get(3), cursor.toSemVer());
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.getBuild(3));
+        
+        cursor.moveTo(7);
+        assertFalse(cursor.next());
+        assertThrows(IndexOutOfBoundsException.class, cursor::getMajor);
+    }
+    
+    @Test
+    public void filterShouldKeepMatchingRows() {
+        SemVerTable table = new SemVerTable();
+        table.addAll(VERSIONS);
+        
+        SemVerTable betas = table.filter(row -> row.getPreReleaseCount() > 0 && row.getPreRelease(0).equals("beta"));
+        betas.sort();
+        
+        assertEquals(3, betas.size());
+        assertEquals(SemVer.parse("1.0.0-beta+exp.sha.5114f85"), betas.get(0));
+        assertEquals(SemVer.parse("1.0.0-beta.11"), betas.get(2));
+        assertEquals(table.dictionarySize(), betas.dictionarySize());
+    }
+}
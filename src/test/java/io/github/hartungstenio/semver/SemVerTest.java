@@ -2,9 +2,14 @@ package io.github.hartungstenio.semver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.stream.IntStream;
@@ -87,4 +92,159 @@ public class SemVerTest {
             assertEquals(SemVer.parse(ASCENDING_LIST_OF_VERSION_STRINGS[i]), ASCENDING_LIST_OF_VERSIONS[i], ASCENDING_LIST_OF_VERSION_STRINGS[i]);
         });
     }
+    
+    @Test
+    public void preReleaseShouldPrecedeNormalVersionInInitialDevelopment() {
+        assertTrue(SemVer.parse("0.1.0-alpha").compareTo(SemVer.parse("0.1.0")) < 0);
+        assertTrue(SemVer.parse("0.1.0").compareTo(SemVer.parse("0.1.0-alpha")) > 0);
+    }
+    
+    @Test
+    public void numericTagsShouldPrecedeAlphanumericTags() {
+        SemVer numeric = SemVer.parse("1.0.0-1");
+        SemVer alphanumeric = SemVer.parse("1.0.0-alpha");
+        
+        assertTrue(numeric.compareTo(alphanumeric) < 0);
+        assertTrue(alphanumeric.compareTo(numeric) > 0);
+        assertTrue(SemVer.parse("1.0.0-0").compareTo(alphanumeric) < 0);
+        assertTrue(alphanumeric.compareTo(SemVer.parse("1.0.0-0")) > 0);
+    }
+    
+    @Test
+    public void bigNumbersShouldBeComparedNumerically() {
+        assertTrue(SemVer.of(2100000, 0, 0).compareTo(SemVer.of(2, 2100000, 0)) > 0);
+        assertTrue(SemVer.of(1, 0, 20130313).compareTo(SemVer.of(1, 0, 9)) > 0);
+        assertTrue(SemVer.of(Integer.MAX_VALUE, 0, 0).compareTo(SemVer.of(1, 0, 0)) > 0);
+        assertTrue(SemVer.parse("1.0.0-rc.99999999999999999999").compareTo(SemVer.parse("1.0.0-rc.100000000000000000000")) < 0);
+        assertTrue(SemVer.parse("1.0.0-rc.3000000000").compareTo(SemVer.parse("1.0.0-rc.99999999999999999999")) < 0);
+        assertEquals(0, SemVer.parse("1.0.0-rc.3000000000").compareTo(SemVer.of(1, 0, 0, "rc", 3000000000L)));
+    }
+    
+    @Test
+    public void compareToShouldDecideEachTier() {
+        SemVer release = SemVer.parse("1.2.3+build.1");
+        SemVer rc = SemVer.parse("1.2.3-rc.1+build.2");
+        
+        assertEquals(0, release.compareTo(SemVer.parse("1.2.3")));
+        assertEquals(0, rc.compareTo(rc.withBuild("build", 3)));
+        assertTrue(release.compareTo(rc) > 0);
+        assertTrue(rc.compareTo(release) < 0);
+        assertTrue(rc.compareTo(SemVer.parse("1.2.3-rc.1.1")) < 0);
+        assertTrue(SemVer.parse("1.2.3-rc.2").compareTo(rc) > 0);
+        assertTrue(SemVer.of(Integer.MAX_VALUE, 0, 0).compareTo(SemVer.of(Integer.MAX_VALUE, 0, 0, "rc")) > 0);
+        assertTrue(SemVer.of(0, 0, Integer.MAX_VALUE).compareTo(SemVer.of(0, 0, 0)) > 0);
+    }
+    
+    @Test
+    public void equalsShouldTakeBuildIntoAccount() {
+        SemVer version = SemVer.parse("1.0.0-beta+exp.sha.5114f85");
+        SemVer same = SemVer.of(1, 0, 0, Arrays.asList("beta"), Arrays.asList("exp", "sha", "5114f85"));
+        SemVer otherBuild = SemVer.parse("1.0.0-beta+exp.sha.5114f86");
+        
+        assertEquals(version, same);
+        assertEquals(version.hashCode(), same.hashCode());
+        assertFalse(version.equals(otherBuild));
+        assertEquals(0, version.compareTo(otherBuild));
+        assertFalse(SemVer.parse("1.0.0-rc.01").equals(SemVer.parse("1.0.0-rc.1")));
+    }
+    
+    @Test
+    public void buildOrderShouldBeConsistentWithEquals() {
+        for(int i = 0; i < ASCENDING_LIST_OF_VERSIONS.length; i++) {
+            for(int j = 0; j < ASCENDING_LIST_OF_VERSIONS.length; j++) {
+                int cmp = SemVer.BUILD_ORDER.compare(ASCENDING_LIST_OF_VERSIONS[i], ASCENDING_LIST_OF_VERSIONS[j]);
+                assertEquals(Integer.signum(Integer.compare(i, j)), Integer.signum(cmp));
+                assertEquals(cmp == 0, ASCENDING_LIST_OF_VERSIONS[i].equals(ASCENDING_LIST_OF_VERSIONS[j]));
+            }
+        }
+        
+        assertEquals(0, SemVer.PRECEDENCE_ORDER.compare(SemVer.parse("1.0.0+a"), SemVer.parse("1.0.0+b")));
+        assertTrue(SemVer.BUILD_ORDER.compare(SemVer.parse("1.0.0+a"), SemVer.parse("1.0.0+b")) < 0);
+        assertTrue(SemVer.BUILD_ORDER.compare(SemVer.parse("1.0.0"), SemVer.parse("1.0.0+a")) < 0);
+    }
+    
+    @Test
+    public void toStringShouldBeStable() {
+        SemVer version = SemVer.parse("1.0.0-alpha.1+build.5");
+        
+        assertEquals("1.0.0-alpha.1+build.5", version.toString());
+        assertTrue(version.toString() == version.toString());
+    }
+    
+    @Test
+    public void formatToShouldMatchToString() throws IOException {
+        for(String text : new String[] { "0.0.0", "1.10.100", "2147483647.0.9", "1.0.0-alpha.1+build.5", "1.0.0+sha.0abc", "1.0.0-rc.10" }) {
+            SemVer version = SemVer.parse(text);
+            assertEquals(text.length(), version.formattedLength(), text);
+            assertEquals(text, version.formatTo(new StringBuilder()).toString());
+            assertEquals("v" + text, version.formatTo((Appendable)new StringBuilder("v")).toString());
+            
+            ByteBuffer buffer = ByteBuffer.allocate(text.length() + 1);
+            version.formatTo(buffer);
+            assertEquals(text.length(), buffer.position());
+            assertEquals(text, new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+            
+            assertEquals(text, version.toString());
+            assertEquals(text.length(), version.formattedLength(), text);
+            assertEquals(text, version.formatTo(new StringBuilder()).toString());
+        }
+    }
+    
+    @Test
+    public void formatToSmallBufferShouldWriteNothing() {
+        ByteBuffer buffer = ByteBuffer.allocate(5);
+        
+        assertThrows(BufferOverflowException.class, () -> SemVer.parse("1.0.0-rc").formatTo(buffer));
+        assertEquals(0, buffer.position());
+    }
+    
+    @Test
+    public void formatToBufferShouldRejectNonAscii() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        
+        for(String text : new String[] { "1.0.0-caf\u00e9", "1.0.0-rc.\u0663", "1.0.0+\u00e9" }) {
+            SemVer version = SemVerParser.LOOSE.parse(text);
+            assertThrows(SemVerException.class, () -> version.formatTo(buffer), text);
+            assertEquals(0, buffer.position(), text);
+            assertEquals(0, buffer.array()[0], text);
+            assertEquals(text, version.formatTo(new StringBuilder()).toString());
+        }
+    }
+    
+    @Test
+    public void nextVersionsShouldFollowNpmRules() {
+        assertEquals(SemVer.parse("2.0.0"), SemVer.parse("1.4.2-rc.1+b42").nextMajor());
+        assertEquals(SemVer.parse("2.0.0"), SemVer.parse("2.0.0-rc.1").nextMajor());
+        assertEquals(SemVer.parse("1.5.0"), SemVer.parse("1.4.2+b42").nextMinor());
+        assertEquals(SemVer.parse("1.5.0"), SemVer.parse("1.5.0-beta").nextMinor());
+        assertEquals(SemVer.parse("1.6.0"), SemVer.parse("1.5.1-beta").nextMinor());
+        assertEquals(SemVer.parse("1.4.3"), SemVer.parse("1.4.2").nextPatch());
+        assertEquals(SemVer.parse("1.4.2"), SemVer.parse("1.4.2-SNAPSHOT").nextPatch());
+        assertThrows(SemVerException.class, () -> SemVer.of(1, 0, Integer.MAX_VALUE).nextPatch());
+    }
+    
+    @Test
+    public void preReleaseShouldBeIncremented() {
+        assertEquals("1.0.1-0", SemVer.parse("1.0.0+b42").incrementPreRelease().toString());
+        assertEquals("1.0.0-rc.2", SemVer.parse("1.0.0-rc.1").incrementPreRelease().toString());
+        assertEquals("1.0.0-rc.2.beta", SemVer.parse("1.0.0-rc.1.beta").incrementPreRelease().toString());
+        assertEquals("1.0.0-beta.0", SemVer.parse("1.0.0-beta").incrementPreRelease().toString());
+        assertEquals("1.0.0-rc.2", SemVer.parse("1.0.0-rc.1").incrementPreRelease("rc").toString());
+        assertEquals("1.0.0-rc.0", SemVer.parse("1.0.0-beta.3").incrementPreRelease("rc").toString());
+        assertEquals("1.0.1-rc.0", SemVer.parse("1.0.0").incrementPreRelease("rc").toString());
+    }
+    
+    @Test
+    public void derivedVersionsShouldShareTags() {
+        SemVer version = SemVer.parse("1.0.0-rc.1+b42");
+        
+        SemVer released = version.release();
+        assertEquals(SemVer.parse("1.0.0"), released);
+        assertSame(released, released.release());
+        assertEquals(SemVer.parse("1.0.0-beta.2+b42"), version.withPreRelease("beta", 2));
+        assertEquals(SemVer.parse("1.0.0+b42"), version.withPreRelease());
+        assertEquals(SemVer.parse("1.0.0-rc.1+b43.sha"), version.withBuild("b43", "sha"));
+        assertSame(version.getPreRelease(0), version.withBuild("b43").getPreRelease(0));
+        assertSame(version.getBuild(0), version.withPreRelease("beta").getBuild(0));
+    }
 }
@@ -0,0 +1,221 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.SortedMap;
+
+import org.junit.jupiter.api.Test;
+
+public class SemVersTest {
+    private static SemVer[] randomVersions(final int size, final boolean big) {
+        final Random random = new Random(size);
+        final SemVer[] versions = new SemVer[size];
+        for(int i = 0; i < size; i++) {
+            final int major = big && random.nextInt(50) == 0 ? 3_000_000 + random.nextInt(3) : random.nextInt(5);
+            final int minor = random.nextInt(20);
+            final int patch = big && random.nextInt(50) == 0 ? Integer.MAX_VALUE - random.nextInt(3) : random.nextInt(300);
+            // a distinct build for each, to tell equivalent versions apart
+            versions[i] = SemVer.of(major, minor, patch, TestVersions.randomTags(random), Arrays.asList(Integer.toString(i)));
+        }
+        
+        return versions;
+    }
+    
+    private static void assertSortedLikeArraysSort(final SemVer[] versions) {
+        final SemVer[] expected = versions.clone();
+        Arrays.sort(expected);
+        
+        SemVers.parallelSort(versions);
+        
+        for(int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], versions[i]);
+        }
+    }
+    
+    @Test
+    public void parallelSortShouldBeStable() {
+        assertSortedLikeArraysSort(randomVersions(100, false));
+        assertSortedLikeArraysSort(randomVersions(200_000, false));
+    }
+    
+    @Test
+    public void parallelSortShouldHandleBigNumbers() {
+        assertSortedLikeArraysSort(randomVersions(100_000, true));
+    }
+    
+    @Test
+    public void parallelSortShouldHandleEqualCores() {
+        final SemVer[] versions = new SemVer[50_000];
+        for(int i = 0; i < versions.length; i++) {
+            versions[i] = SemVer.of(1, 0, 0, Arrays.asList("rc", versions.length - i), Collections.emptyList());
+        }
+        
+        assertSortedLikeArraysSort(versions);
+    }
+    
+    @Test
+    public void parallelSortShouldSortRange() {
+        final SemVer[] versions = randomVersions(30_000, false);
+        final SemVer[] expected = versions.clone();
+        Arrays.sort(expected, 10, 29_000);
+        
+        SemVers.parallelSort(versions, 10, 29_000);
+        
+        assertEquals(Arrays.asList(expected), Arrays.asList(versions));
+    }
+    
+    @Test
+    public void parallelSortShouldSortLists() {
+        final List<SemVer> versions = new ArrayList<>(Arrays.asList(randomVersions(20_000, true)));
+        final List<SemVer> expected = new ArrayList<>(versions);
+        Collections.sort(expected);
+        
+        SemVers.parallelSort(versions);
+        
+        assertEquals(expected, versions);
+    }
+    
+    @Test
+    public void sortShouldFollowComparator() {
+        final SemVer[] versions = randomVersions(20_000, true);
+        final SemVer[] expected = versions.clone();
+        Arrays.sort(expected, SemVer.BUILD_ORDER.reversed());
+        
+        SemVers.sort(versions, SemVer.BUILD_ORDER.reversed());
+        assertEquals(Arrays.asList(expected), Arrays.asList(versions));
+        
+        Arrays.sort(expected);
+        SemVers.sort(versions, SemVer.PRECEDENCE_ORDER);
+        assertEquals(Arrays.asList(expected), Arrays.asList(versions));
+        
+        Collections.shuffle(Arrays.asList(versions), new Random(1));
+        final SemVer[] shuffled = versions.clone();
+        Arrays.sort(shuffled);
+        SemVers.sort(versions, null);
+        assertEquals(Arrays.asList(shuffled), Arrays.asList(versions));
+    }
+    
+    @Test
+    public void maxAndMinShouldReturnTheFirstExtreme() {
+        final SemVer[] versions = randomVersions(100_000, true);
+        final SemVer[] sorted = versions.clone();
+        Arrays.sort(sorted);
+        
+        SemVer max = sorted[sorted.length - 1];
+        int first = sorted.length - 1;
+        while(first > 0 && sorted[first - 1].compareTo(max) == 0) {
+            first--;
+        }
+        
+        assertSame(sorted[first], SemVers.max(versions));
+        assertSame(sorted[0], SemVers.min(versions));
+        assertSame(sorted[0], SemVers.min(Arrays.asList(versions)));
+        assertThrows(NoSuchElementException.class, () -> SemVers.max(new SemVer[0]));
+    }
+    
+    @Test
+    public void latestPerMajorShouldKeepTheNewestOfEachLine() {
+        final SemVer[] versions = randomVersions(100_000, false);
+        final SemVer[] sorted = versions.clone();
+        Arrays.sort(sorted);
+        
+        final SortedMap<Integer, List<SemVer>> latest = SemVers.latestPerMajor(versions, 3);
+        
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), new ArrayList<>(latest.keySet()));
+        for(int major = 0; major < 5; major++) {
+            final List<SemVer> expected = new ArrayList<>();
+            for(int i = sorted.length - 1; i >= 0 && expected.size() < 3; i--) {
+                if(sorted[i].getMajor() == major) expected.add(sorted[i]);
+            }
+            
+            final List<SemVer> actual = latest.get(major);
+            assertEquals(3, actual.size());
+            for(int i = 0; i < 3; i++) {
+                assertEquals(0, expected.get(i).compareTo(actual.get(i)));
+            }
+        }
+        
+        assertThrows(IllegalArgumentException.class, () -> SemVers.latestPerMajor(versions, 0));
+    }
+    
+    @Test
+    public void upgradesShouldMatchPairwiseChecks() {
+        final Random random = new Random(25);
+        final Map<String, List<SemVer>> available = new HashMap<>();
+        final Map<String, SemVer> thresholds = new HashMap<>();
+        for(int p = 0; p < 40; p++) {
+            final String name = "package" + p;
+            final SemVer[] versions = randomVersions(random.nextInt(300), false);
+            available.put(name, Arrays.asList(Arrays.copyOf(versions, versions.length / 2)));
+            if(p % 3 != 0) thresholds.put(name, versions.length > 0 ? versions[versions.length - 1] : SemVer.of(1, 0, 0));
+        }
+        
+        // more entries than a single task handles, some of packages without available versions
+        final String[] packages = new String[30_000];
+        final SemVer[] installed = new SemVer[packages.length];
+        final SemVer[] pool = randomVersions(500, false);
+        for(int i = 0; i < packages.length; i++) {
+            packages[i] = "package" + random.nextInt(45);
+            installed[i] = random.nextBoolean() ? pool[random.nextInt(pool.length)] : SemVer.of(random.nextInt(5), random.nextInt(20), random.nextInt(300));
+        }
+        
+        final SemVers.Upgrade[] upgrades = SemVers.upgrades(packages, installed, available, thresholds);
+        
+        assertEquals(packages.length, upgrades.length);
+        for(int i = 0; i < packages.length; i++) {
+            final SemVer version = installed[i];
+            final SemVer threshold = thresholds.get(packages[i]);
+            SemVer latest = null;
+            SemVer compatible = null;
+            SemVer minimal = null;
+            for(SemVer candidate : available.getOrDefault(packages[i], Collections.<SemVer>emptyList())) {
+                if(latest == null || candidate.compareTo(latest) >= 0) latest = candidate;
+                if(candidate.isCompatibleWith(version) && (compatible == null || candidate.compareTo(compatible) >= 0)) compatible = candidate;
+                if(candidate.compareTo(version) > 0 && (threshold == null || candidate.compareTo(threshold) >= 0)
+                        && (minimal == null || candidate.compareTo(minimal) < 0)) {
+                    minimal = candidate;
+                }
+            }
+            
+            final SemVers.Upgrade upgrade = upgrades[i];
+            assertEquals(version, upgrade.getInstalled());
+            assertSame(latest, upgrade.getLatest(), version.toString());
+            assertSame(compatible, upgrade.getLatestCompatible(), version.toString());
+            assertSame(minimal, upgrade.getMinimalUpgrade(), version.toString());
+        }
+    }
+    
+    @Test
+    public void upgradesShouldFollowCompatibilityRules() {
+        final Map<String, List<SemVer>> available = new HashMap<>();
+        available.put("lib", Arrays.asList(SemVer.parse("0.9.0"), SemVer.parse("1.2.0"), SemVer.parse("1.2.3"), SemVer.parse("1.4.1"),
+                SemVer.parse("2.0.0-rc.1"), SemVer.parse("2.1.0")));
+        final Map<String, SemVer> thresholds = Collections.singletonMap("lib", SemVer.parse("1.2.3"));
+        
+        final SemVers.Upgrade[] upgrades = SemVers.upgrades(new String[] { "lib", "lib", "lib", "other" },
+                new SemVer[] { SemVer.parse("1.2.0"), SemVer.parse("0.9.0"), SemVer.parse("1.5.0"), SemVer.parse("1.0.0") },
+                available, thresholds);
+        
+        assertEquals("1.2.0 -> latest 2.1.0, compatible 1.4.1, minimal 1.2.3", upgrades[0].toString());
+        assertEquals(SemVer.parse("0.9.0"), upgrades[1].getLatestCompatible());
+        assertEquals(SemVer.parse("1.2.3"), upgrades[1].getMinimalUpgrade());
+        assertNull(upgrades[2].getLatestCompatible());
+        assertEquals(SemVer.parse("2.0.0-rc.1"), upgrades[2].getMinimalUpgrade());
+        assertNull(upgrades[3].getLatest());
+        assertNull(upgrades[3].getMinimalUpgrade());
+        
+        assertThrows(IllegalArgumentException.class, () -> SemVers.upgrades(new String[1], new SemVer[0], available, thresholds));
+        assertThrows(NullPointerException.class, () -> SemVers.upgrades(new String[] { "lib" }, new SemVer[1], available, thresholds));
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.hartungstenio.semver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random versions for the tests.
+ */
+final class TestVersions {
+    /**
+     * Pre-release tags, alphanumeric and numeric, with a number too big for a {@code long}.
+     */
+    static final String[] TAGS = { "alpha", "beta", "rc", "SNAPSHOT", "0", "1", "2", "10", "99999999999999999999" };
+    
+    private TestVersions() {
+    }
+    
+    /**
+     * Generates up to two pre-release tags.
+     */
+    static List<String> randomTags(final Random random) {
+        final List<String> tags = new ArrayList<>();
+        for(int t = random.nextInt(3); t > 0; t--) {
+            tags.add(TAGS[random.nextInt(TAGS.length)]);
+        }
+        
+        return tags;
+    }
+    
+    /**
+     * Generates versions with MAJOR, MINOR and PATCH versions below the bounds, so small
+     * bounds give many equivalent versions. A fourth of them have build metadata.
+     */
+    static List<SemVer> randomVersions(final Random random, final int size, final int majors, final int minors, final int patches) {
+        final List<SemVer> versions = new ArrayList<>(size);
+        for(int i = 0; i < size; i++) {
+            final List<String> preRelease = randomTags(random);
+            final List<String> build = random.nextInt(4) == 0 ? Collections.singletonList("b" + random.nextInt(3)) : Collections.<String>emptyList();
+            versions.add(SemVer.of(random.nextInt(majors), random.nextInt(minors), random.nextInt(patches), preRelease, build));
+        }
+        
+        return versions;
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class VersionIndexTest {
+    private final VersionIndex INDEX = VersionIndex.of(
+            SemVer.parse("2.0.0-rc.1"),
+            SemVer.parse("1.0.0"),
+            SemVer.parse("0.9.0"),
+            SemVer.parse("1.2.0"),
+            SemVer.parse("1.10.3"),
+            SemVer.parse("3.0.0-alpha"),
+            SemVer.parse("1.0.0-beta"),
+            SemVer.parse("2.0.0")
+    );
+    
+    @Test
+    public void versionsShouldBeSorted() {
+        assertEquals("[0.9.0, 1.0.0-beta, 1.0.0, 1.2.0, 1.10.3, 2.0.0-rc.1, 2.0.0, 3.0.0-alpha]", INDEX.toString());
+        assertEquals(8, INDEX.size());
+        assertEquals(SemVer.parse("0.9.0"), INDEX.earliest());
+        assertEquals(SemVer.parse("3.0.0-alpha"), INDEX.latest());
+    }
+    
+    @Test
+    public void emptyIndexShouldHaveNoAnswers() {
+        VersionIndex empty = VersionIndex.empty();
+        
+        assertTrue(empty.isEmpty());
+        assertNull(empty.latest());
+        assertNull(empty.latestStable());
+        assertNull(empty.latestWithMajor(1));
+        assertNull(empty.floor(SemVer.of(1, 0, 0)));
+        assertNull(empty.ceiling(SemVer.of(1, 0, 0)));
+        assertTrue(empty.range(SemVer.of(0, 0, 0), SemVer.of(9, 0, 0)).isEmpty());
+    }
+    
+    @Test
+    public void floorAndCeilingShouldFindNeighbours() {
+        assertEquals(SemVer.parse("1.10.3"), INDEX.floor(SemVer.parse("1.11.0")));
+        assertEquals(SemVer.parse("2.0.0"), INDEX.floor(SemVer.parse("2.0.0")));
+        assertEquals(SemVer.parse("2.0.0-rc.1"), INDEX.floor(SemVer.parse("2.0.0-rc.2")));
+        assertNull(INDEX.floor(SemVer.parse("0.1.0")));
+        
+        assertEquals(SemVer.parse("1.0.0-beta"), INDEX.ceiling(SemVer.parse("1.0.0-alpha")));
+        assertEquals(SemVer.parse("2.0.0"), INDEX.ceiling(SemVer.parse("2.0.0")));
+        assertNull(INDEX.ceiling(SemVer.parse("3.0.0")));
+        
+        assertEquals(SemVer.parse("2.0.0-rc.1"), INDEX.lower(SemVer.parse("2.0.0")));
+        assertEquals(SemVer.parse("3.0.0-alpha"), INDEX.higher(SemVer.parse("2.0.0")));
+    }
+    
+    @Test
+    public void latestQueriesShouldSkipOtherVersions() {
+        assertEquals(SemVer.parse("2.0.0"), INDEX.latestStable());
+        assertEquals(SemVer.parse("1.10.3"), INDEX.latestWithMajor(1));
+        assertEquals(SemVer.parse("3.0.0-alpha"), INDEX.latestWithMajor(3));
+        assertNull(INDEX.latestWithMajor(4));
+    }
+    
+    @Test
+    public void latestCompatibleShouldFollowIsCompatibleWith() {
+        assertEquals(SemVer.parse("1.10.3"), INDEX.latestCompatibleWith(SemVer.parse("1.0.0")));
+        assertEquals(SemVer.parse("1.10.3"), INDEX.latestCompatibleWith(SemVer.parse("1.10.3")));
+        assertNull(INDEX.latestCompatibleWith(SemVer.parse("1.11.0")));
+        assertEquals(SemVer.parse("2.0.0"), INDEX.latestCompatibleWith(SemVer.parse("2.0.0-alpha")));
+        assertEquals(SemVer.parse("0.9.0"), INDEX.latestCompatibleWith(SemVer.parse("0.9.0")));
+        assertNull(INDEX.latestCompatibleWith(SemVer.parse("0.8.0")));
+        assertNull(INDEX.latestCompatibleWith(SemVer.parse("0.9.1")));
+    }
+    
+    @Test
+    public void containsAndWithoutShouldMatchEqualVersions() {
+        VersionIndex index = INDEX.with(SemVer.parse("1.2.0+build.1"));
+        
+        assertTrue(index.contains(SemVer.parse("1.2.0")));
+        assertTrue(index.contains(SemVer.parse("1.2.0+build.1")));
+        assertFalse(index.contains(SemVer.parse("1.2.0+build.2")));
+        assertFalse(index.contains(SemVer.parse("1.3.0")));
+        
+        assertEquals(INDEX, index.without(SemVer.parse("1.2.0+build.1")));
+        assertEquals("[0.9.0, 1.0.0-beta, 1.0.0, 1.2.0+build.1, 1.10.3, 2.0.0-rc.1, 2.0.0, 3.0.0-alpha]",
+                index.without(SemVer.parse("1.2.0")).toString());
+        assertSame(index, index.without(SemVer.parse("1.3.0")));
+    }
+    
+    @Test
+    public void rangeShouldIncludeLowerBoundOnly() {
+        assertEquals(Arrays.asList(SemVer.parse("1.0.0"), SemVer.parse("1.2.0"), SemVer.parse("1.10.3")),
+                INDEX.range(SemVer.parse("1.0.0"), SemVer.parse("2.0.0-rc.1")));
+        assertTrue(INDEX.range(SemVer.parse("2.0.0"), SemVer.parse("1.0.0")).isEmpty());
+    }
+    
+    @Test
+    public void builderShouldMergeNewVersions() {
+        VersionIndex extended = INDEX.toBuilder()
+                .add(SemVer.parse("1.5.0"))
+                .add(SemVer.parse("0.1.0"))
+                .build();
+        
+        assertEquals(10, extended.size());
+        assertEquals(SemVer.parse("0.1.0"), extended.earliest());
+        assertEquals(SemVer.parse("1.5.0"), extended.floor(SemVer.parse("1.9.0")));
+        assertEquals(8, INDEX.size());
+        assertSame(INDEX, INDEX.toBuilder().build());
+        assertEquals(extended, INDEX.with(SemVer.parse("1.5.0")).with(SemVer.parse("0.1.0")));
+    }
+    
+    @Test
+    public void lookupsShouldMatchLinearScan() {
+        Random random = new Random(42);
+        List<SemVer> versions = new ArrayList<>();
+        for(int i = 0; i < 500; i++) {
+            versions.add(randomVersion(random));
+        }
+        
+        VersionIndex index = VersionIndex.of(versions);
+        Collections.sort(versions);
+        for(int i = 0; i < 500; i++) {
+            SemVer key = randomVersion(random);
+            List<SemVer> notNewer = versions.stream().filter(v -> v.compareTo(key) <= 0).collect(Collectors.toList());
+            List<SemVer> notOlder = versions.stream().filter(v -> v.compareTo(key) >= 0).collect(Collectors.toList());
+            
+            assertEquals(notNewer.isEmpty() ? null : notNewer.get(notNewer.size() - 1), index.floor(key), key.toString());
+            assertEquals(notOlder.isEmpty() ? null : notOlder.get(0), index.ceiling(key), key.toString());
+        }
+    }
+    
+    private static SemVer randomVersion(Random random) {
+        int major = random.nextInt(4) == 0 ? 3000000 + random.nextInt(3) : random.nextInt(4);
+        SemVer version = SemVer.of(major, random.nextInt(4), random.nextInt(4));
+        return random.nextBoolean() ? version : SemVer.of(major, version.getMinor(), version.getPatch(), "rc", random.nextInt(3));
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class VersionRangeTest {
+    private final String[][] CANONICAL_FORMS = {
+            { "1.2.3", "1.2.3" },
+            { "=1.2.3", "1.2.3" },
+            { "v1.2.3", "1.2.3" },
+            { "*", "*" },
+            { "", "*" },
+            { "1.x", ">=1.0.0 <2.0.0-0" },
+            { "1.2.*", ">=1.2.0 <1.3.0-0" },
+            { "1", ">=1.0.0 <2.0.0-0" },
+            { ">1.2.3", ">1.2.3" },
+            { ">1.2", ">=1.3.0" },
+            { ">= 1.2", ">=1.2.0" },
+            { "<1.2", "<1.2.0-0" },
+            { "<=1.2", "<1.3.0-0" },
+            { "~1.2.3", ">=1.2.3 <1.3.0-0" },
+            { "~1.2", ">=1.2.0 <1.3.0-0" },
+            { "~1", ">=1.0.0 <2.0.0-0" },
+            { "~1.2.3-beta.2", ">=1.2.3-beta.2 <1.3.0-0" },
+            { "^1.2.3", ">=1.2.3 <2.0.0-0" },
+            { "^0.2.3", ">=0.2.3 <0.3.0-0" },
+            { "^0.0.3", ">=0.0.3 <0.0.4-0" },
+            { "^1.2.x", ">=1.2.0 <2.0.0-0" },
+            { "^0.0.x", ">=0.0.0 <0.1.0-0" },
+            { "^0.x", ">=0.0.0 <1.0.0-0" },
+            { "1.2.3 - 2.3.4", ">=1.2.3 <=2.3.4" },
+            { "1.2 - 2.3", ">=1.2.0 <2.4.0-0" },
+            { ">=1.0.0 <2.0.0-0", ">=1.0.0 <2.0.0-0" },
+            { "1.x || 3.x", ">=1.0.0 <2.0.0-0 || >=3.0.0 <4.0.0-0" },
+            { "1.x || 2.x", ">=1.0.0 <2.0.0-0 || >=2.0.0 <3.0.0-0" },
+            { "1.x || >=2.0.0-0 <3.0.0", ">=1.0.0 <3.0.0" },
+            { "<1.0.0 || >=1.0.0", "*" },
+            { ">2.0.0 <1.0.0", "<0.0.0-0" },
+            { ">*", "<0.0.0-0" },
+            { "^1.2.3 ~1.4", ">=1.4.0 <1.5.0-0" },
+    };
+    
+    private final String[] INVALID_RANGES = {
+            "1.2.3.4", "a.b.c", ">", "1.x.3", "1.2-beta", "1..2", "!1.2.3", "1.2.3 -", ">=1.2.3 <"
+    };
+    
+    @Test
+    public void rangesShouldBeCompiledToCanonicalForm() {
+        for(String[] form : CANONICAL_FORMS) {
+            assertEquals(form[1], VersionRange.parse(form[0]).toString(), form[0]);
+            assertEquals(VersionRange.parse(form[0]), VersionRange.parse(form[1]), form[0]);
+        }
+    }
+    
+    @Test
+    public void invalidRangesShouldThrowException() {
+        assertThrows(SemVerException.class, () -> VersionRange.parse(null));
+        for(String range : INVALID_RANGES) {
+            assertThrows(SemVerException.class, () -> VersionRange.parse(range), range);
+        }
+    }
+    
+    @Test
+    public void rangesShouldMatchVersions() {
+        VersionRange range = VersionRange.parse("^1.2.3 || ~3.0");
+        
+        assertTrue(range.test(SemVer.parse("1.2.3")));
+        assertTrue(range.test(SemVer.parse("1.9.0")));
+        assertTrue(range.test(SemVer.parse("1.9.0-rc.1")));
+        assertTrue(range.test(SemVer.parse("3.0.7")));
+        assertFalse(range.test(SemVer.parse("1.2.3-rc.1")));
+        assertFalse(range.test(SemVer.parse("2.0.0-alpha")));
+        assertFalse(range.test(SemVer.parse("2.5.0")));
+        assertFalse(range.test(SemVer.parse("3.1.0-0")));
+        assertFalse(range.test(SemVer.parse("0.1.0")));
+    }
+    
+    @Test
+    public void intersectionShouldMatchBothRanges() {
+        VersionRange a = VersionRange.parse("^1.2.0 || ^3.0.0");
+        VersionRange b = VersionRange.parse(">=1.5.0 <3.2.0");
+        
+        assertEquals(">=1.5.0 <2.0.0-0 || >=3.0.0 <3.2.0", a.intersect(b).toString());
+        assertTrue(a.intersect(VersionRange.parse("4.x")).isEmpty());
+        assertEquals(a, a.intersect(VersionRange.all()));
+        assertTrue(a.intersect(VersionRange.none()).isEmpty());
+    }
+    
+    @Test
+    public void unionShouldMatchEitherRange() {
+        VersionRange a = VersionRange.between(SemVer.of(1, 0, 0), SemVer.of(2, 0, 0));
+        VersionRange b = VersionRange.atLeast(SemVer.of(2, 0, 0));
+        
+        assertEquals(">=1.0.0", a.union(b).toString());
+        assertEquals(">=1.0.0 <2.0.0 || >2.0.0", a.union(VersionRange.greaterThan(SemVer.of(2, 0, 0))).toString());
+        assertTrue(a.union(VersionRange.lessThan(SemVer.of(1, 5, 0))).union(b).isAll());
+    }
+    
+    @Test
+    public void compiledRangesShouldAgreeWithTheirDefinition() {
+        Random random = new Random(7);
+        VersionRange caret = VersionRange.parse("^1.2.3");
+        VersionRange either = caret.union(VersionRange.parse("~2.4"));
+        VersionRange both = caret.intersect(VersionRange.parse("<1.5.0 || >1.7.0"));
+        
+        for(int i = 0; i < 10000; i++) {
+            SemVer v = SemVer.of(random.nextInt(4), random.nextInt(10), random.nextInt(5));
+            if(random.nextBoolean()) v = SemVer.of(v.getMajor(), v.getMinor(), v.getPatch(), "rc", random.nextInt(3));
+            
+            boolean inCaret = v.compareTo(SemVer.of(1, 2, 3)) >= 0 && v.compareTo(SemVer.parse("2.0.0-0")) < 0;
+            boolean inTilde = v.compareTo(SemVer.of(2, 4, 0)) >= 0 && v.compareTo(SemVer.parse("2.5.0-0")) < 0;
+            boolean inHoles = v.compareTo(SemVer.of(1, 5, 0)) < 0 || v.compareTo(SemVer.of(1, 7, 0)) > 0;
+            
+            assertEquals(inCaret, caret.test(v), v.toString());
+            assertEquals(inCaret || inTilde, either.test(v), v.toString());
+            assertEquals(inCaret && inHoles, both.test(v), v.toString());
+        }
+    }
+}
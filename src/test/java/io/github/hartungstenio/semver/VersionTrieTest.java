@@ -0,0 +1,174 @@
+package io.github.hartungstenio.semver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class VersionTrieTest {
+    @Test
+    public void findShouldListMatchesNewestFirst() {
+        VersionTrie trie = new VersionTrie();
+        trie.addAll(versions("1.4.0-rc.1", "1.4.0", "1.4.2-rc", "1.4.2-rc.1", "1.4.2-rc.2", "1.4.2-rc1", "1.4.2", "1.4.12", "1.40.0", "2.0.0"));
+        
+        assertEquals(versions("1.4.12", "1.4.2", "1.4.2-rc1", "1.4.2-rc.2", "1.4.2-rc.1", "1.4.2-rc", "1.4.0", "1.4.0-rc.1"), trie.find("1.4"));
+        assertEquals(trie.find("1.4"), trie.find("1.4.x"));
+        assertEquals(trie.find("1.4"), trie.find("v1.4.*"));
+        assertEquals(versions("1.4.2-rc.2", "1.4.2-rc.1", "1.4.2-rc"), trie.find("1.4.2-rc"));
+        assertEquals(versions("1.4.2-rc.2"), trie.find("1.4.2-rc.2"));
+        assertEquals(versions("2.0.0", "1.40.0", "1.4.12"), trie.find("", 3));
+        assertEquals(versions("2.0.0", "1.40.0"), trie.find("X", 2));
+        assertEquals(Collections.emptyList(), trie.find("1.4", 0));
+        assertEquals(Collections.emptyList(), trie.find("3"));
+        assertEquals(Collections.emptyList(), trie.find("1.4.2-beta"));
+    }
+    
+    @Test
+    public void aggregatesShouldFollowThePartialVersion() {
+        VersionTrie trie = new VersionTrie();
+        assertTrue(trie.isEmpty());
+        assertNull(trie.latest(""));
+        
+        trie.addAll(versions("1.3.9", "1.4.0-rc.1", "1.4.0", "1.4.1", "1.5.0-beta", "2.0.0-rc.1"));
+        
+        assertEquals(6, trie.size());
+        assertEquals(SemVer.parse("2.0.0-rc.1"), trie.latest("*"));
+        assertEquals(SemVer.parse("1.4.1"), trie.latestStable(""));
+        assertEquals(SemVer.parse("1.5.0-beta"), trie.latest("1"));
+        assertEquals(SemVer.parse("1.4.1"), trie.latestStable("1"));
+        assertEquals(SemVer.parse("1.4.0-rc.1"), trie.earliest("1.4"));
+        assertNull(trie.latestStable("2"));
+        assertEquals(5, trie.count("1"));
+        assertEquals(3, trie.count("1.4"));
+        assertEquals(0, trie.count("7.x"));
+    }
+    
+    @Test
+    public void buildVariantsShouldAllBeKept() {
+        VersionTrie trie = new VersionTrie();
+        
+        assertTrue(trie.add(SemVer.parse("1.0.0+a")));
+        assertTrue(trie.add(SemVer.parse("1.0.0+b")));
+        assertFalse(trie.add(SemVer.parse("1.0.0+a")));
+        
+        assertEquals(2, trie.size());
+        assertEquals("1.0.0+b", trie.latest("1.0.0").toString());
+        assertEquals("1.0.0+a", trie.earliest("1.0.0").toString());
+        assertEquals(Arrays.asList("1.0.0+b", "1.0.0+a"), strings(trie.find("1")));
+        assertTrue(trie.contains(SemVer.parse("1.0.0+b")));
+        assertFalse(trie.contains(SemVer.parse("1.0.0")));
+        assertFalse(trie.contains(SemVer.parse("1.0.0-rc+a")));
+    }
+    
+    @Test
+    public void invalidPartialVersionsShouldBeRejected() {
+        VersionTrie trie = new VersionTrie();
+        trie.add(SemVer.parse("1.2.3"));
+        
+        for(String partial : new String[] { "v", "a", "1.", "1..2", "1.x.3", "1.2.3.4", "1.2-rc", "1.x.x-rc", "1.2.3-", "1.2.3-rc..1", "1.2.3-r_c", "1.2.3+build", "-1", "12345678901" }) {
+            assertThrows(SemVerException.class, () -> trie.find(partial), partial);
+            assertThrows(SemVerException.class, () -> trie.latest(partial), partial);
+        }
+        assertThrows(IllegalArgumentException.class, () -> trie.find("1", -1));
+        assertThrows(NullPointerException.class, () -> trie.add(null));
+    }
+    
+    @Test
+    public void randomTrieShouldMatchScan() {
+        Random random = new Random(24);
+        List<SemVer> added = new ArrayList<>();
+        VersionTrie trie = new VersionTrie();
+        List<SemVer> versions = TestVersions.randomVersions(random, 3000, 3, 5, 12);
+        for(int i = 0; i < versions.size(); i++) {
+            SemVer version = versions.get(i);
+            assertEquals(!added.contains(version), trie.add(version));
+            if(!added.contains(version)) added.add(version);
+            
+            if(i % 100 == 99) {
+                for(int q = 0; q < 50; q++) {
+                    String partial = randomPartial(random);
+                    List<SemVer> expected = scan(added, partial);
+                    
+                    assertEquals(strings(expected), strings(trie.find(partial)), partial);
+                    assertEquals(strings(expected.subList(0, Math.min(5, expected.size()))), strings(trie.find(partial, 5)), partial);
+                    assertEquals(expected.size(), trie.count(partial), partial);
+                    assertEquals(expected.isEmpty() ? null : expected.get(0), trie.latest(partial), partial);
+                    assertEquals(expected.isEmpty() ? null : expected.get(expected.size() - 1), trie.earliest(partial), partial);
+                    assertEquals(expected.stream().filter(v -> !v.isPreRelease()).findFirst().orElse(null), trie.latestStable(partial), partial);
+                }
+            }
+        }
+        
+        assertEquals(added.size(), trie.size());
+        for(SemVer version : added) {
+            assertTrue(trie.contains(version), version.toString());
+        }
+    }
+    
+    /**
+     * Lists the versions that start with the components of a partial version, newest
+     * first, and the last added first among equivalent ones.
+     */
+    private static List<SemVer> scan(final List<SemVer> versions, final String partial) {
+        final String[] parts = partial.split("-", 2);
+        final List<String> numbers = new ArrayList<>(Arrays.asList(parts[0].split("\\.")));
+        numbers.removeIf(n -> n.isEmpty() || n.equals("x") || n.equals("*"));
+        final List<String> tags = parts.length > 1 ? Arrays.asList(parts[1].split("\\.")) : Collections.<String>emptyList();
+        
+        final List<SemVer> result = new ArrayList<>();
+        for(SemVer version : versions) {
+            final int[] core = { version.getMajor(), version.getMinor(), version.getPatch() };
+            boolean matches = version.getPreRelease().size() >= tags.size();
+            for(int i = 0; i < numbers.size(); i++) {
+                matches &= core[i] == Integer.parseInt(numbers.get(i));
+            }
+            for(int i = 0; i < tags.size() && matches; i++) {
+                matches = version.getPreRelease().get(i).compareTo(Identifier.of(tags.get(i))) == 0;
+            }
+            if(matches) result.add(version);
+        }
+        
+        // stable, so equivalent versions keep their order before being reversed
+        result.sort(null);
+        Collections.reverse(result);
+        return result;
+    }
+    
+    private static String randomPartial(final Random random) {
+        switch(random.nextInt(6)) {
+        case 0: return "";
+        case 1: return Integer.toString(random.nextInt(4));
+        case 2: return random.nextInt(4) + ".x";
+        case 3: return random.nextInt(3) + "." + random.nextInt(6);
+        case 4: return random.nextInt(3) + "." + random.nextInt(5) + "." + random.nextInt(12);
+        default: return random.nextInt(3) + "." + random.nextInt(5) + "." + random.nextInt(12) + "-" + TestVersions.TAGS[random.nextInt(TestVersions.TAGS.length)];
+        }
+    }
+    
+    private static List<SemVer> versions(final String... texts) {
+        final List<SemVer> result = new ArrayList<>();
+        for(String text : texts) {
+            result.add(SemVer.parse(text));
+        }
+        
+        return result;
+    }
+    
+    private static List<String> strings(final List<SemVer> versions) {
+        final List<String> result = new ArrayList<>();
+        for(SemVer version : versions) {
+            result.add(version.toString());
+        }
+        
+        return result;
+    }
+}